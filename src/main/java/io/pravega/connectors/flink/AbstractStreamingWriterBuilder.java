@@ -37,11 +37,21 @@ public abstract class AbstractStreamingWriterBuilder<T, B extends AbstractStream
     public PravegaWriterMode writerMode;
     public boolean enableWatermark;
     public Time txnLeaseRenewalPeriod;
+    public int maxInFlightEvents;
+    public long maxInFlightBytes;
+    public long maxBatchBytes;
+    public Time maxBatchDelay;
+    public int transactionPoolSize;
 
     protected AbstractStreamingWriterBuilder() {
         writerMode = PravegaWriterMode.ATLEAST_ONCE;
         enableWatermark = false;
         txnLeaseRenewalPeriod = Time.milliseconds(DEFAULT_TXN_LEASE_RENEWAL_PERIOD_MILLIS);
+        maxInFlightEvents = Integer.MAX_VALUE;
+        maxInFlightBytes = Long.MAX_VALUE;
+        maxBatchBytes = 0;
+        maxBatchDelay = Time.milliseconds(0);
+        transactionPoolSize = 0;
     }
 
     /**
@@ -83,6 +93,75 @@ public abstract class AbstractStreamingWriterBuilder<T, B extends AbstractStream
         return builder();
     }
 
+    /**
+     * Sets the maximum number of events which are written but not acknowledged by Pravega yet (unbounded by default).
+     *
+     * When the limit is reached, the writer blocks until acknowledgments free capacity, which backpressures
+     * the job instead of buffering the events in the Pravega client. Only applies to the {@code BEST_EFFORT}
+     * and {@code ATLEAST_ONCE} writer modes.
+     *
+     * @param maxInFlightEvents the maximum number of events in flight.
+     * @return A builder to configure and create a streaming writer.
+     */
+    public B withMaxInFlightEvents(int maxInFlightEvents) {
+        Preconditions.checkArgument(maxInFlightEvents > 0, "maxInFlightEvents must be > 0");
+        this.maxInFlightEvents = maxInFlightEvents;
+        return builder();
+    }
+
+    /**
+     * Sets the maximum serialized size of the events which are written but not acknowledged by Pravega yet
+     * (unbounded by default).
+     *
+     * When the limit is reached, the writer blocks until acknowledgments free capacity. Only applies to
+     * the {@code BEST_EFFORT} and {@code ATLEAST_ONCE} writer modes.
+     *
+     * @param maxInFlightBytes the maximum number of bytes in flight.
+     * @return A builder to configure and create a streaming writer.
+     */
+    public B withMaxInFlightBytes(long maxInFlightBytes) {
+        Preconditions.checkArgument(maxInFlightBytes > 0, "maxInFlightBytes must be > 0");
+        this.maxInFlightBytes = maxInFlightBytes;
+        return builder();
+    }
+
+    /**
+     * Enables event batching, which packs the events sharing a routing key into a single Pravega event
+     * (disabled by default).
+     *
+     * An event batch is written once it reaches {@code maxBatchBytes} bytes, once its first event waited for
+     * {@code maxBatchDelay}, and before every checkpoint. This saves the per-event overhead of Pravega for
+     * small events, at the cost of latency. The streams must be read with event batching enabled on the
+     * reader. Only applies to the {@code BEST_EFFORT} and {@code ATLEAST_ONCE} writer modes, where the
+     * in-flight limits then apply to the event batches.
+     *
+     * @param maxBatchBytes the maximum size of an event batch, at most 8 MB.
+     * @param maxBatchDelay the maximum time an event waits in an event batch.
+     * @return A builder to configure and create a streaming writer.
+     */
+    public B withEventBatching(long maxBatchBytes, Time maxBatchDelay) {
+        Preconditions.checkArgument(maxBatchBytes > 0, "maxBatchBytes must be > 0");
+        Preconditions.checkArgument(maxBatchDelay.toMilliseconds() > 0, "maxBatchDelay must be > 0");
+        this.maxBatchBytes = maxBatchBytes;
+        this.maxBatchDelay = maxBatchDelay;
+        return builder();
+    }
+
+    /**
+     * Sets the number of transactions which are opened ahead of time in the background (0 by default).
+     *
+     * The writer then takes the transaction of the next checkpoint from the pool instead of waiting for
+     * the controller to begin it. Only applies to the {@code EXACTLY_ONCE} writer mode.
+     *
+     * @param transactionPoolSize the number of transactions opened ahead of time, 0 to open them on demand.
+     * @return A builder to configure and create a streaming writer.
+     */
+    public B withTransactionPoolSize(int transactionPoolSize) {
+        Preconditions.checkArgument(transactionPoolSize >= 0, "transactionPoolSize must be >= 0");
+        this.transactionPoolSize = transactionPoolSize;
+        return builder();
+    }
+
     /**
      * Creates the sink function for the current builder state.
      *
@@ -100,6 +179,11 @@ public abstract class AbstractStreamingWriterBuilder<T, B extends AbstractStream
                 writerMode,
                 txnLeaseRenewalPeriod.toMilliseconds(),
                 enableWatermark,
-                isMetricsEnabled());
+                isMetricsEnabled(),
+                maxInFlightEvents,
+                maxInFlightBytes,
+                maxBatchBytes,
+                maxBatchDelay.toMilliseconds(),
+                transactionPoolSize);
     }
 }
@@ -21,13 +21,18 @@ import io.pravega.client.ClientConfig;
 import io.pravega.client.batch.SegmentIterator;
 import io.pravega.client.batch.SegmentRange;
 import io.pravega.client.stream.Serializer;
+import io.pravega.client.stream.StreamCut;
+import io.pravega.client.stream.impl.ByteBufferSerializer;
 import io.pravega.connectors.flink.serialization.DeserializerFromSchemaRegistry;
+import io.pravega.connectors.flink.serialization.EventBatchDeserializationSchema;
 import io.pravega.connectors.flink.serialization.PravegaDeserializationSchema;
 import io.pravega.connectors.flink.serialization.WrappingSerializer;
 import io.pravega.connectors.flink.util.FlinkPravegaUtils;
+import io.pravega.connectors.flink.util.PrefetchingSegmentIterator;
+import io.pravega.connectors.flink.util.StreamStatistics;
 import io.pravega.connectors.flink.util.StreamWithBoundaries;
 import org.apache.flink.annotation.VisibleForTesting;
-import org.apache.flink.api.common.io.DefaultInputSplitAssigner;
+import org.apache.flink.api.common.functions.util.ListCollector;
 import org.apache.flink.api.common.io.InputFormat;
 import org.apache.flink.api.common.io.RichInputFormat;
 import org.apache.flink.api.common.io.statistics.BaseStatistics;
@@ -39,7 +44,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 
@@ -53,6 +61,9 @@ public class FlinkPravegaInputFormat<T> extends RichInputFormat<T, PravegaInputS
 
     private static final String DEFAULT_CLIENT_SCOPE_NAME = "__NOT_USED";
 
+    // The number of events read to estimate the average event size for the statistics.
+    private static final int STATISTICS_SAMPLED_EVENTS = 100;
+
     // The Pravega client configuration.
     private final ClientConfig clientConfig;
 
@@ -65,12 +76,40 @@ public class FlinkPravegaInputFormat<T> extends RichInputFormat<T, PravegaInputS
     // The supplied event deserializer.
     private final DeserializationSchema<T> deserializationSchema;
 
+    // The size in bytes the small segment ranges are coalesced up to, 0 for one input split per segment range.
+    private final long targetSplitSize;
+
+    // The maximum number of events read ahead of time in the background, 0 if the events are read on demand.
+    private final int readAheadEvents;
+
+    // The maximum number of records read by each parallel instance, Long.MAX_VALUE for no limit.
+    private final long limit;
+
     // The batch client factory implementation used to read Pravega segments; this instance is reused for all segments read by this input format.
     private transient BatchClientFactory batchClientFactory;
 
     // The iterator for the currently read input split (i.e. a Pravega segment).
     private transient SegmentIterator<T> segmentIterator;
 
+    // The next record of the current input split, read ahead so that the events deserialized to null are skipped.
+    private transient T nextEvent;
+
+    // The iterator for the currently read input split, when the events are read as event batches.
+    private transient SegmentIterator<ByteBuffer> eventBatchIterator;
+
+    // The records of the current event batch, and the index of the next record to return.
+    private transient List<T> eventBatchRecords;
+    private transient int nextEventBatchRecord;
+
+    // The adapter between Pravega's serializers and Flink's serializers for the current input split.
+    private transient Serializer<T> deserializer;
+
+    // The segment ranges of the current input split which are not read yet.
+    private transient Deque<SegmentRange> pendingSegmentRanges;
+
+    // The number of records read by this parallel instance across all its input splits.
+    private transient long readRecords;
+
     /**
      * Creates a new Flink Pravega {@link InputFormat} which can be added as a source to a Flink batch job.
      *
@@ -82,10 +121,80 @@ public class FlinkPravegaInputFormat<T> extends RichInputFormat<T, PravegaInputS
             ClientConfig clientConfig,
             List<StreamWithBoundaries> streams,
             DeserializationSchema<T> deserializationSchema) {
+        this(clientConfig, streams, deserializationSchema, 0);
+    }
+
+    /**
+     * Creates a new Flink Pravega {@link InputFormat} which can be added as a source to a Flink batch job,
+     * and which coalesces the small segment ranges into input splits of about the given size.
+     *
+     * @param clientConfig          The pravega client configuration.
+     * @param streams               The list of streams to read events from.
+     * @param deserializationSchema The implementation to deserialize events from pravega streams.
+     * @param targetSplitSize       The size in bytes the small segment ranges are coalesced up to,
+     *                              0 for one input split per segment range.
+     */
+    public FlinkPravegaInputFormat(
+            ClientConfig clientConfig,
+            List<StreamWithBoundaries> streams,
+            DeserializationSchema<T> deserializationSchema,
+            long targetSplitSize) {
+        this(clientConfig, streams, deserializationSchema, targetSplitSize, 0);
+    }
+
+    /**
+     * Creates a new Flink Pravega {@link InputFormat} which can be added as a source to a Flink batch job,
+     * which coalesces the small segment ranges into input splits of about the given size, and which
+     * optionally reads the events ahead of time in the background.
+     *
+     * @param clientConfig          The pravega client configuration.
+     * @param streams               The list of streams to read events from.
+     * @param deserializationSchema The implementation to deserialize events from pravega streams.
+     * @param targetSplitSize       The size in bytes the small segment ranges are coalesced up to,
+     *                              0 for one input split per segment range.
+     * @param readAheadEvents       The maximum number of events read ahead of time, 0 to read them on demand.
+     */
+    public FlinkPravegaInputFormat(
+            ClientConfig clientConfig,
+            List<StreamWithBoundaries> streams,
+            DeserializationSchema<T> deserializationSchema,
+            long targetSplitSize,
+            int readAheadEvents) {
+        this(clientConfig, streams, deserializationSchema, targetSplitSize, readAheadEvents, Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a new Flink Pravega {@link InputFormat} which can be added as a source to a Flink batch job,
+     * which coalesces the small segment ranges into input splits of about the given size, which
+     * optionally reads the events ahead of time in the background, and which stops reading once
+     * a parallel instance has read the given number of records.
+     *
+     * @param clientConfig          The pravega client configuration.
+     * @param streams               The list of streams to read events from.
+     * @param deserializationSchema The implementation to deserialize events from pravega streams.
+     * @param targetSplitSize       The size in bytes the small segment ranges are coalesced up to,
+     *                              0 for one input split per segment range.
+     * @param readAheadEvents       The maximum number of events read ahead of time, 0 to read them on demand.
+     * @param limit                 The maximum number of records read by each parallel instance,
+     *                              Long.MAX_VALUE for no limit.
+     */
+    public FlinkPravegaInputFormat(
+            ClientConfig clientConfig,
+            List<StreamWithBoundaries> streams,
+            DeserializationSchema<T> deserializationSchema,
+            long targetSplitSize,
+            int readAheadEvents,
+            long limit) {
+        Preconditions.checkArgument(limit >= 0, "limit must be >= 0");
+        Preconditions.checkArgument(readAheadEvents >= 0, "readAheadEvents must be >= 0");
+        Preconditions.checkArgument(targetSplitSize >= 0, "targetSplitSize must be >= 0");
         this.clientConfig = Preconditions.checkNotNull(clientConfig, "clientConfig");
         this.clientScope = DEFAULT_CLIENT_SCOPE_NAME;
         this.streams = Preconditions.checkNotNull(streams, "streams");
         this.deserializationSchema = Preconditions.checkNotNull(deserializationSchema, "deserializationSchema");
+        this.targetSplitSize = targetSplitSize;
+        this.readAheadEvents = readAheadEvents;
+        this.limit = limit;
     }
 
     // ------------------------------------------------------------------------
@@ -96,6 +205,7 @@ public class FlinkPravegaInputFormat<T> extends RichInputFormat<T, PravegaInputS
     public void openInputFormat() throws IOException {
         super.openInputFormat();
         this.batchClientFactory = getBatchClientFactory(clientScope, clientConfig);
+        this.readRecords = 0;
     }
 
     @VisibleForTesting
@@ -118,13 +228,36 @@ public class FlinkPravegaInputFormat<T> extends RichInputFormat<T, PravegaInputS
 
     @Override
     public BaseStatistics getStatistics(BaseStatistics cachedStatistics) throws IOException {
-        // no statistics available, by default.
-        return cachedStatistics;
+        if (cachedStatistics instanceof PravegaInputStatistics && isBounded()) {
+            // the streams do not grow between the stream cuts
+            return cachedStatistics;
+        }
+
+        // getStatistics() is called by the optimizer, so a short-living connection is established like in createInputSplits()
+        try (
+                BatchClientFactory batchClientFactory = getBatchClientFactory(clientScope, clientConfig)
+            ) {
+            StreamStatistics statistics = StreamStatistics.compute(batchClientFactory, streams, STATISTICS_SAMPLED_EVENTS);
+            LOG.info("Computed the statistics of the input streams: {}", statistics);
+            return new PravegaInputStatistics(statistics);
+        } catch (Exception e) {
+            LOG.warn("Failed to compute the statistics of the input streams", e);
+            return cachedStatistics;
+        }
+    }
+
+    private boolean isBounded() {
+        for (StreamWithBoundaries stream : streams) {
+            if (StreamCut.UNBOUNDED.equals(stream.getTo())) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public PravegaInputSplit[] createInputSplits(int minNumSplits) throws IOException {
-        List<PravegaInputSplit> splits = new ArrayList<>();
+        List<SegmentRange> segmentRanges = new ArrayList<>();
 
         // createInputSplits() is called in the JM, so we have to establish separate
         // short-living connections to Pravega here to retrieve the segments list
@@ -136,18 +269,58 @@ public class FlinkPravegaInputFormat<T> extends RichInputFormat<T, PravegaInputS
                 Iterator<SegmentRange> segmentRangeIterator =
                         batchClientFactory.getSegments(stream.getStream(), stream.getFrom(), stream.getTo()).getIterator();
                 while (segmentRangeIterator.hasNext()) {
-                    splits.add(new PravegaInputSplit(splits.size(), segmentRangeIterator.next()));
+                    segmentRanges.add(segmentRangeIterator.next());
                 }
             }
         }
 
-        LOG.info("Prepared {} input splits", splits.size());
+        List<PravegaInputSplit> splits = planInputSplits(segmentRanges, targetSplitSize);
+        LOG.info("Prepared {} input splits from {} segment ranges", splits.size(), segmentRanges.size());
         return splits.toArray(new PravegaInputSplit[splits.size()]);
     }
 
+    /**
+     * Groups the segment ranges into input splits. A segment range of at least the target split size is an
+     * input split on its own, and the smaller ones are coalesced in their order until the input split reaches
+     * the target split size. <p>
+     *
+     * A segment range is never divided, as the Pravega batch API can only start reading a segment at an
+     * event boundary, which is not known without reading the segment.
+     *
+     * @param segmentRanges   the segment ranges to read.
+     * @param targetSplitSize the size in bytes the small segment ranges are coalesced up to,
+     *                        0 for one input split per segment range.
+     * @return the input splits.
+     */
+    @VisibleForTesting
+    static List<PravegaInputSplit> planInputSplits(List<SegmentRange> segmentRanges, long targetSplitSize) {
+        List<PravegaInputSplit> splits = new ArrayList<>();
+        List<SegmentRange> coalesced = new ArrayList<>();
+        long coalescedSize = 0;
+        for (SegmentRange segmentRange : segmentRanges) {
+            long size = segmentRange.getEndOffset() - segmentRange.getStartOffset();
+            if (size >= targetSplitSize) {
+                splits.add(new PravegaInputSplit(splits.size(), segmentRange));
+                continue;
+            }
+            coalesced.add(segmentRange);
+            coalescedSize += size;
+            if (coalescedSize >= targetSplitSize) {
+                splits.add(new PravegaInputSplit(splits.size(), coalesced));
+                coalesced.clear();
+                coalescedSize = 0;
+            }
+        }
+        if (!coalesced.isEmpty()) {
+            splits.add(new PravegaInputSplit(splits.size(), coalesced));
+        }
+        return splits;
+    }
+
     @Override
     public InputSplitAssigner getInputSplitAssigner(PravegaInputSplit[] inputSplits) {
-        return new DefaultInputSplitAssigner(inputSplits);
+        // the largest input splits are read first, so that a large segment does not delay the end of the job
+        return new PravegaInputSplitAssigner(inputSplits);
     }
 
     // ------------------------------------------------------------------------
@@ -156,24 +329,115 @@ public class FlinkPravegaInputFormat<T> extends RichInputFormat<T, PravegaInputS
 
     @Override
     public void open(PravegaInputSplit split) throws IOException {
+        if (this.readRecords >= this.limit) {
+            // the limit was reached on a previous input split, so this one is not read at all
+            this.segmentIterator = null;
+            this.eventBatchIterator = null;
+            return;
+        }
+
+        // the first segment range is read right away, the others once the previous one is read to its end
+        this.pendingSegmentRanges = new ArrayDeque<>(split.getSegmentRanges());
+        this.pendingSegmentRanges.poll();
+        this.nextEvent = null;
+
+        if (deserializationSchema instanceof EventBatchDeserializationSchema) {
+            // read the raw events and unpack the event batches in nextRecord()
+            this.eventBatchIterator = readSegmentRanges(split, new ByteBufferSerializer());
+            this.eventBatchRecords = new ArrayList<>();
+            this.nextEventBatchRecord = 0;
+            return;
+        }
+
         // create the adapter between Pravega's serializers and Flink's serializers
         @SuppressWarnings("unchecked")
         final Serializer<T> deserializer = deserializationSchema instanceof WrappingSerializer
                 ? ((WrappingSerializer<T>) deserializationSchema).getWrappedSerializer()
                 : new FlinkPravegaUtils.FlinkDeserializer<>(deserializationSchema);
+        this.deserializer = deserializer;
 
         // build a new iterator for each input split.  Note that the endOffset parameter is not used by the Batch API at the moment.
-        this.segmentIterator = batchClientFactory.readSegment(split.getSegmentRange(), deserializer);
+        this.segmentIterator = readSegmentRanges(split, deserializer);
+    }
+
+    private <E> SegmentIterator<E> readSegmentRanges(PravegaInputSplit split, Serializer<E> serializer) {
+        if (readAheadEvents > 0) {
+            // all the segment ranges of the input split are read in the background
+            this.pendingSegmentRanges.clear();
+            return new PrefetchingSegmentIterator<>(split.getSegmentRanges(),
+                    segmentRange -> batchClientFactory.readSegment(segmentRange, serializer), readAheadEvents);
+        }
+        return batchClientFactory.readSegment(split.getSegmentRange(), serializer);
     }
 
     @Override
     public boolean reachedEnd() throws IOException {
-        return !this.segmentIterator.hasNext();
+        if (this.readRecords >= this.limit) {
+            // the outstanding segment reads are stopped when the input split is closed
+            return true;
+        }
+        return this.eventBatchIterator != null ? !hasNextEventBatchRecord() : !hasNextEvent();
+    }
+
+    private boolean hasNextEventBatchRecord() throws IOException {
+        while (this.nextEventBatchRecord == this.eventBatchRecords.size()) {
+            if (!this.eventBatchIterator.hasNext()) {
+                if (!openNextSegmentRange()) {
+                    return false;
+                }
+                continue;
+            }
+            this.eventBatchRecords.clear();
+            this.nextEventBatchRecord = 0;
+            ((EventBatchDeserializationSchema<T>) deserializationSchema).deserialize(
+                    this.eventBatchIterator.next(), new ListCollector<>(this.eventBatchRecords));
+        }
+        return true;
+    }
+
+    private boolean hasNextEvent() {
+        // a null record (e.g. an event dropped by the deserializer or rejected by a filter) would end the input split
+        while (this.nextEvent == null) {
+            if (!this.segmentIterator.hasNext()) {
+                if (!openNextSegmentRange()) {
+                    return false;
+                }
+                continue;
+            }
+            this.nextEvent = this.segmentIterator.next();
+        }
+        return true;
+    }
+
+    /**
+     * Moves to the next segment range of the current input split, if any.
+     *
+     * @return false if all the segment ranges of the input split were read.
+     */
+    private boolean openNextSegmentRange() {
+        final SegmentRange segmentRange = this.pendingSegmentRanges.poll();
+        if (segmentRange == null) {
+            return false;
+        }
+        if (this.eventBatchIterator != null) {
+            this.eventBatchIterator.close();
+            this.eventBatchIterator = batchClientFactory.readSegment(segmentRange, new ByteBufferSerializer());
+        } else {
+            this.segmentIterator.close();
+            this.segmentIterator = batchClientFactory.readSegment(segmentRange, deserializer);
+        }
+        return true;
     }
 
     @Override
     public T nextRecord(T t) throws IOException {
-        return this.segmentIterator.next();
+        this.readRecords++;
+        if (this.eventBatchIterator != null) {
+            return this.eventBatchRecords.get(this.nextEventBatchRecord++);
+        }
+        final T record = this.nextEvent;
+        this.nextEvent = null;
+        return record;
     }
 
     @Override
@@ -181,6 +445,40 @@ public class FlinkPravegaInputFormat<T> extends RichInputFormat<T, PravegaInputS
         if (this.segmentIterator != null) {
             this.segmentIterator.close();
         }
+        if (this.eventBatchIterator != null) {
+            this.eventBatchIterator.close();
+        }
+    }
+
+    /**
+     * The {@link BaseStatistics} of the input streams, with the number of records estimated from the
+     * average size of the first events.
+     */
+    @VisibleForTesting
+    static class PravegaInputStatistics implements BaseStatistics {
+
+        private final StreamStatistics statistics;
+
+        PravegaInputStatistics(StreamStatistics statistics) {
+            this.statistics = statistics;
+        }
+
+        @Override
+        public long getTotalInputSize() {
+            return statistics.getTotalSize();
+        }
+
+        @Override
+        public long getNumberOfRecords() {
+            final long eventCount = statistics.getEstimatedEventCount();
+            return eventCount == StreamStatistics.UNKNOWN ? NUM_RECORDS_UNKNOWN : eventCount;
+        }
+
+        @Override
+        public float getAverageRecordWidth() {
+            final long averageEventSize = statistics.getAverageEventSize();
+            return averageEventSize == StreamStatistics.UNKNOWN ? AVG_RECORD_BYTES_UNKNOWN : averageEventSize;
+        }
     }
 
     /**
@@ -201,6 +499,10 @@ public class FlinkPravegaInputFormat<T> extends RichInputFormat<T, PravegaInputS
     public static class Builder<T> extends AbstractReaderBuilder<FlinkPravegaInputFormat.Builder<T>> {
 
         private DeserializationSchema<T> deserializationSchema;
+        private boolean enableEventBatching = false;
+        private long targetSplitSize = 0;
+        private int readAheadEvents = 0;
+        private long limit = Long.MAX_VALUE;
 
         protected Builder<T> builder() {
             return this;
@@ -230,13 +532,69 @@ public class FlinkPravegaInputFormat<T> extends RichInputFormat<T, PravegaInputS
             return builder();
         }
 
+        /**
+         * Enables reading the events written as event batches, see {@code withEventBatching} of the writers.
+         * Every record of an event batch is deserialized with the deserialization schema, and events which
+         * are not batched are read as they are.
+         *
+         * @param enable boolean
+         * @return Builder instance.
+         */
+        public Builder<T> enableEventBatching(boolean enable) {
+            this.enableEventBatching = enable;
+            return builder();
+        }
+
+        /**
+         * Coalesces the segment ranges smaller than the given size into input splits of about that size, so
+         * that many small segments do not cost an input split each (disabled by default). A segment range is
+         * never divided, so the segments larger than the given size are still read by a single input split.
+         *
+         * @param targetSplitSize the target size of the input splits in bytes, 0 for one input split per segment range.
+         * @return Builder instance.
+         */
+        public Builder<T> withTargetSplitSize(long targetSplitSize) {
+            Preconditions.checkArgument(targetSplitSize >= 0, "targetSplitSize must be >= 0");
+            this.targetSplitSize = targetSplitSize;
+            return builder();
+        }
+
+        /**
+         * Reads up to the given number of events of each input split ahead of time in a background thread, so
+         * that the reads from the segment stores overlap with the processing of the events (disabled by default).
+         * The segment ranges of a coalesced input split are read one after the other by the same thread.
+         *
+         * @param readAheadEvents the maximum number of events read ahead of time, 0 to read them on demand.
+         * @return Builder instance.
+         */
+        public Builder<T> withReadAhead(int readAheadEvents) {
+            Preconditions.checkArgument(readAheadEvents >= 0, "readAheadEvents must be >= 0");
+            this.readAheadEvents = readAheadEvents;
+            return builder();
+        }
+
+        /**
+         * Sets the maximum number of records read by each parallel instance, after which the remaining input
+         * splits are skipped (no limit by default). This lets a {@code SELECT ... LIMIT n} query stop early
+         * instead of reading the streams to their end.
+         *
+         * @param limit the maximum number of records per parallel instance.
+         * @return Builder instance.
+         */
+        public Builder<T> withLimit(long limit) {
+            Preconditions.checkArgument(limit >= 0, "limit must be >= 0");
+            this.limit = limit;
+            return builder();
+        }
+
         protected DeserializationSchema<T> getDeserializationSchema() {
             Preconditions.checkState(deserializationSchema != null, "Deserialization schema must not be null.");
-            return deserializationSchema;
+            return enableEventBatching ? new EventBatchDeserializationSchema<>(deserializationSchema) : deserializationSchema;
         }
 
         public FlinkPravegaInputFormat<T> build() {
-            return new FlinkPravegaInputFormat<>(getPravegaConfig().getClientConfig(), resolveStreams(), getDeserializationSchema());
+            return new FlinkPravegaInputFormat<>(getPravegaConfig().getClientConfig(), resolveStreams(),
+                    getDeserializationSchema(), targetSplitSize, readAheadEvents, limit);
         }
     }
 }
@@ -20,14 +20,17 @@ import io.pravega.client.ClientConfig;
 import io.pravega.client.EventStreamClientFactory;
 import io.pravega.client.stream.EventStreamWriter;
 import io.pravega.client.stream.EventWriterConfig;
-import io.pravega.client.stream.Serializer;
 import io.pravega.client.stream.Stream;
 import io.pravega.connectors.flink.serialization.FlinkSerializer;
+import io.pravega.connectors.flink.serialization.SerializationBufferPool;
+import io.pravega.connectors.flink.util.ClientFactoryCache;
+import io.pravega.connectors.flink.util.PendingWritesTracker;
 import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.api.common.io.OutputFormat;
 import org.apache.flink.api.common.io.RichOutputFormat;
 import org.apache.flink.api.common.serialization.SerializationSchema;
 import org.apache.flink.configuration.Configuration;
+import org.apache.flink.core.memory.DataOutputSerializer;
 import org.apache.flink.util.ExceptionUtils;
 import org.apache.flink.util.Preconditions;
 import org.slf4j.Logger;
@@ -35,9 +38,6 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -70,13 +70,14 @@ public class FlinkPravegaOutputFormat<T> extends RichOutputFormat<T> {
     // Pravega event writer instance.
     private transient EventStreamWriter<T> pravegaWriter;
 
+    // The serializer of the Pravega writer, which serializes the events into pooled buffers if the schema supports it.
+    private transient FlinkSerializer<T> eventSerializer;
+
     // Error which will be detected asynchronously and reported to Flink.
     private final AtomicReference<Throwable> writeError;
 
     // Used to track confirmation from all writes to ensure guaranteed writes upon close.
-    private final AtomicInteger pendingWritesCount;
-
-    private transient ExecutorService executorService;
+    private final PendingWritesTracker pendingWrites;
 
     /**
      * Creates a new Flink Pravega {@link OutputFormat} which can be added as a sink to a Flink batch job.
@@ -98,7 +99,7 @@ public class FlinkPravegaOutputFormat<T> extends RichOutputFormat<T> {
         this.serializationSchema = Preconditions.checkNotNull(serializationSchema, "serializationSchema");
         this.eventRouter = eventRouter;
         this.writeError = new AtomicReference<>(null);
-        this.pendingWritesCount = new AtomicInteger(0);
+        this.pendingWrites = new PendingWritesTracker();
     }
 
 
@@ -109,24 +110,24 @@ public class FlinkPravegaOutputFormat<T> extends RichOutputFormat<T> {
 
     @Override
     public void open(int taskNumber, int numTasks) throws IOException {
-        Serializer<T> eventSerializer = new FlinkSerializer<>(serializationSchema);
+        eventSerializer = new FlinkSerializer<>(serializationSchema, new SerializationBufferPool());
         EventWriterConfig writerConfig = EventWriterConfig.builder().build();
         clientFactory = createClientFactory(scope, clientConfig);
         pravegaWriter = clientFactory.createEventWriter(stream, eventSerializer, writerConfig);
-        this.executorService = createExecutorService();
     }
 
     @Override
     public void writeRecord(T record) throws IOException {
         checkWriteError();
-        this.pendingWritesCount.incrementAndGet();
         final CompletableFuture<Void> future;
         if (eventRouter != null) {
             future = pravegaWriter.writeEvent(eventRouter.getRoutingKey(record), record);
         } else {
             future = pravegaWriter.writeEvent(record);
         }
-        future.whenCompleteAsync(
+        final DataOutputSerializer serializationBuffer = eventSerializer.takeLastBuffer();
+        this.pendingWrites.register(0);
+        future.whenComplete(
                 (result, e) -> {
                     if (e != null) {
                         LOG.warn("Detected a write failure: {}", e);
@@ -135,12 +136,9 @@ public class FlinkPravegaOutputFormat<T> extends RichOutputFormat<T> {
                         // finding the root cause. Storing all errors will not be feasible.
                         writeError.compareAndSet(null, e);
                     }
-                    synchronized (this) {
-                        pendingWritesCount.decrementAndGet();
-                        this.notify();
-                    }
-                },
-                executorService
+                    eventSerializer.releaseBuffer(serializationBuffer);
+                    pendingWrites.complete(0);
+                }
         );
     }
 
@@ -160,14 +158,6 @@ public class FlinkPravegaOutputFormat<T> extends RichOutputFormat<T> {
             clientFactory.close();
         }
 
-        if (executorService != null) {
-            try {
-                executorService.shutdown();
-            } catch (Exception e) {
-                exception = ExceptionUtils.firstOrSuppressed(e, exception);
-            }
-        }
-
         if (exception != null) {
             throw new IOException("exception occurred while trying to close the writer", exception);
         }
@@ -178,14 +168,10 @@ public class FlinkPravegaOutputFormat<T> extends RichOutputFormat<T> {
         pravegaWriter.flush();
 
         // Wait until all errors, if any, have been recorded.
-        synchronized (this) {
-            while (this.pendingWritesCount.get() > 0) {
-                try {
-                    this.wait();
-                } catch (InterruptedException e) {
-                    throw new IOException("received interrupted exception while waiting for the writes to complete", e);
-                }
-            }
+        try {
+            this.pendingWrites.awaitCompletion();
+        } catch (InterruptedException e) {
+            throw new IOException("received interrupted exception while waiting for the writes to complete", e);
         }
 
         // Verify that no events have been lost so far.
@@ -202,12 +188,7 @@ public class FlinkPravegaOutputFormat<T> extends RichOutputFormat<T> {
 
     @VisibleForTesting
     protected EventStreamClientFactory createClientFactory(String scopeName, ClientConfig clientConfig) {
-        return EventStreamClientFactory.withScope(scopeName, clientConfig);
-    }
-
-    @VisibleForTesting
-    protected ExecutorService createExecutorService() {
-        return Executors.newSingleThreadExecutor();
+        return ClientFactoryCache.getEventStreamClientFactory(scopeName, clientConfig);
     }
 
     @VisibleForTesting
@@ -231,8 +212,8 @@ public class FlinkPravegaOutputFormat<T> extends RichOutputFormat<T> {
     }
 
     @VisibleForTesting
-    protected AtomicInteger getPendingWritesCount() {
-        return pendingWritesCount;
+    protected long getPendingWritesCount() {
+        return pendingWrites.getPendingWrites();
     }
 
     @VisibleForTesting
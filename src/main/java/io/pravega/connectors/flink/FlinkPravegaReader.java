@@ -25,11 +25,15 @@ import io.pravega.client.stream.ReaderConfig;
 import io.pravega.client.stream.ReaderGroup;
 import io.pravega.client.stream.ReaderGroupConfig;
 import io.pravega.client.stream.ReaderGroupNotFoundException;
+import io.pravega.client.stream.ReaderSegmentDistribution;
 import io.pravega.client.stream.Stream;
 import io.pravega.client.stream.TruncatedDataException;
 import io.pravega.connectors.flink.serialization.DeserializerFromSchemaRegistry;
+import io.pravega.connectors.flink.serialization.EventBatchDeserializationSchema;
 import io.pravega.connectors.flink.serialization.PravegaDeserializationSchema;
 import io.pravega.connectors.flink.serialization.PravegaDeserializationSchemaWithMetadata;
+import io.pravega.connectors.flink.util.ClientFactoryCache;
+import io.pravega.connectors.flink.util.FlinkPravegaUtils;
 import io.pravega.connectors.flink.watermark.AssignerWithTimeWindows;
 import org.apache.flink.api.common.ExecutionConfig;
 import org.apache.flink.api.common.functions.RuntimeContext;
@@ -41,8 +45,10 @@ import org.apache.flink.api.java.ClosureCleaner;
 import org.apache.flink.api.java.typeutils.ResultTypeQueryable;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.Histogram;
 import org.apache.flink.metrics.MetricGroup;
 import org.apache.flink.runtime.checkpoint.MasterTriggerRestoreHook;
+import org.apache.flink.runtime.metrics.DescriptiveStatisticsHistogram;
 import org.apache.flink.streaming.api.checkpoint.ExternallyInducedSource;
 import org.apache.flink.streaming.api.datastream.SingleOutputStreamOperator;
 import org.apache.flink.streaming.api.functions.source.RichParallelSourceFunction;
@@ -52,6 +58,7 @@ import org.apache.flink.streaming.runtime.tasks.ProcessingTimeCallback;
 import org.apache.flink.streaming.runtime.tasks.ProcessingTimeService;
 import org.apache.flink.util.ExceptionUtils;
 import org.apache.flink.util.FlinkException;
+import org.apache.flink.util.InstantiationUtil;
 import org.apache.flink.util.Preconditions;
 import org.apache.flink.util.SerializedValue;
 import org.slf4j.Logger;
@@ -60,10 +67,14 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nullable;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-import static io.pravega.connectors.flink.util.FlinkPravegaUtils.byteBufferToArray;
 import static io.pravega.connectors.flink.util.FlinkPravegaUtils.createPravegaReader;
 import static io.pravega.connectors.flink.util.FlinkPravegaUtils.getReaderName;
 
@@ -96,8 +107,18 @@ public class FlinkPravegaReader<T>
 
     protected static final String SEGMENT_POSITIONS_METRICS_GAUGE = "segmentPositions";
 
+    protected static final String EMIT_BATCH_SIZE_METRICS_HISTOGRAM = "emitBatchSize";
+
     protected static final String SEPARATOR = ",";
 
+    // the number of samples kept by the emit batch size histogram
+    private static final int EMIT_BATCH_SIZE_HISTOGRAM_WINDOW_SIZE = 1000;
+
+    // the bounds of the number of events read ahead of the source thread, which is derived from the emit batch size
+    private static final int MIN_READ_AHEAD_CAPACITY = 64;
+
+    private static final int MAX_READ_AHEAD_CAPACITY = 64 * 1024;
+
     private static final Logger LOG = LoggerFactory.getLogger(FlinkPravegaReader.class);
 
     private static final long serialVersionUID = 1L;
@@ -136,18 +157,45 @@ public class FlinkPravegaReader<T>
     // the timeout for reading events from Pravega
     final Time eventReadTimeout;
 
+    // the initial timeout for reading events from Pravega, which is doubled on every empty read up to
+    // the event read timeout and reset on data. null to always read with the event read timeout
+    @Nullable
+    final Time minEventReadTimeout;
+
     // the timeout for call that initiates the Pravega checkpoint
     final Time checkpointInitiateTimeout;
 
     // flag to enable/disable metrics
     final boolean enableMetrics;
 
+    // the maximum number of events drained from Pravega and emitted under one checkpoint lock acquisition
+    final int maxEmitBatchSize;
+
+    // the maximum number of event bytes drained from Pravega and emitted under one checkpoint lock acquisition
+    final long maxEmitBatchBytes;
+
+    // the number of Pravega readers in the reader group which are run by each subtask
+    final int readersPerSubtask;
+
+    // the number of worker threads deserializing the events of each subtask, 0 to deserialize on the source thread
+    final int deserializationParallelism;
+
+    // the time without events after which the subtask is marked as temporarily idle, null to disable idleness detection
+    @Nullable
+    final Time idleTimeout;
+
+    // the maximum number of records emitted by each subtask, Long.MAX_VALUE for no limit
+    final long limit;
+
     // ----- runtime fields -----
 
     // Flag to terminate the source. volatile, because 'stop()' and 'cancel()'
     // may be called asynchronously
     volatile boolean running = true;
 
+    // whether the subtask is marked as temporarily idle. volatile, because it is read by the watermark emitter
+    transient volatile boolean idle;
+
     // checkpoint trigger callback, invoked when a checkpoint event is received.
     // no need to be volatile, the source is driven by only one thread
     private transient CheckpointTrigger checkpointTrigger;
@@ -158,6 +206,21 @@ public class FlinkPravegaReader<T>
     // A collector that emits records in batch (bundle)
     private final PravegaCollector<T> pravegaCollector;
 
+    // the distribution of the number of events emitted per checkpoint lock acquisition
+    private transient Histogram emitBatchSizeHistogram;
+
+    // the copies of the deserialization schema used by the deserialization workers
+    private transient List<DeserializationSchema<T>> workerDeserializationSchemas;
+
+    // the number of records emitted by this subtask, no need to be volatile since only the source thread uses it
+    private transient long emittedRecords;
+
+    // when the segment distribution of the reader group was last fetched by the idleness check, and whether the
+    // readers of this subtask owned no segment at that time. only used by the source thread
+    private transient long lastSegmentDistributionCheckMillis;
+
+    private transient boolean ownsNoSegment;
+
     // ------------------------------------------------------------------------
 
     /**
@@ -188,6 +251,77 @@ public class FlinkPravegaReader<T>
                                  SerializedValue<AssignerWithTimeWindows<T>> assignerWithTimeWindows,
                                  Time eventReadTimeout, Time checkpointInitiateTimeout,
                                  boolean enableMetrics) {
+        this(hookUid, clientConfig, readerGroupConfig, readerGroupScope, readerGroupName, deserializationSchema,
+                assignerWithTimeWindows, eventReadTimeout, checkpointInitiateTimeout, enableMetrics,
+                1, Long.MAX_VALUE, 1, 0, null, null, Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a new Flink Pravega reader instance which can be added as a source to a Flink job.
+     *
+     * <p>Events that are already available in the Pravega reader are drained into batches of up to
+     * {@code maxEmitBatchSize} events or {@code maxEmitBatchBytes} bytes, whichever limit is hit first,
+     * and each batch is emitted under a single acquisition of the checkpoint lock.
+     *
+     * <p>With more than one reader per subtask, the readers are run on dedicated fetcher threads which hand
+     * the events over to the source thread, see {@link PravegaEventFetcher}. With a positive
+     * {@code deserializationParallelism}, the events are read ahead and deserialized on worker threads,
+     * see {@link PravegaDeserializationPipeline}. Both are not supported in the event-time mode, because
+     * the watermark is derived from the position of the readers, which would be ahead of the emitted events.
+     *
+     * <p>With an {@code idleTimeout}, the subtask is marked as temporarily idle when it has not read any event
+     * for that long, or when its readers own no segment while all the segments are assigned to other readers,
+     * so that downstream operators do not hold back their watermarks waiting for it.
+     *
+     * <p>With a {@code minEventReadTimeout}, events are read with that timeout while data is flowing, so that
+     * the source stays responsive to cancellation, and the timeout is doubled on every empty read up to
+     * {@code eventReadTimeout}, so that quiet streams are polled less often.
+     *
+     * <p>With a {@code limit}, each subtask finishes once it has emitted that many records. This is meant for
+     * bounded reads such as {@code SELECT ... LIMIT n} queries. A subtask which reaches the limit closes its
+     * readers, which hands their segments over to the other readers of the group.
+     *
+     * @param hookUid                   The UID of the source hook in the job graph.
+     * @param clientConfig              The Pravega client configuration.
+     * @param readerGroupConfig         The Pravega reader group configuration.
+     * @param readerGroupScope          The reader group scope name.
+     * @param readerGroupName           The reader group name.
+     * @param deserializationSchema     The implementation to deserialize events from Pravega streams.
+     * @param assignerWithTimeWindows   The serialized value of the implementation to extract timestamp from deserialized events (only in event-time mode).
+     * @param eventReadTimeout          The event read timeout.
+     * @param checkpointInitiateTimeout The checkpoint initiation timeout.
+     * @param enableMetrics             Flag to indicate whether metrics needs to be enabled or not.
+     * @param maxEmitBatchSize          The maximum number of events emitted per checkpoint lock acquisition.
+     * @param maxEmitBatchBytes         The maximum number of event bytes emitted per checkpoint lock acquisition.
+     * @param readersPerSubtask         The number of Pravega readers run by each subtask.
+     * @param deserializationParallelism The number of worker threads deserializing the events of each subtask,
+     *                                   or 0 to deserialize on the source thread.
+     * @param idleTimeout               The time without events after which the subtask is marked as temporarily idle,
+     *                                  or null to disable idleness detection.
+     * @param minEventReadTimeout       The initial event read timeout of the adaptive mode, or null to always read
+     *                                  with the event read timeout.
+     * @param limit                     The maximum number of records emitted by each subtask, or Long.MAX_VALUE
+     *                                  for no limit.
+     */
+    protected FlinkPravegaReader(String hookUid, ClientConfig clientConfig,
+                                 ReaderGroupConfig readerGroupConfig, String readerGroupScope, String readerGroupName,
+                                 DeserializationSchema<T> deserializationSchema,
+                                 SerializedValue<AssignerWithTimeWindows<T>> assignerWithTimeWindows,
+                                 Time eventReadTimeout, Time checkpointInitiateTimeout,
+                                 boolean enableMetrics, int maxEmitBatchSize, long maxEmitBatchBytes,
+                                 int readersPerSubtask, int deserializationParallelism,
+                                 @Nullable Time idleTimeout, @Nullable Time minEventReadTimeout, long limit) {
+        Preconditions.checkArgument(maxEmitBatchSize > 0, "maxEmitBatchSize must be > 0");
+        Preconditions.checkArgument(maxEmitBatchBytes > 0, "maxEmitBatchBytes must be > 0");
+        Preconditions.checkArgument(readersPerSubtask > 0, "readersPerSubtask must be > 0");
+        Preconditions.checkArgument(deserializationParallelism >= 0, "deserializationParallelism must be >= 0");
+        Preconditions.checkArgument(limit >= 0, "limit must be >= 0");
+        Preconditions.checkArgument(idleTimeout == null || idleTimeout.toMilliseconds() > 0, "idleTimeout must be > 0");
+        Preconditions.checkArgument(minEventReadTimeout == null || (minEventReadTimeout.toMilliseconds() > 0
+                        && minEventReadTimeout.toMilliseconds() <= eventReadTimeout.toMilliseconds()),
+                "minEventReadTimeout must be > 0 and not greater than eventReadTimeout");
+        Preconditions.checkArgument(assignerWithTimeWindows == null || (readersPerSubtask == 1 && deserializationParallelism == 0),
+                "Multiple readers per subtask and pipelined deserialization are not supported in the event-time mode");
 
         this.hookUid = Preconditions.checkNotNull(hookUid, "hookUid");
         this.clientConfig = Preconditions.checkNotNull(clientConfig, "clientConfig");
@@ -196,8 +330,15 @@ public class FlinkPravegaReader<T>
         this.readerGroupName = Preconditions.checkNotNull(readerGroupName, "readerGroupName");
         this.deserializationSchema = Preconditions.checkNotNull(deserializationSchema, "deserializationSchema");
         this.eventReadTimeout = Preconditions.checkNotNull(eventReadTimeout, "eventReadTimeout");
+        this.minEventReadTimeout = minEventReadTimeout;
         this.checkpointInitiateTimeout = Preconditions.checkNotNull(checkpointInitiateTimeout, "checkpointInitiateTimeout");
         this.enableMetrics = enableMetrics;
+        this.maxEmitBatchSize = maxEmitBatchSize;
+        this.maxEmitBatchBytes = maxEmitBatchBytes;
+        this.readersPerSubtask = readersPerSubtask;
+        this.deserializationParallelism = deserializationParallelism;
+        this.idleTimeout = idleTimeout;
+        this.limit = limit;
         this.assignerWithTimeWindows = assignerWithTimeWindows;
         this.pravegaCollector = new PravegaCollector<T>(deserializationSchema);
     }
@@ -213,10 +354,6 @@ public class FlinkPravegaReader<T>
         LOG.info("Creating reader group: {}/{} for the Flink job", this.readerGroupScope, this.readerGroupName);
         createReaderGroupManager();
         createReaderGroup();
-        if (isEventTimeMode()) {
-            Preconditions.checkArgument(readerGroup.getStreamNames().size() == 1,
-                    "Only 1 Pravega stream is allowed in the event-time mode");
-        }
     }
 
     private boolean isEventTimeMode() {
@@ -229,18 +366,18 @@ public class FlinkPravegaReader<T>
 
     private class PeriodicWatermarkEmitter implements ProcessingTimeCallback {
 
-        private EventStreamReader<?> pravegaReader;
-        private Stream stream;
+        private List<EventStreamReader<ByteBuffer>> pravegaReaders;
+        private List<Stream> streams;
         private final SourceContext<?> ctx;
         private final ProcessingTimeService timerService;
         private long lastWatermarkTimestamp;
         private AssignerWithTimeWindows<?> userAssigner;
 
         protected PeriodicWatermarkEmitter(
-                EventStreamReader<?> pravegaReader, SourceContext<?> ctx, ClassLoader userCodeClassLoader,
+                List<EventStreamReader<ByteBuffer>> pravegaReaders, SourceContext<?> ctx, ClassLoader userCodeClassLoader,
                 ProcessingTimeService timerService) throws Exception {
-            this.pravegaReader = Preconditions.checkNotNull(pravegaReader);
-            this.stream = Stream.of(readerGroup.getStreamNames().iterator().next());
+            this.pravegaReaders = Preconditions.checkNotNull(pravegaReaders);
+            this.streams = readerGroup.getStreamNames().stream().map(Stream::of).collect(Collectors.toList());
             this.ctx = Preconditions.checkNotNull(ctx);
             this.timerService = Preconditions.checkNotNull(timerService);
             this.lastWatermarkTimestamp = Long.MIN_VALUE;
@@ -253,7 +390,8 @@ public class FlinkPravegaReader<T>
 
         @Override
         public void onProcessingTime(long timestamp) {
-            Watermark watermark = userAssigner.getWatermark(pravegaReader.getCurrentTimeWindow(stream));
+            // an idle subtask does not emit watermarks until it reads an event again
+            Watermark watermark = idle ? null : getCurrentWatermark();
 
             if (watermark != null && watermark.getTimestamp() > lastWatermarkTimestamp) {
                 lastWatermarkTimestamp = watermark.getTimestamp();
@@ -264,6 +402,28 @@ public class FlinkPravegaReader<T>
             // schedule the next watermark
             timerService.registerTimer(timerService.getCurrentProcessingTime() + autoWatermarkInterval(), this);
         }
+
+        /**
+         * Combines the watermarks of all the streams (and readers) of this subtask into their minimum.
+         * No watermark is emitted while the watermark of any of them is unknown, since events with
+         * a lower timestamp may still be read from it.
+         */
+        @Nullable
+        private Watermark getCurrentWatermark() {
+            Watermark watermark = null;
+            for (EventStreamReader<ByteBuffer> pravegaReader : pravegaReaders) {
+                for (Stream stream : streams) {
+                    Watermark streamWatermark = userAssigner.getWatermark(pravegaReader.getCurrentTimeWindow(stream));
+                    if (streamWatermark == null) {
+                        return null;
+                    }
+                    if (watermark == null || streamWatermark.getTimestamp() < watermark.getTimestamp()) {
+                        watermark = streamWatermark;
+                    }
+                }
+            }
+            return watermark;
+        }
     }
 
     // ------------------------------------------------------------------------
@@ -280,9 +440,17 @@ public class FlinkPravegaReader<T>
         LOG.info("{} : Creating Pravega reader with ID '{}' for controller URI: {}",
                 runtimeContext.getTaskNameWithSubtasks(), readerId, this.clientConfig.getControllerURI());
 
-        try (EventStreamReader<ByteBuffer> pravegaReader = createEventStreamReader(readerId)) {
+        final List<String> readerIds = getReaderIds(readerId);
 
-            LOG.info("Starting Pravega reader '{}' for controller URI {}", readerId, this.clientConfig.getControllerURI());
+        try (PravegaEventFetcher fetcher = createEventFetcher(readerId, readerIds);
+             PravegaDeserializationPipeline<T> pipeline = createDeserializationPipeline(fetcher, readerId)) {
+
+            LOG.info("Starting {} Pravega reader(s) '{}' for controller URI {}", readersPerSubtask, readerId,
+                    this.clientConfig.getControllerURI());
+            fetcher.start();
+            if (pipeline != null) {
+                pipeline.start();
+            }
 
             long previousTimestamp = Long.MIN_VALUE;
             AssignerWithTimeWindows<T> assigner = null;
@@ -290,7 +458,7 @@ public class FlinkPravegaReader<T>
             if (isEventTimeMode()) {
                 assigner = assignerWithTimeWindows.deserializeValue(runtimeContext.getUserCodeClassLoader());
                 PeriodicWatermarkEmitter periodicEmitter = new PeriodicWatermarkEmitter(
-                        pravegaReader,
+                        fetcher.getReaders(),
                         ctx,
                         runtimeContext.getUserCodeClassLoader(),
                         ((StreamingRuntimeContext) runtimeContext).getProcessingTimeService());
@@ -300,11 +468,14 @@ public class FlinkPravegaReader<T>
                 periodicEmitter.start();
             }
 
+            long lastEventMillis = System.currentTimeMillis();
+            long readTimeoutMillis = getMinEventReadTimeoutMillis();
+
             // main work loop, which this task is running
             while (this.running) {
                 EventRead<ByteBuffer> eventRead;
                 try {
-                    eventRead = pravegaReader.readNextEvent(eventReadTimeout.toMilliseconds());
+                    eventRead = readNextEvent(fetcher, pipeline, readTimeoutMillis);
                 } catch (TruncatedDataException e) {
                     // Data is truncated, Force the reader going forward to the next available event
                     continue;
@@ -314,17 +485,63 @@ public class FlinkPravegaReader<T>
                     // if the read marks a checkpoint, trigger the checkpoint
                     if (eventRead.isCheckpoint()) {
                         triggerCheckpoint(eventRead.getCheckpointName());
+                    } else {
+                        // back off on a quiet stream, up to the event read timeout
+                        readTimeoutMillis = Math.min(readTimeoutMillis * 2, eventReadTimeout.toMilliseconds());
+                        if (!idle && isIdle(readerIds, lastEventMillis)) {
+                            markAsTemporarilyIdle(ctx, readerId);
+                        }
                     }
                     continue;
                 }
 
-                emitEvent(eventRead, ctx, previousTimestamp, assigner);
+                // the subtask becomes active again once the records are emitted
+                idle = false;
+                lastEventMillis = System.currentTimeMillis();
+                readTimeoutMillis = getMinEventReadTimeoutMillis();
+
+                // drain the events which are already available into the batch,
+                // stopping early at a checkpoint so that it is triggered right after the batch is emitted
+                int batchSize = 1;
+                long batchBytes = eventRead.getEvent().remaining();
+                String pendingCheckpoint = null;
+                deserializeEvent(eventRead, pipeline);
+                while (batchSize < maxEmitBatchSize && batchBytes < maxEmitBatchBytes
+                        && !pravegaCollector.isEndOfStreamSignalled()
+                        && emittedRecords + pravegaCollector.getRecords().size() < limit) {
+                    try {
+                        eventRead = readNextEvent(fetcher, pipeline, 0);
+                    } catch (TruncatedDataException e) {
+                        continue;
+                    }
+                    if (eventRead.getEvent() == null) {
+                        pendingCheckpoint = eventRead.isCheckpoint() ? eventRead.getCheckpointName() : null;
+                        break;
+                    }
+                    batchSize++;
+                    batchBytes += eventRead.getEvent().remaining();
+                    deserializeEvent(eventRead, pipeline);
+                }
+
+                previousTimestamp = emitRecords(ctx, previousTimestamp, assigner);
+                if (emitBatchSizeHistogram != null) {
+                    emitBatchSizeHistogram.update(batchSize);
+                }
+                if (pendingCheckpoint != null) {
+                    triggerCheckpoint(pendingCheckpoint);
+                }
 
                 if (pravegaCollector.isEndOfStreamSignalled()) {
                     // Found stream end marker.
                     LOG.info("Reached end of stream for reader: {}", readerId);
                     return;
                 }
+
+                if (emittedRecords >= limit) {
+                    // closing the readers stops the outstanding reads and releases their segments
+                    LOG.info("Reached the limit of {} records for reader: {}", limit, readerId);
+                    return;
+                }
             }
         }
         catch (RuntimeException e) {
@@ -333,21 +550,80 @@ public class FlinkPravegaReader<T>
         }
     }
 
-    /** Deserialize and collect the event. */
-    private void emitEvent(EventRead<ByteBuffer> eventRead,
-                           SourceContext<T> ctx,
-                           long previousTimestamp,
-                           @Nullable AssignerWithTimeWindows<T> assigner) throws IOException {
-        byte[] eventBytes = byteBufferToArray(eventRead.getEvent());
-        if (deserializationSchema instanceof PravegaDeserializationSchemaWithMetadata) {
-            ((PravegaDeserializationSchemaWithMetadata<T>) this.deserializationSchema).deserialize(eventBytes, eventRead, pravegaCollector);
+    private long getMinEventReadTimeoutMillis() {
+        return minEventReadTimeout == null ? eventReadTimeout.toMilliseconds() : minEventReadTimeout.toMilliseconds();
+    }
+
+    /**
+     * Check whether the subtask should be marked as temporarily idle, that is, when it has not read any event
+     * within the idle timeout, or when its readers own no segment and no segment is left to be acquired.
+     *
+     * <p>The segment distribution is fetched from the reader group state at most once per reader group refresh
+     * interval, as the segments are not reassigned more often than that.
+     */
+    private boolean isIdle(List<String> readerIds, long lastEventMillis) {
+        if (idleTimeout == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        if (now - lastEventMillis >= idleTimeout.toMilliseconds()) {
+            return true;
+        }
+
+        if (now - lastSegmentDistributionCheckMillis >= readerGroupConfig.getGroupRefreshTimeMillis()) {
+            lastSegmentDistributionCheckMillis = now;
+            ReaderSegmentDistribution distribution = readerGroup.getReaderSegmentDistribution();
+            if (distribution == null || distribution.getUnassignedSegments() > 0) {
+                ownsNoSegment = false;
+            } else {
+                Map<String, Integer> segmentsPerReader = distribution.getReaderSegmentDistribution();
+                ownsNoSegment = readerIds.stream().allMatch(id -> segmentsPerReader.getOrDefault(id, 0) == 0);
+            }
+        }
+        return ownsNoSegment;
+    }
+
+    private void markAsTemporarilyIdle(SourceContext<T> ctx, String readerId) {
+        LOG.info("Marking reader {} as temporarily idle", readerId);
+        idle = true;
+        synchronized (ctx.getCheckpointLock()) {
+            ctx.markAsTemporarilyIdle();
+        }
+    }
+
+    /** Read the next event, either directly or from the head of the deserialization pipeline. */
+    private EventRead<ByteBuffer> readNextEvent(PravegaEventFetcher fetcher,
+                                                @Nullable PravegaDeserializationPipeline<T> pipeline,
+                                                long timeoutMillis) throws Exception {
+        return pipeline == null ? fetcher.readNextEvent(timeoutMillis) : pipeline.readNextEvent(timeoutMillis);
+    }
+
+    /** Deserialize the event into the collector buffer. */
+    private void deserializeEvent(EventRead<ByteBuffer> eventRead,
+                                  @Nullable PravegaDeserializationPipeline<T> pipeline) throws Exception {
+        if (pipeline == null) {
+            FlinkPravegaUtils.deserializeEvent(this.deserializationSchema, eventRead, pravegaCollector);
         } else {
-            this.deserializationSchema.deserialize(eventBytes, pravegaCollector);
+            pipeline.collectRecords(pravegaCollector);
+        }
+    }
+
+    /**
+     * Emit all the buffered records under a single acquisition of the checkpoint lock.
+     *
+     * @return the timestamp of the last emitted record, to be passed on to the next call.
+     */
+    private long emitRecords(SourceContext<T> ctx,
+                             long previousTimestamp,
+                             @Nullable AssignerWithTimeWindows<T> assigner) {
+        if (pravegaCollector.getRecords().isEmpty()) {
+            return previousTimestamp;
         }
 
         T event;
-        while ((event = pravegaCollector.getRecords().poll()) != null) {
-            synchronized (ctx.getCheckpointLock()) {
+        synchronized (ctx.getCheckpointLock()) {
+            while (emittedRecords < limit && (event = pravegaCollector.getRecords().poll()) != null) {
+                emittedRecords++;
                 if (isEventTimeMode()) {
                     assert assigner != null;  // assigner won't be null in the event time mode
                     long currentTimestamp = assigner.extractTimestamp(event, previousTimestamp);
@@ -358,7 +634,11 @@ public class FlinkPravegaReader<T>
                 }
             }
         }
-
+        if (emittedRecords >= limit) {
+            // the records beyond the limit are dropped
+            pravegaCollector.getRecords().clear();
+        }
+        return previousTimestamp;
     }
 
     @Override
@@ -375,12 +655,29 @@ public class FlinkPravegaReader<T>
     public void open(Configuration parameters) throws Exception {
         deserializationSchema.open(RuntimeContextInitializationContextAdapters.deserializationAdapter(
                 getRuntimeContext(), metricGroup -> metricGroup.addGroup("user")));
+        if (deserializationParallelism > 0) {
+            // deserialization schemas are not required to be thread-safe, each worker gets its own copy
+            workerDeserializationSchemas = new ArrayList<>(deserializationParallelism);
+            for (int i = 0; i < deserializationParallelism; i++) {
+                DeserializationSchema<T> schema = InstantiationUtil.clone(deserializationSchema,
+                        getRuntimeContext().getUserCodeClassLoader());
+                schema.open(RuntimeContextInitializationContextAdapters.deserializationAdapter(
+                        getRuntimeContext(), metricGroup -> metricGroup.addGroup("user")));
+                workerDeserializationSchemas.add(schema);
+            }
+        }
         createEventStreamClientFactory();
         createReaderGroupManager();
         createReaderGroup();
         if (enableMetrics) {
             registerMetrics();
         }
+        if (enableMetrics && maxEmitBatchSize > 1) {
+            emitBatchSizeHistogram = getRuntimeContext().getMetricGroup()
+                    .addGroup(PRAVEGA_READER_METRICS_GROUP)
+                    .histogram(EMIT_BATCH_SIZE_METRICS_HISTOGRAM,
+                            new DescriptiveStatisticsHistogram(EMIT_BATCH_SIZE_HISTOGRAM_WINDOW_SIZE));
+        }
         if (isEventTimeMode()) {
             Preconditions.checkArgument(autoWatermarkInterval() > 0,
                     "Periodic watermark interval should be positive, " +
@@ -657,7 +954,7 @@ public class FlinkPravegaReader<T>
      */
     protected EventStreamClientFactory createEventStreamClientFactory() {
         if (eventStreamClientFactory == null) {
-            eventStreamClientFactory = EventStreamClientFactory.withScope(readerGroupScope, clientConfig);
+            eventStreamClientFactory = ClientFactoryCache.getEventStreamClientFactory(readerGroupScope, clientConfig);
         }
 
         return eventStreamClientFactory;
@@ -667,7 +964,7 @@ public class FlinkPravegaReader<T>
      * Create the {@link EventStreamReader} for the current configuration. <p>
      *
      * The reader will output raw ByteBuffer rather than the deserialized T.
-     * See {@link #emitEvent} for the decoding process.
+     * See {@link FlinkPravegaUtils#deserializeEvent} for the decoding process.
      * To customize the process, overwrite {@link PravegaDeserializationSchemaWithMetadata}.
      *
      * @param readerId the readerID to use.
@@ -681,6 +978,73 @@ public class FlinkPravegaReader<T>
                 eventStreamClientFactory);
     }
 
+    /**
+     * Get the readerIDs of the Pravega readers run by this subtask, which are suffixed with the reader index
+     * if there is more than one reader.
+     *
+     * @param readerId the readerID of the subtask.
+     * @return the readerIDs of the Pravega readers.
+     */
+    private List<String> getReaderIds(String readerId) {
+        if (readersPerSubtask == 1) {
+            return Collections.singletonList(readerId);
+        }
+        List<String> readerIds = new ArrayList<>(readersPerSubtask);
+        for (int i = 0; i < readersPerSubtask; i++) {
+            readerIds.add(readerId + "-" + i);
+        }
+        return readerIds;
+    }
+
+    /**
+     * Create the {@link PravegaEventFetcher} which runs the Pravega readers of this subtask.
+     *
+     * @param readerId the readerID of the subtask.
+     * @param readerIds the readerIDs of the Pravega readers.
+     * @return An instance of {@link PravegaEventFetcher}
+     */
+    private PravegaEventFetcher createEventFetcher(String readerId, List<String> readerIds) {
+        List<EventStreamReader<ByteBuffer>> readers = new ArrayList<>(readerIds.size());
+        try {
+            for (String id : readerIds) {
+                readers.add(createEventStreamReader(id));
+            }
+        } catch (RuntimeException e) {
+            readers.forEach(EventStreamReader::close);
+            throw e;
+        }
+        return new PravegaEventFetcher(readers, readerId, eventReadTimeout.toMilliseconds(), getReadAheadCapacity());
+    }
+
+    /**
+     * Get the maximum number of events read ahead of the source thread, by the fetcher threads or the
+     * deserialization workers, which lets the next batch be read while the current one is emitted.
+     *
+     * @return twice the maximum emit batch size, within bounds.
+     */
+    int getReadAheadCapacity() {
+        return (int) Math.min(MAX_READ_AHEAD_CAPACITY, Math.max(MIN_READ_AHEAD_CAPACITY, 2L * maxEmitBatchSize));
+    }
+
+    /**
+     * Create the {@link PravegaDeserializationPipeline} which deserializes the events of this subtask
+     * on worker threads.
+     *
+     * @param fetcher the fetcher to read the events from.
+     * @param readerId the readerID of the subtask.
+     * @return An instance of {@link PravegaDeserializationPipeline}, or null if the events are deserialized
+     *         on the source thread.
+     */
+    @Nullable
+    private PravegaDeserializationPipeline<T> createDeserializationPipeline(PravegaEventFetcher fetcher, String readerId) {
+        if (deserializationParallelism == 0) {
+            return null;
+        }
+        Preconditions.checkState(workerDeserializationSchemas != null, "deserialization schemas are not opened");
+        return new PravegaDeserializationPipeline<>(fetcher, workerDeserializationSchemas,
+                getReadAheadCapacity(), eventReadTimeout.toMilliseconds(), readerId);
+    }
+
     // ------------------------------------------------------------------------
     //  configuration
     // ------------------------------------------------------------------------
@@ -702,8 +1066,18 @@ public class FlinkPravegaReader<T>
      */
     public static class Builder<T> extends AbstractStreamingReaderBuilder<T, Builder<T>> {
 
+        private static final int DEFAULT_MAX_EMIT_BATCH_SIZE = 1;
+
         private DeserializationSchema<T> deserializationSchema;
         private SerializedValue<AssignerWithTimeWindows<T>> assignerWithTimeWindows;
+        private int maxEmitBatchSize = DEFAULT_MAX_EMIT_BATCH_SIZE;
+        private long maxEmitBatchBytes = Long.MAX_VALUE;
+        private int readersPerSubtask = 1;
+        private int deserializationParallelism = 0;
+        private Time idleTimeout;
+        private Time minEventReadTimeout;
+        private boolean enableEventBatching = false;
+        private long limit = Long.MAX_VALUE;
 
         protected Builder<T> builder() {
             return this;
@@ -751,10 +1125,159 @@ public class FlinkPravegaReader<T>
             return this;
         }
 
+        /**
+         * Sets the maximum number of events which are drained from Pravega and emitted under a single
+         * acquisition of the checkpoint lock (default=1, i.e. each event is emitted on its own).
+         *
+         * <p>Only the events that are already available to the reader are batched, so a larger value
+         * does not add latency when the stream is not busy.
+         *
+         * @param maxEmitBatchSize the maximum number of events per batch.
+         * @return Builder instance.
+         */
+        public Builder<T> withMaxEmitBatchSize(int maxEmitBatchSize) {
+            Preconditions.checkArgument(maxEmitBatchSize > 0, "maxEmitBatchSize must be > 0");
+            this.maxEmitBatchSize = maxEmitBatchSize;
+            return builder();
+        }
+
+        /**
+         * Sets the maximum number of event bytes which are drained from Pravega and emitted under a single
+         * acquisition of the checkpoint lock. The batch is unbounded in bytes by default.
+         *
+         * @param maxEmitBatchBytes the maximum number of event bytes per batch.
+         * @return Builder instance.
+         */
+        public Builder<T> withMaxEmitBatchBytes(long maxEmitBatchBytes) {
+            Preconditions.checkArgument(maxEmitBatchBytes > 0, "maxEmitBatchBytes must be > 0");
+            this.maxEmitBatchBytes = maxEmitBatchBytes;
+            return builder();
+        }
+
+        /**
+         * Sets the number of Pravega readers which are run by each subtask (default=1).
+         *
+         * <p>All the readers join the same reader group, so a wide stream can be read with fewer task slots.
+         * Each reader is run on a dedicated fetcher thread, and the checkpoints are aligned across the readers
+         * of a subtask.
+         *
+         * @param readersPerSubtask the number of readers per subtask.
+         * @return Builder instance.
+         */
+        public Builder<T> withReadersPerSubtask(int readersPerSubtask) {
+            Preconditions.checkArgument(readersPerSubtask > 0, "readersPerSubtask must be > 0");
+            this.readersPerSubtask = readersPerSubtask;
+            return builder();
+        }
+
+        /**
+         * Sets the number of worker threads which deserialize the events of each subtask (default=0).
+         *
+         * <p>With a positive value, the events are read ahead of the source thread and deserialized in parallel,
+         * which overlaps reading from Pravega with the deserialization of heavy formats. The events are still
+         * emitted in the order they are read, and checkpoints are triggered at the same position in the stream.
+         * By default the events are deserialized on the source thread.
+         *
+         * @param deserializationParallelism the number of deserialization worker threads per subtask.
+         * @return Builder instance.
+         */
+        public Builder<T> withDeserializationParallelism(int deserializationParallelism) {
+            Preconditions.checkArgument(deserializationParallelism >= 0, "deserializationParallelism must be >= 0");
+            this.deserializationParallelism = deserializationParallelism;
+            return builder();
+        }
+
+        /**
+         * Sets the time without events after which a subtask is marked as temporarily idle.
+         * Idleness detection is disabled by default.
+         *
+         * <p>An idle subtask does not hold back the watermarks of the downstream operators, which is useful
+         * in the event-time mode when there are more subtasks than segments, or some segments receive no events.
+         * A subtask is also marked as idle, regardless of the timeout, when its readers own no segment while
+         * all the segments are assigned to other readers. It becomes active again as soon as it reads an event.
+         *
+         * @param idleTimeout the idle timeout.
+         * @return Builder instance.
+         */
+        public Builder<T> withIdleTimeout(Time idleTimeout) {
+            Preconditions.checkArgument(idleTimeout.toMilliseconds() > 0, "idleTimeout must be > 0");
+            this.idleTimeout = idleTimeout;
+            return builder();
+        }
+
+        /**
+         * Enables the adaptive event read timeout. Events are read with the given minimum timeout while data
+         * is flowing, and the timeout is doubled on every empty read up to the event read timeout, see
+         * {@link #withEventReadTimeout(Time)}. By default, events are always read with the event read timeout.
+         *
+         * <p>A short timeout keeps the source responsive on busy streams, while the backoff reduces the
+         * number of read calls on quiet streams.
+         *
+         * @param minEventReadTimeout the minimum event read timeout.
+         * @return Builder instance.
+         */
+        public Builder<T> withMinEventReadTimeout(Time minEventReadTimeout) {
+            Preconditions.checkArgument(minEventReadTimeout.toMilliseconds() > 0, "timeout must be > 0");
+            this.minEventReadTimeout = minEventReadTimeout;
+            return builder();
+        }
+
+        /**
+         * Enables reading the events written as event batches, see {@code withEventBatching} of the writers.
+         * Every record of an event batch is deserialized with the deserialization schema, and events which
+         * are not batched are read as they are.
+         *
+         * @param enable boolean
+         * @return Builder instance.
+         */
+        public Builder<T> enableEventBatching(boolean enable) {
+            this.enableEventBatching = enable;
+            return builder();
+        }
+
+        /**
+         * Sets the maximum number of records emitted by each subtask, after which the subtask finishes.
+         * The number of records is not limited by default.
+         *
+         * <p>This is meant for bounded reads up to an end stream cut, which are only interested in some
+         * records, like a {@code SELECT ... LIMIT n} query.
+         *
+         * @param limit the maximum number of records per subtask.
+         * @return Builder instance.
+         */
+        public Builder<T> withLimit(long limit) {
+            Preconditions.checkArgument(limit >= 0, "limit must be >= 0");
+            this.limit = limit;
+            return builder();
+        }
+
         @Override
         protected DeserializationSchema<T> getDeserializationSchema() {
             Preconditions.checkState(deserializationSchema != null, "Deserialization schema must not be null.");
-            return deserializationSchema;
+            return enableEventBatching ? new EventBatchDeserializationSchema<>(deserializationSchema) : deserializationSchema;
+        }
+
+        @Override
+        protected FlinkPravegaReader<T> buildSourceFunction() {
+            ReaderGroupInfo readerGroupInfo = buildReaderGroupInfo();
+            return new FlinkPravegaReader<>(
+                    Optional.ofNullable(this.uid).orElseGet(this::generateUid),
+                    getPravegaConfig().getClientConfig(),
+                    readerGroupInfo.getReaderGroupConfig(),
+                    readerGroupInfo.getReaderGroupScope(),
+                    readerGroupInfo.getReaderGroupName(),
+                    getDeserializationSchema(),
+                    getAssignerWithTimeWindows(),
+                    this.eventReadTimeout,
+                    this.checkpointInitiateTimeout,
+                    isMetricsEnabled(),
+                    this.maxEmitBatchSize,
+                    this.maxEmitBatchBytes,
+                    this.readersPerSubtask,
+                    this.deserializationParallelism,
+                    this.idleTimeout,
+                    this.minEventReadTimeout,
+                    this.limit);
         }
 
         @Override
@@ -27,7 +27,13 @@ import io.pravega.client.stream.Stream;
 import io.pravega.client.stream.Transaction;
 import io.pravega.client.stream.TransactionalEventStreamWriter;
 import io.pravega.client.stream.TxnFailedException;
+import io.pravega.client.stream.impl.ByteBufferSerializer;
 import io.pravega.connectors.flink.serialization.FlinkSerializer;
+import io.pravega.connectors.flink.serialization.SerializationBufferPool;
+import io.pravega.connectors.flink.util.ClientFactoryCache;
+import io.pravega.connectors.flink.util.EventBatcher;
+import io.pravega.connectors.flink.util.PendingWritesTracker;
+import io.pravega.connectors.flink.util.TransactionPool;
 import org.apache.flink.annotation.Internal;
 import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.api.common.serialization.RuntimeContextInitializationContextAdapters;
@@ -38,23 +44,24 @@ import org.apache.flink.api.common.typeutils.base.TypeSerializerSingleton;
 import org.apache.flink.api.common.typeutils.base.VoidSerializer;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputSerializer;
 import org.apache.flink.core.memory.DataOutputView;
 import org.apache.flink.metrics.Gauge;
 import org.apache.flink.metrics.MetricGroup;
 import org.apache.flink.streaming.api.functions.sink.TwoPhaseCommitSinkFunction;
 import org.apache.flink.streaming.api.operators.StreamingRuntimeContext;
+import org.apache.flink.streaming.runtime.tasks.ProcessingTimeService;
 import org.apache.flink.util.ExceptionUtils;
 import org.apache.flink.util.Preconditions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -80,9 +87,7 @@ public class FlinkPravegaWriter<T>
 
     // Used to track confirmation from all writes to ensure guaranteed writes.
     @VisibleForTesting
-    AtomicLong pendingWritesCount = new AtomicLong();
-
-    private transient ExecutorService executorService;
+    final PendingWritesTracker pendingWrites = new PendingWritesTracker();
 
     private long currentWatermark = Long.MIN_VALUE;
 
@@ -116,15 +121,51 @@ public class FlinkPravegaWriter<T>
     // Pravega Writer prefix that will be used by all Pravega Writers in this Sink
     private final String writerIdPrefix;
 
+    // The maximum number of pending writes, only for the non-transactional writer modes
+    private final int maxInFlightEvents;
+
+    // The maximum serialized size of the pending writes, only for the non-transactional writer modes
+    private final long maxInFlightBytes;
+
+    // The maximum size of the event batches, 0 if the events are written one by one
+    private final long maxBatchBytes;
+
+    // The maximum time an event waits in an event batch before the batch is written
+    private final long maxBatchDelayMillis;
+
+    // The number of transactions opened ahead of time, only for the exactly-once writer mode
+    private final int transactionPoolSize;
+
     // Client factory for PravegaWriter instances
     private transient EventStreamClientFactory clientFactory = null;
 
+    // The serializer of the Pravega writers, which tracks the size of the written events
+    private transient FlinkSerializer<T> eventSerializer = null;
+
     // Pravega writer instance
     private transient EventStreamWriter<T> writer = null;
 
     // Transactional Pravega writer instance
     private transient TransactionalEventStreamWriter<T> transactionalWriter = null;
 
+    // The transactions opened ahead of time, null if the transactions are opened on demand
+    private transient TransactionPool<T> transactionPool = null;
+
+    // The open transaction which received no event, handed over to the next checkpoint period instead of being committed
+    private transient Transaction<T> reusableTransaction = null;
+
+    // The watermark of the last transaction which was pre-committed, null if none carried a watermark yet
+    private transient Long lastPreCommittedWatermark = null;
+
+    // Pravega writer instance of the event batches, used instead of the Pravega writer when batching
+    private transient EventStreamWriter<ByteBuffer> batchWriter = null;
+
+    // The batcher that packs the events into event batches
+    private transient EventBatcher<T> eventBatcher = null;
+
+    // Whether a timer is registered to write the expired event batches
+    private transient boolean eventBatchFlushScheduled = false;
+
     /**
      * The flink pravega writer instance which can be added as a sink to a Flink job.
      *
@@ -146,6 +187,117 @@ public class FlinkPravegaWriter<T>
             final long txnLeaseRenewalPeriod,
             final boolean enableWatermark,
             final boolean enableMetrics) {
+        this(clientConfig, stream, serializationSchema, eventRouter, writerMode, txnLeaseRenewalPeriod,
+                enableWatermark, enableMetrics, Integer.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * The flink pravega writer instance which can be added as a sink to a Flink job.
+     *
+     * <p>In the {@link PravegaWriterMode#BEST_EFFORT} and {@link PravegaWriterMode#ATLEAST_ONCE} modes,
+     * writing blocks while {@code maxInFlightEvents} events or {@code maxInFlightBytes} bytes are not
+     * acknowledged by Pravega yet.
+     *
+     * @param clientConfig          The Pravega client configuration.
+     * @param stream                The destination stream.
+     * @param serializationSchema   The implementation for serializing every event into pravega's storage format.
+     * @param eventRouter           The implementation to extract the partition key from the event.
+     * @param writerMode            The Pravega writer mode.
+     * @param txnLeaseRenewalPeriod Transaction lease renewal period in milliseconds.
+     * @param enableWatermark       Flag to indicate whether Pravega watermark needs to be enabled or not.
+     * @param enableMetrics         Flag to indicate whether metrics needs to be enabled or not.
+     * @param maxInFlightEvents     The maximum number of writes which are not acknowledged yet.
+     * @param maxInFlightBytes      The maximum serialized size of the writes which are not acknowledged yet.
+     */
+    protected FlinkPravegaWriter(
+            final ClientConfig clientConfig,
+            final Stream stream,
+            final SerializationSchema<T> serializationSchema,
+            final PravegaEventRouter<T> eventRouter,
+            final PravegaWriterMode writerMode,
+            final long txnLeaseRenewalPeriod,
+            final boolean enableWatermark,
+            final boolean enableMetrics,
+            final int maxInFlightEvents,
+            final long maxInFlightBytes) {
+        this(clientConfig, stream, serializationSchema, eventRouter, writerMode, txnLeaseRenewalPeriod,
+                enableWatermark, enableMetrics, maxInFlightEvents, maxInFlightBytes, 0, 0);
+    }
+
+    /**
+     * The flink pravega writer instance which can be added as a sink to a Flink job.
+     *
+     * <p>If {@code maxBatchBytes} is positive, the events sharing a routing key are packed into event batches
+     * of at most {@code maxBatchBytes} bytes, which are written to Pravega as single events. An event batch is
+     * written at the latest {@code maxBatchDelayMillis} after its first event, and before every checkpoint.
+     * Event batching is only supported in the {@link PravegaWriterMode#BEST_EFFORT} and
+     * {@link PravegaWriterMode#ATLEAST_ONCE} modes, and the in-flight limits then apply to the event batches.
+     *
+     * @param clientConfig          The Pravega client configuration.
+     * @param stream                The destination stream.
+     * @param serializationSchema   The implementation for serializing every event into pravega's storage format.
+     * @param eventRouter           The implementation to extract the partition key from the event.
+     * @param writerMode            The Pravega writer mode.
+     * @param txnLeaseRenewalPeriod Transaction lease renewal period in milliseconds.
+     * @param enableWatermark       Flag to indicate whether Pravega watermark needs to be enabled or not.
+     * @param enableMetrics         Flag to indicate whether metrics needs to be enabled or not.
+     * @param maxInFlightEvents     The maximum number of writes which are not acknowledged yet.
+     * @param maxInFlightBytes      The maximum serialized size of the writes which are not acknowledged yet.
+     * @param maxBatchBytes         The maximum size of the event batches, 0 to write the events one by one.
+     * @param maxBatchDelayMillis   The maximum time in milliseconds an event waits in an event batch.
+     */
+    protected FlinkPravegaWriter(
+            final ClientConfig clientConfig,
+            final Stream stream,
+            final SerializationSchema<T> serializationSchema,
+            final PravegaEventRouter<T> eventRouter,
+            final PravegaWriterMode writerMode,
+            final long txnLeaseRenewalPeriod,
+            final boolean enableWatermark,
+            final boolean enableMetrics,
+            final int maxInFlightEvents,
+            final long maxInFlightBytes,
+            final long maxBatchBytes,
+            final long maxBatchDelayMillis) {
+        this(clientConfig, stream, serializationSchema, eventRouter, writerMode, txnLeaseRenewalPeriod,
+                enableWatermark, enableMetrics, maxInFlightEvents, maxInFlightBytes, maxBatchBytes, maxBatchDelayMillis, 0);
+    }
+
+    /**
+     * The flink pravega writer instance which can be added as a sink to a Flink job.
+     *
+     * <p>If {@code transactionPoolSize} is positive, the {@link PravegaWriterMode#EXACTLY_ONCE} mode opens
+     * that many transactions ahead of time in the background, so that beginning the transaction of the
+     * next checkpoint does not wait for the controller.
+     *
+     * @param clientConfig          The Pravega client configuration.
+     * @param stream                The destination stream.
+     * @param serializationSchema   The implementation for serializing every event into pravega's storage format.
+     * @param eventRouter           The implementation to extract the partition key from the event.
+     * @param writerMode            The Pravega writer mode.
+     * @param txnLeaseRenewalPeriod Transaction lease renewal period in milliseconds.
+     * @param enableWatermark       Flag to indicate whether Pravega watermark needs to be enabled or not.
+     * @param enableMetrics         Flag to indicate whether metrics needs to be enabled or not.
+     * @param maxInFlightEvents     The maximum number of writes which are not acknowledged yet.
+     * @param maxInFlightBytes      The maximum serialized size of the writes which are not acknowledged yet.
+     * @param maxBatchBytes         The maximum size of the event batches, 0 to write the events one by one.
+     * @param maxBatchDelayMillis   The maximum time in milliseconds an event waits in an event batch.
+     * @param transactionPoolSize   The number of transactions opened ahead of time, 0 to open them on demand.
+     */
+    protected FlinkPravegaWriter(
+            final ClientConfig clientConfig,
+            final Stream stream,
+            final SerializationSchema<T> serializationSchema,
+            final PravegaEventRouter<T> eventRouter,
+            final PravegaWriterMode writerMode,
+            final long txnLeaseRenewalPeriod,
+            final boolean enableWatermark,
+            final boolean enableMetrics,
+            final int maxInFlightEvents,
+            final long maxInFlightBytes,
+            final long maxBatchBytes,
+            final long maxBatchDelayMillis,
+            final int transactionPoolSize) {
 
         super(new TransactionStateSerializer(), VoidSerializer.INSTANCE);
         this.clientConfig = Preconditions.checkNotNull(clientConfig, "clientConfig");
@@ -158,6 +310,21 @@ public class FlinkPravegaWriter<T>
         this.enableWatermark = enableWatermark;
         this.enableMetrics = enableMetrics;
         this.writerIdPrefix = UUID.randomUUID().toString();
+        Preconditions.checkArgument(maxInFlightEvents > 0, "maxInFlightEvents must be > 0");
+        Preconditions.checkArgument(maxInFlightBytes > 0, "maxInFlightBytes must be > 0");
+        this.maxInFlightEvents = maxInFlightEvents;
+        this.maxInFlightBytes = maxInFlightBytes;
+        if (maxBatchBytes > 0) {
+            Preconditions.checkArgument(writerMode != PravegaWriterMode.EXACTLY_ONCE,
+                    "Event batching is not supported in the exactly-once writer mode");
+            Preconditions.checkArgument(maxBatchBytes <= Serializer.MAX_EVENT_SIZE,
+                    "maxBatchBytes must be <= " + Serializer.MAX_EVENT_SIZE);
+            Preconditions.checkArgument(maxBatchDelayMillis > 0, "maxBatchDelayMillis must be > 0");
+        }
+        this.maxBatchBytes = maxBatchBytes;
+        this.maxBatchDelayMillis = maxBatchDelayMillis;
+        Preconditions.checkArgument(transactionPoolSize >= 0, "transactionPoolSize must be >= 0");
+        this.transactionPoolSize = transactionPoolSize;
 
         if (writerMode == PravegaWriterMode.EXACTLY_ONCE) {
             super.setTransactionTimeout(txnLeaseRenewalPeriod);
@@ -213,6 +380,7 @@ public class FlinkPravegaWriter<T>
                 } else {
                     transaction.getTransaction().writeEvent(event);
                 }
+                transaction.hasEvents = true;
 
                 if (enableWatermark) {
                     transaction.watermark = context.currentWatermark();
@@ -220,33 +388,25 @@ public class FlinkPravegaWriter<T>
                 break;
             case ATLEAST_ONCE:
             case BEST_EFFORT:
-                this.pendingWritesCount.incrementAndGet();
+                if (eventBatcher != null) {
+                    addToEventBatch(event, context);
+                    break;
+                }
+
+                this.pendingWrites.awaitBelow(maxInFlightEvents, maxInFlightBytes);
                 final CompletableFuture<Void> future;
                 if (eventRouter != null) {
                     future = writer.writeEvent(eventRouter.getRoutingKey(event), event);
                 } else {
                     future = writer.writeEvent(event);
                 }
+                final long eventSize = eventSerializer.getLastSerializedSize();
+                this.pendingWrites.register(eventSize);
                 if (enableWatermark && shouldEmitWatermark(currentWatermark, context)) {
                     writer.noteTime(context.currentWatermark());
                     currentWatermark = context.currentWatermark();
                 }
-                future.whenCompleteAsync(
-                        (result, e) -> {
-                            if (e != null) {
-                                LOG.warn("Detected a write failure", e);
-
-                                // We will record only the first error detected, since this will mostly likely help with
-                                // finding the root cause. Storing all errors will not be feasible.
-                                writeError.compareAndSet(null, e);
-                            }
-                            synchronized (this) {
-                                pendingWritesCount.decrementAndGet();
-                                this.notify();
-                            }
-                        },
-                        executorService
-                );
+                trackWriteCompletion(future, eventSize, eventSerializer.takeLastBuffer());
                 break;
             default:
                 throw new UnsupportedOperationException("Not implemented writer mode");
@@ -258,7 +418,13 @@ public class FlinkPravegaWriter<T>
         initializeInternalWriter();
         switch (writerMode) {
             case EXACTLY_ONCE:
-                Transaction<T> txn = transactionalWriter.beginTxn();
+                final Transaction<T> txn;
+                if (reusableTransaction != null) {
+                    txn = reusableTransaction;
+                    reusableTransaction = null;
+                } else {
+                    txn = transactionPool != null ? transactionPool.take() : transactionalWriter.beginTxn();
+                }
                 return new PravegaTransactionState(txn);
             case ATLEAST_ONCE:
             case BEST_EFFORT:
@@ -272,7 +438,17 @@ public class FlinkPravegaWriter<T>
     protected void preCommit(PravegaTransactionState transaction) throws Exception {
         switch (writerMode) {
             case EXACTLY_ONCE:
+                if (!transaction.hasEvents && !carriesNewWatermark(transaction)) {
+                    // nothing to commit, so the transaction is reused by the next checkpoint period
+                    // instead of costing a commit and a new transaction
+                    reusableTransaction = transaction.getTransaction();
+                    transaction.clear();
+                    break;
+                }
                 transaction.getTransaction().flush();
+                if (transaction.watermark != null) {
+                    lastPreCommittedWatermark = transaction.watermark;
+                }
                 break;
             case ATLEAST_ONCE:
                 flushAndVerify();
@@ -367,7 +543,16 @@ public class FlinkPravegaWriter<T>
             exception = e;
         }
 
-        if (writer != null) {
+        if (reusableTransaction != null) {
+            try {
+                reusableTransaction.abort();
+            } catch (Exception e) {
+                exception = ExceptionUtils.firstOrSuppressed(e, exception);
+            }
+            reusableTransaction = null;
+        }
+
+        if (writer != null || batchWriter != null) {
             try {
                 flushAndVerify();
             } catch (Exception e) {
@@ -375,13 +560,15 @@ public class FlinkPravegaWriter<T>
             }
 
             try {
-                writer.close();
+                getNonTransactionalWriter().close();
             } catch (Exception e) {
                 exception = ExceptionUtils.firstOrSuppressed(e, exception);
             }
+        }
 
+        if (transactionPool != null) {
             try {
-                executorService.shutdown();
+                transactionPool.close();
             } catch (Exception e) {
                 exception = ExceptionUtils.firstOrSuppressed(e, exception);
             }
@@ -438,6 +625,68 @@ public class FlinkPravegaWriter<T>
     //  helper methods
     // ------------------------------------------------------------------------
 
+    private void trackWriteCompletion(CompletableFuture<Void> future, long eventSize,
+                                      @Nullable DataOutputSerializer serializationBuffer) {
+        future.whenComplete(
+                (result, e) -> {
+                    if (e != null) {
+                        LOG.warn("Detected a write failure", e);
+
+                        // We will record only the first error detected, since this will mostly likely help with
+                        // finding the root cause. Storing all errors will not be feasible.
+                        writeError.compareAndSet(null, e);
+                    }
+                    eventSerializer.releaseBuffer(serializationBuffer);
+                    pendingWrites.complete(eventSize);
+                }
+        );
+    }
+
+    private void addToEventBatch(T event, Context context) throws Exception {
+        eventBatcher.add(event, getProcessingTimeService().getCurrentProcessingTime());
+        if (enableWatermark && shouldEmitWatermark(currentWatermark, context)) {
+            // the batched events must be written before the watermark is noted
+            eventBatcher.flush();
+            batchWriter.noteTime(context.currentWatermark());
+            currentWatermark = context.currentWatermark();
+        }
+        scheduleEventBatchFlush();
+    }
+
+    private void writeEventBatch(@Nullable String routingKey, ByteBuffer batch) throws InterruptedException {
+        this.pendingWrites.awaitBelow(maxInFlightEvents, maxInFlightBytes);
+        final long batchSize = batch.remaining();
+        final CompletableFuture<Void> future;
+        if (routingKey != null) {
+            future = batchWriter.writeEvent(routingKey, batch);
+        } else {
+            future = batchWriter.writeEvent(batch);
+        }
+        this.pendingWrites.register(batchSize);
+        trackWriteCompletion(future, batchSize, null);
+    }
+
+    private void scheduleEventBatchFlush() {
+        if (!eventBatchFlushScheduled && !eventBatcher.isEmpty()) {
+            eventBatchFlushScheduled = true;
+            getProcessingTimeService().registerTimer(eventBatcher.getNextFlushTime(), this::onEventBatchFlushTime);
+        }
+    }
+
+    private void onEventBatchFlushTime(long time) throws Exception {
+        eventBatchFlushScheduled = false;
+        eventBatcher.flushExpired(time);
+        scheduleEventBatchFlush();
+    }
+
+    private ProcessingTimeService getProcessingTimeService() {
+        return ((StreamingRuntimeContext) getRuntimeContext()).getProcessingTimeService();
+    }
+
+    private EventStreamWriter<?> getNonTransactionalWriter() {
+        return writer != null ? writer : batchWriter;
+    }
+
     private void checkWriteError() throws Exception {
         Throwable error = this.writeError.getAndSet(null);
         if (error != null) {
@@ -447,55 +696,65 @@ public class FlinkPravegaWriter<T>
 
     @VisibleForTesting
     void flushAndVerify() throws Exception {
-        writer.flush();
+        if (eventBatcher != null) {
+            eventBatcher.flush();
+        }
+        getNonTransactionalWriter().flush();
 
         // Wait until all errors, if any, have been recorded.
-        synchronized (this) {
-            while (this.pendingWritesCount.get() > 0) {
-                this.wait();
-            }
-        }
+        this.pendingWrites.awaitCompletion();
 
         checkWriteError();
     }
 
     @VisibleForTesting
     protected EventStreamClientFactory createClientFactory(String scopeName, ClientConfig clientConfig) {
-        return EventStreamClientFactory.withScope(scopeName, clientConfig);
+        return ClientFactoryCache.getEventStreamClientFactory(scopeName, clientConfig);
     }
 
     @VisibleForTesting
     protected void createInternalWriter() {
         Preconditions.checkState(this.clientFactory != null, "clientFactory not initialized");
-        Serializer<T> eventSerializer = new FlinkSerializer<>(serializationSchema);
+        eventSerializer = new FlinkSerializer<>(serializationSchema);
         EventWriterConfig writerConfig = EventWriterConfig.builder()
                 .transactionTimeoutTime(txnLeaseRenewalPeriod)
                 .build();
         if (this.writerMode == PravegaWriterMode.EXACTLY_ONCE) {
             transactionalWriter = clientFactory.createTransactionalEventWriter(writerId(), stream.getStreamName(), eventSerializer, writerConfig);
+            if (transactionPoolSize > 0) {
+                // the pooled transactions are replaced before they stay idle for half of their lease renewal period
+                transactionPool = new TransactionPool<>(transactionalWriter, transactionPoolSize,
+                        txnLeaseRenewalPeriod / 2, writerId());
+            }
+        } else if (maxBatchBytes > 0) {
+            batchWriter = clientFactory.createEventWriter(writerId(), stream.getStreamName(), new ByteBufferSerializer(), writerConfig);
+            eventBatcher = new EventBatcher<>(serializationSchema, eventRouter, maxBatchBytes, maxBatchDelayMillis,
+                    this::writeEventBatch);
         } else {
-            executorService = createExecutorService();
+            // the events are serialized into pooled buffers if the schema supports it, the buffers are
+            // released once the writes are acknowledged
+            eventSerializer = new FlinkSerializer<>(serializationSchema, new SerializationBufferPool());
             writer = clientFactory.createEventWriter(writerId(), stream.getStreamName(), eventSerializer, writerConfig);
         }
     }
 
+    private boolean carriesNewWatermark(PravegaTransactionState transaction) {
+        return enableWatermark && transaction.watermark != null
+                && (lastPreCommittedWatermark == null || transaction.watermark > lastPreCommittedWatermark);
+    }
+
     boolean shouldEmitWatermark(long watermark, Context context) {
         return context.currentWatermark() > Long.MIN_VALUE && context.currentWatermark() < Long.MAX_VALUE &&
                 watermark < context.currentWatermark() && context.timestamp() >= context.currentWatermark();
     }
 
-    @VisibleForTesting
-    protected ExecutorService createExecutorService() {
-        return Executors.newSingleThreadExecutor();
-    }
-
     private void initializeInternalWriter() {
         if (this.writerMode == PravegaWriterMode.EXACTLY_ONCE) {
             if (this.transactionalWriter != null) {
                 return;
             }
         } else {
-            if (this.writer != null) {
+            if (this.writer != null || this.batchWriter != null) {
                 return;
             }
         }
@@ -537,6 +796,9 @@ public class FlinkPravegaWriter<T>
         private String transactionId;
         private Long watermark;
 
+        // Whether an event was written to the transaction, which is only tracked for the current transaction
+        private transient boolean hasEvents;
+
         PravegaTransactionState() {
             this(null);
         }
@@ -562,6 +824,15 @@ public class FlinkPravegaWriter<T>
             return transaction;
         }
 
+        /**
+         * Detaches the state from its transaction, which then is neither committed nor aborted with the state.
+         */
+        void clear() {
+            this.transaction = null;
+            this.transactionId = null;
+            this.watermark = null;
+        }
+
         @Override
         public String toString() {
             return String.format(
@@ -0,0 +1,225 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink;
+
+import io.pravega.client.stream.EventRead;
+import io.pravega.client.stream.TruncatedDataException;
+import io.pravega.client.stream.impl.EventReadImpl;
+import io.pravega.connectors.flink.util.FlinkPravegaUtils;
+import org.apache.flink.api.common.functions.util.ListCollector;
+import org.apache.flink.api.common.serialization.DeserializationSchema;
+import org.apache.flink.util.Collector;
+import org.apache.flink.util.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reads the events of a {@link FlinkPravegaReader} subtask ahead of the source thread and deserializes
+ * them on a pool of worker threads. <p>
+ *
+ * A prefetch thread pulls the events from the {@link PravegaEventFetcher} into a bounded FIFO pipeline,
+ * and hands each event to a worker. Each worker uses its own instance of the deserialization schema,
+ * since schemas are not required to be thread-safe. The source thread takes the entries from the head
+ * of the pipeline, so the events are returned in the order they were read, whatever order the workers
+ * complete in. Checkpoint events are entries of the pipeline as well, so they are returned after all
+ * the events read before them and before all the events read after them.
+ *
+ * @param <T> The type of the deserialized events.
+ */
+class PravegaDeserializationPipeline<T> implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PravegaDeserializationPipeline.class);
+
+    // the interval to check whether the pipeline is still running while waiting for a free slot
+    private static final long WAIT_INTERVAL_MILLIS = 100L;
+
+    // the read that is returned when no event is available
+    private static final EventRead<ByteBuffer> EMPTY_READ = new EventReadImpl<>(null, null, null, null);
+
+    private final PravegaEventFetcher fetcher;
+
+    // the deserialization schemas which are not in use by a worker
+    private final BlockingQueue<DeserializationSchema<T>> schemas;
+
+    private final ExecutorService workers;
+
+    private final BlockingQueue<Entry<T>> pipeline;
+
+    private final long eventReadTimeoutMillis;
+
+    private final Thread prefetchThread;
+
+    // the first error hit by the prefetch thread
+    private final AtomicReference<Throwable> prefetchError = new AtomicReference<>();
+
+    private volatile boolean running = true;
+
+    // the entry last returned by readNextEvent, only accessed by the source thread
+    private Entry<T> current;
+
+    PravegaDeserializationPipeline(PravegaEventFetcher fetcher, List<DeserializationSchema<T>> schemas,
+                                   int capacity, long eventReadTimeoutMillis, String readerId) {
+        Preconditions.checkArgument(!schemas.isEmpty(), "at least one deserialization schema is required");
+        Preconditions.checkArgument(capacity > 0, "capacity must be > 0");
+        this.fetcher = Preconditions.checkNotNull(fetcher);
+        this.schemas = new ArrayBlockingQueue<>(schemas.size(), false, schemas);
+        final AtomicInteger workerCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(schemas.size(), runnable -> {
+            Thread thread = new Thread(runnable, "Pravega deserializer " + readerId + "-" + workerCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pipeline = new ArrayBlockingQueue<>(capacity);
+        this.eventReadTimeoutMillis = eventReadTimeoutMillis;
+        this.prefetchThread = new Thread(this::prefetch, "Pravega prefetcher " + readerId);
+        this.prefetchThread.setDaemon(true);
+    }
+
+    /**
+     * Starts the prefetch thread.
+     */
+    void start() {
+        prefetchThread.start();
+    }
+
+    /**
+     * Takes the next event or checkpoint from the head of the pipeline. The records of an event are
+     * obtained by a subsequent call to {@link #collectRecords(Collector)}. <p>
+     *
+     * The buffer of the returned event is a duplicate of the one handed to the deserialization schema,
+     * so its remaining bytes can be inspected while the event is deserialized.
+     *
+     * @param timeoutMillis the maximum time to wait for an event.
+     * @return the read result, whose event is null if no event is available within the timeout.
+     * @throws IOException if the prefetch thread failed to read from Pravega.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    EventRead<ByteBuffer> readNextEvent(long timeoutMillis) throws IOException, InterruptedException {
+        current = pipeline.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+        Throwable t = prefetchError.get();
+        if (t != null) {
+            throw new IOException("Failed to read events from Pravega", t);
+        }
+        return current == null ? EMPTY_READ : current.eventRead;
+    }
+
+    /**
+     * Emits the deserialized records of the event last returned by {@link #readNextEvent(long)},
+     * waiting for its deserialization to complete.
+     *
+     * @param out the collector to put the records to.
+     * @throws IOException if the deserialization failed.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    void collectRecords(Collector<T> out) throws IOException, InterruptedException {
+        Preconditions.checkState(current != null && current.records != null, "no event to collect");
+        try {
+            for (T record : current.records.get()) {
+                out.collect(record);
+            }
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to deserialize the event", e.getCause());
+        } finally {
+            current = null;
+        }
+    }
+
+    private void prefetch() {
+        try {
+            while (running) {
+                EventRead<ByteBuffer> eventRead;
+                try {
+                    eventRead = fetcher.readNextEvent(eventReadTimeoutMillis);
+                } catch (TruncatedDataException e) {
+                    // Data is truncated, Force the reader going forward to the next available event
+                    continue;
+                }
+
+                if (eventRead.getEvent() != null) {
+                    final EventRead<ByteBuffer> toDeserialize = eventRead;
+                    EventRead<ByteBuffer> toReturn = new EventReadImpl<>(eventRead.getEvent().duplicate(),
+                            eventRead.getPosition(), eventRead.getEventPointer(), null);
+                    enqueue(new Entry<>(toReturn, workers.submit(() -> deserialize(toDeserialize))));
+                } else if (eventRead.isCheckpoint()) {
+                    enqueue(new Entry<>(eventRead, null));
+                }
+            }
+        } catch (Throwable t) {
+            LOG.error("{} failed to read events", prefetchThread.getName(), t);
+            prefetchError.compareAndSet(null, t);
+        }
+    }
+
+    private void enqueue(Entry<T> entry) throws InterruptedException {
+        boolean enqueued = false;
+        while (running && !enqueued) {
+            enqueued = pipeline.offer(entry, WAIT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private List<T> deserialize(EventRead<ByteBuffer> eventRead) throws Exception {
+        DeserializationSchema<T> schema = schemas.take();
+        try {
+            // the end of stream is detected by the collector of the source thread
+            List<T> records = new ArrayList<>(1);
+            FlinkPravegaUtils.deserializeEvent(schema, eventRead, new ListCollector<>(records));
+            return records;
+        } finally {
+            schemas.add(schema);
+        }
+    }
+
+    /**
+     * Stops the prefetch thread and the workers.
+     */
+    @Override
+    public void close() throws Exception {
+        running = false;
+        prefetchThread.join();
+        workers.shutdownNow();
+        pipeline.clear();
+    }
+
+    /**
+     * An entry of the pipeline, either an event with its (pending) deserialized records, or a checkpoint.
+     */
+    private static final class Entry<T> {
+        private final EventRead<ByteBuffer> eventRead;
+
+        @Nullable
+        private final Future<List<T>> records;
+
+        private Entry(EventRead<ByteBuffer> eventRead, @Nullable Future<List<T>> records) {
+            this.eventRead = eventRead;
+            this.records = records;
+        }
+    }
+}
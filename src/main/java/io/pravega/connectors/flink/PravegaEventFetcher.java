@@ -0,0 +1,261 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink;
+
+import io.pravega.client.stream.EventRead;
+import io.pravega.client.stream.EventStreamReader;
+import io.pravega.client.stream.TruncatedDataException;
+import io.pravega.client.stream.impl.EventReadImpl;
+import org.apache.flink.util.ExceptionUtils;
+import org.apache.flink.util.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reads events on behalf of a single {@link FlinkPravegaReader} subtask from one or more Pravega readers
+ * of the same reader group. <p>
+ *
+ * With a single reader, events are read on the calling thread without any hand-over. With more readers,
+ * every reader is driven by its own fetcher thread which hands the events over to the calling thread
+ * through a bounded queue. <p>
+ *
+ * The Pravega checkpoint is aligned across the readers: a fetcher thread stops reading once its reader
+ * returns the checkpoint event, and the checkpoint event is handed to the caller only after all the
+ * readers have reached it. The fetcher threads resume on the next call to {@link #readNextEvent(long)},
+ * i.e. after the caller has triggered the checkpoint, so no event that follows the checkpoint in any of
+ * the readers is returned before the checkpoint.
+ */
+class PravegaEventFetcher implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PravegaEventFetcher.class);
+
+    // the interval to check whether the fetcher is still running while waiting for the hand-over
+    private static final long WAIT_INTERVAL_MILLIS = 100L;
+
+    // the read that is returned when no event is available
+    private static final EventRead<ByteBuffer> EMPTY_READ = new EventReadImpl<>(null, null, null, null);
+
+    private final List<EventStreamReader<ByteBuffer>> readers;
+
+    private final List<FetcherThread> fetcherThreads;
+
+    private final BlockingQueue<EventRead<ByteBuffer>> handover;
+
+    private final long eventReadTimeoutMillis;
+
+    // the first error hit by any of the fetcher threads
+    private final AtomicReference<Throwable> fetchError = new AtomicReference<>();
+
+    private volatile boolean running = true;
+
+    // the checkpoint that some of the readers have reached, only accessed by the calling thread
+    private String pendingCheckpointName;
+
+    private int pendingCheckpointCount;
+
+    // whether the aligned checkpoint was handed to the caller and the fetcher threads wait to resume
+    private boolean checkpointHandedOver;
+
+    /**
+     * Creates a fetcher for the given readers.
+     *
+     * @param readers the Pravega readers.
+     * @param readerId the readerID of the subtask, used to name the fetcher threads.
+     * @param eventReadTimeoutMillis the timeout of the reads issued by the fetcher threads.
+     * @param handoverCapacity the maximum number of events handed over to the calling thread without being read.
+     */
+    PravegaEventFetcher(List<EventStreamReader<ByteBuffer>> readers, String readerId, long eventReadTimeoutMillis,
+                        int handoverCapacity) {
+        Preconditions.checkArgument(!readers.isEmpty(), "at least one reader is required");
+        Preconditions.checkArgument(handoverCapacity > 0, "handoverCapacity must be > 0");
+        this.readers = Collections.unmodifiableList(new ArrayList<>(readers));
+        this.eventReadTimeoutMillis = eventReadTimeoutMillis;
+        this.handover = new ArrayBlockingQueue<>(handoverCapacity);
+        this.fetcherThreads = new ArrayList<>();
+        if (readers.size() > 1) {
+            for (int i = 0; i < readers.size(); i++) {
+                fetcherThreads.add(new FetcherThread(readers.get(i), "Pravega fetcher " + readerId + "-" + i));
+            }
+        }
+    }
+
+    /**
+     * Gets the Pravega readers that the events are read from.
+     *
+     * @return the Pravega readers.
+     */
+    List<EventStreamReader<ByteBuffer>> getReaders() {
+        return readers;
+    }
+
+    /**
+     * Starts the fetcher threads, if any.
+     */
+    void start() {
+        fetcherThreads.forEach(Thread::start);
+    }
+
+    /**
+     * Reads the next event, or the next checkpoint that all readers have reached.
+     *
+     * @param timeoutMillis the maximum time to wait for an event.
+     * @return the read result, whose event is null if no event is available within the timeout.
+     * @throws IOException if a fetcher thread failed to read from Pravega.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    EventRead<ByteBuffer> readNextEvent(long timeoutMillis) throws IOException, InterruptedException {
+        if (fetcherThreads.isEmpty()) {
+            return readers.get(0).readNextEvent(timeoutMillis);
+        }
+
+        if (checkpointHandedOver) {
+            // the caller has processed the checkpoint, let the readers go past it
+            checkpointHandedOver = false;
+            fetcherThreads.forEach(t -> t.checkpointDone.release());
+        }
+
+        // a checkpoint that only some of the readers have reached is not a result, keep waiting for the
+        // remaining readers so that the caller does not take a partial checkpoint for an idle reader
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        do {
+            EventRead<ByteBuffer> eventRead = handover.poll(remainingNanos, TimeUnit.NANOSECONDS);
+            checkFetchError();
+            if (eventRead == null) {
+                break;
+            }
+            if (!eventRead.isCheckpoint() || isAlignedCheckpoint(eventRead)) {
+                return eventRead;
+            }
+            remainingNanos = deadline - System.nanoTime();
+        } while (remainingNanos > 0);
+        return EMPTY_READ;
+    }
+
+    private boolean isAlignedCheckpoint(EventRead<ByteBuffer> eventRead) {
+        if (pendingCheckpointName == null) {
+            pendingCheckpointName = eventRead.getCheckpointName();
+        }
+        Preconditions.checkState(pendingCheckpointName.equals(eventRead.getCheckpointName()),
+                "received checkpoint %s while waiting for checkpoint %s",
+                eventRead.getCheckpointName(), pendingCheckpointName);
+        if (++pendingCheckpointCount < readers.size()) {
+            return false;
+        }
+        LOG.debug("All {} readers reached checkpoint {}", readers.size(), pendingCheckpointName);
+        pendingCheckpointName = null;
+        pendingCheckpointCount = 0;
+        checkpointHandedOver = true;
+        return true;
+    }
+
+    private void checkFetchError() throws IOException {
+        Throwable t = fetchError.get();
+        if (t != null) {
+            throw new IOException("Failed to read events from Pravega", t);
+        }
+    }
+
+    /**
+     * Stops the fetcher threads and closes the readers.
+     */
+    @Override
+    public void close() throws Exception {
+        running = false;
+        for (FetcherThread fetcherThread : fetcherThreads) {
+            fetcherThread.join();
+        }
+
+        Throwable ex = null;
+        for (EventStreamReader<ByteBuffer> reader : readers) {
+            try {
+                reader.close();
+            } catch (Throwable e) {
+                ex = ExceptionUtils.firstOrSuppressed(e, ex);
+            }
+        }
+        if (ex instanceof Exception) {
+            throw (Exception) ex;
+        }
+    }
+
+    /**
+     * A thread that reads the events from one Pravega reader and hands them over to the calling thread.
+     */
+    private final class FetcherThread extends Thread {
+
+        private final EventStreamReader<ByteBuffer> reader;
+
+        // released by the calling thread once the checkpoint handed over by this thread is processed
+        private final Semaphore checkpointDone = new Semaphore(0);
+
+        private FetcherThread(EventStreamReader<ByteBuffer> reader, String name) {
+            super(name);
+            this.reader = reader;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    EventRead<ByteBuffer> eventRead;
+                    try {
+                        eventRead = reader.readNextEvent(eventReadTimeoutMillis);
+                    } catch (TruncatedDataException e) {
+                        // Data is truncated, Force the reader going forward to the next available event
+                        continue;
+                    }
+
+                    if (eventRead.getEvent() != null || eventRead.isCheckpoint()) {
+                        handOver(eventRead);
+                    }
+                    if (eventRead.isCheckpoint()) {
+                        awaitCheckpointDone();
+                    }
+                }
+            } catch (Throwable t) {
+                LOG.error("{} failed to read events", getName(), t);
+                fetchError.compareAndSet(null, t);
+            }
+        }
+
+        private void handOver(EventRead<ByteBuffer> eventRead) throws InterruptedException {
+            boolean handedOver = false;
+            while (running && !handedOver) {
+                handedOver = handover.offer(eventRead, WAIT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private void awaitCheckpointDone() throws InterruptedException {
+            boolean done = false;
+            while (running && !done) {
+                done = checkpointDone.tryAcquire(WAIT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+}
@@ -20,8 +20,13 @@ import io.pravega.client.batch.SegmentRange;
 import org.apache.flink.core.io.InputSplit;
 import org.apache.flink.util.Preconditions;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
- * A {@link PravegaInputSplit} corresponds to a Pravega {@link SegmentRange}.
+ * A {@link PravegaInputSplit} corresponds to a Pravega {@link SegmentRange}, or to several small
+ * {@link SegmentRange}s which are read one after the other.
  */
 public class PravegaInputSplit implements InputSplit {
 
@@ -29,11 +34,23 @@ public class PravegaInputSplit implements InputSplit {
 
     private final SegmentRange segmentRange;
 
+    // All the segment ranges of the split, starting with segmentRange
+    private final List<SegmentRange> segmentRanges;
+
     public PravegaInputSplit(int splitId, SegmentRange segmentRange) {
+        this(splitId, Collections.singletonList(segmentRange));
+    }
+
+    public PravegaInputSplit(int splitId, List<SegmentRange> segmentRanges) {
         Preconditions.checkArgument(splitId >= 0, "The splitId is not recognizable.");
-        Preconditions.checkNotNull(segmentRange, "segmentRange");
+        Preconditions.checkNotNull(segmentRanges, "segmentRanges");
+        Preconditions.checkArgument(!segmentRanges.isEmpty(), "segmentRanges must not be empty");
+        for (SegmentRange segmentRange : segmentRanges) {
+            Preconditions.checkNotNull(segmentRange, "segmentRange");
+        }
         this.splitId = splitId;
-        this.segmentRange = segmentRange;
+        this.segmentRange = segmentRanges.get(0);
+        this.segmentRanges = Collections.unmodifiableList(new ArrayList<>(segmentRanges));
     }
 
     @Override
@@ -41,10 +58,37 @@ public class PravegaInputSplit implements InputSplit {
         return splitId;
     }
 
+    /**
+     * Gets the first segment range of the split.
+     *
+     * @return the first segment range.
+     */
     public SegmentRange getSegmentRange() {
         return segmentRange;
     }
 
+    /**
+     * Gets the segment ranges of the split, in the order they are read.
+     *
+     * @return the segment ranges.
+     */
+    public List<SegmentRange> getSegmentRanges() {
+        return segmentRanges;
+    }
+
+    /**
+     * Gets the number of bytes covered by the segment ranges of the split.
+     *
+     * @return the size of the split in bytes.
+     */
+    public long getSize() {
+        long size = 0;
+        for (SegmentRange range : segmentRanges) {
+            size += range.getEndOffset() - range.getStartOffset();
+        }
+        return size;
+    }
+
     // --------------------------------------------------------------------
     // constructor guards segment range from being null
     @Override
@@ -60,7 +104,7 @@ public class PravegaInputSplit implements InputSplit {
 
         PravegaInputSplit that = (PravegaInputSplit) o;
 
-        if (!(this.getSegmentRange().equals(that.getSegmentRange()))) {
+        if (!(this.getSegmentRanges().equals(that.getSegmentRanges()))) {
                 return false;
         }
 
@@ -90,6 +134,11 @@ public class PravegaInputSplit implements InputSplit {
 
     @Override
     public String toString() {
+        if (segmentRanges.size() > 1) {
+            return "PravegaInputSplit {" +
+                    "splitId = " + splitId +
+                    ", segmentRanges = " + segmentRanges.toString() + "}";
+        }
         return "PravegaInputSplit {" +
                 "splitId = " + splitId +
                 ", segmentRange = " + segmentRange.toString() + "}";
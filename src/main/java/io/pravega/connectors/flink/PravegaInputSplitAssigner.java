@@ -0,0 +1,72 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.core.io.InputSplit;
+import org.apache.flink.core.io.InputSplitAssigner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * An {@link InputSplitAssigner} which hands out the largest {@link PravegaInputSplit}s first, so that a
+ * large segment starts being read at the beginning of the job instead of delaying its end
+ * (longest-processing-time-first scheduling). Input splits of the same size are handed out in the order
+ * of their split numbers. <p>
+ *
+ * The assignment does not depend on the requesting host, as the Pravega batch API does not tell which
+ * segment store serves a segment.
+ */
+@Internal
+public class PravegaInputSplitAssigner implements InputSplitAssigner {
+    private static final Logger LOG = LoggerFactory.getLogger(PravegaInputSplitAssigner.class);
+
+    private static final Comparator<PravegaInputSplit> LARGEST_FIRST =
+            Comparator.comparingLong(PravegaInputSplit::getSize).reversed()
+                    .thenComparingInt(PravegaInputSplit::getSplitNumber);
+
+    // The input splits which are not assigned yet, guarded by this
+    private final PriorityQueue<PravegaInputSplit> splits = new PriorityQueue<>(LARGEST_FIRST);
+
+    public PravegaInputSplitAssigner(PravegaInputSplit[] splits) {
+        for (PravegaInputSplit split : splits) {
+            this.splits.add(split);
+        }
+    }
+
+    @Override
+    public synchronized InputSplit getNextInputSplit(String host, int taskId) {
+        final PravegaInputSplit next = splits.poll();
+        if (next == null) {
+            LOG.debug("No more input splits available");
+        } else {
+            LOG.info("Assigning split {} of {} bytes to task {} on host {}", next.getSplitNumber(), next.getSize(),
+                    taskId, host);
+        }
+        return next;
+    }
+
+    @Override
+    public synchronized void returnInputSplit(List<InputSplit> splits, int taskId) {
+        for (InputSplit split : splits) {
+            this.splits.add((PravegaInputSplit) split);
+        }
+    }
+}
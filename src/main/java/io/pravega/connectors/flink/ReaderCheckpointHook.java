@@ -22,6 +22,7 @@ import io.pravega.client.stream.ReaderGroup;
 import io.pravega.client.stream.ReaderGroupConfig;
 import io.pravega.client.stream.ReaderGroupNotFoundException;
 import io.pravega.connectors.flink.serialization.CheckpointSerializer;
+import io.pravega.connectors.flink.util.FlinkPravegaUtils;
 import org.apache.flink.api.common.time.Time;
 import org.apache.flink.core.io.SimpleVersionedSerializer;
 import org.apache.flink.runtime.checkpoint.MasterTriggerRestoreHook;
@@ -35,7 +36,6 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
-import static org.apache.flink.util.Preconditions.checkArgument;
 import static org.apache.flink.util.Preconditions.checkNotNull;
 
 /**
@@ -45,9 +45,6 @@ import static org.apache.flink.util.Preconditions.checkNotNull;
 class ReaderCheckpointHook implements MasterTriggerRestoreHook<Checkpoint> {
     private static final Logger LOG = LoggerFactory.getLogger(ReaderCheckpointHook.class);
 
-    /** The prefix of checkpoint names */
-    private static final String PRAVEGA_CHECKPOINT_NAME_PREFIX = "PVG-CHK-";
-
     /** Default thread pool size of the checkpoint scheduler */
     private static final int DEFAULT_CHECKPOINT_THREAD_POOL_SIZE = 3;
 
@@ -189,17 +186,11 @@ class ReaderCheckpointHook implements MasterTriggerRestoreHook<Checkpoint> {
     }
 
     static long parseCheckpointId(String checkpointName) {
-        checkArgument(checkpointName.startsWith(PRAVEGA_CHECKPOINT_NAME_PREFIX));
-
-        try {
-            return Long.parseLong(checkpointName.substring(PRAVEGA_CHECKPOINT_NAME_PREFIX.length()));
-        } catch (NumberFormatException | IndexOutOfBoundsException e) {
-            throw new IllegalArgumentException(e);
-        }
+        return FlinkPravegaUtils.parseCheckpointId(checkpointName);
     }
 
     static String createCheckpointName(long checkpointId) {
-        return PRAVEGA_CHECKPOINT_NAME_PREFIX + checkpointId;
+        return FlinkPravegaUtils.createCheckpointName(checkpointId);
     }
 
 }
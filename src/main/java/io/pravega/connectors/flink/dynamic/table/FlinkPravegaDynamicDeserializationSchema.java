@@ -17,6 +17,7 @@ package io.pravega.connectors.flink.dynamic.table;
 
 import io.pravega.client.stream.EventRead;
 import io.pravega.connectors.flink.dynamic.table.FlinkPravegaDynamicTableSource.ReadableMetadata;
+import io.pravega.connectors.flink.serialization.ByteBufferDeserializationSchema;
 import io.pravega.connectors.flink.serialization.PravegaDeserializationSchemaWithMetadata;
 import org.apache.flink.api.common.serialization.DeserializationSchema;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
@@ -24,6 +25,7 @@ import org.apache.flink.table.data.GenericRowData;
 import org.apache.flink.table.data.RowData;
 import org.apache.flink.util.Collector;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
@@ -45,9 +47,28 @@ public class FlinkPravegaDynamicDeserializationSchema extends PravegaDeserializa
             int physicalArity,
             List<String> metadataKeys,
             DeserializationSchema<RowData> nestedSchema) {
+        this(typeInfo, physicalArity, metadataKeys, null, nestedSchema);
+    }
+
+    public FlinkPravegaDynamicDeserializationSchema(
+            TypeInformation<RowData> typeInfo,
+            int physicalArity,
+            List<String> metadataKeys,
+            @Nullable int[] physicalProjection,
+            DeserializationSchema<RowData> nestedSchema) {
+        this(typeInfo, physicalArity, metadataKeys, physicalProjection, null, nestedSchema);
+    }
+
+    public FlinkPravegaDynamicDeserializationSchema(
+            TypeInformation<RowData> typeInfo,
+            int physicalArity,
+            List<String> metadataKeys,
+            @Nullable int[] physicalProjection,
+            @Nullable PravegaRowFilter rowFilter,
+            DeserializationSchema<RowData> nestedSchema) {
         this.typeInfo = typeInfo;
         this.nestedSchema = nestedSchema;
-        this.outputCollector = new OutputCollector(metadataKeys, physicalArity);
+        this.outputCollector = new OutputCollector(metadataKeys, physicalArity, physicalProjection, rowFilter);
     }
 
     @Override
@@ -55,14 +76,31 @@ public class FlinkPravegaDynamicDeserializationSchema extends PravegaDeserializa
         this.nestedSchema.open(context);
     }
 
+    /**
+     * Deserializes an event read without its {@link EventRead}, as by the batch reads. The produced row is
+     * projected in the same way as in the streaming reads, and its connector metadata fields are null.
+     * A row rejected by the pushed down filters is dropped like an undecodable event, by returning null.
+     */
     @Override
     public RowData deserialize(byte[] message) throws IOException {
-        return this.nestedSchema.deserialize(message);
+        final RowData decodedRow = this.nestedSchema.deserialize(message);
+        if (decodedRow == null || !this.outputCollector.accept(decodedRow, null)) {
+            return null;
+        }
+        return this.outputCollector.enrichWithMetadata(decodedRow, null);
     }
 
+    /**
+     * Deserializes an event read without its {@link EventRead}, as by the batch reads of event batches.
+     * The produced rows are projected in the same way as in the streaming reads, and their connector metadata
+     * fields are null.
+     */
     @Override
     public void deserialize(byte[] message, Collector<RowData> out) throws IOException {
-        this.nestedSchema.deserialize(message, out);
+        this.outputCollector.eventRead = null;
+        this.outputCollector.out = out;
+
+        this.nestedSchema.deserialize(message, this.outputCollector);
     }
 
     @Override
@@ -75,7 +113,21 @@ public class FlinkPravegaDynamicDeserializationSchema extends PravegaDeserializa
         this.outputCollector.eventRead = eventRead;
         this.outputCollector.out = out;
 
-        this.deserialize(message, this.outputCollector);
+        this.nestedSchema.deserialize(message, this.outputCollector);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void deserialize(ByteBuffer message, EventRead<ByteBuffer> eventRead, Collector<RowData> out) throws IOException {
+        this.outputCollector.eventRead = eventRead;
+        this.outputCollector.out = out;
+
+        // parse the event buffer in place if the format supports it
+        if (this.nestedSchema instanceof ByteBufferDeserializationSchema) {
+            ((ByteBufferDeserializationSchema<RowData>) this.nestedSchema).deserialize(message, this.outputCollector);
+        } else {
+            this.nestedSchema.deserialize(byteBufferToArray(message), this.outputCollector);
+        }
     }
 
     @Override
@@ -94,7 +146,8 @@ public class FlinkPravegaDynamicDeserializationSchema extends PravegaDeserializa
         // the original collector which need both original and metadata keys
         public transient Collector<RowData> out;
 
-        // where we get the event pointer from
+        // where we get the event pointer from, null if the event was read without metadata
+        @Nullable
         public transient EventRead<ByteBuffer> eventRead;
 
         // metadata keys that the rowData have and is a subset of ReadableMetadata
@@ -103,13 +156,28 @@ public class FlinkPravegaDynamicDeserializationSchema extends PravegaDeserializa
         // source datatype arity without metadata
         private final int physicalArity;
 
-        private OutputCollector(List<String> metadataKeys, int physicalArity) {
+        // positions of the physical fields in the decoded row, null if the decoded row is already projected
+        @Nullable
+        private final int[] physicalProjection;
+
+        // filter to drop the rows early, null if all the rows are emitted
+        @Nullable
+        private final PravegaRowFilter rowFilter;
+
+        private OutputCollector(List<String> metadataKeys, int physicalArity, @Nullable int[] physicalProjection,
+                                @Nullable PravegaRowFilter rowFilter) {
             this.metadataKeys = metadataKeys;
             this.physicalArity = physicalArity;
+            this.physicalProjection = physicalProjection;
+            this.rowFilter = rowFilter;
         }
 
         @Override
         public void collect(RowData record) {
+            if (record != null && !accept(record, eventRead)) {
+                return;
+            }
+
             if (this.metadataKeys.size() == 0 || record != null) {
                 record = enrichWithMetadata(record, eventRead);
             }
@@ -122,26 +190,35 @@ public class FlinkPravegaDynamicDeserializationSchema extends PravegaDeserializa
             // nothing to do
         }
 
-        public RowData enrichWithMetadata(RowData rowData, EventRead<ByteBuffer> eventRead) {
+        // tests the decoded row against the pushed down filters before the produced row is built
+        public boolean accept(RowData decodedRow, @Nullable EventRead<ByteBuffer> eventRead) {
+            return rowFilter == null || rowFilter.test(pos -> getProducedField(decodedRow, pos, eventRead));
+        }
+
+        public RowData enrichWithMetadata(RowData rowData, @Nullable EventRead<ByteBuffer> eventRead) {
             // use GenericRowData to manipulate rowData's field
             final GenericRowData producedRow = new GenericRowData(rowData.getRowKind(), physicalArity + metadataKeys.size());
 
-            // set the physical(original) field
-            final GenericRowData physicalRow = (GenericRowData) rowData;
-            int pos = 0;
-            for (; pos < physicalArity; pos++) {
-                producedRow.setField(pos, physicalRow.getField(pos));
+            // set the physical(original) field and then the virtual(metadata) field after the physical field
+            for (int pos = 0; pos < physicalArity + metadataKeys.size(); pos++) {
+                producedRow.setField(pos, getProducedField(rowData, pos, eventRead));
             }
 
-            // set the virtual(metadata) field after the physical field, no effect if the key is not supported
-            for (; pos < physicalArity + metadataKeys.size(); pos++) {
-                String metadataKey = metadataKeys.get(pos - physicalArity);
-                if (ReadableMetadata.EVENT_POINTER.key.equals(metadataKey)) {
-                    producedRow.setField(pos, byteBufferToArray(eventRead.getEventPointer().toBytes()));
-                }
+            return producedRow;
+        }
+
+        private Object getProducedField(RowData rowData, int pos, @Nullable EventRead<ByteBuffer> eventRead) {
+            if (pos < physicalArity) {
+                final GenericRowData physicalRow = (GenericRowData) rowData;
+                return physicalRow.getField(physicalProjection == null ? pos : physicalProjection[pos]);
             }
 
-            return producedRow;
+            // no effect if the metadata key is not supported, or if the event was read without metadata
+            String metadataKey = metadataKeys.get(pos - physicalArity);
+            if (eventRead != null && ReadableMetadata.EVENT_POINTER.key.equals(metadataKey)) {
+                return byteBufferToArray(eventRead.getEventPointer().toBytes());
+            }
+            return null;
         }
     }
 }
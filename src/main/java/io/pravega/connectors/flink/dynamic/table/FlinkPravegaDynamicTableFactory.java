@@ -74,10 +74,13 @@ public class FlinkPravegaDynamicTableFactory implements
                 PravegaOptionsUtil.getReaderGroupRefreshTimeMillis(tableOptions),
                 PravegaOptionsUtil.getCheckpointInitiateTimeoutMillis(tableOptions),
                 PravegaOptionsUtil.getEventReadTimeoutMillis(tableOptions),
+                PravegaOptionsUtil.getMinEventReadTimeoutMillis(tableOptions),
                 PravegaOptionsUtil.getMaxOutstandingCheckpointRequest(tableOptions),
                 PravegaOptionsUtil.getUid(tableOptions),
                 PravegaOptionsUtil.isStreamingReader(tableOptions),
-                PravegaOptionsUtil.isBoundedRead(tableOptions));
+                PravegaOptionsUtil.isBoundedRead(tableOptions),
+                PravegaOptionsUtil.isEventBatchingEnabled(tableOptions),
+                PravegaOptionsUtil.isProjectableFormat(tableOptions));
     }
 
     @Override
@@ -104,7 +107,9 @@ public class FlinkPravegaDynamicTableFactory implements
                 PravegaOptionsUtil.getWriterMode(tableOptions),
                 PravegaOptionsUtil.getTransactionLeaseRenewalIntervalMillis(tableOptions),
                 PravegaOptionsUtil.isWatermarkPropagationEnabled(tableOptions),
-                PravegaOptionsUtil.getRoutingKeyField(tableOptions));
+                PravegaOptionsUtil.getRoutingKeyField(tableOptions),
+                PravegaOptionsUtil.getMaxInFlightEvents(tableOptions),
+                PravegaOptionsUtil.getMaxInFlightBytes(tableOptions));
     }
 
     @Override
@@ -132,12 +137,16 @@ public class FlinkPravegaDynamicTableFactory implements
         options.add(SCAN_READER_GROUP_MAX_OUTSTANDING_CHECKPOINT_REQUEST);
         options.add(SCAN_READER_GROUP_REFRESH_INTERVAL);
         options.add(SCAN_EVENT_READ_TIMEOUT_INTERVAL);
+        options.add(SCAN_EVENT_READ_TIMEOUT_MIN_INTERVAL);
+        options.add(SCAN_ENABLE_EVENT_BATCHING);
         options.add(SCAN_READER_GROUP_CHECKPOINT_INITIATE_TIMEOUT_INTERVAL);
         options.add(SINK_STREAM);
         options.add(SINK_SEMANTIC);
         options.add(SINK_TXN_LEASE_RENEWAL_INTERVAL);
         options.add(SINK_ENABLE_WATERMARK_PROPAGATION);
         options.add(SINK_ROUTINGKEY_FIELD_NAME);
+        options.add(SINK_MAX_IN_FLIGHT_EVENTS);
+        options.add(SINK_MAX_IN_FLIGHT_BYTES);
         return options;
     }
 }
@@ -65,6 +65,12 @@ public class FlinkPravegaDynamicTableSink implements DynamicTableSink {
     @Nullable
     private final String routingKeyFieldName;
 
+    // Maximum number of events written but not acknowledged yet
+    private final int maxInFlightEvents;
+
+    // Maximum size of the events written but not acknowledged yet
+    private final long maxInFlightBytes;
+
     /**
      * Creates a Pravega {@link DynamicTableSink}.
      *
@@ -88,6 +94,34 @@ public class FlinkPravegaDynamicTableSink implements DynamicTableSink {
                                         long txnLeaseRenewalIntervalMillis,
                                         boolean enableWatermarkPropagation,
                                         @Nullable String routingKeyFieldName) {
+        this(tableSchema, encodingFormat, pravegaConfig, stream, writerMode, txnLeaseRenewalIntervalMillis,
+                enableWatermarkPropagation, routingKeyFieldName, Integer.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a Pravega {@link DynamicTableSink} which bounds the writes in flight.
+     *
+     * @param tableSchema                   The table schema
+     * @param encodingFormat                sink format for encoding records to Pravega
+     * @param pravegaConfig                 Pravega connection configuration
+     * @param stream                        Pravega sink stream
+     * @param writerMode                    Pravega writer mode
+     * @param txnLeaseRenewalIntervalMillis transaction lease renewal period
+     * @param enableWatermarkPropagation    enable watermark propagation from Flink table to Pravega stream
+     * @param routingKeyFieldName           field name as Pravega routing key
+     * @param maxInFlightEvents             maximum number of events written but not acknowledged yet
+     * @param maxInFlightBytes              maximum size of the events written but not acknowledged yet
+     */
+    public FlinkPravegaDynamicTableSink(TableSchema tableSchema,
+                                        EncodingFormat<SerializationSchema<RowData>> encodingFormat,
+                                        PravegaConfig pravegaConfig,
+                                        Stream stream,
+                                        PravegaWriterMode writerMode,
+                                        long txnLeaseRenewalIntervalMillis,
+                                        boolean enableWatermarkPropagation,
+                                        @Nullable String routingKeyFieldName,
+                                        int maxInFlightEvents,
+                                        long maxInFlightBytes) {
         this.tableSchema = Preconditions.checkNotNull(tableSchema, "Table schema must not be null.");
         this.encodingFormat = Preconditions.checkNotNull(encodingFormat, "Encoding format must not be null.");
         this.pravegaConfig = Preconditions.checkNotNull(pravegaConfig, "Pravega config must not be null.");
@@ -96,6 +130,8 @@ public class FlinkPravegaDynamicTableSink implements DynamicTableSink {
         this.txnLeaseRenewalIntervalMillis = txnLeaseRenewalIntervalMillis;
         this.enableWatermarkPropagation = enableWatermarkPropagation;
         this.routingKeyFieldName = routingKeyFieldName;
+        this.maxInFlightEvents = maxInFlightEvents;
+        this.maxInFlightBytes = maxInFlightBytes;
     }
 
     @Override
@@ -111,7 +147,9 @@ public class FlinkPravegaDynamicTableSink implements DynamicTableSink {
                 .forStream(stream)
                 .withWriterMode(writerMode)
                 .enableWatermark(enableWatermarkPropagation)
-                .withTxnLeaseRenewalPeriod(Time.milliseconds(txnLeaseRenewalIntervalMillis));
+                .withTxnLeaseRenewalPeriod(Time.milliseconds(txnLeaseRenewalIntervalMillis))
+                .withMaxInFlightEvents(maxInFlightEvents)
+                .withMaxInFlightBytes(maxInFlightBytes);
 
         if (routingKeyFieldName != null) {
             writerBuilder.withEventRouter(new RowDataBasedRouter(routingKeyFieldName, tableSchema));
@@ -130,7 +168,9 @@ public class FlinkPravegaDynamicTableSink implements DynamicTableSink {
                 this.writerMode,
                 this.txnLeaseRenewalIntervalMillis,
                 this.enableWatermarkPropagation,
-                this.routingKeyFieldName);
+                this.routingKeyFieldName,
+                this.maxInFlightEvents,
+                this.maxInFlightBytes);
     }
 
     @Override
@@ -149,6 +189,8 @@ public class FlinkPravegaDynamicTableSink implements DynamicTableSink {
         final FlinkPravegaDynamicTableSink that = (FlinkPravegaDynamicTableSink) o;
         return txnLeaseRenewalIntervalMillis == that.txnLeaseRenewalIntervalMillis &&
                 enableWatermarkPropagation == that.enableWatermarkPropagation &&
+                maxInFlightEvents == that.maxInFlightEvents &&
+                maxInFlightBytes == that.maxInFlightBytes &&
                 tableSchema.equals(that.tableSchema) &&
                 encodingFormat.equals(that.encodingFormat) &&
                 pravegaConfig.equals(that.pravegaConfig) &&
@@ -167,7 +209,9 @@ public class FlinkPravegaDynamicTableSink implements DynamicTableSink {
                 writerMode,
                 txnLeaseRenewalIntervalMillis,
                 enableWatermarkPropagation,
-                routingKeyFieldName);
+                routingKeyFieldName,
+                maxInFlightEvents,
+                maxInFlightBytes);
     }
 
     /**
@@ -28,12 +28,19 @@ import org.apache.flink.table.connector.source.DynamicTableSource;
 import org.apache.flink.table.connector.source.InputFormatProvider;
 import org.apache.flink.table.connector.source.ScanTableSource;
 import org.apache.flink.table.connector.source.SourceFunctionProvider;
+import org.apache.flink.table.connector.source.abilities.SupportsFilterPushDown;
+import org.apache.flink.table.connector.source.abilities.SupportsLimitPushDown;
+import org.apache.flink.table.connector.source.abilities.SupportsProjectionPushDown;
 import org.apache.flink.table.connector.source.abilities.SupportsReadingMetadata;
 import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.expressions.ResolvedExpression;
 import org.apache.flink.table.types.DataType;
+import org.apache.flink.table.types.utils.DataTypeUtils;
 import org.apache.flink.util.Preconditions;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -43,7 +50,8 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-public class FlinkPravegaDynamicTableSource implements ScanTableSource, SupportsReadingMetadata {
+public class FlinkPravegaDynamicTableSource implements ScanTableSource, SupportsReadingMetadata,
+        SupportsProjectionPushDown, SupportsFilterPushDown, SupportsLimitPushDown {
 
     private static final String FORMAT_METADATA_PREFIX = "from_format.";
 
@@ -56,6 +64,16 @@ public class FlinkPravegaDynamicTableSource implements ScanTableSource, Supports
     // Metadata that is appended at the end of a physical source row
     private List<String> metadataKeys;
 
+    // Physical fields selected by the query, null if all the physical fields are read
+    @Nullable
+    private int[][] projectedFields;
+
+    // Filter predicates evaluated on the events before the rows are emitted
+    private List<PravegaRowFilter.FieldPredicate> filterPredicates;
+
+    // Maximum number of records read by each parallel reader, Long.MAX_VALUE for no limit
+    private long limit;
+
     // Scan format for decoding records from Pravega
     private final DecodingFormat<DeserializationSchema<RowData>> decodingFormat;
 
@@ -78,6 +96,9 @@ public class FlinkPravegaDynamicTableSource implements ScanTableSource, Supports
     // Timeout for event read call
     private final long eventReadTimeoutMillis;
 
+    // Minimum timeout for event read call in the adaptive mode, 0 to always use the event read timeout
+    private final long minEventReadTimeoutMillis;
+
     // Maximum outstanding Pravega checkpoint requests
     private final int maxOutstandingCheckpointRequest;
 
@@ -91,6 +112,12 @@ public class FlinkPravegaDynamicTableSource implements ScanTableSource, Supports
     // Flag to determine if the source stream is bounded
     private final boolean isBounded;
 
+    // Flag to determine if the events are read as event batches
+    private final boolean enableEventBatching;
+
+    // Flag to determine if the format looks up the fields by name and can decode the projected fields only
+    private final boolean isProjectableFormat;
+
     /**
      * Creates a Pravega {@link DynamicTableSource}.
      * @param physicalDataType                source produced data type
@@ -118,6 +145,114 @@ public class FlinkPravegaDynamicTableSource implements ScanTableSource, Supports
                                           String uid,
                                           boolean isStreamingReader,
                                           boolean isBounded) {
+        this(physicalDataType, decodingFormat, readerGroupName, pravegaConfig, streams, readerGroupRefreshTimeMillis,
+                checkpointInitiateTimeoutMillis, eventReadTimeoutMillis, 0L,
+                maxOutstandingCheckpointRequest, uid, isStreamingReader, isBounded);
+    }
+
+    /**
+     * Creates a Pravega {@link DynamicTableSource}.
+     * @param physicalDataType                source produced data type
+     * @param decodingFormat                  scan format for decoding records from Pravega
+     * @param readerGroupName                 the reader group name
+     * @param pravegaConfig                   Pravega connection configuration
+     * @param streams                         list of Pravega source streams with start and end streamcuts
+     * @param uid                             uid of the table source
+     * @param readerGroupRefreshTimeMillis    refresh interval for reader group
+     * @param checkpointInitiateTimeoutMillis timeout for call that initiates the Pravega checkpoint
+     * @param eventReadTimeoutMillis          timeout for event read call
+     * @param minEventReadTimeoutMillis       minimum timeout for event read call, 0 to disable the adaptive timeout
+     * @param maxOutstandingCheckpointRequest maximum outstanding Pravega checkpoint requests
+     * @param isStreamingReader               flag to determine streaming or batch read
+     * @param isBounded                       flag to determine if the source stream is bounded
+     */
+    public FlinkPravegaDynamicTableSource(DataType physicalDataType,
+                                          DecodingFormat<DeserializationSchema<RowData>> decodingFormat,
+                                          String readerGroupName,
+                                          PravegaConfig pravegaConfig,
+                                          List<StreamWithBoundaries> streams,
+                                          long readerGroupRefreshTimeMillis,
+                                          long checkpointInitiateTimeoutMillis,
+                                          long eventReadTimeoutMillis,
+                                          long minEventReadTimeoutMillis,
+                                          int maxOutstandingCheckpointRequest,
+                                          String uid,
+                                          boolean isStreamingReader,
+                                          boolean isBounded) {
+        this(physicalDataType, decodingFormat, readerGroupName, pravegaConfig, streams, readerGroupRefreshTimeMillis,
+                checkpointInitiateTimeoutMillis, eventReadTimeoutMillis, minEventReadTimeoutMillis,
+                maxOutstandingCheckpointRequest, uid, isStreamingReader, isBounded, false);
+    }
+
+    /**
+     * Creates a Pravega {@link DynamicTableSource}.
+     * @param physicalDataType                source produced data type
+     * @param decodingFormat                  scan format for decoding records from Pravega
+     * @param readerGroupName                 the reader group name
+     * @param pravegaConfig                   Pravega connection configuration
+     * @param streams                         list of Pravega source streams with start and end streamcuts
+     * @param uid                             uid of the table source
+     * @param readerGroupRefreshTimeMillis    refresh interval for reader group
+     * @param checkpointInitiateTimeoutMillis timeout for call that initiates the Pravega checkpoint
+     * @param eventReadTimeoutMillis          timeout for event read call
+     * @param minEventReadTimeoutMillis       minimum timeout for event read call, 0 to disable the adaptive timeout
+     * @param maxOutstandingCheckpointRequest maximum outstanding Pravega checkpoint requests
+     * @param isStreamingReader               flag to determine streaming or batch read
+     * @param isBounded                       flag to determine if the source stream is bounded
+     * @param enableEventBatching             flag to determine if the events are read as event batches
+     */
+    public FlinkPravegaDynamicTableSource(DataType physicalDataType,
+                                          DecodingFormat<DeserializationSchema<RowData>> decodingFormat,
+                                          String readerGroupName,
+                                          PravegaConfig pravegaConfig,
+                                          List<StreamWithBoundaries> streams,
+                                          long readerGroupRefreshTimeMillis,
+                                          long checkpointInitiateTimeoutMillis,
+                                          long eventReadTimeoutMillis,
+                                          long minEventReadTimeoutMillis,
+                                          int maxOutstandingCheckpointRequest,
+                                          String uid,
+                                          boolean isStreamingReader,
+                                          boolean isBounded,
+                                          boolean enableEventBatching) {
+        this(physicalDataType, decodingFormat, readerGroupName, pravegaConfig, streams, readerGroupRefreshTimeMillis,
+                checkpointInitiateTimeoutMillis, eventReadTimeoutMillis, minEventReadTimeoutMillis,
+                maxOutstandingCheckpointRequest, uid, isStreamingReader, isBounded, enableEventBatching, false);
+    }
+
+    /**
+     * Creates a Pravega {@link DynamicTableSource}.
+     * @param physicalDataType                source produced data type
+     * @param decodingFormat                  scan format for decoding records from Pravega
+     * @param readerGroupName                 the reader group name
+     * @param pravegaConfig                   Pravega connection configuration
+     * @param streams                         list of Pravega source streams with start and end streamcuts
+     * @param uid                             uid of the table source
+     * @param readerGroupRefreshTimeMillis    refresh interval for reader group
+     * @param checkpointInitiateTimeoutMillis timeout for call that initiates the Pravega checkpoint
+     * @param eventReadTimeoutMillis          timeout for event read call
+     * @param minEventReadTimeoutMillis       minimum timeout for event read call, 0 to disable the adaptive timeout
+     * @param maxOutstandingCheckpointRequest maximum outstanding Pravega checkpoint requests
+     * @param isStreamingReader               flag to determine streaming or batch read
+     * @param isBounded                       flag to determine if the source stream is bounded
+     * @param enableEventBatching             flag to determine if the events are read as event batches
+     * @param isProjectableFormat             flag to determine if the format can decode the projected fields only
+     */
+    public FlinkPravegaDynamicTableSource(DataType physicalDataType,
+                                          DecodingFormat<DeserializationSchema<RowData>> decodingFormat,
+                                          String readerGroupName,
+                                          PravegaConfig pravegaConfig,
+                                          List<StreamWithBoundaries> streams,
+                                          long readerGroupRefreshTimeMillis,
+                                          long checkpointInitiateTimeoutMillis,
+                                          long eventReadTimeoutMillis,
+                                          long minEventReadTimeoutMillis,
+                                          int maxOutstandingCheckpointRequest,
+                                          String uid,
+                                          boolean isStreamingReader,
+                                          boolean isBounded,
+                                          boolean enableEventBatching,
+                                          boolean isProjectableFormat) {
         this(
                 physicalDataType,
                 // producedDataType should be the same as physicalDataType on initialization
@@ -125,6 +260,10 @@ public class FlinkPravegaDynamicTableSource implements ScanTableSource, Supports
                 physicalDataType,
                 // metadataKeys will be empty on initialization and will be updated on `applyReadableMetadata`
                 Collections.emptyList(),
+                // projectedFields will be null on initialization and will be updated on `applyProjection`
+                null,
+                // filterPredicates will be empty on initialization and will be updated on `applyFilters`
+                Collections.emptyList(),
                 decodingFormat,
                 readerGroupName,
                 pravegaConfig,
@@ -132,16 +271,23 @@ public class FlinkPravegaDynamicTableSource implements ScanTableSource, Supports
                 readerGroupRefreshTimeMillis,
                 checkpointInitiateTimeoutMillis,
                 eventReadTimeoutMillis,
+                minEventReadTimeoutMillis,
                 maxOutstandingCheckpointRequest,
                 uid,
                 isStreamingReader,
-                isBounded
+                isBounded,
+                enableEventBatching,
+                isProjectableFormat,
+                // limit will be unbounded on initialization and will be updated on `applyLimit`
+                Long.MAX_VALUE
         );
     }
 
     FlinkPravegaDynamicTableSource(DataType physicalDataType,
                                    DataType producedDataType,
                                    List<String> metadataKeys,
+                                   @Nullable int[][] projectedFields,
+                                   List<PravegaRowFilter.FieldPredicate> filterPredicates,
                                    DecodingFormat<DeserializationSchema<RowData>> decodingFormat,
                                    String readerGroupName,
                                    PravegaConfig pravegaConfig,
@@ -149,10 +295,14 @@ public class FlinkPravegaDynamicTableSource implements ScanTableSource, Supports
                                    long readerGroupRefreshTimeMillis,
                                    long checkpointInitiateTimeoutMillis,
                                    long eventReadTimeoutMillis,
+                                   long minEventReadTimeoutMillis,
                                    int maxOutstandingCheckpointRequest,
                                    String uid,
                                    boolean isStreamingReader,
-                                   boolean isBounded) {
+                                   boolean isBounded,
+                                   boolean enableEventBatching,
+                                   boolean isProjectableFormat,
+                                   long limit) {
         this.physicalDataType = Preconditions.checkNotNull(
                 physicalDataType, "Physical data type must not be null.");
         this.producedDataType = Preconditions.checkNotNull(
@@ -161,6 +311,9 @@ public class FlinkPravegaDynamicTableSource implements ScanTableSource, Supports
                 decodingFormat, "Decoding format must not be null.");
         this.metadataKeys = Preconditions.checkNotNull(
                 metadataKeys, "Metadata Keys must not be null.");
+        this.projectedFields = projectedFields;
+        this.filterPredicates = Preconditions.checkNotNull(
+                filterPredicates, "Filter predicates must not be null.");
         this.readerGroupName = readerGroupName;
         this.pravegaConfig = Preconditions.checkNotNull(
                 pravegaConfig, "Pravega config must not be null.");
@@ -169,10 +322,14 @@ public class FlinkPravegaDynamicTableSource implements ScanTableSource, Supports
         this.readerGroupRefreshTimeMillis = readerGroupRefreshTimeMillis;
         this.checkpointInitiateTimeoutMillis = checkpointInitiateTimeoutMillis;
         this.eventReadTimeoutMillis = eventReadTimeoutMillis;
+        this.minEventReadTimeoutMillis = minEventReadTimeoutMillis;
         this.maxOutstandingCheckpointRequest = maxOutstandingCheckpointRequest;
         this.uid = uid;
         this.isStreamingReader = isStreamingReader;
         this.isBounded = isBounded;
+        this.enableEventBatching = enableEventBatching;
+        this.isProjectableFormat = isProjectableFormat;
+        this.limit = limit;
     }
 
     @Override
@@ -182,13 +339,30 @@ public class FlinkPravegaDynamicTableSource implements ScanTableSource, Supports
 
     @Override
     public ScanRuntimeProvider getScanRuntimeProvider(ScanContext runtimeProviderContext) {
+        // let the format decode the projected fields only if it looks them up by name,
+        // otherwise decode the full physical row and project it while adding the metadata
+        final DataType formatDataType;
+        final int[] physicalProjection;
+        if (projectedFields == null) {
+            formatDataType = physicalDataType;
+            physicalProjection = null;
+        } else if (isProjectableFormat) {
+            formatDataType = DataTypeUtils.projectRow(physicalDataType, projectedFields);
+            physicalProjection = null;
+        } else {
+            formatDataType = physicalDataType;
+            physicalProjection = createPhysicalProjection();
+        }
+
         // create a PravegaDeserializationSchema that will expose metadata to the row
         final FlinkPravegaDynamicDeserializationSchema deserializationSchema
                 = new FlinkPravegaDynamicDeserializationSchema(
                 runtimeProviderContext.createTypeInformation(producedDataType),
                 producedDataType.getChildren().size() - metadataKeys.size(),
                 metadataKeys,
-                decodingFormat.createRuntimeDecoder(runtimeProviderContext, physicalDataType));
+                physicalProjection,
+                PravegaRowFilter.create(filterPredicates, producedDataType),
+                decodingFormat.createRuntimeDecoder(runtimeProviderContext, formatDataType));
 
         if (isStreamingReader) {
             FlinkPravegaReader.Builder<RowData> readerBuilder = FlinkPravegaReader.<RowData>builder()
@@ -197,8 +371,13 @@ public class FlinkPravegaDynamicTableSource implements ScanTableSource, Supports
                     .withReaderGroupRefreshTime(Time.milliseconds(readerGroupRefreshTimeMillis))
                     .withCheckpointInitiateTimeout(Time.milliseconds(checkpointInitiateTimeoutMillis))
                     .withEventReadTimeout(Time.milliseconds(eventReadTimeoutMillis))
-                    .withMaxOutstandingCheckpointRequest(maxOutstandingCheckpointRequest);
+                    .withMaxOutstandingCheckpointRequest(maxOutstandingCheckpointRequest)
+                    .enableEventBatching(enableEventBatching)
+                    .withLimit(limit);
             Optional.ofNullable(readerGroupName).ifPresent(readerBuilder::withReaderGroupName);
+            if (minEventReadTimeoutMillis > 0) {
+                readerBuilder.withMinEventReadTimeout(Time.milliseconds(minEventReadTimeoutMillis));
+            }
 
             for (StreamWithBoundaries stream : streams) {
                 readerBuilder.forStream(stream.getStream(), stream.getFrom(), stream.getTo());
@@ -211,7 +390,9 @@ public class FlinkPravegaDynamicTableSource implements ScanTableSource, Supports
             FlinkPravegaInputFormat.Builder<RowData> inputFormatBuilder =
                     FlinkPravegaInputFormat.<RowData>builder()
                             .withPravegaConfig(pravegaConfig)
-                            .withDeserializationSchema(deserializationSchema);
+                            .withDeserializationSchema(deserializationSchema)
+                            .enableEventBatching(enableEventBatching)
+                            .withLimit(limit);
 
             for (StreamWithBoundaries stream : streams) {
                 inputFormatBuilder.forStream(stream.getStream(), stream.getFrom(), stream.getTo());
@@ -221,12 +402,30 @@ public class FlinkPravegaDynamicTableSource implements ScanTableSource, Supports
         }
     }
 
+    // maps the physical and format metadata fields of the produced row to the positions in the decoded row,
+    // the format metadata is appended by the format after the full physical row
+    private int[] createPhysicalProjection() {
+        final int physicalArity = physicalDataType.getChildren().size();
+        final int formatMetadataArity =
+                producedDataType.getChildren().size() - metadataKeys.size() - projectedFields.length;
+        final int[] physicalProjection = new int[projectedFields.length + formatMetadataArity];
+        for (int i = 0; i < projectedFields.length; i++) {
+            physicalProjection[i] = projectedFields[i][0];
+        }
+        for (int i = 0; i < formatMetadataArity; i++) {
+            physicalProjection[projectedFields.length + i] = physicalArity + i;
+        }
+        return physicalProjection;
+    }
+
     @Override
     public DynamicTableSource copy() {
         return new FlinkPravegaDynamicTableSource(
                 this.physicalDataType,
                 this.producedDataType,
                 this.metadataKeys,
+                this.projectedFields,
+                this.filterPredicates,
                 this.decodingFormat,
                 this.readerGroupName,
                 this.pravegaConfig,
@@ -234,10 +433,14 @@ public class FlinkPravegaDynamicTableSource implements ScanTableSource, Supports
                 this.readerGroupRefreshTimeMillis,
                 this.checkpointInitiateTimeoutMillis,
                 this.eventReadTimeoutMillis,
+                this.minEventReadTimeoutMillis,
                 this.maxOutstandingCheckpointRequest,
                 this.uid,
                 this.isStreamingReader,
-                this.isBounded);
+                this.isBounded,
+                this.enableEventBatching,
+                this.isProjectableFormat,
+                this.limit);
     }
 
     @Override
@@ -257,13 +460,19 @@ public class FlinkPravegaDynamicTableSource implements ScanTableSource, Supports
         return readerGroupRefreshTimeMillis == that.readerGroupRefreshTimeMillis &&
                 checkpointInitiateTimeoutMillis == that.checkpointInitiateTimeoutMillis &&
                 eventReadTimeoutMillis == that.eventReadTimeoutMillis &&
+                minEventReadTimeoutMillis == that.minEventReadTimeoutMillis &&
                 maxOutstandingCheckpointRequest == that.maxOutstandingCheckpointRequest &&
                 isStreamingReader == that.isStreamingReader &&
                 isBounded == that.isBounded &&
+                enableEventBatching == that.enableEventBatching &&
+                isProjectableFormat == that.isProjectableFormat &&
+                limit == that.limit &&
                 producedDataType.equals(that.producedDataType) &&
                 physicalDataType.equals(that.physicalDataType) &&
                 decodingFormat.equals(that.decodingFormat) &&
                 metadataKeys.equals(that.metadataKeys) &&
+                Arrays.deepEquals(projectedFields, that.projectedFields) &&
+                filterPredicates.equals(that.filterPredicates) &&
                 Objects.equals(readerGroupName, that.readerGroupName) &&
                 pravegaConfig.equals(that.pravegaConfig) &&
                 streams.equals(that.streams) &&
@@ -277,16 +486,22 @@ public class FlinkPravegaDynamicTableSource implements ScanTableSource, Supports
                 physicalDataType,
                 decodingFormat,
                 metadataKeys,
+                Arrays.deepHashCode(projectedFields),
+                filterPredicates,
                 readerGroupName,
                 pravegaConfig,
                 streams,
                 readerGroupRefreshTimeMillis,
                 checkpointInitiateTimeoutMillis,
                 eventReadTimeoutMillis,
+                minEventReadTimeoutMillis,
                 maxOutstandingCheckpointRequest,
                 uid,
                 isStreamingReader,
-                isBounded);
+                isBounded,
+                enableEventBatching,
+                isProjectableFormat,
+                limit);
     }
 
     @Override
@@ -330,6 +545,50 @@ public class FlinkPravegaDynamicTableSource implements ScanTableSource, Supports
         this.producedDataType = producedDataType;
     }
 
+    @Override
+    public boolean supportsNestedProjection() {
+        return false;
+    }
+
+    @Override
+    public void applyProjection(int[][] projectedFields) {
+        this.projectedFields = projectedFields;
+
+        // keep the metadata fields that may have been applied at the end of the produced row
+        final int physicalArity = physicalDataType.getChildren().size();
+        final int metadataArity = producedDataType.getChildren().size() - physicalArity;
+        final int[][] producedFields = Arrays.copyOf(projectedFields, projectedFields.length + metadataArity);
+        for (int i = 0; i < metadataArity; i++) {
+            producedFields[projectedFields.length + i] = new int[]{physicalArity + i};
+        }
+        this.producedDataType = DataTypeUtils.projectRow(producedDataType, producedFields);
+    }
+
+    @Override
+    public Result applyFilters(List<ResolvedExpression> filters) {
+        final List<ResolvedExpression> acceptedFilters = new ArrayList<>();
+        final List<PravegaRowFilter.FieldPredicate> predicates = new ArrayList<>();
+        for (ResolvedExpression filter : filters) {
+            PravegaRowFilter.toPredicate(filter).ifPresent(predicate -> {
+                acceptedFilters.add(filter);
+                predicates.add(predicate);
+            });
+        }
+        this.filterPredicates = predicates;
+
+        // the source only drops the events early, all the filters are still applied by the planner
+        return Result.of(acceptedFilters, filters);
+    }
+
+    @Override
+    public void applyLimit(long limit) {
+        // only pushed down into bounded scans, the planner still applies the limit to the union of the readers.
+        // an unbounded streaming reader keeps reading, as stopping it would end the stream for the other operators
+        if (!isStreamingReader || isBounded) {
+            this.limit = limit;
+        }
+    }
+
     enum ReadableMetadata {
         EVENT_POINTER(
                 "event_pointer",
@@ -17,6 +17,7 @@ package io.pravega.connectors.flink.dynamic.table;
 
 import org.apache.flink.configuration.ConfigOption;
 import org.apache.flink.configuration.ConfigOptions;
+import org.apache.flink.configuration.MemorySize;
 
 import java.time.Duration;
 import java.util.List;
@@ -125,6 +126,20 @@ public class PravegaOptions {
             .defaultValue(Duration.ofSeconds(1))
             .withDescription("Optional timeout for the call to read events from Pravega (default=1s)");
 
+    public static final ConfigOption<Duration> SCAN_EVENT_READ_TIMEOUT_MIN_INTERVAL = ConfigOptions
+            .key("scan.event-read.timeout.min-interval")
+            .durationType()
+            .noDefaultValue()
+            .withDescription("Optional minimum timeout for the call to read events from Pravega. If set, the timeout " +
+                    "is doubled on every empty read up to 'scan.event-read.timeout.interval' and reset on data");
+
+    public static final ConfigOption<Boolean> SCAN_ENABLE_EVENT_BATCHING = ConfigOptions
+            .key("scan.enable.event-batching")
+            .booleanType()
+            .defaultValue(false)
+            .withDescription("Optional flag to read the events written as event batches, where every record of a batch " +
+                    "becomes a row of the table");
+
     public static final ConfigOption<Duration> SCAN_READER_GROUP_CHECKPOINT_INITIATE_TIMEOUT_INTERVAL = ConfigOptions
             .key("scan.reader-group.checkpoint-initiate-timeout.interval")
             .durationType()
@@ -165,5 +180,19 @@ public class PravegaOptions {
             .noDefaultValue()
             .withDescription("Optional field name to use as a Pravega event routing key, field type must be STRING, random routing if not specified");
 
+    public static final ConfigOption<Integer> SINK_MAX_IN_FLIGHT_EVENTS = ConfigOptions
+            .key("sink.max-in-flight.events")
+            .intType()
+            .noDefaultValue()
+            .withDescription("Optional maximum number of events written but not acknowledged yet, writing blocks when reached, " +
+                    "valid for at-least-once and best-effort semantic, unbounded if not specified");
+
+    public static final ConfigOption<MemorySize> SINK_MAX_IN_FLIGHT_BYTES = ConfigOptions
+            .key("sink.max-in-flight.bytes")
+            .memoryType()
+            .noDefaultValue()
+            .withDescription("Optional maximum size of the events written but not acknowledged yet, writing blocks when reached, " +
+                    "valid for at-least-once and best-effort semantic, unbounded if not specified");
+
     private PravegaOptions() {}
 }
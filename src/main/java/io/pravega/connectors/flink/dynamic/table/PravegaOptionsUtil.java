@@ -20,15 +20,19 @@ import io.pravega.client.stream.Stream;
 import io.pravega.client.stream.StreamCut;
 import io.pravega.connectors.flink.PravegaConfig;
 import io.pravega.connectors.flink.PravegaWriterMode;
+import io.pravega.connectors.flink.formats.registry.PravegaRegistryFormatFactory;
 import io.pravega.connectors.flink.util.FlinkPravegaUtils;
 import io.pravega.connectors.flink.util.StreamWithBoundaries;
 import io.pravega.shared.NameUtils;
 import org.apache.flink.annotation.Internal;
+import org.apache.flink.configuration.MemorySize;
 import org.apache.flink.configuration.ReadableConfig;
 import org.apache.flink.table.api.TableException;
 import org.apache.flink.table.api.ValidationException;
+import org.apache.flink.table.factories.FactoryUtil;
 
 import java.net.URI;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -37,8 +41,10 @@ import java.util.Optional;
 import java.util.Set;
 
 import static io.pravega.connectors.flink.dynamic.table.PravegaOptions.CONTROLLER_URI;
+import static io.pravega.connectors.flink.dynamic.table.PravegaOptions.SCAN_ENABLE_EVENT_BATCHING;
 import static io.pravega.connectors.flink.dynamic.table.PravegaOptions.SCAN_END_STREAMCUTS;
 import static io.pravega.connectors.flink.dynamic.table.PravegaOptions.SCAN_EVENT_READ_TIMEOUT_INTERVAL;
+import static io.pravega.connectors.flink.dynamic.table.PravegaOptions.SCAN_EVENT_READ_TIMEOUT_MIN_INTERVAL;
 import static io.pravega.connectors.flink.dynamic.table.PravegaOptions.SCAN_EXECUTION_TYPE;
 import static io.pravega.connectors.flink.dynamic.table.PravegaOptions.SCAN_READER_GROUP_CHECKPOINT_INITIATE_TIMEOUT_INTERVAL;
 import static io.pravega.connectors.flink.dynamic.table.PravegaOptions.SCAN_READER_GROUP_MAX_OUTSTANDING_CHECKPOINT_REQUEST;
@@ -53,6 +59,8 @@ import static io.pravega.connectors.flink.dynamic.table.PravegaOptions.SECURITY_
 import static io.pravega.connectors.flink.dynamic.table.PravegaOptions.SECURITY_TRUST_STORE;
 import static io.pravega.connectors.flink.dynamic.table.PravegaOptions.SECURITY_VALIDATE_HOSTNAME;
 import static io.pravega.connectors.flink.dynamic.table.PravegaOptions.SINK_ENABLE_WATERMARK_PROPAGATION;
+import static io.pravega.connectors.flink.dynamic.table.PravegaOptions.SINK_MAX_IN_FLIGHT_BYTES;
+import static io.pravega.connectors.flink.dynamic.table.PravegaOptions.SINK_MAX_IN_FLIGHT_EVENTS;
 import static io.pravega.connectors.flink.dynamic.table.PravegaOptions.SINK_ROUTINGKEY_FIELD_NAME;
 import static io.pravega.connectors.flink.dynamic.table.PravegaOptions.SINK_SEMANTIC;
 import static io.pravega.connectors.flink.dynamic.table.PravegaOptions.SINK_STREAM;
@@ -85,6 +93,12 @@ public class PravegaOptionsUtil {
             SINK_SEMANTIC_VALUE_BEST_EFFORT
     ));
 
+    // formats which look up the row fields by name and thus can decode the projected fields only
+    private static final Set<String> PROJECTABLE_FORMATS = new HashSet<>(Arrays.asList(
+            "json",
+            PravegaRegistryFormatFactory.IDENTIFIER
+    ));
+
     private PravegaOptionsUtil() {}
 
     // --------------------------------------------------------------------------------------------
@@ -102,6 +116,7 @@ public class PravegaOptionsUtil {
     public static void validateTableSinkOptions(ReadableConfig tableOptions) {
         validateSinkStream(tableOptions);
         validateSinkSemantic(tableOptions);
+        validateSinkInFlightLimits(tableOptions);
     }
 
     private static void validateScanExecutionType(ReadableConfig tableOptions) {
@@ -144,6 +159,13 @@ public class PravegaOptionsUtil {
                         SCAN_READER_GROUP_MAX_OUTSTANDING_CHECKPOINT_REQUEST.key(), num));
             }
         });
+        tableOptions.getOptional(SCAN_EVENT_READ_TIMEOUT_MIN_INTERVAL).ifPresent(interval -> {
+            if (interval.isZero() || interval.isNegative()
+                    || interval.compareTo(tableOptions.get(SCAN_EVENT_READ_TIMEOUT_INTERVAL)) > 0) {
+                throw new ValidationException(String.format("'%s' requires a positive duration not greater than '%s', received %s",
+                        SCAN_EVENT_READ_TIMEOUT_MIN_INTERVAL.key(), SCAN_EVENT_READ_TIMEOUT_INTERVAL.key(), interval));
+            }
+        });
     }
 
     private static void validateSinkSemantic(ReadableConfig tableOptions) {
@@ -156,6 +178,21 @@ public class PravegaOptionsUtil {
         });
     }
 
+    private static void validateSinkInFlightLimits(ReadableConfig tableOptions) {
+        tableOptions.getOptional(SINK_MAX_IN_FLIGHT_EVENTS).ifPresent(num -> {
+            if (num < 1) {
+                throw new ValidationException(String.format("'%s' requires a positive integer, received %d",
+                        SINK_MAX_IN_FLIGHT_EVENTS.key(), num));
+            }
+        });
+        tableOptions.getOptional(SINK_MAX_IN_FLIGHT_BYTES).ifPresent(size -> {
+            if (size.getBytes() < 1) {
+                throw new ValidationException(String.format("'%s' requires a positive size, received %s",
+                        SINK_MAX_IN_FLIGHT_BYTES.key(), size));
+            }
+        });
+    }
+
     private static void validateSinkStream(ReadableConfig tableOptions) {
         String stream = tableOptions.getOptional(SINK_STREAM)
                 .orElseThrow(() -> new ValidationException(String.format("'%s' is required but missing", SINK_STREAM.key())));
@@ -210,10 +247,22 @@ public class PravegaOptionsUtil {
         return tableOptions.get(SCAN_EVENT_READ_TIMEOUT_INTERVAL).toMillis();
     }
 
+    public static long getMinEventReadTimeoutMillis(ReadableConfig tableOptions) {
+        return tableOptions.getOptional(SCAN_EVENT_READ_TIMEOUT_MIN_INTERVAL).map(Duration::toMillis).orElse(0L);
+    }
+
     public static int getMaxOutstandingCheckpointRequest(ReadableConfig tableOptions) {
         return tableOptions.get(SCAN_READER_GROUP_MAX_OUTSTANDING_CHECKPOINT_REQUEST);
     }
 
+    public static boolean isEventBatchingEnabled(ReadableConfig tableOptions) {
+        return tableOptions.get(SCAN_ENABLE_EVENT_BATCHING);
+    }
+
+    public static boolean isProjectableFormat(ReadableConfig tableOptions) {
+        return PROJECTABLE_FORMATS.contains(tableOptions.get(FactoryUtil.FORMAT));
+    }
+
     public static boolean isBoundedRead(ReadableConfig tableOptions) {
         Optional<List<String>> endStreamCuts = tableOptions.getOptional(SCAN_END_STREAMCUTS);
         return endStreamCuts.isPresent() &&
@@ -271,5 +320,13 @@ public class PravegaOptionsUtil {
         return tableOptions.get(SINK_ROUTINGKEY_FIELD_NAME);
     }
 
+    public static int getMaxInFlightEvents(ReadableConfig tableOptions) {
+        return tableOptions.getOptional(SINK_MAX_IN_FLIGHT_EVENTS).orElse(Integer.MAX_VALUE);
+    }
+
+    public static long getMaxInFlightBytes(ReadableConfig tableOptions) {
+        return tableOptions.getOptional(SINK_MAX_IN_FLIGHT_BYTES).map(MemorySize::getBytes).orElse(Long.MAX_VALUE);
+    }
+
 
 }
@@ -0,0 +1,456 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink.dynamic.table;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.table.data.DecimalData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.data.TimestampData;
+import org.apache.flink.table.data.binary.BinaryStringData;
+import org.apache.flink.table.expressions.CallExpression;
+import org.apache.flink.table.expressions.FieldReferenceExpression;
+import org.apache.flink.table.expressions.ResolvedExpression;
+import org.apache.flink.table.expressions.ValueLiteralExpression;
+import org.apache.flink.table.functions.BuiltInFunctionDefinitions;
+import org.apache.flink.table.functions.FunctionDefinition;
+import org.apache.flink.table.types.DataType;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+
+import javax.annotation.Nullable;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.IntFunction;
+
+/**
+ * A conjunction of simple predicates pushed down into {@link FlinkPravegaDynamicTableSource}.
+ *
+ * <p>Each predicate compares a top-level column or a metadata column with a literal, so that
+ * {@link FlinkPravegaDynamicDeserializationSchema} can reject an event before the produced row is built.
+ */
+@Internal
+public final class PravegaRowFilter implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // the predicates that all have to hold for a row to be emitted
+    private final List<FieldPredicate> predicates;
+
+    // the positions of the predicate fields in the produced row
+    private final int[] positions;
+
+    private PravegaRowFilter(List<FieldPredicate> predicates, int[] positions) {
+        this.predicates = predicates;
+        this.positions = positions;
+    }
+
+    /**
+     * Binds the predicates to the fields of the produced row type by name.
+     * Predicates on fields that are not produced are skipped.
+     *
+     * @param predicates       the pushed down predicates
+     * @param producedDataType the row type produced by the table source
+     * @return the row filter, or null if there is nothing to filter on
+     */
+    @Nullable
+    public static PravegaRowFilter create(List<FieldPredicate> predicates, DataType producedDataType) {
+        final List<String> fieldNames = ((RowType) producedDataType.getLogicalType()).getFieldNames();
+        final List<FieldPredicate> boundPredicates = new ArrayList<>();
+        final List<Integer> positions = new ArrayList<>();
+        for (FieldPredicate predicate : predicates) {
+            final int position = fieldNames.indexOf(predicate.fieldName);
+            if (position >= 0) {
+                boundPredicates.add(predicate);
+                positions.add(position);
+            }
+        }
+        if (boundPredicates.isEmpty()) {
+            return null;
+        }
+        return new PravegaRowFilter(boundPredicates, positions.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Tests a row against all the predicates.
+     *
+     * @param fieldGetter the getter of the internal field value at a position of the produced row
+     * @return true if the row satisfies all the predicates
+     */
+    public boolean test(IntFunction<Object> fieldGetter) {
+        for (int i = 0; i < predicates.size(); i++) {
+            if (!predicates.get(i).test(fieldGetter.apply(positions[i]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Converts a filter expression into a predicate if it compares a column with a literal of a supported type.
+     *
+     * @param expression the resolved filter expression
+     * @return the predicate, or empty if the filter cannot be evaluated by the source
+     */
+    public static Optional<FieldPredicate> toPredicate(ResolvedExpression expression) {
+        if (!(expression instanceof CallExpression)) {
+            return Optional.empty();
+        }
+        final CallExpression call = (CallExpression) expression;
+        final Operator operator = Operator.of(call.getFunctionDefinition());
+        final List<ResolvedExpression> args = call.getResolvedChildren();
+        if (operator == null || args.size() != operator.arity) {
+            return Optional.empty();
+        }
+        return operator.arity == 1 ? toNullCheck(operator, args.get(0)) : toComparison(operator, args.get(0), args.get(1));
+    }
+
+    private static Optional<FieldPredicate> toNullCheck(Operator operator, ResolvedExpression field) {
+        if (!(field instanceof FieldReferenceExpression)) {
+            return Optional.empty();
+        }
+        return Optional.of(new FieldPredicate(((FieldReferenceExpression) field).getName(), operator, null, null));
+    }
+
+    private static Optional<FieldPredicate> toComparison(Operator operator, ResolvedExpression left, ResolvedExpression right) {
+        // normalize the comparison to the column on the left side
+        Operator comparison = operator;
+        ResolvedExpression field = left;
+        ResolvedExpression literal = right;
+        if (left instanceof ValueLiteralExpression && right instanceof FieldReferenceExpression) {
+            comparison = operator.flip();
+            field = right;
+            literal = left;
+        }
+        if (!(field instanceof FieldReferenceExpression) || !(literal instanceof ValueLiteralExpression)) {
+            return Optional.empty();
+        }
+
+        final Object value = ((ValueLiteralExpression) literal).getValueAs(Object.class).orElse(null);
+        final ValueKind kind = ValueKind.of(field.getOutputDataType().getLogicalType(), value);
+        final boolean isEquality = comparison == Operator.EQUALS || comparison == Operator.NOT_EQUALS;
+        if (kind == null || (kind == ValueKind.BYTES && !isEquality)) {
+            return Optional.empty();
+        }
+        return Optional.of(new FieldPredicate(
+                ((FieldReferenceExpression) field).getName(), comparison, kind, kind.toLiteral(value)));
+    }
+
+    @Override
+    public String toString() {
+        return "PravegaRowFilter" + predicates;
+    }
+
+    // ------------------------------------------------------------------------
+
+    /** A comparison of a field with a literal, or a null check of a field. */
+    public static final class FieldPredicate implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String fieldName;
+
+        private final Operator operator;
+
+        // null for the null checks
+        @Nullable
+        private final ValueKind kind;
+
+        @Nullable
+        private final Serializable literal;
+
+        // the string literal in the internal format, created on first use
+        @Nullable
+        private transient BinaryStringData stringLiteral;
+
+        private FieldPredicate(String fieldName, Operator operator, @Nullable ValueKind kind, @Nullable Serializable literal) {
+            this.fieldName = fieldName;
+            this.operator = operator;
+            this.kind = kind;
+            this.literal = literal;
+        }
+
+        boolean test(@Nullable Object value) {
+            if (operator == Operator.IS_NULL || operator == Operator.IS_NOT_NULL) {
+                return (value == null) == (operator == Operator.IS_NULL);
+            }
+            // a comparison with NULL is never true
+            if (value == null) {
+                return false;
+            }
+            if (kind == ValueKind.FLOATING) {
+                return operator.test(((Number) value).doubleValue(), (Double) literal);
+            }
+            return operator.test(compare(value));
+        }
+
+        private int compare(Object value) {
+            final int result;
+            switch (kind) {
+                case INTEGRAL:
+                    result = Long.compare(((Number) value).longValue(), (Long) literal);
+                    break;
+                case DECIMAL:
+                    final BigDecimal decimal = value instanceof DecimalData
+                            ? ((DecimalData) value).toBigDecimal()
+                            : BigDecimal.valueOf(((Number) value).longValue());
+                    result = decimal.compareTo((BigDecimal) literal);
+                    break;
+                case STRING:
+                    if (stringLiteral == null) {
+                        stringLiteral = (BinaryStringData) StringData.fromString((String) literal);
+                    }
+                    result = ((BinaryStringData) value).compareTo(stringLiteral);
+                    break;
+                case BOOLEAN:
+                    result = Boolean.compare((Boolean) value, (Boolean) literal);
+                    break;
+                case TIMESTAMP:
+                    result = ((TimestampData) value).toLocalDateTime().compareTo((LocalDateTime) literal);
+                    break;
+                case BYTES:
+                    result = Arrays.equals((byte[]) value, (byte[]) literal) ? 0 : 1;
+                    break;
+                default:
+                    throw new IllegalStateException("Unsupported value kind: " + kind);
+            }
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final FieldPredicate that = (FieldPredicate) o;
+            return fieldName.equals(that.fieldName) &&
+                    operator == that.operator &&
+                    kind == that.kind &&
+                    Objects.deepEquals(literal, that.literal);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fieldName, operator, kind, Arrays.deepHashCode(new Object[]{literal}));
+        }
+
+        @Override
+        public String toString() {
+            return operator + "(" + fieldName + (literal == null ? "" : ", " + literal) + ")";
+        }
+    }
+
+    /** The supported predicate operators. */
+    enum Operator {
+        EQUALS(2),
+        NOT_EQUALS(2),
+        GREATER_THAN(2),
+        GREATER_THAN_OR_EQUAL(2),
+        LESS_THAN(2),
+        LESS_THAN_OR_EQUAL(2),
+        IS_NULL(1),
+        IS_NOT_NULL(1);
+
+        private final int arity;
+
+        Operator(int arity) {
+            this.arity = arity;
+        }
+
+        @Nullable
+        static Operator of(FunctionDefinition definition) {
+            final Operator operator;
+            if (definition == BuiltInFunctionDefinitions.EQUALS) {
+                operator = EQUALS;
+            } else if (definition == BuiltInFunctionDefinitions.NOT_EQUALS) {
+                operator = NOT_EQUALS;
+            } else if (definition == BuiltInFunctionDefinitions.GREATER_THAN) {
+                operator = GREATER_THAN;
+            } else if (definition == BuiltInFunctionDefinitions.GREATER_THAN_OR_EQUAL) {
+                operator = GREATER_THAN_OR_EQUAL;
+            } else if (definition == BuiltInFunctionDefinitions.LESS_THAN) {
+                operator = LESS_THAN;
+            } else if (definition == BuiltInFunctionDefinitions.LESS_THAN_OR_EQUAL) {
+                operator = LESS_THAN_OR_EQUAL;
+            } else if (definition == BuiltInFunctionDefinitions.IS_NULL) {
+                operator = IS_NULL;
+            } else if (definition == BuiltInFunctionDefinitions.IS_NOT_NULL) {
+                operator = IS_NOT_NULL;
+            } else {
+                operator = null;
+            }
+            return operator;
+        }
+
+        // the operator with swapped operands, e.g. `5 < x` is `x > 5`
+        Operator flip() {
+            final Operator flipped;
+            switch (this) {
+                case GREATER_THAN:
+                    flipped = LESS_THAN;
+                    break;
+                case GREATER_THAN_OR_EQUAL:
+                    flipped = LESS_THAN_OR_EQUAL;
+                    break;
+                case LESS_THAN:
+                    flipped = GREATER_THAN;
+                    break;
+                case LESS_THAN_OR_EQUAL:
+                    flipped = GREATER_THAN_OR_EQUAL;
+                    break;
+                default:
+                    flipped = this;
+                    break;
+            }
+            return flipped;
+        }
+
+        boolean test(int comparison) {
+            final boolean result;
+            switch (this) {
+                case EQUALS:
+                    result = comparison == 0;
+                    break;
+                case NOT_EQUALS:
+                    result = comparison != 0;
+                    break;
+                case GREATER_THAN:
+                    result = comparison > 0;
+                    break;
+                case GREATER_THAN_OR_EQUAL:
+                    result = comparison >= 0;
+                    break;
+                case LESS_THAN:
+                    result = comparison < 0;
+                    break;
+                default:
+                    result = comparison <= 0;
+                    break;
+            }
+            return result;
+        }
+
+        // compares like the generated code does, so that NaN is neither equal to nor ordered with any value
+        boolean test(double value, double literal) {
+            final boolean result;
+            switch (this) {
+                case EQUALS:
+                    result = value == literal;
+                    break;
+                case NOT_EQUALS:
+                    result = value != literal;
+                    break;
+                case GREATER_THAN:
+                    result = value > literal;
+                    break;
+                case GREATER_THAN_OR_EQUAL:
+                    result = value >= literal;
+                    break;
+                case LESS_THAN:
+                    result = value < literal;
+                    break;
+                default:
+                    result = value <= literal;
+                    break;
+            }
+            return result;
+        }
+    }
+
+    /** How the field values and the literal of a predicate are compared. */
+    enum ValueKind {
+        INTEGRAL,
+        DECIMAL,
+        FLOATING,
+        STRING,
+        BOOLEAN,
+        TIMESTAMP,
+        BYTES;
+
+        // the kind of comparison of a field with the given type and a literal, null if it is not supported
+        @Nullable
+        static ValueKind of(LogicalType fieldType, @Nullable Object literal) {
+            final boolean integralLiteral = literal instanceof Byte || literal instanceof Short ||
+                    literal instanceof Integer || literal instanceof Long;
+            ValueKind kind = null;
+            switch (fieldType.getTypeRoot()) {
+                case TINYINT:
+                case SMALLINT:
+                case INTEGER:
+                case BIGINT:
+                    if (integralLiteral) {
+                        kind = INTEGRAL;
+                    } else if (literal instanceof BigDecimal) {
+                        kind = DECIMAL;
+                    }
+                    break;
+                case DECIMAL:
+                    kind = integralLiteral || literal instanceof BigDecimal ? DECIMAL : null;
+                    break;
+                case FLOAT:
+                case DOUBLE:
+                    kind = literal instanceof Float || literal instanceof Double ? FLOATING : null;
+                    break;
+                case CHAR:
+                case VARCHAR:
+                    kind = literal instanceof String ? STRING : null;
+                    break;
+                case BOOLEAN:
+                    kind = literal instanceof Boolean ? BOOLEAN : null;
+                    break;
+                case TIMESTAMP_WITHOUT_TIME_ZONE:
+                    kind = literal instanceof LocalDateTime ? TIMESTAMP : null;
+                    break;
+                case BINARY:
+                case VARBINARY:
+                    kind = literal instanceof byte[] ? BYTES : null;
+                    break;
+                default:
+                    break;
+            }
+            return kind;
+        }
+
+        Serializable toLiteral(Object value) {
+            final Serializable literal;
+            switch (this) {
+                case INTEGRAL:
+                    literal = ((Number) value).longValue();
+                    break;
+                case DECIMAL:
+                    literal = value instanceof BigDecimal
+                            ? (BigDecimal) value
+                            : BigDecimal.valueOf(((Number) value).longValue());
+                    break;
+                case FLOATING:
+                    literal = ((Number) value).doubleValue();
+                    break;
+                default:
+                    literal = (Serializable) value;
+                    break;
+            }
+            return literal;
+        }
+    }
+}
@@ -18,6 +18,7 @@ package io.pravega.connectors.flink.formats.registry;
 
 import io.pravega.client.stream.Serializer;
 import io.pravega.connectors.flink.PravegaConfig;
+import io.pravega.connectors.flink.serialization.ByteBufferDeserializationSchema;
 import io.pravega.connectors.flink.util.SchemaRegistryUtils;
 import io.pravega.schemaregistry.client.SchemaRegistryClient;
 import io.pravega.schemaregistry.client.SchemaRegistryClientConfig;
@@ -30,7 +31,6 @@ import io.pravega.schemaregistry.serializer.shared.impl.EncodingCache;
 import io.pravega.schemaregistry.serializer.shared.impl.SerializerConfig;
 import io.pravega.schemaregistry.serializers.SerializerFactory;
 import org.apache.commons.lang3.NotImplementedException;
-import org.apache.flink.api.common.serialization.DeserializationSchema;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
 import org.apache.flink.formats.avro.AvroToRowDataConverters;
 import org.apache.flink.formats.avro.typeutils.AvroSchemaConverter;
@@ -55,10 +55,11 @@ import static org.apache.flink.util.Preconditions.checkNotNull;
  * Deserialization schema from Pravega Schema Registry to Flink Table/SQL internal data structure {@link RowData}.
  *
  * <p>Deserializes a <code>byte[]</code> message as a Pravega Schema Registry and reads the specified fields.
+ * The message can also be deserialized directly from the {@link ByteBuffer} of the Pravega event.
  *
  * <p>Failures during deserialization are forwarded as wrapped IOExceptions.
  */
-public class PravegaRegistryRowDataDeserializationSchema implements DeserializationSchema<RowData> {
+public class PravegaRegistryRowDataDeserializationSchema implements ByteBufferDeserializationSchema<RowData> {
     private static final long serialVersionUID = 1L;
 
     /**
@@ -173,6 +174,14 @@ public class PravegaRegistryRowDataDeserializationSchema implements Deserializat
 
     @Override
     public RowData deserialize(@Nullable byte[] message) throws IOException {
+        if (message == null) {
+            return null;
+        }
+        return deserialize(ByteBuffer.wrap(message));
+    }
+
+    @Override
+    public RowData deserialize(@Nullable ByteBuffer message) throws IOException {
         if (message == null) {
             return null;
         }
@@ -187,7 +196,11 @@ public class PravegaRegistryRowDataDeserializationSchema implements Deserializat
     }
 
     public Object deserializeToObject(byte[] message) {
-        return deserializer.deserialize(ByteBuffer.wrap(message));
+        return deserializeToObject(ByteBuffer.wrap(message));
+    }
+
+    public Object deserializeToObject(ByteBuffer message) {
+        return deserializer.deserialize(message);
     }
 
     public RowData convertToRowData(Object message) {
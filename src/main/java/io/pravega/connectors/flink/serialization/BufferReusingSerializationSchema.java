@@ -0,0 +1,55 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink.serialization;
+
+import org.apache.flink.api.common.serialization.SerializationSchema;
+import org.apache.flink.core.memory.DataOutputSerializer;
+import org.apache.flink.core.memory.DataOutputView;
+
+import java.io.IOException;
+
+/**
+ * A {@link SerializationSchema} which is able to serialize the event into a buffer provided by the caller. <p>
+ *
+ * The Pravega writers of this connector serialize the events of such a schema into growable buffers which
+ * are pooled and reused once Pravega acknowledges the write, instead of allocating a new {@code byte[]}
+ * for every event. Other schemas are serialized with {@link #serialize(Object)} as usual.
+ *
+ * @param <T> The type to be serialized.
+ */
+public interface BufferReusingSerializationSchema<T> extends SerializationSchema<T> {
+
+    /**
+     * Serializes the incoming element by appending it to the given target. The target is reused
+     * across calls, so implementations must not keep a reference to it after the call returns.
+     *
+     * @param element The incoming element to be serialized.
+     * @param target The buffer to write the serialized element to.
+     * @throws IOException If the serialization fails.
+     */
+    void serialize(T element, DataOutputView target) throws IOException;
+
+    @Override
+    default byte[] serialize(T element) {
+        DataOutputSerializer target = new DataOutputSerializer(64);
+        try {
+            serialize(element, target);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to serialize the element", e);
+        }
+        return target.getCopyOfBuffer();
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink.serialization;
+
+import org.apache.flink.api.common.serialization.DeserializationSchema;
+import org.apache.flink.util.Collector;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link DeserializationSchema} which is able to deserialize the event directly from the
+ * {@link ByteBuffer} returned by the Pravega reader. <p>
+ *
+ * The Pravega readers of this connector hand the buffer of the event to this schema as it is,
+ * instead of copying it into a {@code byte[]} first. The buffer is usually a slice of a larger
+ * buffer, so implementations must only read between its position and limit, and must not keep a
+ * reference to it after the call returns.
+ *
+ * @param <T> The type created by the deserialization schema.
+ */
+public interface ByteBufferDeserializationSchema<T> extends DeserializationSchema<T> {
+
+    /**
+     * Deserializes the event from the given buffer.
+     *
+     * @param message The buffer of the event.
+     * @return The deserialized event, or null if the event cannot be deserialized.
+     * @throws IOException If the deserialization fails.
+     */
+    T deserialize(ByteBuffer message) throws IOException;
+
+    /**
+     * Deserializes the event from the given buffer and emits the produced records through the collector.
+     *
+     * @param message The buffer of the event.
+     * @param out The collector to put the resulting records to.
+     * @throws IOException If the deserialization fails.
+     */
+    default void deserialize(ByteBuffer message, Collector<T> out) throws IOException {
+        T deserialize = deserialize(message);
+        if (deserialize != null) {
+            out.collect(deserialize);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink.serialization;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.core.memory.DataOutputSerializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An envelope which packs several serialized records into a single Pravega event. <p>
+ *
+ * The envelope starts with the {@link #MAGIC} number and the number of records, followed by each
+ * record prefixed with its length, all integers being written in big-endian order:
+ * <pre>
+ *     MAGIC | count | length_1 | record_1 | ... | length_n | record_n
+ * </pre>
+ * Events which do not start with the magic number are read as a single record, so that streams
+ * which mix batched and plain events can still be read.
+ */
+@Internal
+public final class EventBatch {
+
+    /** The magic number which starts every event batch, "PVB1" in ASCII. */
+    public static final int MAGIC = 0x50564231;
+
+    /** The size of the envelope header, that is the magic number and the number of records. */
+    public static final int HEADER_SIZE = 8;
+
+    /** The size of the length prefix of every record. */
+    public static final int RECORD_HEADER_SIZE = 4;
+
+    // The offset of the number of records in the envelope
+    private static final int COUNT_OFFSET = 4;
+
+    private final DataOutputSerializer buffer;
+
+    private int count;
+
+    public EventBatch() {
+        this.buffer = new DataOutputSerializer(256);
+        try {
+            buffer.writeInt(MAGIC);
+            // the number of records is filled in when the batch is sealed
+            buffer.writeInt(0);
+        } catch (IOException e) {
+            // the in-memory buffer never fails
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Appends a serialized record to the batch.
+     *
+     * @param record the serialized record.
+     */
+    public void add(byte[] record) {
+        add(record, 0, record.length);
+    }
+
+    /**
+     * Appends a serialized record, which is copied from the given range of the array, to the batch.
+     *
+     * @param record the array holding the serialized record.
+     * @param offset the offset of the record in the array.
+     * @param length the length of the record.
+     */
+    public void add(byte[] record, int offset, int length) {
+        try {
+            buffer.writeInt(length);
+            buffer.write(record, offset, length);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        count++;
+    }
+
+    /**
+     * Gets the number of records in the batch.
+     *
+     * @return the number of records.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the size of the envelope, including its headers.
+     *
+     * @return the size of the envelope in bytes.
+     */
+    public int getSizeInBytes() {
+        return buffer.length();
+    }
+
+    /**
+     * Seals the batch into the Pravega event. The batch must not be modified afterwards, since the
+     * returned buffer is backed by the buffer of the batch.
+     *
+     * @return the Pravega event holding all the records of the batch.
+     */
+    public ByteBuffer toByteBuffer() {
+        ByteBuffer event = ByteBuffer.wrap(buffer.getSharedBuffer(), 0, buffer.length());
+        event.putInt(COUNT_OFFSET, count);
+        return event;
+    }
+
+    /**
+     * Checks if the given event is an event batch.
+     *
+     * @param event the Pravega event.
+     * @return true if the event starts with the magic number of the event batches.
+     */
+    public static boolean isEventBatch(ByteBuffer event) {
+        return event.remaining() >= HEADER_SIZE && event.getInt(event.position()) == MAGIC;
+    }
+
+    /**
+     * Unpacks the records of the given event. The returned buffers are slices of the event,
+     * so no record is copied.
+     *
+     * @param event the Pravega event.
+     * @return the records of the event batch, or the event itself if it is not an event batch.
+     * @throws IOException if the event batch is malformed.
+     */
+    public static List<ByteBuffer> unpack(ByteBuffer event) throws IOException {
+        if (!isEventBatch(event)) {
+            return Collections.singletonList(event);
+        }
+
+        ByteBuffer buffer = event.slice();
+        buffer.position(COUNT_OFFSET);
+        final int count = buffer.getInt();
+        if (count < 0) {
+            throw new IOException("Malformed event batch with " + count + " records");
+        }
+
+        List<ByteBuffer> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (buffer.remaining() < RECORD_HEADER_SIZE) {
+                throw new IOException("Malformed event batch, record " + i + " of " + count + " is truncated");
+            }
+            final int length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                throw new IOException("Malformed event batch, record " + i + " of " + count + " is truncated");
+            }
+            ByteBuffer record = buffer.slice();
+            record.limit(length);
+            records.add(record);
+            buffer.position(buffer.position() + length);
+        }
+        return records;
+    }
+}
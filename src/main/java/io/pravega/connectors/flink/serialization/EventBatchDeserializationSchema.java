@@ -0,0 +1,108 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink.serialization;
+
+import org.apache.flink.api.common.serialization.DeserializationSchema;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.util.Collector;
+import org.apache.flink.util.Preconditions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static io.pravega.connectors.flink.util.FlinkPravegaUtils.byteBufferToArray;
+
+/**
+ * A {@link DeserializationSchema} which unpacks the events written as {@link EventBatch}es, and
+ * deserializes every record of a batch with the nested schema. Events which are not batched are
+ * deserialized as they are. <p>
+ *
+ * The Pravega readers of this connector hand every record of a batch to the nested schema along
+ * with the metadata of the enclosing event, if the nested schema is a
+ * {@link PravegaDeserializationSchemaWithMetadata}.
+ *
+ * @param <T> The type created by the deserialization schema.
+ */
+public class EventBatchDeserializationSchema<T> implements ByteBufferDeserializationSchema<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final DeserializationSchema<T> nestedSchema;
+
+    public EventBatchDeserializationSchema(DeserializationSchema<T> nestedSchema) {
+        this.nestedSchema = Preconditions.checkNotNull(nestedSchema, "nestedSchema");
+    }
+
+    public DeserializationSchema<T> getNestedSchema() {
+        return nestedSchema;
+    }
+
+    @Override
+    public void open(InitializationContext context) throws Exception {
+        nestedSchema.open(context);
+    }
+
+    @Override
+    public T deserialize(byte[] message) throws IOException {
+        return deserialize(ByteBuffer.wrap(message));
+    }
+
+    @Override
+    public void deserialize(byte[] message, Collector<T> out) throws IOException {
+        deserialize(ByteBuffer.wrap(message), out);
+    }
+
+    @Override
+    public T deserialize(ByteBuffer message) throws IOException {
+        List<ByteBuffer> records = EventBatch.unpack(message);
+        if (records.size() != 1) {
+            throw new IllegalStateException("Please invoke EventBatchDeserializationSchema#deserialize(ByteBuffer, Collector<T>) " +
+                    "to deserialize an event batch of " + records.size() + " records.");
+        }
+        return deserializeRecord(records.get(0));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void deserialize(ByteBuffer message, Collector<T> out) throws IOException {
+        for (ByteBuffer record : EventBatch.unpack(message)) {
+            if (nestedSchema instanceof ByteBufferDeserializationSchema) {
+                ((ByteBufferDeserializationSchema<T>) nestedSchema).deserialize(record, out);
+            } else {
+                nestedSchema.deserialize(byteBufferToArray(record), out);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T deserializeRecord(ByteBuffer record) throws IOException {
+        if (nestedSchema instanceof ByteBufferDeserializationSchema) {
+            return ((ByteBufferDeserializationSchema<T>) nestedSchema).deserialize(record);
+        }
+        return nestedSchema.deserialize(byteBufferToArray(record));
+    }
+
+    @Override
+    public boolean isEndOfStream(T nextElement) {
+        return nestedSchema.isEndOfStream(nextElement);
+    }
+
+    @Override
+    public TypeInformation<T> getProducedType() {
+        return nestedSchema.getProducedType();
+    }
+}
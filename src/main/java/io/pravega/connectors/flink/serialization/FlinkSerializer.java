@@ -18,7 +18,10 @@ package io.pravega.connectors.flink.serialization;
 import io.pravega.client.stream.Serializer;
 import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.api.common.serialization.SerializationSchema;
+import org.apache.flink.core.memory.DataOutputSerializer;
 
+import javax.annotation.Nullable;
+import java.io.IOException;
 import java.nio.ByteBuffer;
 
 @VisibleForTesting
@@ -26,13 +29,89 @@ public final class FlinkSerializer<T> implements Serializer<T> {
 
     private final SerializationSchema<T> serializationSchema;
 
+    // the pool of the serialization buffers, if the events are serialized into reused buffers
+    @Nullable
+    private final SerializationBufferPool bufferPool;
+
+    // the size of the last serialized event, the Pravega writers serialize the events on the writing thread
+    private int lastSerializedSize;
+
+    // the pooled buffer of the last serialized event, until it is taken by the writer
+    @Nullable
+    private DataOutputSerializer lastBuffer;
+
     public FlinkSerializer(SerializationSchema<T> serializationSchema) {
+        this(serializationSchema, null);
+    }
+
+    /**
+     * Creates a serializer which serializes the events of a {@link BufferReusingSerializationSchema} into
+     * the buffers of the given pool. The writer must take the buffer of every written event with
+     * {@link #takeLastBuffer()} and release it with {@link #releaseBuffer(DataOutputSerializer)}
+     * once the write is acknowledged.
+     *
+     * @param serializationSchema the serialization schema of the events.
+     * @param bufferPool the pool of the serialization buffers, or null to allocate a new buffer for every event.
+     */
+    public FlinkSerializer(SerializationSchema<T> serializationSchema, @Nullable SerializationBufferPool bufferPool) {
         this.serializationSchema = serializationSchema;
+        this.bufferPool = serializationSchema instanceof BufferReusingSerializationSchema ? bufferPool : null;
     }
 
     @Override
     public ByteBuffer serialize(T value) {
-        return ByteBuffer.wrap(serializationSchema.serialize(value));
+        if (bufferPool != null) {
+            return serializeIntoPooledBuffer(value);
+        }
+        byte[] serialized = serializationSchema.serialize(value);
+        lastSerializedSize = serialized.length;
+        return ByteBuffer.wrap(serialized);
+    }
+
+    private ByteBuffer serializeIntoPooledBuffer(T value) {
+        final DataOutputSerializer buffer = bufferPool.acquire();
+        try {
+            ((BufferReusingSerializationSchema<T>) serializationSchema).serialize(value, buffer);
+        } catch (IOException e) {
+            bufferPool.release(buffer);
+            throw new IllegalStateException("Failed to serialize the event", e);
+        }
+        // a buffer which was not taken by the writer is left to the garbage collector
+        lastBuffer = buffer;
+        lastSerializedSize = buffer.length();
+        return ByteBuffer.wrap(buffer.getSharedBuffer(), 0, buffer.length());
+    }
+
+    /**
+     * Takes the pooled buffer of the last serialized event, which is backing the event until Pravega acknowledges it.
+     *
+     * @return the buffer of the last serialized event, or null if the event was not serialized into a pooled buffer.
+     */
+    @Nullable
+    public DataOutputSerializer takeLastBuffer() {
+        DataOutputSerializer buffer = lastBuffer;
+        lastBuffer = null;
+        return buffer;
+    }
+
+    /**
+     * Releases a buffer taken with {@link #takeLastBuffer()} back to the pool. It may be called from any thread.
+     *
+     * @param buffer the buffer, or null in which case nothing happens.
+     */
+    public void releaseBuffer(@Nullable DataOutputSerializer buffer) {
+        if (bufferPool != null) {
+            bufferPool.release(buffer);
+        }
+    }
+
+    /**
+     * Gets the size of the last serialized event, used to account for the bytes which are in flight.
+     *
+     * @return the size of the last serialized event in bytes.
+     */
+    public int getLastSerializedSize() {
+        return lastSerializedSize;
     }
 
     @Override
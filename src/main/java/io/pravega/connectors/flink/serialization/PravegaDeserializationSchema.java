@@ -17,7 +17,6 @@ package io.pravega.connectors.flink.serialization;
 
 import io.pravega.client.stream.Serializer;
 import org.apache.flink.api.common.functions.InvalidTypesException;
-import org.apache.flink.api.common.serialization.DeserializationSchema;
 import org.apache.flink.api.common.typeinfo.TypeHint;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
 
@@ -38,7 +37,7 @@ import static org.apache.flink.util.Preconditions.checkNotNull;
  * <p>To deserialize metadata, use {@link PravegaDeserializationSchemaWithMetadata} instead.
  */
 public class PravegaDeserializationSchema<T> 
-        implements DeserializationSchema<T>, WrappingSerializer<T> {
+        implements ByteBufferDeserializationSchema<T>, WrappingSerializer<T> {
 
     // The TypeInformation of the produced type
     private final TypeInformation<T> typeInfo;
@@ -118,6 +117,11 @@ public class PravegaDeserializationSchema<T>
         return serializer.deserialize(msg);
     }
 
+    @Override
+    public T deserialize(ByteBuffer message) throws IOException {
+        return serializer.deserialize(message);
+    }
+
     @Override
     public boolean isEndOfStream(T nextElement) {
         return false;
@@ -23,6 +23,8 @@ import org.apache.flink.util.Collector;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 
+import static io.pravega.connectors.flink.util.FlinkPravegaUtils.byteBufferToArray;
+
 /**
  * A Pravega DeserializationSchema that enables deserializing events together with
  * the Pravega {@link EventRead} metadata, this can be used for recording and indexing use cases. <p>
@@ -33,6 +35,9 @@ import java.nio.ByteBuffer;
  * {@link PravegaDeserializationSchemaWithMetadata#deserialize(byte[], EventRead)}.
  * {@link FlinkPravegaReader} will distinguish this from a normal deserialization schema and
  * call {@link PravegaDeserializationSchemaWithMetadata#deserialize(byte[], EventRead)} when it is reading events.
+ * Formats that are able to parse the event buffer directly can override
+ * {@link PravegaDeserializationSchemaWithMetadata#deserialize(ByteBuffer, EventRead, Collector)} to avoid
+ * copying the event into a {@code byte[]}.
  */
 public abstract class PravegaDeserializationSchemaWithMetadata<T> implements DeserializationSchema<T> {
     public abstract T deserialize(byte[] message, EventRead<ByteBuffer> eventRead) throws IOException;
@@ -44,6 +49,19 @@ public abstract class PravegaDeserializationSchemaWithMetadata<T> implements Des
         }
     }
 
+    /**
+     * Deserializes the event from the buffer of the given {@link EventRead}, and emits the produced records
+     * through the collector. The buffer is copied into a {@code byte[]} by default.
+     *
+     * @param message The buffer of the event.
+     * @param eventRead The Pravega event read result.
+     * @param out The collector to put the resulting records to.
+     * @throws IOException If the deserialization fails.
+     */
+    public void deserialize(ByteBuffer message, EventRead<ByteBuffer> eventRead, Collector<T> out) throws IOException {
+        deserialize(byteBufferToArray(message), eventRead, out);
+    }
+
     public T deserialize(byte[] message) throws IOException {
         throw new IllegalStateException("Should never be called.");
     }
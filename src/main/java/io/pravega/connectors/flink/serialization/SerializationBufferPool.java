@@ -0,0 +1,98 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink.serialization;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.core.memory.DataOutputSerializer;
+
+import javax.annotation.Nullable;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of growable buffers which the events of a {@link BufferReusingSerializationSchema} are serialized into. <p>
+ *
+ * The Pravega writers hand the serialized buffer to the network layer without copying it, so a buffer is
+ * acquired on the writing thread and released on the thread which completes the write, once Pravega
+ * acknowledged it. The pool retains at most a fixed number of buffers, and the buffers which grew large
+ * are shrunk when they are released.
+ */
+@Internal
+public final class SerializationBufferPool {
+
+    /** The default number of buffers retained by the pool. */
+    public static final int DEFAULT_MAX_POOLED_BUFFERS = 256;
+
+    // The initial size of the buffers
+    private static final int INITIAL_BUFFER_SIZE = 256;
+
+    private final Queue<DataOutputSerializer> buffers = new ConcurrentLinkedQueue<>();
+
+    // The number of buffers in the queue, which is costly to count
+    private final AtomicInteger pooledBuffers = new AtomicInteger();
+
+    private final int maxPooledBuffers;
+
+    public SerializationBufferPool() {
+        this(DEFAULT_MAX_POOLED_BUFFERS);
+    }
+
+    public SerializationBufferPool(int maxPooledBuffers) {
+        this.maxPooledBuffers = maxPooledBuffers;
+    }
+
+    /**
+     * Acquires an empty buffer, which is allocated if the pool is empty.
+     *
+     * @return an empty buffer.
+     */
+    public DataOutputSerializer acquire() {
+        DataOutputSerializer buffer = buffers.poll();
+        if (buffer == null) {
+            return new DataOutputSerializer(INITIAL_BUFFER_SIZE);
+        }
+        pooledBuffers.decrementAndGet();
+        return buffer;
+    }
+
+    /**
+     * Releases a buffer acquired with {@link #acquire()}, which must not be used afterwards.
+     *
+     * @param buffer the buffer, or null in which case nothing happens.
+     */
+    public void release(@Nullable DataOutputSerializer buffer) {
+        if (buffer == null) {
+            return;
+        }
+        // clears the buffer and shrinks it if it grew large
+        buffer.pruneBuffer();
+        if (pooledBuffers.incrementAndGet() <= maxPooledBuffers) {
+            buffers.offer(buffer);
+        } else {
+            pooledBuffers.decrementAndGet();
+        }
+    }
+
+    /**
+     * Gets the number of buffers which are retained by the pool.
+     *
+     * @return the number of pooled buffers.
+     */
+    public int getPooledBuffers() {
+        return pooledBuffers.get();
+    }
+}
@@ -27,29 +27,42 @@ import io.pravega.client.stream.Transaction;
 import io.pravega.client.stream.TransactionalEventStreamWriter;
 import io.pravega.client.stream.TxnFailedException;
 import io.pravega.connectors.flink.PravegaWriterMode;
+import io.pravega.connectors.flink.serialization.FlinkSerializer;
+import io.pravega.connectors.flink.util.ClientFactoryCache;
 import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.api.common.serialization.SerializationSchema;
 import org.apache.flink.api.connector.sink.Committer;
 import org.apache.flink.util.ExceptionUtils;
+import org.apache.flink.util.Preconditions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This committer only works in {@link PravegaWriterMode#EXACTLY_ONCE} and
  * handles the final commit stage for the transaction. <p>
  * The transaction is resumed via {@link PravegaTransactionState#getTransactionId()}
- * which handles by the Flink sink mechanism.
+ * which handles by the Flink sink mechanism. <p>
+ * The transactions of a checkpoint are committed concurrently, with a bounded number of
+ * commits in flight, and the transactions which failed to commit for a transient reason
+ * are handed back to Flink to be retried.
  *
  * @param <T> The type of the event to be written.
  */
 public class PravegaCommitter<T> implements Committer<PravegaTransactionState> {
     private static final Logger LOG = LoggerFactory.getLogger(PravegaCommitter.class);
 
+    /** The default maximum number of transactions which are committed concurrently. */
+    public static final int DEFAULT_MAX_CONCURRENT_COMMITS = 8;
+
     @VisibleForTesting
     protected transient EventStreamClientFactory clientFactory;
     @VisibleForTesting
@@ -63,6 +76,12 @@ public class PravegaCommitter<T> implements Committer<PravegaTransactionState> {
     private final SerializationSchema<T> serializationSchema;
     // --------- configurations for creating a TransactionalEventStreamWriter ---------
 
+    // The maximum number of transactions which are committed concurrently
+    private final int maxConcurrentCommits;
+
+    // The threads committing the transactions, created on the first commit of several transactions
+    private transient ExecutorService commitExecutor;
+
     /**
      * A Pravega Committer that implements {@link Committer}.
      *
@@ -75,6 +94,25 @@ public class PravegaCommitter<T> implements Committer<PravegaTransactionState> {
                             Stream stream,
                             long txnLeaseRenewalPeriod,
                             SerializationSchema<T> serializationSchema) {
+        this(clientConfig, stream, txnLeaseRenewalPeriod, serializationSchema, DEFAULT_MAX_CONCURRENT_COMMITS);
+    }
+
+    /**
+     * A Pravega Committer that implements {@link Committer} and bounds the transactions which are committed concurrently.
+     *
+     * @param clientConfig          The Pravega client configuration.
+     * @param stream                The destination stream.
+     * @param txnLeaseRenewalPeriod Transaction lease renewal period in milliseconds.
+     * @param serializationSchema   The implementation for serializing every event into pravega's storage format.
+     * @param maxConcurrentCommits  The maximum number of transactions which are committed concurrently.
+     */
+    public PravegaCommitter(ClientConfig clientConfig,
+                            Stream stream,
+                            long txnLeaseRenewalPeriod,
+                            SerializationSchema<T> serializationSchema,
+                            int maxConcurrentCommits) {
+        Preconditions.checkArgument(maxConcurrentCommits > 0, "maxConcurrentCommits must be > 0");
+        this.maxConcurrentCommits = maxConcurrentCommits;
         this.clientConfig = clientConfig;
         this.txnLeaseRenewalPeriod = txnLeaseRenewalPeriod;
         this.stream = stream;
@@ -84,36 +122,97 @@ public class PravegaCommitter<T> implements Committer<PravegaTransactionState> {
 
     @Override
     public List<PravegaTransactionState> commit(List<PravegaTransactionState> committables) throws IOException {
-        committables.forEach(transactionState -> {
-            Transaction<T> transaction = transactionalWriter
-                    .getTxn(UUID.fromString(transactionState.getTransactionId()));
-            LOG.info("Transaction resumed with id {}.", transaction.getTxnId());
+        final long startMillis = System.currentTimeMillis();
+        final List<PravegaTransactionState> toRetry = new ArrayList<>();
 
-            try {
-                final Transaction.Status status = transaction.checkStatus();
-                if (status == Transaction.Status.OPEN) {
-                    transaction.commit();
-                    LOG.info("Committed transaction {}.", transaction.getTxnId());
-                } else {
-                    LOG.warn("Transaction {} has unexpected transaction status {} while committing.",
-                            transaction.getTxnId(), status);
+        if (committables.size() == 1 || maxConcurrentCommits == 1) {
+            for (PravegaTransactionState transactionState : committables) {
+                if (!commitTransaction(transactionState)) {
+                    toRetry.add(transactionState);
+                }
+            }
+        } else {
+            // the commits are blocking round trips to the controller, so they are issued concurrently
+            final List<CompletableFuture<Boolean>> commits = new ArrayList<>(committables.size());
+            for (PravegaTransactionState transactionState : committables) {
+                commits.add(CompletableFuture.supplyAsync(() -> commitTransaction(transactionState), getCommitExecutor()));
+            }
+            for (int i = 0; i < committables.size(); i++) {
+                if (!commits.get(i).join()) {
+                    toRetry.add(committables.get(i));
                 }
-            } catch (TxnFailedException e) {
-                LOG.error("Transaction {} commit failed.", transaction.getTxnId());
-            } catch (StatusRuntimeException e) {
-                if (e.getStatus() == Status.NOT_FOUND) {
-                    LOG.error("Transaction {} not found.", transaction.getTxnId());
+            }
+        }
+
+        LOG.debug("Committed {} transactions in {} ms, {} to be retried.",
+                committables.size() - toRetry.size(), System.currentTimeMillis() - startMillis, toRetry.size());
+        return toRetry;
+    }
+
+    /**
+     * Commits a transaction if it is still open.
+     *
+     * @param transactionState the state of the transaction.
+     * @return false if the commit failed for a transient reason and should be retried, true otherwise.
+     */
+    private boolean commitTransaction(PravegaTransactionState transactionState) {
+        Transaction<T> transaction = transactionalWriter
+                .getTxn(UUID.fromString(transactionState.getTransactionId()));
+        LOG.info("Transaction resumed with id {}.", transaction.getTxnId());
+
+        try {
+            final Transaction.Status status = transaction.checkStatus();
+            if (status == Transaction.Status.OPEN) {
+                if (transactionState.getWatermark() != null) {
+                    transaction.commit(transactionState.getWatermark());
+                } else {
+                    transaction.commit();
                 }
+                LOG.info("Committed transaction {}.", transaction.getTxnId());
+            } else if (status == Transaction.Status.COMMITTING || status == Transaction.Status.COMMITTED) {
+                // committed by a previous attempt
+                LOG.info("Transaction {} is already {}.", transaction.getTxnId(), status);
+            } else {
+                LOG.warn("Transaction {} has unexpected transaction status {} while committing.",
+                        transaction.getTxnId(), status);
             }
-        });
+        } catch (TxnFailedException e) {
+            LOG.error("Transaction {} commit failed.", transaction.getTxnId());
+        } catch (StatusRuntimeException e) {
+            if (e.getStatus().getCode() == Status.Code.NOT_FOUND) {
+                LOG.error("Transaction {} not found.", transaction.getTxnId());
+            } else {
+                LOG.warn("Transaction {} commit failed, will be retried.", transaction.getTxnId(), e);
+                return false;
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Transaction {} commit failed, will be retried.", transaction.getTxnId(), e);
+            return false;
+        }
+        return true;
+    }
 
-        return Collections.emptyList();
+    private ExecutorService getCommitExecutor() {
+        if (commitExecutor == null) {
+            final AtomicInteger threadCount = new AtomicInteger();
+            commitExecutor = Executors.newFixedThreadPool(maxConcurrentCommits, runnable -> {
+                Thread thread = new Thread(runnable,
+                        "Pravega committer " + stream.getScopedName() + "-" + threadCount.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return commitExecutor;
     }
 
     @Override
     public void close() throws Exception {
         Exception exception = null;
 
+        if (commitExecutor != null) {
+            commitExecutor.shutdownNow();
+        }
+
         if (transactionalWriter != null) {
             try {
                 transactionalWriter.close();
@@ -137,7 +236,7 @@ public class PravegaCommitter<T> implements Committer<PravegaTransactionState> {
 
     @VisibleForTesting
     protected TransactionalEventStreamWriter<T> initializeInternalWriter() {
-        clientFactory = EventStreamClientFactory.withScope(stream.getScope(), clientConfig);
+        clientFactory = ClientFactoryCache.getEventStreamClientFactory(stream.getScope(), clientConfig);
         Serializer<T> eventSerializer = new FlinkSerializer<>(serializationSchema);
         EventWriterConfig writerConfig = EventWriterConfig.builder()
                 .transactionTimeoutTime(txnLeaseRenewalPeriod)
@@ -20,27 +20,32 @@ import io.pravega.client.ClientConfig;
 import io.pravega.client.EventStreamClientFactory;
 import io.pravega.client.stream.EventStreamWriter;
 import io.pravega.client.stream.EventWriterConfig;
-import io.pravega.client.stream.Serializer;
 import io.pravega.client.stream.Stream;
+import io.pravega.client.stream.impl.ByteBufferSerializer;
 import io.pravega.connectors.flink.PravegaEventRouter;
 import io.pravega.connectors.flink.PravegaWriterMode;
+import io.pravega.connectors.flink.serialization.FlinkSerializer;
+import io.pravega.connectors.flink.serialization.SerializationBufferPool;
+import io.pravega.connectors.flink.util.ClientFactoryCache;
+import io.pravega.connectors.flink.util.EventBatcher;
+import io.pravega.connectors.flink.util.PendingWritesTracker;
 import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.api.common.serialization.SerializationSchema;
 import org.apache.flink.api.connector.sink.Sink;
 import org.apache.flink.api.connector.sink.SinkWriter;
+import org.apache.flink.core.memory.DataOutputSerializer;
 import org.apache.flink.util.ExceptionUtils;
+import org.apache.flink.util.Preconditions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -51,7 +56,7 @@ import java.util.concurrent.atomic.AtomicReference;
  *
  * @param <T> The type of the event to be written.
  */
-public class PravegaEventWriter<T> implements SinkWriter<T, PravegaTransactionState, Void> {
+public class PravegaEventWriter<T> implements SinkWriter<T, PravegaTransactionState, PravegaTransactionState> {
     private static final Logger LOG = LoggerFactory.getLogger(PravegaEventWriter.class);
 
     // Error which will be detected asynchronously and reported to Flink
@@ -60,11 +65,7 @@ public class PravegaEventWriter<T> implements SinkWriter<T, PravegaTransactionSt
 
     // Used to track confirmation from all writes to ensure guaranteed writes.
     @VisibleForTesting
-    protected AtomicLong pendingWritesCount = new AtomicLong();
-
-    // The async executor
-    @VisibleForTesting
-    protected transient ExecutorService executorService;
+    protected final PendingWritesTracker pendingWrites = new PendingWritesTracker();
 
     // Client factory for PravegaEventWriter instances
     @VisibleForTesting
@@ -87,9 +88,45 @@ public class PravegaEventWriter<T> implements SinkWriter<T, PravegaTransactionSt
     @Nullable
     private final PravegaEventRouter<T> eventRouter;
 
-    // Pravega writer instance
+    // The maximum number of pending writes, write() blocks until the acknowledgments free capacity.
+    private final int maxInFlightEvents;
+
+    // The maximum serialized size of the pending writes, write() blocks until the acknowledgments free capacity.
+    private final long maxInFlightBytes;
+
+    // The maximum size of the event batches, 0 if the events are written one by one
+    private final long maxBatchBytes;
+
+    // The maximum time an event waits in an event batch before the batch is written
+    private final long maxBatchDelayMillis;
+
+    // The serializer of the Pravega writer, which tracks the size of the written events
+    private final transient FlinkSerializer<T> eventSerializer;
+
+    // Pravega writer instance, null when batching
+    @Nullable
     private final transient EventStreamWriter<T> writer;
 
+    // Pravega writer instance of the event batches, used instead of the Pravega writer when batching
+    @Nullable
+    private final transient EventStreamWriter<ByteBuffer> batchWriter;
+
+    // The batcher that packs the events into event batches
+    @Nullable
+    private final transient EventBatcher<T> eventBatcher;
+
+    // The time service to write the expired event batches
+    private final transient Sink.ProcessingTimeService processingTimeService;
+
+    // Whether a timer is registered to write the expired event batches
+    private transient boolean eventBatchFlushScheduled = false;
+
+    // flag to enable/disable watermark
+    private final boolean enableWatermark;
+
+    // The last watermark noted to the Pravega writer
+    private transient long currentWatermark = Long.MIN_VALUE;
+
     // The writer id
     private final String writerId;
 
@@ -110,12 +147,120 @@ public class PravegaEventWriter<T> implements SinkWriter<T, PravegaTransactionSt
                               PravegaWriterMode writerMode,
                               SerializationSchema<T> serializationSchema,
                               PravegaEventRouter<T> eventRouter) {
+        this(context, clientConfig, stream, writerMode, serializationSchema, eventRouter,
+                Integer.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * A Pravega writer that handles {@link PravegaWriterMode#BEST_EFFORT} and
+     * {@link PravegaWriterMode#ATLEAST_ONCE} writer mode, and bounds the writes which are in flight.
+     *
+     * @param context               Some runtime info from sink.
+     * @param clientConfig          The Pravega client configuration.
+     * @param stream                The destination stream.
+     * @param writerMode            The Pravega writer mode.
+     * @param serializationSchema   The implementation for serializing every event into pravega's storage format.
+     * @param eventRouter           The implementation to extract the partition key from the event.
+     * @param maxInFlightEvents     The maximum number of writes which are not acknowledged yet.
+     * @param maxInFlightBytes      The maximum serialized size of the writes which are not acknowledged yet.
+     */
+    public PravegaEventWriter(Sink.InitContext context,
+                              ClientConfig clientConfig,
+                              Stream stream,
+                              PravegaWriterMode writerMode,
+                              SerializationSchema<T> serializationSchema,
+                              PravegaEventRouter<T> eventRouter,
+                              int maxInFlightEvents,
+                              long maxInFlightBytes) {
+        this(context, clientConfig, stream, writerMode, serializationSchema, eventRouter,
+                maxInFlightEvents, maxInFlightBytes, 0, 0);
+    }
+
+    /**
+     * A Pravega writer that handles {@link PravegaWriterMode#BEST_EFFORT} and
+     * {@link PravegaWriterMode#ATLEAST_ONCE} writer mode, bounds the writes which are in flight, and
+     * optionally packs the events sharing a routing key into event batches.
+     *
+     * @param context               Some runtime info from sink.
+     * @param clientConfig          The Pravega client configuration.
+     * @param stream                The destination stream.
+     * @param writerMode            The Pravega writer mode.
+     * @param serializationSchema   The implementation for serializing every event into pravega's storage format.
+     * @param eventRouter           The implementation to extract the partition key from the event.
+     * @param maxInFlightEvents     The maximum number of writes which are not acknowledged yet.
+     * @param maxInFlightBytes      The maximum serialized size of the writes which are not acknowledged yet.
+     * @param maxBatchBytes         The maximum size of the event batches, 0 to write the events one by one.
+     * @param maxBatchDelayMillis   The maximum time in milliseconds an event waits in an event batch.
+     */
+    public PravegaEventWriter(Sink.InitContext context,
+                              ClientConfig clientConfig,
+                              Stream stream,
+                              PravegaWriterMode writerMode,
+                              SerializationSchema<T> serializationSchema,
+                              PravegaEventRouter<T> eventRouter,
+                              int maxInFlightEvents,
+                              long maxInFlightBytes,
+                              long maxBatchBytes,
+                              long maxBatchDelayMillis) {
+        this(context, clientConfig, stream, writerMode, serializationSchema, eventRouter,
+                maxInFlightEvents, maxInFlightBytes, maxBatchBytes, maxBatchDelayMillis, false);
+    }
+
+    /**
+     * A Pravega writer that handles {@link PravegaWriterMode#BEST_EFFORT} and
+     * {@link PravegaWriterMode#ATLEAST_ONCE} writer mode, bounds the writes which are in flight,
+     * optionally packs the events sharing a routing key into event batches, and optionally notes
+     * the Flink watermarks to the Pravega stream.
+     *
+     * @param context               Some runtime info from sink.
+     * @param clientConfig          The Pravega client configuration.
+     * @param stream                The destination stream.
+     * @param writerMode            The Pravega writer mode.
+     * @param serializationSchema   The implementation for serializing every event into pravega's storage format.
+     * @param eventRouter           The implementation to extract the partition key from the event.
+     * @param maxInFlightEvents     The maximum number of writes which are not acknowledged yet.
+     * @param maxInFlightBytes      The maximum serialized size of the writes which are not acknowledged yet.
+     * @param maxBatchBytes         The maximum size of the event batches, 0 to write the events one by one.
+     * @param maxBatchDelayMillis   The maximum time in milliseconds an event waits in an event batch.
+     * @param enableWatermark       Flag to indicate whether Pravega watermark needs to be enabled or not.
+     */
+    public PravegaEventWriter(Sink.InitContext context,
+                              ClientConfig clientConfig,
+                              Stream stream,
+                              PravegaWriterMode writerMode,
+                              SerializationSchema<T> serializationSchema,
+                              PravegaEventRouter<T> eventRouter,
+                              int maxInFlightEvents,
+                              long maxInFlightBytes,
+                              long maxBatchBytes,
+                              long maxBatchDelayMillis,
+                              boolean enableWatermark) {
+        Preconditions.checkArgument(maxInFlightEvents > 0, "maxInFlightEvents must be > 0");
+        Preconditions.checkArgument(maxInFlightBytes > 0, "maxInFlightBytes must be > 0");
         this.clientConfig = clientConfig;
         this.stream = stream;
         this.writerMode = writerMode;
         this.serializationSchema = serializationSchema;
         this.eventRouter = eventRouter;
-        this.writer = initializeInternalWriter();
+        this.maxInFlightEvents = maxInFlightEvents;
+        this.maxInFlightBytes = maxInFlightBytes;
+        this.maxBatchBytes = maxBatchBytes;
+        this.maxBatchDelayMillis = maxBatchDelayMillis;
+        this.enableWatermark = enableWatermark;
+        // the events are serialized into pooled buffers if the schema supports it, the buffers are
+        // released once the writes are acknowledged
+        this.eventSerializer = new FlinkSerializer<>(serializationSchema, new SerializationBufferPool());
+        this.processingTimeService = context.getProcessingTimeService();
+        if (maxBatchBytes > 0) {
+            this.writer = null;
+            this.batchWriter = initializeBatchWriter();
+            this.eventBatcher = new EventBatcher<>(serializationSchema, eventRouter, maxBatchBytes, maxBatchDelayMillis,
+                    this::writeEventBatch);
+        } else {
+            this.writer = initializeInternalWriter();
+            this.batchWriter = null;
+            this.eventBatcher = null;
+        }
         this.writerId = UUID.randomUUID() + "-" + context.getSubtaskId();
 
         LOG.info("Initialized Pravega writer {} for stream: {} with controller URI: {}",
@@ -124,26 +269,76 @@ public class PravegaEventWriter<T> implements SinkWriter<T, PravegaTransactionSt
 
     @VisibleForTesting
     protected EventStreamWriter<T> initializeInternalWriter() {
-        clientFactory = EventStreamClientFactory.withScope(stream.getScope(), clientConfig);
-        Serializer<T> eventSerializer = new FlinkSerializer<>(serializationSchema);
+        clientFactory = ClientFactoryCache.getEventStreamClientFactory(stream.getScope(), clientConfig);
         EventWriterConfig writerConfig = EventWriterConfig.builder().build();
-        executorService = Executors.newSingleThreadExecutor();
         return clientFactory.createEventWriter(stream.getStreamName(), eventSerializer, writerConfig);
     }
 
+    @VisibleForTesting
+    protected EventStreamWriter<ByteBuffer> initializeBatchWriter() {
+        clientFactory = ClientFactoryCache.getEventStreamClientFactory(stream.getScope(), clientConfig);
+        EventWriterConfig writerConfig = EventWriterConfig.builder().build();
+        return clientFactory.createEventWriter(stream.getStreamName(), new ByteBufferSerializer(), writerConfig);
+    }
+
     @Override
     public void write(T element, Context context) throws IOException, InterruptedException {
         checkWriteError();
+        if (eventBatcher != null) {
+            eventBatcher.add(element, processingTimeService.getCurrentProcessingTime());
+            if (enableWatermark && shouldEmitWatermark(context)) {
+                // the batched events must be written before the watermark is noted
+                eventBatcher.flush();
+                batchWriter.noteTime(context.currentWatermark());
+                currentWatermark = context.currentWatermark();
+            }
+            scheduleEventBatchFlush();
+            return;
+        }
+
+        pendingWrites.awaitBelow(maxInFlightEvents, maxInFlightBytes);
 
-        pendingWritesCount.incrementAndGet();
         final CompletableFuture<Void> future;
         if (eventRouter != null) {
             future = writer.writeEvent(eventRouter.getRoutingKey(element), element);
         } else {
             future = writer.writeEvent(element);
         }
+        final long eventSize = eventSerializer.getLastSerializedSize();
+        pendingWrites.register(eventSize);
+        if (enableWatermark && shouldEmitWatermark(context)) {
+            writer.noteTime(context.currentWatermark());
+            currentWatermark = context.currentWatermark();
+        }
+        trackWriteCompletion(future, eventSize, eventSerializer.takeLastBuffer());
+    }
+
+    /**
+     * Notes the watermark only when it advanced, so that the writer is not called for every event.
+     */
+    private boolean shouldEmitWatermark(Context context) {
+        final long watermark = context.currentWatermark();
+        final Long timestamp = context.timestamp();
+        return watermark > Long.MIN_VALUE && watermark < Long.MAX_VALUE && currentWatermark < watermark
+                && (timestamp == null || timestamp >= watermark);
+    }
+
+    private void writeEventBatch(@Nullable String routingKey, ByteBuffer batch) throws InterruptedException {
+        pendingWrites.awaitBelow(maxInFlightEvents, maxInFlightBytes);
+        final long batchSize = batch.remaining();
+        final CompletableFuture<Void> future;
+        if (routingKey != null) {
+            future = batchWriter.writeEvent(routingKey, batch);
+        } else {
+            future = batchWriter.writeEvent(batch);
+        }
+        pendingWrites.register(batchSize);
+        trackWriteCompletion(future, batchSize, null);
+    }
 
-        future.whenCompleteAsync(
+    private void trackWriteCompletion(CompletableFuture<Void> future, long eventSize,
+                                      @Nullable DataOutputSerializer serializationBuffer) {
+        future.whenComplete(
                 (result, e) -> {
                     if (e != null) {
                         LOG.warn("Detected a write failure", e);
@@ -152,15 +347,29 @@ public class PravegaEventWriter<T> implements SinkWriter<T, PravegaTransactionSt
                         // finding the root cause. Storing all errors will not be feasible.
                         writeError.compareAndSet(null, e);
                     }
-                    synchronized (this) {
-                        pendingWritesCount.decrementAndGet();
-                        this.notify();
-                    }
-                },
-                executorService
+                    eventSerializer.releaseBuffer(serializationBuffer);
+                    pendingWrites.complete(eventSize);
+                }
         );
     }
 
+    private void scheduleEventBatchFlush() {
+        if (!eventBatchFlushScheduled && !eventBatcher.isEmpty()) {
+            eventBatchFlushScheduled = true;
+            processingTimeService.registerProcessingTimer(eventBatcher.getNextFlushTime(), this::onEventBatchFlushTime);
+        }
+    }
+
+    private void onEventBatchFlushTime(long time) throws InterruptedException {
+        eventBatchFlushScheduled = false;
+        eventBatcher.flushExpired(time);
+        scheduleEventBatchFlush();
+    }
+
+    private EventStreamWriter<?> getNonTransactionalWriter() {
+        return writer != null ? writer : batchWriter;
+    }
+
     @Override
     public List<PravegaTransactionState> prepareCommit(boolean flush) throws IOException, InterruptedException {
         if (writerMode == PravegaWriterMode.ATLEAST_ONCE || flush) {
@@ -172,14 +381,13 @@ public class PravegaEventWriter<T> implements SinkWriter<T, PravegaTransactionSt
 
     @VisibleForTesting
     public void flushAndVerify() throws IOException, InterruptedException {
-        writer.flush();
+        if (eventBatcher != null) {
+            eventBatcher.flush();
+        }
+        getNonTransactionalWriter().flush();
 
         // Wait until all errors, if any, have been recorded.
-        synchronized (this) {
-            while (this.pendingWritesCount.get() > 0) {
-                this.wait();
-            }
-        }
+        pendingWrites.awaitCompletion();
 
         checkWriteError();
     }
@@ -197,7 +405,7 @@ public class PravegaEventWriter<T> implements SinkWriter<T, PravegaTransactionSt
 
         Exception exception = null;
 
-        if (writer != null) {
+        if (writer != null || batchWriter != null) {
             try {
                 flushAndVerify();
             } catch (Exception e) {
@@ -205,13 +413,7 @@ public class PravegaEventWriter<T> implements SinkWriter<T, PravegaTransactionSt
             }
 
             try {
-                writer.close();
-            } catch (Exception e) {
-                exception = ExceptionUtils.firstOrSuppressed(e, exception);
-            }
-
-            try {
-                executorService.shutdown();
+                getNonTransactionalWriter().close();
             } catch (Exception e) {
                 exception = ExceptionUtils.firstOrSuppressed(e, exception);
             }
@@ -230,6 +432,11 @@ public class PravegaEventWriter<T> implements SinkWriter<T, PravegaTransactionSt
         }
     }
 
+    @VisibleForTesting
+    protected boolean getEnableWatermark() {
+        return enableWatermark;
+    }
+
     @VisibleForTesting
     protected PravegaWriterMode getWriterMode() {
         return writerMode;
@@ -245,4 +452,9 @@ public class PravegaEventWriter<T> implements SinkWriter<T, PravegaTransactionSt
     protected EventStreamWriter<T> getInternalWriter() {
         return writer;
     }
+
+    @VisibleForTesting
+    protected EventStreamWriter<ByteBuffer> getBatchWriter() {
+        return batchWriter;
+    }
 }
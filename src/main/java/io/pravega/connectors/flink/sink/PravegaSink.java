@@ -16,6 +16,7 @@
 package io.pravega.connectors.flink.sink;
 
 import io.pravega.client.ClientConfig;
+import io.pravega.client.stream.Serializer;
 import io.pravega.client.stream.Stream;
 import io.pravega.connectors.flink.PravegaEventRouter;
 import io.pravega.connectors.flink.PravegaWriterMode;
@@ -41,7 +42,7 @@ import java.util.Optional;
  *
  * @param <T> The type of the event to be written.
  */
-public class PravegaSink<T> implements Sink<T, PravegaTransactionState, Void, Void> {
+public class PravegaSink<T> implements Sink<T, PravegaTransactionState, PravegaTransactionState, Void> {
 
     private static final String PRAVEGA_WRITER_METRICS_GROUP = "PravegaWriter";
     private static final String SCOPED_STREAM_METRICS_GAUGE = "stream";
@@ -68,9 +69,75 @@ public class PravegaSink<T> implements Sink<T, PravegaTransactionState, Void, Vo
     @Nullable
     private final PravegaEventRouter<T> eventRouter;
 
+    // The maximum number of writes which are not acknowledged yet, only for the non-transactional writer modes
+    private final int maxInFlightEvents;
+
+    // The maximum serialized size of the writes which are not acknowledged yet, only for the non-transactional writer modes
+    private final long maxInFlightBytes;
+
+    // The maximum size of the event batches, 0 if the events are written one by one
+    private final long maxBatchBytes;
+
+    // The maximum time an event waits in an event batch before the batch is written
+    private final long maxBatchDelayMillis;
+
+    // The maximum number of transactions which are committed concurrently, only for the exactly-once writer mode
+    private final int maxConcurrentCommits;
+
+    // The number of transactions opened ahead of time, only for the exactly-once writer mode
+    private final int transactionPoolSize;
+
+    // flag to enable/disable watermark
+    private final boolean enableWatermark;
+
     public PravegaSink(boolean enableMetrics, ClientConfig clientConfig,
                        Stream stream, long txnLeaseRenewalPeriod, PravegaWriterMode writerMode,
                        SerializationSchema<T> serializationSchema, PravegaEventRouter<T> eventRouter) {
+        this(enableMetrics, clientConfig, stream, txnLeaseRenewalPeriod, writerMode, serializationSchema, eventRouter,
+                Integer.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    public PravegaSink(boolean enableMetrics, ClientConfig clientConfig,
+                       Stream stream, long txnLeaseRenewalPeriod, PravegaWriterMode writerMode,
+                       SerializationSchema<T> serializationSchema, PravegaEventRouter<T> eventRouter,
+                       int maxInFlightEvents, long maxInFlightBytes) {
+        this(enableMetrics, clientConfig, stream, txnLeaseRenewalPeriod, writerMode, serializationSchema, eventRouter,
+                maxInFlightEvents, maxInFlightBytes, 0, 0);
+    }
+
+    public PravegaSink(boolean enableMetrics, ClientConfig clientConfig,
+                       Stream stream, long txnLeaseRenewalPeriod, PravegaWriterMode writerMode,
+                       SerializationSchema<T> serializationSchema, PravegaEventRouter<T> eventRouter,
+                       int maxInFlightEvents, long maxInFlightBytes, long maxBatchBytes, long maxBatchDelayMillis) {
+        this(enableMetrics, clientConfig, stream, txnLeaseRenewalPeriod, writerMode, serializationSchema, eventRouter,
+                maxInFlightEvents, maxInFlightBytes, maxBatchBytes, maxBatchDelayMillis,
+                PravegaCommitter.DEFAULT_MAX_CONCURRENT_COMMITS);
+    }
+
+    public PravegaSink(boolean enableMetrics, ClientConfig clientConfig,
+                       Stream stream, long txnLeaseRenewalPeriod, PravegaWriterMode writerMode,
+                       SerializationSchema<T> serializationSchema, PravegaEventRouter<T> eventRouter,
+                       int maxInFlightEvents, long maxInFlightBytes, long maxBatchBytes, long maxBatchDelayMillis,
+                       int maxConcurrentCommits) {
+        this(enableMetrics, clientConfig, stream, txnLeaseRenewalPeriod, writerMode, serializationSchema, eventRouter,
+                maxInFlightEvents, maxInFlightBytes, maxBatchBytes, maxBatchDelayMillis, maxConcurrentCommits, 0);
+    }
+
+    public PravegaSink(boolean enableMetrics, ClientConfig clientConfig,
+                       Stream stream, long txnLeaseRenewalPeriod, PravegaWriterMode writerMode,
+                       SerializationSchema<T> serializationSchema, PravegaEventRouter<T> eventRouter,
+                       int maxInFlightEvents, long maxInFlightBytes, long maxBatchBytes, long maxBatchDelayMillis,
+                       int maxConcurrentCommits, int transactionPoolSize) {
+        this(enableMetrics, clientConfig, stream, txnLeaseRenewalPeriod, writerMode, serializationSchema, eventRouter,
+                maxInFlightEvents, maxInFlightBytes, maxBatchBytes, maxBatchDelayMillis, maxConcurrentCommits,
+                transactionPoolSize, false);
+    }
+
+    public PravegaSink(boolean enableMetrics, ClientConfig clientConfig,
+                       Stream stream, long txnLeaseRenewalPeriod, PravegaWriterMode writerMode,
+                       SerializationSchema<T> serializationSchema, PravegaEventRouter<T> eventRouter,
+                       int maxInFlightEvents, long maxInFlightBytes, long maxBatchBytes, long maxBatchDelayMillis,
+                       int maxConcurrentCommits, int transactionPoolSize, boolean enableWatermark) {
         this.enableMetrics = enableMetrics;
         this.clientConfig = Preconditions.checkNotNull(clientConfig, "clientConfig");
         this.stream = Preconditions.checkNotNull(stream, "stream");
@@ -79,11 +146,29 @@ public class PravegaSink<T> implements Sink<T, PravegaTransactionState, Void, Vo
         this.writerMode = Preconditions.checkNotNull(writerMode, "writerMode");
         this.serializationSchema = Preconditions.checkNotNull(serializationSchema, "serializationSchema");
         this.eventRouter = eventRouter;
+        Preconditions.checkArgument(maxInFlightEvents > 0, "maxInFlightEvents must be > 0");
+        Preconditions.checkArgument(maxInFlightBytes > 0, "maxInFlightBytes must be > 0");
+        this.maxInFlightEvents = maxInFlightEvents;
+        this.maxInFlightBytes = maxInFlightBytes;
+        if (maxBatchBytes > 0) {
+            Preconditions.checkArgument(writerMode != PravegaWriterMode.EXACTLY_ONCE,
+                    "Event batching is not supported in the exactly-once writer mode");
+            Preconditions.checkArgument(maxBatchBytes <= Serializer.MAX_EVENT_SIZE,
+                    "maxBatchBytes must be <= " + Serializer.MAX_EVENT_SIZE);
+            Preconditions.checkArgument(maxBatchDelayMillis > 0, "maxBatchDelayMillis must be > 0");
+        }
+        this.maxBatchBytes = maxBatchBytes;
+        this.maxBatchDelayMillis = maxBatchDelayMillis;
+        Preconditions.checkArgument(maxConcurrentCommits > 0, "maxConcurrentCommits must be > 0");
+        this.maxConcurrentCommits = maxConcurrentCommits;
+        Preconditions.checkArgument(transactionPoolSize >= 0, "transactionPoolSize must be >= 0");
+        this.transactionPoolSize = transactionPoolSize;
+        this.enableWatermark = enableWatermark;
     }
 
     @Override
-    public SinkWriter<T, PravegaTransactionState, Void> createWriter(
-            InitContext context, List<Void> states) throws IOException {
+    public SinkWriter<T, PravegaTransactionState, PravegaTransactionState> createWriter(
+            InitContext context, List<PravegaTransactionState> states) throws IOException {
         if (enableMetrics) {
             MetricGroup pravegaWriterMetricGroup = context.metricGroup().addGroup(PRAVEGA_WRITER_METRICS_GROUP);
             pravegaWriterMetricGroup.gauge(SCOPED_STREAM_METRICS_GAUGE, new StreamNameGauge(stream.getScopedName()));
@@ -96,7 +181,10 @@ public class PravegaSink<T> implements Sink<T, PravegaTransactionState, Void, Vo
                     stream,
                     txnLeaseRenewalPeriod,
                     serializationSchema,
-                    eventRouter);
+                    eventRouter,
+                    transactionPoolSize,
+                    states,
+                    enableWatermark);
         } else if (writerMode == PravegaWriterMode.BEST_EFFORT || writerMode == PravegaWriterMode.ATLEAST_ONCE) {
             return new PravegaEventWriter<>(
                     context,
@@ -104,7 +192,12 @@ public class PravegaSink<T> implements Sink<T, PravegaTransactionState, Void, Vo
                     stream,
                     writerMode,
                     serializationSchema,
-                    eventRouter);
+                    eventRouter,
+                    maxInFlightEvents,
+                    maxInFlightBytes,
+                    maxBatchBytes,
+                    maxBatchDelayMillis,
+                    enableWatermark);
         } else {
             throw new UnsupportedOperationException("Not implemented writer mode");
         }
@@ -114,7 +207,7 @@ public class PravegaSink<T> implements Sink<T, PravegaTransactionState, Void, Vo
     public Optional<Committer<PravegaTransactionState>> createCommitter() throws IOException {
         if (writerMode == PravegaWriterMode.EXACTLY_ONCE) {
             return Optional.of(new PravegaCommitter<>(clientConfig,
-                    stream, txnLeaseRenewalPeriod, serializationSchema));
+                    stream, txnLeaseRenewalPeriod, serializationSchema, maxConcurrentCommits));
         } else if (writerMode == PravegaWriterMode.BEST_EFFORT || writerMode == PravegaWriterMode.ATLEAST_ONCE) {
             return Optional.empty();
         } else {
@@ -138,8 +231,9 @@ public class PravegaSink<T> implements Sink<T, PravegaTransactionState, Void, Vo
     }
 
     @Override
-    public Optional<SimpleVersionedSerializer<Void>> getWriterStateSerializer() {
-        return Optional.empty();
+    public Optional<SimpleVersionedSerializer<PravegaTransactionState>> getWriterStateSerializer() {
+        // the open transaction of the exactly-once writer, which is aborted on recovery
+        return Optional.of(new PravegaTransactionStateSerializer());
     }
 
     /**
@@ -43,6 +43,13 @@ public class PravegaSinkBuilder<T> {
     private SerializationSchema<T> serializationSchema;
     @Nullable
     private PravegaEventRouter<T> eventRouter;
+    private int maxInFlightEvents = Integer.MAX_VALUE;
+    private long maxInFlightBytes = Long.MAX_VALUE;
+    private long maxBatchBytes = 0;
+    private Time maxBatchDelay = Time.milliseconds(0);
+    private int maxConcurrentCommits = PravegaCommitter.DEFAULT_MAX_CONCURRENT_COMMITS;
+    private int transactionPoolSize = 0;
+    private boolean enableWatermark = false;
 
     PravegaSinkBuilder() {
     }
@@ -104,6 +111,20 @@ public class PravegaSinkBuilder<T> {
         return this;
     }
 
+    /**
+     * Enable watermark (default: disabled).
+     *
+     * The Flink watermark is noted to the Pravega stream whenever it advances, or carried by the transaction
+     * commits in the {@code EXACTLY_ONCE} writer mode, so that the readers can use Pravega time windows.
+     *
+     * @param enableWatermark boolean
+     * @return A builder to configure and create a sink.
+     */
+    public PravegaSinkBuilder<T> enableWatermark(boolean enableWatermark) {
+        this.enableWatermark = enableWatermark;
+        return this;
+    }
+
     /**
      * Sets the transaction lease renewal period.
      *
@@ -143,6 +164,92 @@ public class PravegaSinkBuilder<T> {
         return this;
     }
 
+    /**
+     * Sets the maximum number of events which are written but not acknowledged by Pravega yet (unbounded by default).
+     *
+     * When the limit is reached, the writer blocks until acknowledgments free capacity, which backpressures
+     * the job instead of buffering the events in the Pravega client. Only applies to the {@code BEST_EFFORT}
+     * and {@code ATLEAST_ONCE} writer modes.
+     *
+     * @param maxInFlightEvents the maximum number of events in flight.
+     * @return A builder to configure and create a sink.
+     */
+    public PravegaSinkBuilder<T> withMaxInFlightEvents(int maxInFlightEvents) {
+        Preconditions.checkArgument(maxInFlightEvents > 0, "maxInFlightEvents must be > 0");
+        this.maxInFlightEvents = maxInFlightEvents;
+        return this;
+    }
+
+    /**
+     * Sets the maximum serialized size of the events which are written but not acknowledged by Pravega yet
+     * (unbounded by default).
+     *
+     * When the limit is reached, the writer blocks until acknowledgments free capacity. Only applies to
+     * the {@code BEST_EFFORT} and {@code ATLEAST_ONCE} writer modes.
+     *
+     * @param maxInFlightBytes the maximum number of bytes in flight.
+     * @return A builder to configure and create a sink.
+     */
+    public PravegaSinkBuilder<T> withMaxInFlightBytes(long maxInFlightBytes) {
+        Preconditions.checkArgument(maxInFlightBytes > 0, "maxInFlightBytes must be > 0");
+        this.maxInFlightBytes = maxInFlightBytes;
+        return this;
+    }
+
+    /**
+     * Enables event batching, which packs the events sharing a routing key into a single Pravega event
+     * (disabled by default).
+     *
+     * An event batch is written once it reaches {@code maxBatchBytes} bytes, once its first event waited for
+     * {@code maxBatchDelay}, and before every checkpoint. This saves the per-event overhead of Pravega for
+     * small events, at the cost of latency. The streams must be read with event batching enabled on the
+     * reader. Only applies to the {@code BEST_EFFORT} and {@code ATLEAST_ONCE} writer modes, where the
+     * in-flight limits then apply to the event batches.
+     *
+     * @param maxBatchBytes the maximum size of an event batch, at most 8 MB.
+     * @param maxBatchDelay the maximum time an event waits in an event batch.
+     * @return A builder to configure and create a sink.
+     */
+    public PravegaSinkBuilder<T> withEventBatching(long maxBatchBytes, Time maxBatchDelay) {
+        Preconditions.checkArgument(maxBatchBytes > 0, "maxBatchBytes must be > 0");
+        Preconditions.checkArgument(maxBatchDelay.toMilliseconds() > 0, "maxBatchDelay must be > 0");
+        this.maxBatchBytes = maxBatchBytes;
+        this.maxBatchDelay = maxBatchDelay;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of transactions which are committed concurrently when a checkpoint completes
+     * (8 by default). Only applies to the {@code EXACTLY_ONCE} writer mode.
+     *
+     * <p>A committer usually receives a single transaction per checkpoint, which is committed on its own.
+     * The commits only run concurrently when several transactions are pending at once, i.e. when they are
+     * backlogged behind earlier checkpoints or retried after a failed commit or a recovery.
+     *
+     * @param maxConcurrentCommits the maximum number of concurrent commits.
+     * @return A builder to configure and create a sink.
+     */
+    public PravegaSinkBuilder<T> withMaxConcurrentCommits(int maxConcurrentCommits) {
+        Preconditions.checkArgument(maxConcurrentCommits > 0, "maxConcurrentCommits must be > 0");
+        this.maxConcurrentCommits = maxConcurrentCommits;
+        return this;
+    }
+
+    /**
+     * Sets the number of transactions which are opened ahead of time in the background (0 by default).
+     *
+     * The writer then takes the transaction of the next checkpoint from the pool instead of waiting for
+     * the controller to begin it. Only applies to the {@code EXACTLY_ONCE} writer mode.
+     *
+     * @param transactionPoolSize the number of transactions opened ahead of time, 0 to open them on demand.
+     * @return A builder to configure and create a sink.
+     */
+    public PravegaSinkBuilder<T> withTransactionPoolSize(int transactionPoolSize) {
+        Preconditions.checkArgument(transactionPoolSize >= 0, "transactionPoolSize must be >= 0");
+        this.transactionPoolSize = transactionPoolSize;
+        return this;
+    }
+
     /**
      * Resolves the stream to be provided to the sink, based on the configured default scope.
      *
@@ -166,6 +273,13 @@ public class PravegaSinkBuilder<T> {
                 txnLeaseRenewalPeriod.toMilliseconds(),
                 writerMode,
                 serializationSchema,
-                eventRouter);
+                eventRouter,
+                maxInFlightEvents,
+                maxInFlightBytes,
+                maxBatchBytes,
+                maxBatchDelay.toMilliseconds(),
+                maxConcurrentCommits,
+                transactionPoolSize,
+                enableWatermark);
     }
 }
@@ -15,32 +15,49 @@
  */
 package io.pravega.connectors.flink.sink;
 
+import javax.annotation.Nullable;
 import java.util.Objects;
 
 /**
  * This class holds the necessary information to construct a new {@link PravegaTransactionWriter}
- * to commit transactions in {@link PravegaCommitter}.
+ * to commit transactions in {@link PravegaCommitter}. <p>
+ * It is also the state of a {@link PravegaTransactionWriter}, which holds its open transaction so
+ * that the transaction is aborted when the writer is restored.
  */
 public class PravegaTransactionState {
     private final String transactionId;
 
+    // The watermark to commit the transaction with, null if watermarks are not written
+    @Nullable
+    private final Long watermark;
+
     PravegaTransactionState(String transactionId) {
+        this(transactionId, null);
+    }
+
+    PravegaTransactionState(String transactionId, @Nullable Long watermark) {
         this.transactionId = transactionId;
+        this.watermark = watermark;
     }
 
     public static <I> PravegaTransactionState of(PravegaTransactionWriter<I> writer) {
-        return new PravegaTransactionState(writer.getTransactionId());
+        return new PravegaTransactionState(writer.getTransactionId(), writer.getTransactionWatermark());
     }
 
     public String getTransactionId() {
         return transactionId;
     }
 
+    @Nullable
+    public Long getWatermark() {
+        return watermark;
+    }
+
     @Override
     public String toString() {
         return String.format(
-                "%s [transactionId=%s]",
-                this.getClass().getSimpleName(), transactionId);
+                "%s [transactionId=%s, watermark=%s]",
+                this.getClass().getSimpleName(), transactionId, watermark);
     }
 
     @Override
@@ -52,11 +69,12 @@ public class PravegaTransactionState {
             return false;
         }
         PravegaTransactionState that = (PravegaTransactionState) o;
-        return Objects.equals(transactionId, that.transactionId);
+        return Objects.equals(transactionId, that.transactionId) &&
+                Objects.equals(watermark, that.watermark);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(transactionId);
+        return Objects.hash(transactionId, watermark);
     }
 }
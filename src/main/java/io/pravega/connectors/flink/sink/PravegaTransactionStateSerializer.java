@@ -23,10 +23,17 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 
+/**
+ * Serializes the {@link PravegaTransactionState}, both as the committable and as the writer state. <p>
+ * Version 1 holds the transaction id, version 2 adds the optional watermark.
+ */
 public class PravegaTransactionStateSerializer implements SimpleVersionedSerializer<PravegaTransactionState> {
+    private static final int VERSION_1 = 1;
+    private static final int VERSION_2 = 2;
+
     @Override
     public int getVersion() {
-        return 1;
+        return VERSION_2;
     }
 
     @Override
@@ -34,6 +41,12 @@ public class PravegaTransactionStateSerializer implements SimpleVersionedSeriali
         try (final ByteArrayOutputStream baos = new ByteArrayOutputStream();
              final DataOutputStream out = new DataOutputStream(baos)) {
             out.writeUTF(state.getTransactionId());
+            if (state.getWatermark() == null) {
+                out.writeBoolean(false);
+            } else {
+                out.writeBoolean(true);
+                out.writeLong(state.getWatermark());
+            }
             out.flush();
             return baos.toByteArray();
         }
@@ -44,7 +57,15 @@ public class PravegaTransactionStateSerializer implements SimpleVersionedSeriali
         try (final ByteArrayInputStream bais = new ByteArrayInputStream(serialized);
              final DataInputStream in = new DataInputStream(bais)) {
             final String transactionalId = in.readUTF();
-            return new PravegaTransactionState(transactionalId);
+            switch (version) {
+                case VERSION_1:
+                    return new PravegaTransactionState(transactionalId);
+                case VERSION_2:
+                    final Long watermark = in.readBoolean() ? in.readLong() : null;
+                    return new PravegaTransactionState(transactionalId, watermark);
+                default:
+                    throw new IOException("Unrecognized version or corrupt state: " + version);
+            }
         }
     }
 }
@@ -26,16 +26,22 @@ import io.pravega.client.stream.TransactionalEventStreamWriter;
 import io.pravega.client.stream.TxnFailedException;
 import io.pravega.connectors.flink.PravegaEventRouter;
 import io.pravega.connectors.flink.PravegaWriterMode;
+import io.pravega.connectors.flink.serialization.FlinkSerializer;
+import io.pravega.connectors.flink.util.ClientFactoryCache;
+import io.pravega.connectors.flink.util.TransactionPool;
 import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.api.common.eventtime.Watermark;
 import org.apache.flink.api.common.serialization.SerializationSchema;
 import org.apache.flink.api.connector.sink.Sink;
 import org.apache.flink.api.connector.sink.SinkWriter;
 import org.apache.flink.util.ExceptionUtils;
+import org.apache.flink.util.Preconditions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
@@ -44,11 +50,13 @@ import java.util.UUID;
  * A Pravega {@link SinkWriter} implementation that is suitable for {@link PravegaWriterMode#EXACTLY_ONCE}. <p>
  * Note that the transaction is committed in a reconstructed one from the {@link PravegaCommitter} and
  * this writer only deals with the {@link PravegaTransactionWriter#beginTransaction},
- * {@link PravegaTransactionWriter#write}, and {@link PravegaTransactionWriter#prepareCommit} stage.
+ * {@link PravegaTransactionWriter#write}, and {@link PravegaTransactionWriter#prepareCommit} stage. <p>
+ * The open transaction is kept as the writer state, so that the transaction which was open when
+ * the job failed is aborted on recovery instead of lingering until it times out.
  *
  * @param <T> The type of the event to be written.
  */
-public class PravegaTransactionWriter<T> implements SinkWriter<T, PravegaTransactionState, Void> {
+public class PravegaTransactionWriter<T> implements SinkWriter<T, PravegaTransactionState, PravegaTransactionState> {
     private static final Logger LOG = LoggerFactory.getLogger(PravegaTransactionWriter.class);
 
     // Client factory for PravegaTransactionWriter instances
@@ -75,6 +83,10 @@ public class PravegaTransactionWriter<T> implements SinkWriter<T, PravegaTransac
     // Transactional Pravega writer instance
     private final transient TransactionalEventStreamWriter<T> transactionalWriter;
 
+    // The transactions opened ahead of time, null if the transactions are opened on demand
+    @Nullable
+    private final transient TransactionPool<T> transactionPool;
+
     // The writer id
     private final String writerId;
 
@@ -82,6 +94,19 @@ public class PravegaTransactionWriter<T> implements SinkWriter<T, PravegaTransac
     @Nullable
     private transient Transaction<T> transaction;
 
+    // Whether an event was written to the current transaction
+    private transient boolean transactionHasEvents;
+
+    // flag to enable/disable watermark
+    private final boolean enableWatermark;
+
+    // The last watermark seen by the writer, which the current transaction is committed with, null if none was seen yet
+    @Nullable
+    private transient Long transactionWatermark;
+
+    // The watermark the last transaction was committed with
+    private transient long committedWatermark = Long.MIN_VALUE;
+
     /**
      * A Pravega writer that handles {@link PravegaWriterMode#EXACTLY_ONCE} writer mode.
      *
@@ -98,23 +123,127 @@ public class PravegaTransactionWriter<T> implements SinkWriter<T, PravegaTransac
                                     long txnLeaseRenewalPeriod,
                                     SerializationSchema<T> serializationSchema,
                                     PravegaEventRouter<T> eventRouter) {
+        this(context, clientConfig, stream, txnLeaseRenewalPeriod, serializationSchema, eventRouter, 0);
+    }
+
+    /**
+     * A Pravega writer that handles {@link PravegaWriterMode#EXACTLY_ONCE} writer mode, and optionally
+     * opens the next transactions ahead of time so that a checkpoint does not wait for the controller.
+     *
+     * @param context               Some runtime info from sink.
+     * @param clientConfig          The Pravega client configuration.
+     * @param stream                The destination stream.
+     * @param txnLeaseRenewalPeriod Transaction lease renewal period in milliseconds.
+     * @param serializationSchema   The implementation for serializing every event into pravega's storage format.
+     * @param eventRouter           The implementation to extract the partition key from the event.
+     * @param transactionPoolSize   The number of transactions opened ahead of time, 0 to open them on demand.
+     */
+    public PravegaTransactionWriter(Sink.InitContext context,
+                                    ClientConfig clientConfig,
+                                    Stream stream,
+                                    long txnLeaseRenewalPeriod,
+                                    SerializationSchema<T> serializationSchema,
+                                    PravegaEventRouter<T> eventRouter,
+                                    int transactionPoolSize) {
+        this(context, clientConfig, stream, txnLeaseRenewalPeriod, serializationSchema, eventRouter,
+                transactionPoolSize, Collections.emptyList());
+    }
+
+    /**
+     * A Pravega writer that handles {@link PravegaWriterMode#EXACTLY_ONCE} writer mode, restored from
+     * the given states.
+     *
+     * @param context               Some runtime info from sink.
+     * @param clientConfig          The Pravega client configuration.
+     * @param stream                The destination stream.
+     * @param txnLeaseRenewalPeriod Transaction lease renewal period in milliseconds.
+     * @param serializationSchema   The implementation for serializing every event into pravega's storage format.
+     * @param eventRouter           The implementation to extract the partition key from the event.
+     * @param transactionPoolSize   The number of transactions opened ahead of time, 0 to open them on demand.
+     * @param recoveredStates       The writer states to restore, whose transactions are aborted.
+     */
+    public PravegaTransactionWriter(Sink.InitContext context,
+                                    ClientConfig clientConfig,
+                                    Stream stream,
+                                    long txnLeaseRenewalPeriod,
+                                    SerializationSchema<T> serializationSchema,
+                                    PravegaEventRouter<T> eventRouter,
+                                    int transactionPoolSize,
+                                    Collection<PravegaTransactionState> recoveredStates) {
+        this(context, clientConfig, stream, txnLeaseRenewalPeriod, serializationSchema, eventRouter,
+                transactionPoolSize, recoveredStates, false);
+    }
+
+    /**
+     * A Pravega writer that handles {@link PravegaWriterMode#EXACTLY_ONCE} writer mode, restored from
+     * the given states, and optionally commits the transactions with the Flink watermark.
+     *
+     * @param context               Some runtime info from sink.
+     * @param clientConfig          The Pravega client configuration.
+     * @param stream                The destination stream.
+     * @param txnLeaseRenewalPeriod Transaction lease renewal period in milliseconds.
+     * @param serializationSchema   The implementation for serializing every event into pravega's storage format.
+     * @param eventRouter           The implementation to extract the partition key from the event.
+     * @param transactionPoolSize   The number of transactions opened ahead of time, 0 to open them on demand.
+     * @param recoveredStates       The writer states to restore, whose transactions are aborted.
+     * @param enableWatermark       Flag to indicate whether Pravega watermark needs to be enabled or not.
+     */
+    public PravegaTransactionWriter(Sink.InitContext context,
+                                    ClientConfig clientConfig,
+                                    Stream stream,
+                                    long txnLeaseRenewalPeriod,
+                                    SerializationSchema<T> serializationSchema,
+                                    PravegaEventRouter<T> eventRouter,
+                                    int transactionPoolSize,
+                                    Collection<PravegaTransactionState> recoveredStates,
+                                    boolean enableWatermark) {
+        Preconditions.checkArgument(transactionPoolSize >= 0, "transactionPoolSize must be >= 0");
         this.clientConfig = clientConfig;
         this.stream = stream;
         this.txnLeaseRenewalPeriod = txnLeaseRenewalPeriod;
         this.serializationSchema = serializationSchema;
         this.eventRouter = eventRouter;
+        this.enableWatermark = enableWatermark;
         this.transactionalWriter = initializeInternalWriter();
         this.writerId = UUID.randomUUID() + "-" + context.getSubtaskId();
+        // the pooled transactions are replaced before they stay idle for half of their lease renewal period
+        this.transactionPool = transactionPoolSize > 0
+                ? new TransactionPool<>(transactionalWriter, transactionPoolSize, txnLeaseRenewalPeriod / 2, writerId)
+                : null;
 
         LOG.info("Initialized Pravega writer {} for stream: {} with controller URI: {}",
                 writerId, stream, clientConfig.getControllerURI());
 
+        abortRecoveredTransactions(recoveredStates);
         this.transaction = beginTransaction();
     }
 
+    /**
+     * Aborts the transactions which were open when the restored writers took their last snapshot. Their
+     * events were written after the checkpoint, so they are written again once the job is restored.
+     */
+    private void abortRecoveredTransactions(Collection<PravegaTransactionState> recoveredStates) {
+        for (PravegaTransactionState state : recoveredStates) {
+            final UUID txnId = UUID.fromString(state.getTransactionId());
+            try {
+                final Transaction<T> recovered = transactionalWriter.getTxn(txnId);
+                final Transaction.Status status = recovered.checkStatus();
+                if (status == Transaction.Status.OPEN) {
+                    recovered.abort();
+                    LOG.info("{} - Aborted the recovered transaction: {}", writerId, txnId);
+                } else {
+                    LOG.info("{} - Recovered transaction {} is already {}", writerId, txnId, status);
+                }
+            } catch (Exception e) {
+                // the transaction times out eventually, so the recovery goes on
+                LOG.warn("{} - Failed to abort the recovered transaction {}", writerId, txnId, e);
+            }
+        }
+    }
+
     @VisibleForTesting
     protected TransactionalEventStreamWriter<T> initializeInternalWriter() {
-        clientFactory = EventStreamClientFactory.withScope(stream.getScope(), clientConfig);
+        clientFactory = ClientFactoryCache.getEventStreamClientFactory(stream.getScope(), clientConfig);
         Serializer<T> eventSerializer = new FlinkSerializer<>(serializationSchema);
         EventWriterConfig writerConfig = EventWriterConfig.builder()
                 .transactionTimeoutTime(txnLeaseRenewalPeriod)
@@ -123,7 +252,7 @@ public class PravegaTransactionWriter<T> implements SinkWriter<T, PravegaTransac
     }
 
     private Transaction<T> beginTransaction() {
-        Transaction<T> transaction = transactionalWriter.beginTxn();
+        Transaction<T> transaction = transactionPool != null ? transactionPool.take() : transactionalWriter.beginTxn();
         LOG.info("{} - Transaction began with id {}.", writerId, transaction.getTxnId());
         return transaction;
     }
@@ -138,13 +267,43 @@ public class PravegaTransactionWriter<T> implements SinkWriter<T, PravegaTransac
             } else {
                 transaction.writeEvent(element);
             }
+            transactionHasEvents = true;
+
+            if (enableWatermark) {
+                updateWatermark(context.currentWatermark());
+            }
         } catch (TxnFailedException | AssertionError e) {
             throw new IOException(e);
         }
     }
 
+    @Override
+    public void writeWatermark(Watermark watermark) {
+        // the watermark also advances while no event is written, e.g. on an idle input
+        if (enableWatermark) {
+            updateWatermark(watermark.getTimestamp());
+        }
+    }
+
+    private void updateWatermark(long watermark) {
+        // only kept in memory, the watermark reaches Pravega once with the commit of the transaction
+        if (watermark > Long.MIN_VALUE && watermark < Long.MAX_VALUE
+                && (transactionWatermark == null || watermark > transactionWatermark)) {
+            transactionWatermark = watermark;
+        }
+    }
+
     @Override
     public List<PravegaTransactionState> prepareCommit(boolean flush) throws IOException, InterruptedException {
+        if (!transactionHasEvents && !hasWatermarkAdvanced()) {
+            // nothing to commit, so the transaction is kept for the next checkpoint instead of
+            // costing a commit and a new transaction. an empty transaction is still committed when
+            // the watermark has advanced, so that the watermark of the stream does not stall
+            LOG.debug("{} - Transaction {} received no event, skipping its commit.",
+                    writerId, transaction == null ? null : transaction.getTxnId());
+            return Collections.emptyList();
+        }
+
         final List<PravegaTransactionState> transactionStates;
         try {
             flush();
@@ -152,6 +311,10 @@ public class PravegaTransactionWriter<T> implements SinkWriter<T, PravegaTransac
             transactionStates = Collections.singletonList(PravegaTransactionState.of(this));
 
             transaction = beginTransaction();
+            transactionHasEvents = false;
+            if (transactionWatermark != null) {
+                committedWatermark = transactionWatermark;
+            }
         } catch (TxnFailedException e) {
             throw new IOException("", e);
         }
@@ -159,6 +322,18 @@ public class PravegaTransactionWriter<T> implements SinkWriter<T, PravegaTransac
         return transactionStates;
     }
 
+    @Override
+    public List<PravegaTransactionState> snapshotState() throws IOException {
+        if (transaction == null) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(PravegaTransactionState.of(this));
+    }
+
+    private boolean hasWatermarkAdvanced() {
+        return transactionWatermark != null && transactionWatermark > committedWatermark;
+    }
+
     private void flush() throws TxnFailedException, AssertionError {
         assert transaction != null;
 
@@ -181,6 +356,14 @@ public class PravegaTransactionWriter<T> implements SinkWriter<T, PravegaTransac
             }
         }
 
+        if (transactionPool != null) {
+            try {
+                transactionPool.close();
+            } catch (Exception e) {
+                exception = ExceptionUtils.firstOrSuppressed(e, exception);
+            }
+        }
+
         if (transactionalWriter != null) {
             try {
                 transactionalWriter.close();
@@ -221,6 +404,16 @@ public class PravegaTransactionWriter<T> implements SinkWriter<T, PravegaTransac
         return transaction.getTxnId().toString();
     }
 
+    /**
+     * Gets the watermark to commit the current transaction with.
+     *
+     * @return the latest watermark seen by the writer, null if none or if watermarks are disabled.
+     */
+    @Nullable
+    public Long getTransactionWatermark() {
+        return transactionWatermark;
+    }
+
     @VisibleForTesting
     @Nullable
     protected PravegaEventRouter<T> getEventRouter() {
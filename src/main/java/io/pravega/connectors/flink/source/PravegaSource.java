@@ -0,0 +1,174 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink.source;
+
+import io.pravega.client.ClientConfig;
+import io.pravega.client.stream.Checkpoint;
+import io.pravega.client.stream.ReaderGroupConfig;
+import io.pravega.connectors.flink.serialization.CheckpointSerializer;
+import io.pravega.connectors.flink.source.enumerator.PravegaSplitEnumerator;
+import io.pravega.connectors.flink.source.reader.PravegaSourceReader;
+import io.pravega.connectors.flink.source.split.PravegaSplit;
+import io.pravega.connectors.flink.source.split.PravegaSplitSerializer;
+import org.apache.flink.api.common.serialization.DeserializationSchema;
+import org.apache.flink.api.common.time.Time;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.connector.source.Boundedness;
+import org.apache.flink.api.connector.source.Source;
+import org.apache.flink.api.connector.source.SourceReader;
+import org.apache.flink.api.connector.source.SourceReaderContext;
+import org.apache.flink.api.connector.source.SplitEnumerator;
+import org.apache.flink.api.connector.source.SplitEnumeratorContext;
+import org.apache.flink.api.java.typeutils.ResultTypeQueryable;
+import org.apache.flink.core.io.SimpleVersionedSerializer;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.util.Preconditions;
+import org.apache.flink.util.UserCodeClassLoader;
+
+/**
+ * Flink source implementation for reading from Pravega storage, based on the unified Source API (FLIP-27).
+ *
+ * <p>The {@link PravegaSplitEnumerator} on the JobManager owns the Pravega reader group and its checkpoints,
+ * while each {@link PravegaSourceReader} runs one Pravega reader of the group. The source is bounded if every
+ * stream is read up to an end stream cut.
+ *
+ * <p>Use {@code StreamExecutionEnvironment#fromSource} to add the source to a job, watermarks are generated by
+ * the supplied {@code WatermarkStrategy}.
+ *
+ * @param <T> The type of the event.
+ */
+public class PravegaSource<T>
+        implements Source<T, PravegaSplit, Checkpoint>, ResultTypeQueryable<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    // The Pravega client config.
+    final ClientConfig clientConfig;
+
+    // The Pravega reader group config.
+    final ReaderGroupConfig readerGroupConfig;
+
+    // The scope name of the reader group.
+    final String readerGroupScope;
+
+    // The readergroup name to coordinate the parallel readers. This should be unique for a Flink job.
+    final String readerGroupName;
+
+    // The supplied event deserializer.
+    final DeserializationSchema<T> deserializationSchema;
+
+    // the timeout for reading events from Pravega
+    final Time eventReadTimeout;
+
+    // the timeout for call that initiates the Pravega checkpoint
+    final Time checkpointInitiateTimeout;
+
+    // whether all the streams are read up to an end stream cut
+    final boolean isBounded;
+
+    // the maximum number of events read ahead of the emitting thread by each source reader
+    final int readAheadCapacity;
+
+    /**
+     * Creates a new Pravega source instance which can be added as a source to a Flink job.
+     *
+     * @param clientConfig              The Pravega client configuration.
+     * @param readerGroupConfig         The Pravega reader group configuration.
+     * @param readerGroupScope          The reader group scope name.
+     * @param readerGroupName           The reader group name.
+     * @param deserializationSchema     The implementation to deserialize events from Pravega streams.
+     * @param eventReadTimeout          The event read timeout.
+     * @param checkpointInitiateTimeout The checkpoint initiation timeout.
+     * @param isBounded                 Whether all the streams are read up to an end stream cut.
+     * @param readAheadCapacity         The maximum number of events read ahead of the emitting thread by each reader.
+     */
+    public PravegaSource(ClientConfig clientConfig,
+                         ReaderGroupConfig readerGroupConfig, String readerGroupScope, String readerGroupName,
+                         DeserializationSchema<T> deserializationSchema,
+                         Time eventReadTimeout, Time checkpointInitiateTimeout,
+                         boolean isBounded, int readAheadCapacity) {
+        Preconditions.checkArgument(readAheadCapacity > 0, "readAheadCapacity must be > 0");
+        this.clientConfig = Preconditions.checkNotNull(clientConfig, "clientConfig");
+        this.readerGroupConfig = Preconditions.checkNotNull(readerGroupConfig, "readerGroupConfig");
+        this.readerGroupScope = Preconditions.checkNotNull(readerGroupScope, "readerGroupScope");
+        this.readerGroupName = Preconditions.checkNotNull(readerGroupName, "readerGroupName");
+        this.deserializationSchema = Preconditions.checkNotNull(deserializationSchema, "deserializationSchema");
+        this.eventReadTimeout = Preconditions.checkNotNull(eventReadTimeout, "eventReadTimeout");
+        this.checkpointInitiateTimeout = Preconditions.checkNotNull(checkpointInitiateTimeout, "checkpointInitiateTimeout");
+        this.isBounded = isBounded;
+        this.readAheadCapacity = readAheadCapacity;
+    }
+
+    @Override
+    public Boundedness getBoundedness() {
+        return isBounded ? Boundedness.BOUNDED : Boundedness.CONTINUOUS_UNBOUNDED;
+    }
+
+    @Override
+    public SourceReader<T, PravegaSplit> createReader(SourceReaderContext readerContext) throws Exception {
+        deserializationSchema.open(new DeserializationSchema.InitializationContext() {
+            @Override
+            public MetricGroup getMetricGroup() {
+                return readerContext.metricGroup().addGroup("user");
+            }
+
+            @Override
+            public UserCodeClassLoader getUserCodeClassLoader() {
+                return readerContext.getUserCodeClassLoader();
+            }
+        });
+        return new PravegaSourceReader<>(clientConfig, readerGroupScope, deserializationSchema, eventReadTimeout,
+                readAheadCapacity);
+    }
+
+    @Override
+    public SplitEnumerator<PravegaSplit, Checkpoint> createEnumerator(SplitEnumeratorContext<PravegaSplit> enumContext) {
+        return new PravegaSplitEnumerator(enumContext, readerGroupScope, readerGroupName, clientConfig,
+                readerGroupConfig, checkpointInitiateTimeout, null, isBounded);
+    }
+
+    @Override
+    public SplitEnumerator<PravegaSplit, Checkpoint> restoreEnumerator(SplitEnumeratorContext<PravegaSplit> enumContext,
+                                                                        Checkpoint checkpoint) {
+        return new PravegaSplitEnumerator(enumContext, readerGroupScope, readerGroupName, clientConfig,
+                readerGroupConfig, checkpointInitiateTimeout, checkpoint, isBounded);
+    }
+
+    @Override
+    public SimpleVersionedSerializer<PravegaSplit> getSplitSerializer() {
+        return new PravegaSplitSerializer();
+    }
+
+    @Override
+    public SimpleVersionedSerializer<Checkpoint> getEnumeratorCheckpointSerializer() {
+        return new CheckpointSerializer();
+    }
+
+    @Override
+    public TypeInformation<T> getProducedType() {
+        return deserializationSchema.getProducedType();
+    }
+
+    /**
+     * Gets a builder for {@link PravegaSource} to read Pravega streams using the Flink unified source API.
+     *
+     * @param <T> the element type.
+     * @return A new builder of {@link PravegaSource}
+     */
+    public static <T> PravegaSourceBuilder<T> builder() {
+        return new PravegaSourceBuilder<>();
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink.source;
+
+import io.pravega.client.stream.StreamCut;
+import io.pravega.connectors.flink.AbstractStreamingReaderBuilder;
+import io.pravega.connectors.flink.serialization.DeserializerFromSchemaRegistry;
+import io.pravega.connectors.flink.serialization.PravegaDeserializationSchema;
+import io.pravega.connectors.flink.watermark.AssignerWithTimeWindows;
+import org.apache.flink.api.common.serialization.DeserializationSchema;
+import org.apache.flink.util.Preconditions;
+import org.apache.flink.util.SerializedValue;
+
+/**
+ * A builder for {@link PravegaSource}.
+ *
+ * <p>The builder shares the options of the {@link io.pravega.connectors.flink.FlinkPravegaReader} builder.
+ * Event time is handled by the {@code WatermarkStrategy} given to {@code StreamExecutionEnvironment#fromSource},
+ * and the {@code uid} of the source is the uid of its operator.
+ *
+ * @param <T> the element type.
+ */
+public class PravegaSourceBuilder<T> extends AbstractStreamingReaderBuilder<T, PravegaSourceBuilder<T>> {
+
+    private static final int DEFAULT_READ_AHEAD_CAPACITY = 1024;
+
+    private DeserializationSchema<T> deserializationSchema;
+
+    private int readAheadCapacity = DEFAULT_READ_AHEAD_CAPACITY;
+
+    protected PravegaSourceBuilder<T> builder() {
+        return this;
+    }
+
+    /**
+     * Sets the deserialization schema.
+     *
+     * @param deserializationSchema The deserialization schema
+     * @return Builder instance.
+     */
+    public PravegaSourceBuilder<T> withDeserializationSchema(DeserializationSchema<T> deserializationSchema) {
+        this.deserializationSchema = deserializationSchema;
+        return builder();
+    }
+
+    /**
+     * Sets the deserialization schema from schema registry. It supports Json, Avro and Protobuf format.
+     *
+     * @param groupId The group id in schema registry
+     * @param tClass  The class describing the deserialized type.
+     * @return Builder instance.
+     */
+    public PravegaSourceBuilder<T> withDeserializationSchemaFromRegistry(String groupId, Class<T> tClass) {
+        this.deserializationSchema = new PravegaDeserializationSchema<>(tClass,
+                new DeserializerFromSchemaRegistry<>(getPravegaConfig(), groupId, tClass));
+        return builder();
+    }
+
+    /**
+     * Sets the maximum number of events that each source reader reads ahead of the emitting thread (default=1024).
+     *
+     * <p>The events are read by a fetcher thread and handed over to the emitting thread through a queue of
+     * this capacity. A larger capacity absorbs longer stalls of the emitting thread, at the cost of keeping
+     * more events in memory.
+     *
+     * @param readAheadCapacity the maximum number of events read ahead.
+     * @return Builder instance.
+     */
+    public PravegaSourceBuilder<T> withReadAheadCapacity(int readAheadCapacity) {
+        Preconditions.checkArgument(readAheadCapacity > 0, "readAheadCapacity must be > 0");
+        this.readAheadCapacity = readAheadCapacity;
+        return builder();
+    }
+
+    @Override
+    protected DeserializationSchema<T> getDeserializationSchema() {
+        Preconditions.checkState(deserializationSchema != null, "Deserialization schema must not be null.");
+        return deserializationSchema;
+    }
+
+    @Override
+    protected SerializedValue<AssignerWithTimeWindows<T>> getAssignerWithTimeWindows() {
+        // watermarks are generated by the WatermarkStrategy of the source
+        return null;
+    }
+
+    /**
+     * Builds a {@link PravegaSource} based on the configuration.
+     *
+     * @throws IllegalStateException if the configuration is invalid.
+     * @return An instance of {@link PravegaSource}
+     */
+    public PravegaSource<T> build() {
+        ReaderGroupInfo readerGroupInfo = buildReaderGroupInfo();
+        boolean isBounded = resolveStreams().stream().noneMatch(s -> StreamCut.UNBOUNDED.equals(s.getTo()));
+        return new PravegaSource<>(
+                getPravegaConfig().getClientConfig(),
+                readerGroupInfo.getReaderGroupConfig(),
+                readerGroupInfo.getReaderGroupScope(),
+                readerGroupInfo.getReaderGroupName(),
+                getDeserializationSchema(),
+                this.eventReadTimeout,
+                this.checkpointInitiateTimeout,
+                isBounded,
+                this.readAheadCapacity);
+    }
+}
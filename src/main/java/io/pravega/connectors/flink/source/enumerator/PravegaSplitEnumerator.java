@@ -0,0 +1,232 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink.source.enumerator;
+
+import io.pravega.client.ClientConfig;
+import io.pravega.client.admin.ReaderGroupManager;
+import io.pravega.client.stream.Checkpoint;
+import io.pravega.client.stream.ReaderGroup;
+import io.pravega.client.stream.ReaderGroupConfig;
+import io.pravega.client.stream.ReaderGroupNotFoundException;
+import io.pravega.connectors.flink.source.split.PravegaSplit;
+import io.pravega.connectors.flink.util.FlinkPravegaUtils;
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.api.common.time.Time;
+import org.apache.flink.api.connector.source.SplitEnumerator;
+import org.apache.flink.api.connector.source.SplitEnumeratorContext;
+import org.apache.flink.util.ExceptionUtils;
+import org.apache.flink.util.FlinkException;
+import org.apache.flink.util.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The enumerator of the {@link io.pravega.connectors.flink.source.PravegaSource}.
+ *
+ * <p>The enumerator runs on the JobManager and owns the Pravega reader group. Each registered source
+ * reader is assigned exactly one {@link PravegaSplit}, the segments themselves are balanced by the
+ * reader group. A Flink checkpoint of the enumerator initiates a Pravega checkpoint on the reader group,
+ * whose result is the checkpointed state of the enumerator.
+ */
+public class PravegaSplitEnumerator implements SplitEnumerator<PravegaSplit, Checkpoint> {
+    private static final Logger LOG = LoggerFactory.getLogger(PravegaSplitEnumerator.class);
+
+    // The context of the enumerator, used to assign splits to the readers.
+    private final SplitEnumeratorContext<PravegaSplit> enumContext;
+
+    // The scope name of the reader group.
+    private final String readerGroupScope;
+
+    // The reader group name to coordinate the parallel readers.
+    private final String readerGroupName;
+
+    // The Pravega client config.
+    private final ClientConfig clientConfig;
+
+    // The Pravega reader group config.
+    private final ReaderGroupConfig readerGroupConfig;
+
+    // The timeout for the call that initiates the Pravega checkpoint.
+    private final Time checkpointInitiateTimeout;
+
+    // The Pravega checkpoint to restore from, null if the enumerator is not restored.
+    @Nullable
+    private final Checkpoint checkpoint;
+
+    // Whether the source is bounded.
+    private final boolean isBounded;
+
+    // The subtasks which already own a split.
+    private final Set<Integer> assignedSubtasks;
+
+    // Pravega reader group manager (NOTE: MUST be closed when enumerator closed)
+    private ReaderGroupManager readerGroupManager;
+
+    // Pravega reader group (NOTE: MUST be closed when enumerator closed)
+    private ReaderGroup readerGroup;
+
+    // The executor used by Pravega to run the checkpoint
+    private ScheduledExecutorService scheduledExecutorService;
+
+    public PravegaSplitEnumerator(
+            SplitEnumeratorContext<PravegaSplit> context,
+            String readerGroupScope,
+            String readerGroupName,
+            ClientConfig clientConfig,
+            ReaderGroupConfig readerGroupConfig,
+            Time checkpointInitiateTimeout,
+            @Nullable Checkpoint checkpoint,
+            boolean isBounded) {
+        this.enumContext = Preconditions.checkNotNull(context, "context");
+        this.readerGroupScope = Preconditions.checkNotNull(readerGroupScope, "readerGroupScope");
+        this.readerGroupName = Preconditions.checkNotNull(readerGroupName, "readerGroupName");
+        this.clientConfig = Preconditions.checkNotNull(clientConfig, "clientConfig");
+        this.readerGroupConfig = Preconditions.checkNotNull(readerGroupConfig, "readerGroupConfig");
+        this.checkpointInitiateTimeout = Preconditions.checkNotNull(checkpointInitiateTimeout, "checkpointInitiateTimeout");
+        this.checkpoint = checkpoint;
+        this.isBounded = isBounded;
+        this.assignedSubtasks = new HashSet<>();
+    }
+
+    @Override
+    public void start() {
+        LOG.info("Starting the enumerator of reader group: {}/{}", readerGroupScope, readerGroupName);
+        scheduledExecutorService = Executors.newSingleThreadScheduledExecutor();
+        readerGroupManager = createReaderGroupManager();
+        try {
+            readerGroup = readerGroupManager.getReaderGroup(readerGroupName);
+        } catch (ReaderGroupNotFoundException e) {
+            readerGroupManager.createReaderGroup(readerGroupName, readerGroupConfig);
+            readerGroup = readerGroupManager.getReaderGroup(readerGroupName);
+        }
+
+        if (checkpoint != null) {
+            LOG.info("Restoring the reader group {} from checkpoint {}", readerGroupName, checkpoint.getName());
+            readerGroup.resetReaderGroup(ReaderGroupConfig
+                    .builder()
+                    .maxOutstandingCheckpointRequest(readerGroupConfig.getMaxOutstandingCheckpointRequest())
+                    .groupRefreshTimeMillis(readerGroupConfig.getGroupRefreshTimeMillis())
+                    .disableAutomaticCheckpoints()
+                    .startFromCheckpoint(checkpoint)
+                    .build());
+        } else {
+            // To avoid the data loss, reset the reader group using the reader config that was initially passed to the job.
+            // This can happen when the job recovery happens after a failure but no checkpoint has been taken.
+            LOG.info("Resetting the reader group to initial state using the RG config {}", readerGroupConfig);
+            readerGroup.resetReaderGroup(readerGroupConfig);
+        }
+    }
+
+    @Override
+    public void handleSplitRequest(int subtaskId, @Nullable String requesterHostname) {
+        // the readers are assigned their split upon registration
+    }
+
+    @Override
+    public void addSplitsBack(List<PravegaSplit> splits, int subtaskId) {
+        // the reader of the failed subtask is taken offline so that its segments are released to the other
+        // readers, the split is assigned again once the subtask registers its new reader.
+        for (PravegaSplit split : splits) {
+            LOG.info("Taking reader {} offline after the failure of subtask {}", split.splitId(), subtaskId);
+            readerGroup.readerOffline(split.splitId(), null);
+        }
+        assignedSubtasks.remove(subtaskId);
+    }
+
+    @Override
+    public void addReader(int subtaskId) {
+        if (assignedSubtasks.add(subtaskId)) {
+            PravegaSplit split = new PravegaSplit(readerGroupName, subtaskId);
+            LOG.debug("Assigning split {} to subtask {}", split, subtaskId);
+            enumContext.assignSplit(split, subtaskId);
+            if (isBounded) {
+                enumContext.signalNoMoreSplits(subtaskId);
+            }
+        }
+    }
+
+    @Override
+    public Checkpoint snapshotState(long checkpointId) throws Exception {
+        final String checkpointName = FlinkPravegaUtils.createCheckpointName(checkpointId);
+        LOG.debug("Initiating checkpoint {} on reader group {}", checkpointName, readerGroupName);
+
+        final CompletableFuture<Checkpoint> checkpointResult =
+                readerGroup.initiateCheckpoint(checkpointName, scheduledExecutorService);
+        try {
+            return checkpointResult.get(checkpointInitiateTimeout.toMilliseconds(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            checkpointResult.cancel(false);
+            throw new FlinkException("Pravega checkpoint " + checkpointName + " was not completed in time", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        Throwable ex = null;
+        if (readerGroupManager != null) {
+            try {
+                LOG.info("Closing Pravega ReaderGroupManager");
+                readerGroupManager.close();
+            } catch (Throwable e) {
+                ex = ExceptionUtils.firstOrSuppressed(e, ex);
+            }
+        }
+        if (readerGroup != null) {
+            try {
+                LOG.info("Closing Pravega ReaderGroup");
+                readerGroup.close();
+            } catch (Throwable e) {
+                ex = ExceptionUtils.firstOrSuppressed(e, ex);
+            }
+        }
+        if (scheduledExecutorService != null) {
+            scheduledExecutorService.shutdownNow();
+        }
+        if (ex != null) {
+            throw new IOException("Failed to close the Pravega split enumerator", ex);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    //  utility
+    // ------------------------------------------------------------------------
+
+    /**
+     * Create the {@link ReaderGroupManager} for the current configuration.
+     *
+     * @return An instance of {@link ReaderGroupManager}
+     */
+    @VisibleForTesting
+    protected ReaderGroupManager createReaderGroupManager() {
+        return ReaderGroupManager.withScope(readerGroupScope, clientConfig);
+    }
+
+    @VisibleForTesting
+    ReaderGroup getReaderGroup() {
+        return readerGroup;
+    }
+}
@@ -0,0 +1,242 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink.source.reader;
+
+import io.pravega.client.ClientConfig;
+import io.pravega.client.EventStreamClientFactory;
+import io.pravega.client.stream.EventRead;
+import io.pravega.client.stream.EventStreamReader;
+import io.pravega.client.stream.ReaderConfig;
+import io.pravega.connectors.flink.PravegaCollector;
+import io.pravega.connectors.flink.source.split.PravegaSplit;
+import io.pravega.connectors.flink.util.ClientFactoryCache;
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.api.common.serialization.DeserializationSchema;
+import org.apache.flink.api.common.time.Time;
+import org.apache.flink.api.connector.source.ExternallyInducedSourceReader;
+import org.apache.flink.api.connector.source.ReaderOutput;
+import org.apache.flink.core.io.InputStatus;
+import org.apache.flink.util.ExceptionUtils;
+import org.apache.flink.util.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static io.pravega.connectors.flink.util.FlinkPravegaUtils.createPravegaReader;
+import static io.pravega.connectors.flink.util.FlinkPravegaUtils.deserializeEvent;
+import static io.pravega.connectors.flink.util.FlinkPravegaUtils.parseCheckpointId;
+
+/**
+ * The source reader of the {@link io.pravega.connectors.flink.source.PravegaSource}.
+ *
+ * <p>Events are read by a {@link PravegaSplitReader} on a fetcher thread and emitted from the task's mailbox
+ * thread without any lock. When a Pravega checkpoint event is polled, the reader asks the task to trigger the
+ * corresponding Flink checkpoint, so that the checkpoint barrier is aligned with the position of the Pravega
+ * checkpoint and the source provides exactly-once semantics.
+ *
+ * @param <T> The type of the event.
+ */
+public class PravegaSourceReader<T> implements ExternallyInducedSourceReader<T, PravegaSplit> {
+    private static final Logger LOG = LoggerFactory.getLogger(PravegaSourceReader.class);
+
+    // The Pravega client config.
+    private final ClientConfig clientConfig;
+
+    // The scope name of the reader group.
+    private final String readerGroupScope;
+
+    // The supplied event deserializer.
+    private final DeserializationSchema<T> deserializationSchema;
+
+    // the timeout for reading events from Pravega
+    private final Time eventReadTimeout;
+
+    // The capacity of the hand-over queue between the fetcher thread and the emitting thread
+    private final int handoverCapacity;
+
+    // A collector that emits records in batch (bundle)
+    private final PravegaCollector<T> pravegaCollector;
+
+    // Pravega Event Stream Client Factory (NOTE: MUST be closed when reader closed)
+    private EventStreamClientFactory eventStreamClientFactory;
+
+    // The split owned by this reader, null until assigned by the enumerator
+    private PravegaSplit split;
+
+    private PravegaSplitReader splitReader;
+
+    // Flag set when the enumerator signals that no more split will be assigned (bounded mode).
+    private boolean noMoreSplits = false;
+
+    // Completed once the split is assigned, or once no split will be assigned.
+    private final CompletableFuture<Void> splitAssigned = new CompletableFuture<>();
+
+    // The checkpoint that was read from Pravega but not yet triggered in Flink.
+    private Long checkpointToTrigger;
+
+    public PravegaSourceReader(ClientConfig clientConfig, String readerGroupScope,
+                               DeserializationSchema<T> deserializationSchema, Time eventReadTimeout,
+                               int handoverCapacity) {
+        Preconditions.checkArgument(handoverCapacity > 0, "handoverCapacity must be > 0");
+        this.clientConfig = Preconditions.checkNotNull(clientConfig, "clientConfig");
+        this.readerGroupScope = Preconditions.checkNotNull(readerGroupScope, "readerGroupScope");
+        this.deserializationSchema = Preconditions.checkNotNull(deserializationSchema, "deserializationSchema");
+        this.eventReadTimeout = Preconditions.checkNotNull(eventReadTimeout, "eventReadTimeout");
+        this.handoverCapacity = handoverCapacity;
+        this.pravegaCollector = new PravegaCollector<>(deserializationSchema);
+    }
+
+    @Override
+    public void start() {
+        // the split is assigned by the enumerator upon the registration of the reader
+    }
+
+    @Override
+    public InputStatus pollNext(ReaderOutput<T> output) throws Exception {
+        if (splitReader == null) {
+            return noMoreSplits ? InputStatus.END_OF_INPUT : InputStatus.NOTHING_AVAILABLE;
+        }
+
+        final EventRead<ByteBuffer> eventRead = splitReader.poll();
+        if (eventRead == null) {
+            return splitReader.isFinished() ? InputStatus.END_OF_INPUT : InputStatus.NOTHING_AVAILABLE;
+        }
+
+        if (eventRead.isCheckpoint()) {
+            // the checkpoint is triggered before any event that follows the Pravega checkpoint is emitted
+            LOG.debug("Reader {} received checkpoint event for {}", split.splitId(), eventRead.getCheckpointName());
+            checkpointToTrigger = parseCheckpointId(eventRead.getCheckpointName());
+            return InputStatus.NOTHING_AVAILABLE;
+        }
+
+        emitEvent(eventRead, output);
+        if (pravegaCollector.isEndOfStreamSignalled()) {
+            // Found stream end marker.
+            LOG.info("Reached end of stream for reader: {}", split.splitId());
+        }
+        return pravegaCollector.isEndOfStreamSignalled() ? InputStatus.END_OF_INPUT : InputStatus.MORE_AVAILABLE;
+    }
+
+    /** Deserialize and collect the event. */
+    private void emitEvent(EventRead<ByteBuffer> eventRead, ReaderOutput<T> output) throws IOException {
+        deserializeEvent(this.deserializationSchema, eventRead, pravegaCollector);
+
+        T event;
+        while ((event = pravegaCollector.getRecords().poll()) != null) {
+            output.collect(event);
+        }
+    }
+
+    @Override
+    public Optional<Long> shouldTriggerCheckpoint() {
+        if (checkpointToTrigger == null) {
+            return Optional.empty();
+        }
+        final Long checkpointId = checkpointToTrigger;
+        checkpointToTrigger = null;
+        return Optional.of(checkpointId);
+    }
+
+    @Override
+    public List<PravegaSplit> snapshotState(long checkpointId) {
+        // the positions are stored in the Pravega checkpoint of the enumerator
+        return split == null ? Collections.emptyList() : Collections.singletonList(split);
+    }
+
+    @Override
+    public CompletableFuture<Void> isAvailable() {
+        return splitReader == null ? splitAssigned : splitReader.isAvailable();
+    }
+
+    @Override
+    public void addSplits(List<PravegaSplit> splits) {
+        Preconditions.checkState(split == null && splits.size() == 1,
+                "A Pravega source reader owns exactly one split");
+        split = splits.get(0);
+
+        LOG.info("Creating Pravega reader with ID '{}' for controller URI: {}", split.splitId(), clientConfig.getControllerURI());
+        splitReader = new PravegaSplitReader(split, createEventStreamReader(split.splitId()),
+                eventReadTimeout.toMilliseconds(), handoverCapacity);
+        splitReader.start();
+        splitAssigned.complete(null);
+    }
+
+    @Override
+    public void notifyNoMoreSplits() {
+        noMoreSplits = true;
+        splitAssigned.complete(null);
+    }
+
+    @Override
+    public void close() throws Exception {
+        Throwable ex = null;
+        if (splitReader != null) {
+            try {
+                splitReader.close();
+            } catch (Throwable e) {
+                ex = ExceptionUtils.firstOrSuppressed(e, ex);
+            }
+        }
+        if (eventStreamClientFactory != null) {
+            try {
+                LOG.info("Closing Pravega eventStreamClientFactory");
+                eventStreamClientFactory.close();
+            } catch (Throwable e) {
+                ex = ExceptionUtils.firstOrSuppressed(e, ex);
+            }
+        }
+        if (ex instanceof Exception) {
+            throw (Exception) ex;
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    //  utility
+    // ------------------------------------------------------------------------
+
+    /**
+     * Create the {@link EventStreamClientFactory} for the current configuration.
+     *
+     * @return An instance of {@link EventStreamClientFactory}
+     */
+    protected EventStreamClientFactory createEventStreamClientFactory() {
+        if (eventStreamClientFactory == null) {
+            eventStreamClientFactory = ClientFactoryCache.getEventStreamClientFactory(readerGroupScope, clientConfig);
+        }
+        return eventStreamClientFactory;
+    }
+
+    /**
+     * Create the {@link EventStreamReader} for the current configuration.
+     *
+     * @param readerId the readerID to use.
+     * @return An instance of {@link EventStreamReader}
+     */
+    @VisibleForTesting
+    protected EventStreamReader<ByteBuffer> createEventStreamReader(String readerId) {
+        return createPravegaReader(
+                readerId,
+                split.getReaderGroupName(),
+                ReaderConfig.builder().build(),
+                createEventStreamClientFactory());
+    }
+}
@@ -0,0 +1,191 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink.source.reader;
+
+import io.pravega.client.stream.EventRead;
+import io.pravega.client.stream.EventStreamReader;
+import io.pravega.client.stream.TruncatedDataException;
+import io.pravega.connectors.flink.source.split.PravegaSplit;
+import org.apache.flink.util.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reads the events of a {@link PravegaSplit} with a Pravega {@link EventStreamReader} on a dedicated
+ * fetcher thread, and hands them over to the source reader through a bounded queue.
+ *
+ * <p>Checkpoint events are handed over in order with the data events, so that the source reader can
+ * trigger the Flink checkpoint exactly at the position of the Pravega checkpoint.
+ */
+public class PravegaSplitReader implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(PravegaSplitReader.class);
+
+    // The interval to re-check the running flag while the hand-over queue is full
+    private static final long HANDOVER_OFFER_INTERVAL_MILLIS = 100L;
+
+    private final PravegaSplit split;
+
+    // Pravega reader, used and closed by the fetcher thread only
+    private final EventStreamReader<ByteBuffer> pravegaReader;
+
+    // the timeout for reading events from Pravega
+    private final long eventReadTimeoutMillis;
+
+    // the events read by the fetcher thread but not yet emitted
+    private final BlockingQueue<EventRead<ByteBuffer>> handover;
+
+    private final Thread fetcherThread;
+
+    private final AtomicReference<Throwable> fetchError = new AtomicReference<>();
+
+    private final Object availabilityLock = new Object();
+
+    @GuardedBy("availabilityLock")
+    private CompletableFuture<Void> availabilityFuture = new CompletableFuture<>();
+
+    // Flag to terminate the fetcher thread.
+    private volatile boolean running = true;
+
+    // Flag set by the fetcher thread once all events of a bounded reader group are read.
+    private volatile boolean readCompleted = false;
+
+    public PravegaSplitReader(PravegaSplit split, EventStreamReader<ByteBuffer> pravegaReader,
+                              long eventReadTimeoutMillis, int handoverCapacity) {
+        this.split = Preconditions.checkNotNull(split, "split");
+        this.pravegaReader = Preconditions.checkNotNull(pravegaReader, "pravegaReader");
+        this.eventReadTimeoutMillis = eventReadTimeoutMillis;
+        this.handover = new ArrayBlockingQueue<>(handoverCapacity);
+        this.fetcherThread = new Thread(this::fetch, "Pravega fetcher for " + split.splitId());
+        this.fetcherThread.setDaemon(true);
+    }
+
+    public void start() {
+        LOG.info("Starting Pravega fetcher for reader '{}'", split.splitId());
+        fetcherThread.start();
+    }
+
+    /**
+     * Polls the next event or checkpoint event that was read.
+     *
+     * @return the next {@link EventRead}, or null if none is available at the moment.
+     * @throws IOException if the fetcher thread has failed.
+     */
+    @Nullable
+    public EventRead<ByteBuffer> poll() throws IOException {
+        EventRead<ByteBuffer> eventRead = handover.poll();
+        if (eventRead == null) {
+            Throwable error = fetchError.get();
+            if (error != null) {
+                throw new IOException("Failed to read events of reader " + split.splitId(), error);
+            }
+        }
+        return eventRead;
+    }
+
+    /**
+     * Returns whether all the events of a bounded reader group were read and emitted.
+     *
+     * @return true if the split is finished.
+     */
+    public boolean isFinished() {
+        return readCompleted && handover.isEmpty();
+    }
+
+    /**
+     * Returns a future that is completed once events are available to be polled.
+     *
+     * @return the availability future.
+     */
+    public CompletableFuture<Void> isAvailable() {
+        synchronized (availabilityLock) {
+            if (!handover.isEmpty() || readCompleted || fetchError.get() != null) {
+                return CompletableFuture.completedFuture(null);
+            }
+            if (availabilityFuture.isDone()) {
+                availabilityFuture = new CompletableFuture<>();
+            }
+            return availabilityFuture;
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        running = false;
+        fetcherThread.join();
+        Throwable error = fetchError.get();
+        if (error instanceof Exception) {
+            throw (Exception) error;
+        }
+    }
+
+    // ------------------------------------------------------------------------
+
+    private void fetch() {
+        try {
+            while (running) {
+                EventRead<ByteBuffer> eventRead;
+                try {
+                    eventRead = pravegaReader.readNextEvent(eventReadTimeoutMillis);
+                } catch (TruncatedDataException e) {
+                    // Data is truncated, Force the reader going forward to the next available event
+                    continue;
+                }
+
+                if (eventRead.getEvent() == null && !eventRead.isCheckpoint()) {
+                    if (eventRead.isReadCompleted()) {
+                        LOG.info("Reached the end of the bounded reader group for reader '{}'", split.splitId());
+                        readCompleted = true;
+                        return;
+                    }
+                    continue;
+                }
+
+                while (running && !handover.offer(eventRead, HANDOVER_OFFER_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    // wait for the source reader to make room
+                }
+                notifyAvailable();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable t) {
+            LOG.error("Exception occurred while reading events with Pravega reader '{}'", split.splitId(), t);
+            fetchError.set(t);
+        } finally {
+            try {
+                pravegaReader.close();
+            } catch (Throwable t) {
+                fetchError.compareAndSet(null, t);
+            }
+            notifyAvailable();
+        }
+    }
+
+    private void notifyAvailable() {
+        synchronized (availabilityLock) {
+            availabilityFuture.complete(null);
+        }
+    }
+}
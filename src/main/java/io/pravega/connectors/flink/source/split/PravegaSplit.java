@@ -0,0 +1,87 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink.source.split;
+
+import org.apache.flink.api.connector.source.SourceSplit;
+import org.apache.flink.util.Preconditions;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A {@link PravegaSplit} represents the participation of one source subtask in the Pravega reader group.
+ *
+ * <p>Segments are distributed among the readers by the reader group itself, so a split does not carry
+ * any position. It only identifies the reader group and the subtask that owns the Pravega reader.
+ */
+public class PravegaSplit implements SourceSplit, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String readerGroupName;
+
+    private final int subtaskId;
+
+    public PravegaSplit(String readerGroupName, int subtaskId) {
+        Preconditions.checkNotNull(readerGroupName, "readerGroupName");
+        Preconditions.checkArgument(subtaskId >= 0, "The subtaskId is not recognizable.");
+        this.readerGroupName = readerGroupName;
+        this.subtaskId = subtaskId;
+    }
+
+    /**
+     * The split id is also used as the id of the Pravega reader, it is unique in the reader group.
+     *
+     * @return the split id.
+     */
+    @Override
+    public String splitId() {
+        return readerGroupName + "-" + subtaskId;
+    }
+
+    public String getReaderGroupName() {
+        return readerGroupName;
+    }
+
+    public int getSubtaskId() {
+        return subtaskId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PravegaSplit that = (PravegaSplit) o;
+        return subtaskId == that.subtaskId &&
+                readerGroupName.equals(that.readerGroupName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(readerGroupName, subtaskId);
+    }
+
+    @Override
+    public String toString() {
+        return "PravegaSplit {" +
+                "readerGroupName = " + readerGroupName +
+                ", subtaskId = " + subtaskId + "}";
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink.source.split;
+
+import org.apache.flink.core.io.SimpleVersionedSerializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Serializer for {@link PravegaSplit}.
+ */
+public class PravegaSplitSerializer implements SimpleVersionedSerializer<PravegaSplit> {
+
+    private static final int VERSION = 1;
+
+    @Override
+    public int getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public byte[] serialize(PravegaSplit split) throws IOException {
+        try (final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+             final DataOutputStream out = new DataOutputStream(baos)) {
+            out.writeUTF(split.getReaderGroupName());
+            out.writeInt(split.getSubtaskId());
+            out.flush();
+            return baos.toByteArray();
+        }
+    }
+
+    @Override
+    public PravegaSplit deserialize(int version, byte[] serialized) throws IOException {
+        if (version != VERSION) {
+            throw new IOException("Invalid format version for serialized Pravega split: " + version);
+        }
+        try (final ByteArrayInputStream bais = new ByteArrayInputStream(serialized);
+             final DataInputStream in = new DataInputStream(bais)) {
+            final String readerGroupName = in.readUTF();
+            final int subtaskId = in.readInt();
+            return new PravegaSplit(readerGroupName, subtaskId);
+        }
+    }
+}
@@ -16,11 +16,13 @@
 
 package io.pravega.connectors.flink.table.catalog.pravega;
 
+import io.pravega.client.BatchClientFactory;
 import io.pravega.client.ClientConfig;
 import io.pravega.client.admin.StreamManager;
 import io.pravega.client.stream.DeleteScopeFailedException;
 import io.pravega.client.stream.Stream;
 import io.pravega.client.stream.StreamConfiguration;
+import io.pravega.client.stream.StreamCut;
 import io.pravega.connectors.flink.PravegaConfig;
 import io.pravega.connectors.flink.dynamic.table.FlinkPravegaDynamicTableFactory;
 import io.pravega.connectors.flink.dynamic.table.PravegaOptions;
@@ -28,6 +30,8 @@ import io.pravega.connectors.flink.formats.registry.PravegaRegistryFormatFactory
 import io.pravega.connectors.flink.formats.registry.PravegaRegistryOptions;
 import io.pravega.connectors.flink.table.catalog.pravega.util.PravegaSchemaUtils;
 import io.pravega.connectors.flink.util.SchemaRegistryUtils;
+import io.pravega.connectors.flink.util.StreamStatistics;
+import io.pravega.connectors.flink.util.StreamWithBoundaries;
 import io.pravega.schemaregistry.client.SchemaRegistryClient;
 import io.pravega.schemaregistry.client.SchemaRegistryClientConfig;
 import io.pravega.schemaregistry.client.SchemaRegistryClientFactory;
@@ -35,6 +39,7 @@ import io.pravega.schemaregistry.contract.data.Compatibility;
 import io.pravega.schemaregistry.contract.data.GroupProperties;
 import io.pravega.schemaregistry.contract.data.SchemaInfo;
 import io.pravega.schemaregistry.contract.data.SerializationFormat;
+import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.table.api.TableSchema;
 import org.apache.flink.table.catalog.AbstractCatalog;
 import org.apache.flink.table.catalog.CatalogBaseTable;
@@ -78,6 +83,9 @@ import java.util.stream.StreamSupport;
 public class PravegaCatalog extends AbstractCatalog {
     private static final Logger LOG = LoggerFactory.getLogger(PravegaCatalog.class);
 
+    // The number of events read to estimate the number of rows of a table
+    private static final int STATISTICS_SAMPLED_EVENTS = 100;
+
     // the Pravega stream manager to manage streams
     private StreamManager streamManager;
 
@@ -439,7 +447,27 @@ public class PravegaCatalog extends AbstractCatalog {
 
     @Override
     public CatalogTableStatistics getTableStatistics(ObjectPath tablePath) throws TableNotExistException, CatalogException {
-        return CatalogTableStatistics.UNKNOWN;
+        if (!tableExists(tablePath)) {
+            throw new TableNotExistException(getName(), tablePath);
+        }
+
+        Stream stream = Stream.of(tablePath.getDatabaseName(), tablePath.getObjectName());
+        try (BatchClientFactory batchClientFactory = createBatchClientFactory(tablePath.getDatabaseName())) {
+            StreamStatistics statistics = StreamStatistics.compute(batchClientFactory,
+                    Collections.singletonList(StreamWithBoundaries.of(stream, StreamCut.UNBOUNDED, StreamCut.UNBOUNDED)),
+                    STATISTICS_SAMPLED_EVENTS);
+            // the segment ranges play the role of the files, and the sizes are the serialized sizes
+            return new CatalogTableStatistics(statistics.getEstimatedEventCount(), statistics.getSegmentRangeCount(),
+                    statistics.getTotalSize(), statistics.getTotalSize());
+        } catch (Exception e) {
+            LOG.warn("Failed to compute the statistics of table {}", tablePath, e);
+            return CatalogTableStatistics.UNKNOWN;
+        }
+    }
+
+    @VisibleForTesting
+    protected BatchClientFactory createBatchClientFactory(String scope) {
+        return BatchClientFactory.withScope(scope, clientConfig);
     }
 
     @Override
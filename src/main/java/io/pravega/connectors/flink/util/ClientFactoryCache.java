@@ -0,0 +1,199 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink.util;
+
+import io.pravega.client.ClientConfig;
+import io.pravega.client.EventStreamClientFactory;
+import io.pravega.client.stream.EventStreamReader;
+import io.pravega.client.stream.EventStreamWriter;
+import io.pravega.client.stream.EventWriterConfig;
+import io.pravega.client.stream.ReaderConfig;
+import io.pravega.client.stream.Serializer;
+import io.pravega.client.stream.TransactionalEventStreamWriter;
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.util.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+
+/**
+ * A cache of the {@link EventStreamClientFactory} instances, so that the readers, the writers and the
+ * committers of a job which run in the same task manager share the connections to the controller and
+ * the segment stores of a scope instead of opening their own. <p>
+ *
+ * The client factories are keyed by the scope and the {@link ClientConfig}, and reference counted: each
+ * call of {@link #getEventStreamClientFactory} returns a handle whose {@code close()} releases the
+ * reference, and the shared client factory is closed when its last reference is released. The readers
+ * and writers created from a handle must be closed before the handle. <p>
+ *
+ * The cache is held by the class, so it is scoped to the user code class loader of the job.
+ */
+@Internal
+public final class ClientFactoryCache {
+    private static final Logger LOG = LoggerFactory.getLogger(ClientFactoryCache.class);
+
+    // The shared client factories, guarded by itself
+    private static final Map<CacheKey, SharedClientFactory> CLIENT_FACTORIES = new HashMap<>();
+
+    private ClientFactoryCache() {
+    }
+
+    /**
+     * Gets a handle of the client factory shared for the given scope and client configuration.
+     *
+     * @param scope the scope of the client factory.
+     * @param clientConfig the Pravega client configuration.
+     * @return a client factory whose {@code close()} releases the shared client factory.
+     */
+    public static EventStreamClientFactory getEventStreamClientFactory(String scope, ClientConfig clientConfig) {
+        return getEventStreamClientFactory(scope, clientConfig, EventStreamClientFactory::withScope);
+    }
+
+    @VisibleForTesting
+    static EventStreamClientFactory getEventStreamClientFactory(
+            String scope, ClientConfig clientConfig,
+            BiFunction<String, ClientConfig, EventStreamClientFactory> clientFactoryCreator) {
+        final CacheKey key = new CacheKey(Preconditions.checkNotNull(scope, "scope"),
+                Preconditions.checkNotNull(clientConfig, "clientConfig"));
+        synchronized (CLIENT_FACTORIES) {
+            SharedClientFactory shared = CLIENT_FACTORIES.get(key);
+            if (shared == null) {
+                shared = new SharedClientFactory(key, clientFactoryCreator.apply(scope, clientConfig));
+                CLIENT_FACTORIES.put(key, shared);
+                LOG.info("Created a shared client factory for scope {} with controller URI: {}",
+                        scope, clientConfig.getControllerURI());
+            }
+            shared.references++;
+            return new ClientFactoryHandle(shared);
+        }
+    }
+
+    private static void release(SharedClientFactory shared) {
+        synchronized (CLIENT_FACTORIES) {
+            if (--shared.references > 0) {
+                return;
+            }
+            CLIENT_FACTORIES.remove(shared.key);
+        }
+        // closed outside of the lock as it waits for the connections to close
+        LOG.info("Closing the shared client factory for scope {}", shared.key.scope);
+        shared.clientFactory.close();
+    }
+
+    @VisibleForTesting
+    static int getReferenceCount(String scope, ClientConfig clientConfig) {
+        synchronized (CLIENT_FACTORIES) {
+            final SharedClientFactory shared = CLIENT_FACTORIES.get(new CacheKey(scope, clientConfig));
+            return shared == null ? 0 : shared.references;
+        }
+    }
+
+    private static final class CacheKey {
+        private final String scope;
+        private final ClientConfig clientConfig;
+
+        CacheKey(String scope, ClientConfig clientConfig) {
+            this.scope = scope;
+            this.clientConfig = clientConfig;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CacheKey that = (CacheKey) o;
+            return scope.equals(that.scope) && clientConfig.equals(that.clientConfig);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(scope, clientConfig);
+        }
+    }
+
+    private static final class SharedClientFactory {
+        private final CacheKey key;
+        private final EventStreamClientFactory clientFactory;
+
+        // The number of handles which are not closed yet, guarded by CLIENT_FACTORIES
+        private int references;
+
+        SharedClientFactory(CacheKey key, EventStreamClientFactory clientFactory) {
+            this.key = key;
+            this.clientFactory = clientFactory;
+        }
+    }
+
+    /**
+     * A reference of a shared client factory, which releases the reference once on close.
+     */
+    private static final class ClientFactoryHandle implements EventStreamClientFactory {
+        private final SharedClientFactory shared;
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+
+        ClientFactoryHandle(SharedClientFactory shared) {
+            this.shared = shared;
+        }
+
+        @Override
+        public <T> EventStreamWriter<T> createEventWriter(String streamName, Serializer<T> s,
+                                                          EventWriterConfig config) {
+            return shared.clientFactory.createEventWriter(streamName, s, config);
+        }
+
+        @Override
+        public <T> EventStreamWriter<T> createEventWriter(String writerId, String streamName, Serializer<T> s,
+                                                          EventWriterConfig config) {
+            return shared.clientFactory.createEventWriter(writerId, streamName, s, config);
+        }
+
+        @Override
+        public <T> TransactionalEventStreamWriter<T> createTransactionalEventWriter(String writerId, String streamName,
+                                                                                    Serializer<T> s,
+                                                                                    EventWriterConfig config) {
+            return shared.clientFactory.createTransactionalEventWriter(writerId, streamName, s, config);
+        }
+
+        @Override
+        public <T> TransactionalEventStreamWriter<T> createTransactionalEventWriter(String streamName, Serializer<T> s,
+                                                                                    EventWriterConfig config) {
+            return shared.clientFactory.createTransactionalEventWriter(streamName, s, config);
+        }
+
+        @Override
+        public <T> EventStreamReader<T> createReader(String readerId, String readerGroup, Serializer<T> s,
+                                                     ReaderConfig config) {
+            return shared.clientFactory.createReader(readerId, readerGroup, s, config);
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                release(shared);
+            }
+        }
+    }
+}
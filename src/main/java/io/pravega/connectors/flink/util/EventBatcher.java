@@ -0,0 +1,198 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink.util;
+
+import io.pravega.connectors.flink.PravegaEventRouter;
+import io.pravega.connectors.flink.serialization.BufferReusingSerializationSchema;
+import io.pravega.connectors.flink.serialization.EventBatch;
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.api.common.serialization.SerializationSchema;
+import org.apache.flink.core.memory.DataOutputSerializer;
+import org.apache.flink.util.Preconditions;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Packs the events sharing a routing key into {@link EventBatch}es, which are written to Pravega
+ * as single events. <p>
+ *
+ * An event batch is written once it reaches the maximum batch size, or once its oldest event waited
+ * for the maximum batch delay. The delay is only checked when events are added or when
+ * {@link #flushExpired(long)} is called, so the owning writer is expected to call it periodically.
+ * The events of a {@link BufferReusingSerializationSchema} are serialized into a single reused buffer
+ * before they are copied into their batch. This class is not thread-safe.
+ *
+ * @param <T> The type of the event to be written.
+ */
+@Internal
+public final class EventBatcher<T> {
+
+    /**
+     * Writes the event batches to Pravega.
+     */
+    @FunctionalInterface
+    public interface BatchWriter {
+
+        /**
+         * Writes an event batch.
+         *
+         * @param routingKey the routing key of the events of the batch, null for random routing.
+         * @param batch the event batch.
+         * @throws InterruptedException if the writing thread is interrupted.
+         */
+        void write(@Nullable String routingKey, ByteBuffer batch) throws InterruptedException;
+    }
+
+    private final SerializationSchema<T> serializationSchema;
+
+    @Nullable
+    private final PravegaEventRouter<T> eventRouter;
+
+    private final long maxBatchBytes;
+
+    private final long maxBatchDelayMillis;
+
+    private final BatchWriter batchWriter;
+
+    // The open batches by routing key, in the order they were opened, so the oldest batch comes first
+    private final Map<String, OpenBatch> batches = new LinkedHashMap<>();
+
+    // The buffer the events are serialized into, if the serialization schema is able to reuse it
+    @Nullable
+    private final DataOutputSerializer serializationBuffer;
+
+    public EventBatcher(SerializationSchema<T> serializationSchema,
+                        @Nullable PravegaEventRouter<T> eventRouter,
+                        long maxBatchBytes,
+                        long maxBatchDelayMillis,
+                        BatchWriter batchWriter) {
+        Preconditions.checkArgument(maxBatchBytes > 0, "maxBatchBytes must be > 0");
+        Preconditions.checkArgument(maxBatchDelayMillis > 0, "maxBatchDelayMillis must be > 0");
+        this.serializationSchema = Preconditions.checkNotNull(serializationSchema, "serializationSchema");
+        this.eventRouter = eventRouter;
+        this.maxBatchBytes = maxBatchBytes;
+        this.maxBatchDelayMillis = maxBatchDelayMillis;
+        this.batchWriter = Preconditions.checkNotNull(batchWriter, "batchWriter");
+        this.serializationBuffer = serializationSchema instanceof BufferReusingSerializationSchema
+                ? new DataOutputSerializer(256) : null;
+    }
+
+    /**
+     * Adds an event to the batch of its routing key, and writes the batches which are full or expired.
+     *
+     * @param event the event.
+     * @param currentTimeMillis the current processing time.
+     * @throws InterruptedException if the writing thread is interrupted.
+     */
+    public void add(T event, long currentTimeMillis) throws InterruptedException {
+        final byte[] record;
+        final int recordLength;
+        if (serializationBuffer != null) {
+            serializationBuffer.pruneBuffer();
+            try {
+                ((BufferReusingSerializationSchema<T>) serializationSchema).serialize(event, serializationBuffer);
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to serialize the event", e);
+            }
+            record = serializationBuffer.getSharedBuffer();
+            recordLength = serializationBuffer.length();
+        } else {
+            record = serializationSchema.serialize(event);
+            recordLength = record.length;
+        }
+        final String routingKey = eventRouter == null ? null : eventRouter.getRoutingKey(event);
+
+        OpenBatch open = batches.get(routingKey);
+        if (open != null && open.batch.getSizeInBytes() + EventBatch.RECORD_HEADER_SIZE + recordLength > maxBatchBytes) {
+            // the event does not fit into the open batch
+            batches.remove(routingKey);
+            batchWriter.write(routingKey, open.batch.toByteBuffer());
+            open = null;
+        }
+        if (open == null) {
+            open = new OpenBatch(currentTimeMillis);
+            batches.put(routingKey, open);
+        }
+
+        open.batch.add(record, 0, recordLength);
+        if (open.batch.getSizeInBytes() >= maxBatchBytes) {
+            batches.remove(routingKey);
+            batchWriter.write(routingKey, open.batch.toByteBuffer());
+        }
+
+        flushExpired(currentTimeMillis);
+    }
+
+    /**
+     * Writes the batches whose oldest event waited for the maximum batch delay.
+     *
+     * @param currentTimeMillis the current processing time.
+     * @throws InterruptedException if the writing thread is interrupted.
+     */
+    public void flushExpired(long currentTimeMillis) throws InterruptedException {
+        Iterator<Map.Entry<String, OpenBatch>> iterator = batches.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, OpenBatch> entry = iterator.next();
+            if (entry.getValue().openedMillis + maxBatchDelayMillis > currentTimeMillis) {
+                break;
+            }
+            iterator.remove();
+            batchWriter.write(entry.getKey(), entry.getValue().batch.toByteBuffer());
+        }
+    }
+
+    /**
+     * Writes all the open batches.
+     *
+     * @throws InterruptedException if the writing thread is interrupted.
+     */
+    public void flush() throws InterruptedException {
+        Iterator<Map.Entry<String, OpenBatch>> iterator = batches.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, OpenBatch> entry = iterator.next();
+            iterator.remove();
+            batchWriter.write(entry.getKey(), entry.getValue().batch.toByteBuffer());
+        }
+    }
+
+    public boolean isEmpty() {
+        return batches.isEmpty();
+    }
+
+    /**
+     * Gets the processing time at which the oldest open batch expires.
+     *
+     * @return the expiration time of the oldest batch, or {@code Long.MAX_VALUE} if there is no open batch.
+     */
+    public long getNextFlushTime() {
+        Iterator<OpenBatch> iterator = batches.values().iterator();
+        return iterator.hasNext() ? iterator.next().openedMillis + maxBatchDelayMillis : Long.MAX_VALUE;
+    }
+
+    private static final class OpenBatch {
+        private final EventBatch batch = new EventBatch();
+        private final long openedMillis;
+
+        private OpenBatch(long openedMillis) {
+            this.openedMillis = openedMillis;
+        }
+    }
+}
@@ -16,12 +16,16 @@
 package io.pravega.connectors.flink.util;
 
 import io.pravega.client.EventStreamClientFactory;
+import io.pravega.client.stream.EventRead;
 import io.pravega.client.stream.EventStreamReader;
 import io.pravega.client.stream.ReaderConfig;
 import io.pravega.client.stream.Serializer;
 import io.pravega.client.stream.impl.ByteBufferSerializer;
 import io.pravega.connectors.flink.EventTimeOrderingFunction;
 import io.pravega.connectors.flink.FlinkPravegaWriter;
+import io.pravega.connectors.flink.serialization.ByteBufferDeserializationSchema;
+import io.pravega.connectors.flink.serialization.EventBatch;
+import io.pravega.connectors.flink.serialization.EventBatchDeserializationSchema;
 import io.pravega.connectors.flink.serialization.PravegaDeserializationSchemaWithMetadata;
 import io.pravega.shared.security.auth.Credentials;
 import org.apache.commons.lang3.RandomStringUtils;
@@ -29,10 +33,12 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.flink.api.common.serialization.DeserializationSchema;
 import org.apache.flink.streaming.api.datastream.DataStream;
 import org.apache.flink.streaming.api.datastream.DataStreamSink;
+import org.apache.flink.util.Collector;
 import org.apache.flink.util.Preconditions;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.util.Objects;
 
@@ -40,6 +46,9 @@ public class FlinkPravegaUtils {
     private static final String AUTH_PARAM_LOAD_DYNAMIC = "pravega.client.auth.loadDynamic";
     private static final String AUTH_PARAM_LOAD_DYNAMIC_ENV = "pravega_client_auth_loadDynamic";
 
+    /** The prefix of checkpoint names */
+    private static final String PRAVEGA_CHECKPOINT_NAME_PREFIX = "PVG-CHK-";
+
     private FlinkPravegaUtils() {
     }
 
@@ -96,6 +105,33 @@ public class FlinkPravegaUtils {
         return "flink" + RandomStringUtils.randomAlphanumeric(20).toLowerCase();
     }
 
+    /**
+     * Creates the name of the Pravega checkpoint that corresponds to the given Flink checkpoint.
+     *
+     * @param checkpointId the Flink checkpoint id.
+     * @return the Pravega checkpoint name.
+     */
+    public static String createCheckpointName(long checkpointId) {
+        return PRAVEGA_CHECKPOINT_NAME_PREFIX + checkpointId;
+    }
+
+    /**
+     * Parses the Flink checkpoint id out of a Pravega checkpoint name created by {@link #createCheckpointName(long)}.
+     *
+     * @param checkpointName the Pravega checkpoint name.
+     * @return the Flink checkpoint id.
+     * @throws IllegalArgumentException if the name is not a valid checkpoint name.
+     */
+    public static long parseCheckpointId(String checkpointName) {
+        Preconditions.checkArgument(checkpointName.startsWith(PRAVEGA_CHECKPOINT_NAME_PREFIX));
+
+        try {
+            return Long.parseLong(checkpointName.substring(PRAVEGA_CHECKPOINT_NAME_PREFIX.length()));
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
     /**
      * Creates a Pravega {@link EventStreamReader}. <p>
      *
@@ -119,6 +155,50 @@ public class FlinkPravegaUtils {
         return eventStreamClientFactory.createReader(readerId, readerGroupName, new ByteBufferSerializer(), readerConfig);
     }
 
+    /**
+     * Deserializes the event of the given {@link EventRead} with the given schema, and emits the produced
+     * records through the collector. <p>
+     *
+     * The event buffer is handed to the schema without copying if the schema is a
+     * {@link PravegaDeserializationSchemaWithMetadata} or a {@link ByteBufferDeserializationSchema}.
+     * If the schema is an {@link EventBatchDeserializationSchema}, every record of the event batch is
+     * deserialized separately with the nested schema.
+     *
+     * @param deserializationSchema The schema to deserialize the event with.
+     * @param eventRead The Pravega event read result, which must hold an event.
+     * @param out The collector to put the resulting records to.
+     * @param <T> The type of the event.
+     * @throws IOException If the deserialization fails.
+     */
+    public static <T> void deserializeEvent(
+            DeserializationSchema<T> deserializationSchema,
+            EventRead<ByteBuffer> eventRead,
+            Collector<T> out) throws IOException {
+        if (deserializationSchema instanceof EventBatchDeserializationSchema) {
+            DeserializationSchema<T> nestedSchema = ((EventBatchDeserializationSchema<T>) deserializationSchema).getNestedSchema();
+            for (ByteBuffer record : EventBatch.unpack(eventRead.getEvent())) {
+                deserializeRecord(nestedSchema, record, eventRead, out);
+            }
+        } else {
+            deserializeRecord(deserializationSchema, eventRead.getEvent(), eventRead, out);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void deserializeRecord(
+            DeserializationSchema<T> deserializationSchema,
+            ByteBuffer record,
+            EventRead<ByteBuffer> eventRead,
+            Collector<T> out) throws IOException {
+        if (deserializationSchema instanceof PravegaDeserializationSchemaWithMetadata) {
+            ((PravegaDeserializationSchemaWithMetadata<T>) deserializationSchema).deserialize(record, eventRead, out);
+        } else if (deserializationSchema instanceof ByteBufferDeserializationSchema) {
+            ((ByteBufferDeserializationSchema<T>) deserializationSchema).deserialize(record, out);
+        } else {
+            deserializationSchema.deserialize(byteBufferToArray(record), out);
+        }
+    }
+
     /**
      * A Pravega {@link Serializer} that wraps around a Flink {@link DeserializationSchema}.
      *
@@ -138,7 +218,16 @@ public class FlinkPravegaUtils {
         }
 
         @Override
+        @SuppressWarnings("unchecked")
         public T deserialize(ByteBuffer buffer) {
+            if (deserializationSchema instanceof ByteBufferDeserializationSchema) {
+                try {
+                    return ((ByteBufferDeserializationSchema<T>) deserializationSchema).deserialize(buffer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
             byte[] array;
             if (buffer.hasArray() && buffer.arrayOffset() == 0 &&
                     buffer.position() == 0 && buffer.limit() == buffer.capacity()) {
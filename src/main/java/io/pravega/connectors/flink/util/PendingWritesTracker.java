@@ -0,0 +1,122 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink.util;
+
+import org.apache.flink.annotation.Internal;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Tracks the number and the serialized size of the writes which are not acknowledged by Pravega yet.
+ *
+ * <p>Completions are accounted with atomic counters directly on the thread which completes the write future,
+ * so acknowledgements are neither funneled through a dedicated thread nor contend for a monitor with the
+ * writing thread. Only the waiting thread is parked, and it is woken up once its condition holds.
+ *
+ * <p>The tracker supports a single waiting thread at a time, which is the task thread of the owning writer.
+ */
+@Internal
+public final class PendingWritesTracker implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final AtomicLong pendingWrites = new AtomicLong();
+
+    private final AtomicLong pendingBytes = new AtomicLong();
+
+    // The thread waiting in awaitBelow, if any, along with the limits it is waiting for
+    private transient volatile Thread waiter;
+    private volatile long waiterMaxWrites;
+    private volatile long waiterMaxBytes;
+
+    /**
+     * Registers a write which is issued and not acknowledged yet.
+     *
+     * @param bytes the serialized size of the write.
+     */
+    public void register(long bytes) {
+        pendingWrites.incrementAndGet();
+        pendingBytes.addAndGet(bytes);
+    }
+
+    /**
+     * Accounts for the completion of a write registered with {@link #register(long)}.
+     *
+     * @param bytes the serialized size of the write.
+     */
+    public void complete(long bytes) {
+        // the bytes are released before the write, so whichever completion releases the last write
+        // observes the bytes released by all the others
+        pendingBytes.addAndGet(-bytes);
+        pendingWrites.decrementAndGet();
+        final Thread thread = waiter;
+        if (thread != null && isBelow(waiterMaxWrites, waiterMaxBytes)) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Blocks until the number of the pending writes is below {@code maxWrites} and their size
+     * is below {@code maxBytes}.
+     *
+     * @param maxWrites the exclusive upper bound of the pending writes.
+     * @param maxBytes the exclusive upper bound of the size of the pending writes.
+     * @throws InterruptedException if the waiting thread is interrupted.
+     */
+    public void awaitBelow(long maxWrites, long maxBytes) throws InterruptedException {
+        if (isBelow(maxWrites, maxBytes)) {
+            return;
+        }
+
+        waiterMaxWrites = maxWrites;
+        waiterMaxBytes = maxBytes;
+        waiter = Thread.currentThread();
+        try {
+            // the condition is checked again after publishing the waiter, so a completion in between is not missed
+            while (!isBelow(maxWrites, maxBytes)) {
+                LockSupport.park(this);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        } finally {
+            waiter = null;
+        }
+    }
+
+    /**
+     * Blocks until all the pending writes are completed.
+     *
+     * @throws InterruptedException if the waiting thread is interrupted.
+     */
+    public void awaitCompletion() throws InterruptedException {
+        awaitBelow(1, Long.MAX_VALUE);
+    }
+
+    public long getPendingWrites() {
+        return pendingWrites.get();
+    }
+
+    public long getPendingBytes() {
+        return pendingBytes.get();
+    }
+
+    private boolean isBelow(long maxWrites, long maxBytes) {
+        return pendingWrites.get() < maxWrites && pendingBytes.get() < maxBytes;
+    }
+}
@@ -0,0 +1,194 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink.util;
+
+import io.pravega.client.batch.SegmentIterator;
+import io.pravega.client.batch.SegmentRange;
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.util.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Function;
+
+/**
+ * A {@link SegmentIterator} which reads the events of a list of segment ranges ahead of time. <p>
+ *
+ * A background thread reads the segment ranges one after the other into a bounded buffer, so that the
+ * reads from the segment stores overlap with the processing of the events which were already read. The
+ * background thread waits once the buffer is full. A read failure is reported by {@link #hasNext()} or
+ * {@link #next()} once the events read before the failure were returned. <p>
+ *
+ * The iterator must be used and closed by a single thread.
+ *
+ * @param <T> The type of the events.
+ */
+@Internal
+public final class PrefetchingSegmentIterator<T> implements SegmentIterator<T> {
+    private static final Logger LOG = LoggerFactory.getLogger(PrefetchingSegmentIterator.class);
+
+    // The marker put into the buffer once all the segment ranges were read
+    private static final Object END_OF_RANGES = new Object();
+
+    // The time to wait for the background thread to stop on close
+    private static final long CLOSE_TIMEOUT_MILLIS = 10_000L;
+
+    private final BlockingQueue<Object> buffer;
+
+    private final Thread fetcher;
+
+    private volatile boolean closed;
+
+    // The element taken from the buffer but not returned yet, null if none
+    private Object next;
+
+    // The offset following the last returned event
+    private long offset;
+
+    /**
+     * Creates an iterator and starts reading the segment ranges in the background.
+     *
+     * @param segmentRanges the segment ranges to read, in order.
+     * @param segmentReader the function which opens the iterator of a segment range.
+     * @param capacity the maximum number of events read ahead of time.
+     */
+    public PrefetchingSegmentIterator(List<SegmentRange> segmentRanges,
+                                      Function<SegmentRange, SegmentIterator<T>> segmentReader,
+                                      int capacity) {
+        Preconditions.checkNotNull(segmentRanges, "segmentRanges");
+        Preconditions.checkNotNull(segmentReader, "segmentReader");
+        Preconditions.checkArgument(capacity > 0, "capacity must be > 0");
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        final List<SegmentRange> ranges = new ArrayList<>(segmentRanges);
+        this.fetcher = new Thread(() -> fetch(ranges, segmentReader), "pravega-segment-prefetcher");
+        this.fetcher.setDaemon(true);
+        this.fetcher.start();
+    }
+
+    private void fetch(List<SegmentRange> segmentRanges, Function<SegmentRange, SegmentIterator<T>> segmentReader) {
+        try {
+            for (SegmentRange segmentRange : segmentRanges) {
+                try (SegmentIterator<T> iterator = segmentReader.apply(segmentRange)) {
+                    while (!closed && iterator.hasNext()) {
+                        final T event = iterator.next();
+                        buffer.put(new FetchedEvent<>(event, iterator.getOffset()));
+                    }
+                }
+            }
+            buffer.put(END_OF_RANGES);
+        } catch (InterruptedException e) {
+            // closed while waiting for the buffer
+            Thread.currentThread().interrupt();
+        } catch (Throwable t) {
+            if (!closed) {
+                LOG.warn("Failed to read the segment ranges ahead of time", t);
+                reportFailure(t);
+            }
+        }
+    }
+
+    private void reportFailure(Throwable t) {
+        try {
+            // waits for the events read before the failure to be taken
+            buffer.put(new FetchFailure(t));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = takeNext();
+        }
+        if (next instanceof FetchFailure) {
+            throw ((FetchFailure) next).toException();
+        }
+        return next != END_OF_RANGES;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final FetchedEvent<T> event = (FetchedEvent<T>) next;
+        next = null;
+        offset = event.offset;
+        return event.event;
+    }
+
+    private Object takeNext() {
+        try {
+            return buffer.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the segment ranges to be read", e);
+        }
+    }
+
+    @Override
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        fetcher.interrupt();
+        try {
+            fetcher.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (fetcher.isAlive()) {
+            // a segment read which does not react to the interrupt, the daemon thread is left to die on its own
+            LOG.warn("{} did not stop within {} ms after the iterator was closed", fetcher.getName(), CLOSE_TIMEOUT_MILLIS);
+        }
+        buffer.clear();
+    }
+
+    private static final class FetchedEvent<T> {
+        private final T event;
+        private final long offset;
+
+        FetchedEvent(T event, long offset) {
+            this.event = event;
+            this.offset = offset;
+        }
+    }
+
+    private static final class FetchFailure {
+        private final Throwable cause;
+
+        FetchFailure(Throwable cause) {
+            this.cause = cause;
+        }
+
+        RuntimeException toException() {
+            if (cause instanceof RuntimeException) {
+                return (RuntimeException) cause;
+            }
+            return new IllegalStateException("Failed to read the segment ranges", cause);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink.util;
+
+import io.pravega.client.BatchClientFactory;
+import io.pravega.client.batch.SegmentIterator;
+import io.pravega.client.batch.SegmentRange;
+import io.pravega.client.stream.impl.ByteBufferSerializer;
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.util.Preconditions;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Size statistics of Pravega streams between stream cuts, for the planners which size the inputs. <p>
+ *
+ * The total size is the number of bytes of the segment ranges between the stream cuts. The number of
+ * events is not kept by Pravega, so it is estimated from the average size of the first events of the
+ * first non-empty segment range, read with the batch client.
+ */
+@Internal
+public final class StreamStatistics {
+
+    /** The value of a statistic which is not known. */
+    public static final long UNKNOWN = -1;
+
+    private final long totalSize;
+
+    private final int segmentRangeCount;
+
+    private final long sampledEvents;
+
+    private final long sampledBytes;
+
+    private StreamStatistics(long totalSize, int segmentRangeCount, long sampledEvents, long sampledBytes) {
+        this.totalSize = totalSize;
+        this.segmentRangeCount = segmentRangeCount;
+        this.sampledEvents = sampledEvents;
+        this.sampledBytes = sampledBytes;
+    }
+
+    /**
+     * Computes the statistics of the given streams between their stream cuts.
+     *
+     * @param batchClientFactory the batch client to list and sample the segment ranges.
+     * @param streams the streams with their stream cuts.
+     * @param maxSampledEvents the maximum number of events read to estimate the average event size,
+     *                         0 to leave the number of events unknown.
+     * @return the statistics of the streams.
+     */
+    public static StreamStatistics compute(BatchClientFactory batchClientFactory, List<StreamWithBoundaries> streams,
+                                           int maxSampledEvents) {
+        Preconditions.checkArgument(maxSampledEvents >= 0, "maxSampledEvents must be >= 0");
+        long totalSize = 0;
+        int segmentRangeCount = 0;
+        SegmentRange sampledRange = null;
+        for (StreamWithBoundaries stream : streams) {
+            Iterator<SegmentRange> segmentRanges = batchClientFactory
+                    .getSegments(stream.getStream(), stream.getFrom(), stream.getTo()).getIterator();
+            while (segmentRanges.hasNext()) {
+                SegmentRange segmentRange = segmentRanges.next();
+                long size = segmentRange.getEndOffset() - segmentRange.getStartOffset();
+                totalSize += size;
+                segmentRangeCount++;
+                if (sampledRange == null && size > 0) {
+                    sampledRange = segmentRange;
+                }
+            }
+        }
+
+        long sampledEvents = 0;
+        long sampledBytes = 0;
+        if (sampledRange != null && maxSampledEvents > 0) {
+            try (SegmentIterator<ByteBuffer> events =
+                         batchClientFactory.readSegment(sampledRange, new ByteBufferSerializer())) {
+                while (sampledEvents < maxSampledEvents && events.hasNext()) {
+                    events.next();
+                    sampledEvents++;
+                }
+                // the offsets include the event headers, which also count in the size of the segment ranges
+                sampledBytes = events.getOffset() - sampledRange.getStartOffset();
+            }
+        }
+        return new StreamStatistics(totalSize, segmentRangeCount, sampledEvents, sampledBytes);
+    }
+
+    /**
+     * Gets the number of bytes between the stream cuts.
+     *
+     * @return the total size in bytes.
+     */
+    public long getTotalSize() {
+        return totalSize;
+    }
+
+    /**
+     * Gets the number of segment ranges between the stream cuts.
+     *
+     * @return the number of segment ranges.
+     */
+    public int getSegmentRangeCount() {
+        return segmentRangeCount;
+    }
+
+    /**
+     * Gets the average size of the sampled events.
+     *
+     * @return the average event size in bytes, or {@link #UNKNOWN} if no event was sampled.
+     */
+    public long getAverageEventSize() {
+        if (sampledEvents == 0 || sampledBytes <= 0) {
+            return UNKNOWN;
+        }
+        return Math.max(1, sampledBytes / sampledEvents);
+    }
+
+    /**
+     * Gets the estimated number of events between the stream cuts.
+     *
+     * @return the estimated number of events, or {@link #UNKNOWN} if no event was sampled.
+     */
+    public long getEstimatedEventCount() {
+        if (totalSize == 0) {
+            return 0;
+        }
+        final long averageEventSize = getAverageEventSize();
+        return averageEventSize == UNKNOWN ? UNKNOWN : totalSize / averageEventSize;
+    }
+
+    @Override
+    public String toString() {
+        return "StreamStatistics {" +
+                "totalSize = " + totalSize +
+                ", segmentRangeCount = " + segmentRangeCount +
+                ", averageEventSize = " + getAverageEventSize() + "}";
+    }
+}
@@ -0,0 +1,193 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink.util;
+
+import io.pravega.client.stream.Transaction;
+import io.pravega.client.stream.TransactionalEventStreamWriter;
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.util.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of transactions which are opened ahead of time, so that a transactional writer does not wait
+ * for the controller to begin the next transaction on every checkpoint. <p>
+ *
+ * The transactions are opened on a background thread, which refills the pool as soon as a transaction
+ * is taken. If the pool is empty, the transaction is opened on the calling thread. The leases of the
+ * pooled transactions are renewed by the Pravega client like for any open transaction, but a pooled
+ * transaction which stayed idle for longer than the maximum idle time is aborted instead of being
+ * used, so that it does not get close to its timeout. <p>
+ *
+ * {@link #take()} and {@link #close()} must be called from a single thread.
+ *
+ * @param <T> The type of the event to be written.
+ */
+@Internal
+public final class TransactionPool<T> implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(TransactionPool.class);
+
+    private final TransactionalEventStreamWriter<T> transactionalWriter;
+
+    private final int size;
+
+    private final long maxIdleMillis;
+
+    private final String writerId;
+
+    private final BlockingQueue<PooledTransaction<T>> transactions = new LinkedBlockingQueue<>();
+
+    // The number of transactions which are either pooled or being opened in the background
+    private final AtomicInteger reserved = new AtomicInteger();
+
+    private final ExecutorService opener;
+
+    private volatile boolean closed;
+
+    /**
+     * Creates a pool and starts opening its transactions.
+     *
+     * @param transactionalWriter the writer which opens the transactions.
+     * @param size the number of transactions which are kept open ahead of time.
+     * @param maxIdleMillis the maximum time in milliseconds a transaction stays in the pool.
+     * @param writerId the id of the writer, for logging purposes.
+     */
+    public TransactionPool(TransactionalEventStreamWriter<T> transactionalWriter, int size, long maxIdleMillis,
+                           String writerId) {
+        Preconditions.checkArgument(size > 0, "size must be > 0");
+        Preconditions.checkArgument(maxIdleMillis > 0, "maxIdleMillis must be > 0");
+        this.transactionalWriter = Preconditions.checkNotNull(transactionalWriter, "transactionalWriter");
+        this.size = size;
+        this.maxIdleMillis = maxIdleMillis;
+        this.writerId = writerId;
+        this.opener = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Pravega transaction pool " + writerId);
+            thread.setDaemon(true);
+            return thread;
+        });
+        refill();
+    }
+
+    /**
+     * Takes an open transaction from the pool, or opens one if the pool is empty.
+     *
+     * @return an open transaction.
+     */
+    public Transaction<T> take() {
+        Preconditions.checkState(!closed, "The transaction pool is closed");
+        final long now = System.currentTimeMillis();
+        Transaction<T> transaction = null;
+        PooledTransaction<T> pooled;
+        while (transaction == null && (pooled = transactions.poll()) != null) {
+            reserved.decrementAndGet();
+            if (now - pooled.openedMillis < maxIdleMillis) {
+                transaction = pooled.transaction;
+            } else {
+                LOG.info("{} - Aborting the pooled transaction {} which stayed idle for {} ms.",
+                        writerId, pooled.transaction.getTxnId(), now - pooled.openedMillis);
+                final Transaction<T> expired = pooled.transaction;
+                opener.execute(() -> abortQuietly(expired));
+            }
+        }
+        refill();
+
+        if (transaction == null) {
+            LOG.debug("{} - The transaction pool is empty, opening a transaction.", writerId);
+            transaction = transactionalWriter.beginTxn();
+        }
+        return transaction;
+    }
+
+    private void refill() {
+        while (reserved.get() < size) {
+            reserved.incrementAndGet();
+            opener.execute(this::open);
+        }
+    }
+
+    private void open() {
+        if (closed) {
+            return;
+        }
+        try {
+            Transaction<T> transaction = transactionalWriter.beginTxn();
+            transactions.add(new PooledTransaction<>(transaction, System.currentTimeMillis()));
+        } catch (Exception e) {
+            LOG.warn("{} - Failed to open a pooled transaction.", writerId, e);
+            // the next take refills the pool again
+            reserved.decrementAndGet();
+            return;
+        }
+        if (closed) {
+            // the pool was closed while the transaction was being opened
+            abortPooled();
+        }
+    }
+
+    /**
+     * Aborts the pooled transactions and stops opening new ones. The transactions which were
+     * taken from the pool are not affected.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        opener.shutdownNow();
+        abortPooled();
+    }
+
+    private void abortPooled() {
+        PooledTransaction<T> pooled;
+        while ((pooled = transactions.poll()) != null) {
+            abortQuietly(pooled.transaction);
+        }
+    }
+
+    private void abortQuietly(Transaction<T> transaction) {
+        try {
+            transaction.abort();
+        } catch (Exception e) {
+            // the transaction times out eventually once its lease is not renewed anymore
+            LOG.warn("{} - Failed to abort the pooled transaction {}.", writerId, transaction.getTxnId(), e);
+        }
+    }
+
+    /**
+     * Gets the number of open transactions which are ready to be taken.
+     *
+     * @return the number of pooled transactions.
+     */
+    @VisibleForTesting
+    int getPooledTransactions() {
+        return transactions.size();
+    }
+
+    private static final class PooledTransaction<T> {
+        private final Transaction<T> transaction;
+        private final long openedMillis;
+
+        private PooledTransaction(Transaction<T> transaction, long openedMillis) {
+            this.transaction = transaction;
+            this.openedMillis = openedMillis;
+        }
+    }
+}
@@ -25,19 +25,27 @@ import io.pravega.client.stream.Stream;
 import org.apache.commons.lang3.NotImplementedException;
 import org.apache.flink.api.common.io.DefaultInputSplitAssigner;
 import org.apache.flink.api.common.io.InputFormat;
+import org.apache.flink.api.common.io.statistics.BaseStatistics;
 import org.apache.flink.api.common.serialization.DeserializationSchema;
 import org.junit.Test;
 
 import java.net.URI;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 /**
@@ -182,13 +190,148 @@ public class FlinkPravegaInputFormatTest {
         verify(segmentIterator).close();
     }
 
+    /**
+     * Tests that the small segment ranges are coalesced up to the target split size.
+     */
+    @Test
+    public void testPlanInputSplits() {
+        SegmentRange large = mockSegmentRange(0, 1000);
+        SegmentRange small1 = mockSegmentRange(100, 400);
+        SegmentRange small2 = mockSegmentRange(0, 300);
+        SegmentRange small3 = mockSegmentRange(0, 500);
+        SegmentRange small4 = mockSegmentRange(0, 10);
+        List<SegmentRange> segmentRanges = Arrays.asList(small1, large, small2, small3, small4);
+
+        // one input split per segment range by default
+        List<PravegaInputSplit> splits = FlinkPravegaInputFormat.planInputSplits(segmentRanges, 0);
+        assertEquals(5, splits.size());
+
+        splits = FlinkPravegaInputFormat.planInputSplits(segmentRanges, 1000);
+        assertEquals(3, splits.size());
+        assertEquals(Arrays.asList(large), splits.get(0).getSegmentRanges());
+        assertEquals(Arrays.asList(small1, small2, small3), splits.get(1).getSegmentRanges());
+        assertEquals(1100, splits.get(1).getSize());
+        assertEquals(Arrays.asList(small4), splits.get(2).getSegmentRanges());
+        for (int i = 0; i < splits.size(); i++) {
+            assertEquals(i, splits.get(i).getSplitNumber());
+        }
+    }
+
+    /**
+     * Tests that the segment ranges of a coalesced input split are read one after the other.
+     */
+    @Test
+    public void testReadCoalescedInputSplit() throws Exception {
+        FlinkPravegaInputFormat<String> spyFlinkPravegaInputFormat = spyFlinkPravegaInputFormat();
+        SegmentRange first = mockSegmentRange(0, 10);
+        SegmentRange second = mockSegmentRange(0, 10);
+        SegmentIterator<String> firstIterator = mockSegmentIterator("a");
+        SegmentIterator<String> secondIterator = mockSegmentIterator("b");
+        doReturn(firstIterator).when(batchClientFactory).readSegment(eq(first), any());
+        doReturn(secondIterator).when(batchClientFactory).readSegment(eq(second), any());
+
+        spyFlinkPravegaInputFormat.openInputFormat();
+        spyFlinkPravegaInputFormat.open(new PravegaInputSplit(0, Arrays.asList(first, second)));
+        assertFalse(spyFlinkPravegaInputFormat.reachedEnd());
+        assertEquals("a", spyFlinkPravegaInputFormat.nextRecord(null));
+        assertFalse(spyFlinkPravegaInputFormat.reachedEnd());
+        verify(firstIterator).close();
+        assertEquals("b", spyFlinkPravegaInputFormat.nextRecord(null));
+        assertTrue(spyFlinkPravegaInputFormat.reachedEnd());
+        spyFlinkPravegaInputFormat.close();
+        verify(secondIterator).close();
+    }
+
+    /**
+     * Tests that the events deserialized to null, e.g. rejected by a pushed down filter, are skipped
+     * instead of ending the input split.
+     */
+    @Test
+    public void testSkipNullRecords() throws Exception {
+        FlinkPravegaInputFormat<String> spyFlinkPravegaInputFormat = spyFlinkPravegaInputFormat();
+        doReturn(Boolean.TRUE).doReturn(Boolean.TRUE).doReturn(Boolean.TRUE).doReturn(Boolean.FALSE)
+                .when(segmentIterator).hasNext();
+        doReturn(null).doReturn("a").doReturn(null).when(segmentIterator).next();
+
+        spyFlinkPravegaInputFormat.openInputFormat();
+        spyFlinkPravegaInputFormat.open(new PravegaInputSplit(0, mockSegmentRange(0, 10)));
+        assertFalse(spyFlinkPravegaInputFormat.reachedEnd());
+        assertEquals("a", spyFlinkPravegaInputFormat.nextRecord(null));
+        assertTrue(spyFlinkPravegaInputFormat.reachedEnd());
+        verify(segmentIterator, times(3)).next();
+        spyFlinkPravegaInputFormat.close();
+    }
+
+    /**
+     * Tests that the statistics are computed from the segment ranges.
+     */
+    @Test
+    public void testGetStatistics() throws Exception {
+        FlinkPravegaInputFormat<String> spyFlinkPravegaInputFormat = spyFlinkPravegaInputFormat();
+        doReturn(Arrays.asList(mockSegmentRange(100, 1100), mockSegmentRange(0, 3000)).iterator())
+                .when(streamSegmentsIterator).getIterator();
+        // 100 events are sampled, up to offset 600
+        doReturn(600L).when(segmentIterator).getOffset();
+
+        BaseStatistics statistics = spyFlinkPravegaInputFormat.getStatistics(null);
+        assertEquals(4000, statistics.getTotalInputSize());
+        assertEquals(800, statistics.getNumberOfRecords());
+        assertEquals(5.0f, statistics.getAverageRecordWidth(), 0.0f);
+        verify(segmentIterator, times(100)).next();
+        verify(batchClientFactory).close();
+    }
+
+    /**
+     * Tests that a parallel instance stops reading once it has read the limit of records.
+     */
+    @Test
+    public void testReadWithLimit() throws Exception {
+        FlinkPravegaInputFormat<String> spyFlinkPravegaInputFormat = spyFlinkPravegaInputFormat(2);
+
+        spyFlinkPravegaInputFormat.openInputFormat();
+        spyFlinkPravegaInputFormat.open(new PravegaInputSplit(0, mockSegmentRange(0, 10)));
+        assertFalse(spyFlinkPravegaInputFormat.reachedEnd());
+        assertEquals("foo", spyFlinkPravegaInputFormat.nextRecord(null));
+        assertFalse(spyFlinkPravegaInputFormat.reachedEnd());
+        assertEquals("foo", spyFlinkPravegaInputFormat.nextRecord(null));
+        assertTrue(spyFlinkPravegaInputFormat.reachedEnd());
+        spyFlinkPravegaInputFormat.close();
+        verify(segmentIterator).close();
+
+        // the next input split is not read at all
+        spyFlinkPravegaInputFormat.open(new PravegaInputSplit(1, mockSegmentRange(0, 10)));
+        assertTrue(spyFlinkPravegaInputFormat.reachedEnd());
+        spyFlinkPravegaInputFormat.close();
+        verify(batchClientFactory, times(1)).readSegment(any(), any());
+    }
+
+    private static SegmentRange mockSegmentRange(long startOffset, long endOffset) {
+        SegmentRange segmentRange = mock(SegmentRange.class);
+        doReturn(startOffset).when(segmentRange).getStartOffset();
+        doReturn(endOffset).when(segmentRange).getEndOffset();
+        return segmentRange;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SegmentIterator<String> mockSegmentIterator(String event) {
+        SegmentIterator<String> iterator = mock(SegmentIterator.class);
+        doReturn(Boolean.TRUE).doReturn(Boolean.FALSE).when(iterator).hasNext();
+        doReturn(event).when(iterator).next();
+        return iterator;
+    }
+
     private FlinkPravegaInputFormat<String> spyFlinkPravegaInputFormat() {
+        return spyFlinkPravegaInputFormat(Long.MAX_VALUE);
+    }
+
+    private FlinkPravegaInputFormat<String> spyFlinkPravegaInputFormat(long limit) {
         doReturn(clientConfig).when(pravegaConfig).getClientConfig();
         doReturn(stream).when(pravegaConfig).resolve(anyString());
         FlinkPravegaInputFormat<String> flinkPravegaInputFormat = FlinkPravegaInputFormat.<String>builder()
                                                             .withDeserializationSchema(deserializationSchema)
                                                             .withPravegaConfig(pravegaConfig)
                                                             .forStream(stream)
+                                                            .withLimit(limit)
                                                             .build();
         FlinkPravegaInputFormat<String> spyFlinkPravegaInputFormat = spy(flinkPravegaInputFormat);
 
@@ -27,6 +27,7 @@ import io.pravega.client.stream.ReaderConfig;
 import io.pravega.client.stream.ReaderGroup;
 import io.pravega.client.stream.ReaderGroupConfig;
 import io.pravega.client.stream.ReaderGroupNotFoundException;
+import io.pravega.client.stream.ReaderSegmentDistribution;
 import io.pravega.client.stream.Serializer;
 import io.pravega.client.stream.Stream;
 import io.pravega.client.stream.StreamCut;
@@ -60,16 +61,17 @@ import org.apache.flink.streaming.util.TestHarnessUtil;
 import org.apache.flink.util.SerializedValue;
 import org.junit.Assert;
 import org.junit.Test;
+import org.mockito.InOrder;
 import org.mockito.stubbing.Answer;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.Properties;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 
 import static io.pravega.connectors.flink.FlinkPravegaReader.ONLINE_READERS_METRICS_GAUGE;
 import static io.pravega.connectors.flink.FlinkPravegaReader.PRAVEGA_READER_METRICS_GROUP;
@@ -80,12 +82,15 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -99,7 +104,6 @@ public class FlinkPravegaReaderTest {
     private static final String SAMPLE_SCOPE = "scope";
     private static final String SAMPLE_STREAM_NAME = "stream";
     private static final String SAMPLE_STREAM_NAME_2 = "stream-2";
-    private static final String SAMPLE_COMPLETE_STREAM_NAME = SAMPLE_SCOPE + '/' + SAMPLE_STREAM_NAME;
     private static final Stream SAMPLE_STREAM = Stream.of(SAMPLE_SCOPE, SAMPLE_STREAM_NAME);
     private static final Stream SAMPLE_STREAM_2 = Stream.of(SAMPLE_SCOPE, SAMPLE_STREAM_NAME_2);
     private static final Segment SAMPLE_SEGMENT = new Segment(SAMPLE_SCOPE, SAMPLE_STREAM.getStreamName(), 1);
@@ -206,6 +210,248 @@ public class FlinkPravegaReaderTest {
         verify(reader.readerGroup).close();
     }
 
+    /**
+     * Tests the behavior of {@code run()} when the available events are emitted in batches.
+     */
+    @Test
+    public void testRunWithBatchedEmission() throws Exception {
+        TestableFlinkPravegaReader<Integer> reader = createReader(10);
+
+        try (StreamSourceOperatorTestHarness<Integer, TestableFlinkPravegaReader<Integer>> testHarness =
+                     createTestHarness(reader)) {
+            testHarness.open();
+
+            // prepare a sequence of events
+            TestEventGenerator<Integer> evts = new TestEventGenerator<>();
+            when(reader.eventStreamReader.readNextEvent(anyLong()))
+                    .thenReturn(evts.event(1, SERIALIZER))
+                    .thenReturn(evts.event(2, SERIALIZER))
+                    .thenReturn(evts.checkpoint(42L))
+                    .thenReturn(evts.event(3, SERIALIZER))
+                    .thenThrow(new TruncatedDataException())
+                    .thenReturn(evts.event(4, SERIALIZER))
+                    .thenReturn(evts.idle())
+                    .thenReturn(evts.event(TestDeserializationSchema.END_OF_STREAM, SERIALIZER));
+
+            // run the source
+            testHarness.run();
+
+            // verify that the event stream was read until the end of stream
+            verify(reader.eventStreamReader, times(8)).readNextEvent(anyLong());
+            Queue<Object> actual = testHarness.getOutput();
+            Queue<Object> expected = new ConcurrentLinkedQueue<>();
+            expected.add(record(1));
+            expected.add(record(2));
+            expected.add(record(3));
+            expected.add(record(4));
+            TestHarnessUtil.assertOutputEquals("Unexpected output", expected, actual);
+
+            // verify that the checkpoint which interrupted the batch was triggered
+            Queue<Long> actualChkpts = testHarness.getTriggeredCheckpoints();
+            Queue<Long> expectedChkpts = new ConcurrentLinkedQueue<>();
+            expectedChkpts.add(42L);
+            TestHarnessUtil.assertOutputEquals("Unexpected checkpoints", expectedChkpts, actualChkpts);
+        }
+    }
+
+    /**
+     * Tests that {@code run()} returns once the limit of records is emitted.
+     */
+    @Test
+    public void testRunWithLimit() throws Exception {
+        TestableFlinkPravegaReader<Integer> reader = createReaderWithLimit(10, 2);
+
+        try (StreamSourceOperatorTestHarness<Integer, TestableFlinkPravegaReader<Integer>> testHarness =
+                     createTestHarness(reader)) {
+            testHarness.open();
+
+            // prepare a sequence of events
+            TestEventGenerator<Integer> evts = new TestEventGenerator<>();
+            when(reader.eventStreamReader.readNextEvent(anyLong()))
+                    .thenReturn(evts.event(1, SERIALIZER))
+                    .thenReturn(evts.event(2, SERIALIZER))
+                    .thenReturn(evts.event(3, SERIALIZER))
+                    .thenReturn(evts.event(TestDeserializationSchema.END_OF_STREAM, SERIALIZER));
+
+            // run the source
+            testHarness.run();
+
+            // verify that the batch stopped at the limit and no more events were read
+            verify(reader.eventStreamReader, times(2)).readNextEvent(anyLong());
+            Queue<Object> actual = testHarness.getOutput();
+            Queue<Object> expected = new ConcurrentLinkedQueue<>();
+            expected.add(record(1));
+            expected.add(record(2));
+            TestHarnessUtil.assertOutputEquals("Unexpected output", expected, actual);
+        }
+
+        verify(reader.readerGroup).close();
+    }
+
+    /**
+     * Tests that the number of events read ahead of the source thread follows the emit batch size.
+     */
+    @Test
+    public void testReadAheadCapacity() {
+        assertEquals(64, createReader(1).getReadAheadCapacity());
+        assertEquals(2000, createReader(1000).getReadAheadCapacity());
+        assertEquals(64 * 1024, createReader(1000000).getReadAheadCapacity());
+    }
+
+    /**
+     * Tests the behavior of {@code run()} when the events are deserialized on worker threads.
+     */
+    @Test
+    public void testRunWithDeserializationPipeline() throws Exception {
+        TestableFlinkPravegaReader<Integer> reader = createReader(1, 2);
+
+        try (StreamSourceOperatorTestHarness<Integer, TestableFlinkPravegaReader<Integer>> testHarness =
+                     createTestHarness(reader)) {
+            testHarness.open();
+
+            // prepare a sequence of events
+            TestEventGenerator<Integer> evts = new TestEventGenerator<>();
+            when(reader.eventStreamReader.readNextEvent(anyLong()))
+                    .thenReturn(evts.event(1, SERIALIZER))
+                    .thenReturn(evts.event(2, SERIALIZER))
+                    .thenReturn(evts.checkpoint(42L))
+                    .thenReturn(evts.idle())
+                    .thenReturn(evts.event(3, SERIALIZER))
+                    .thenReturn(evts.event(4, SERIALIZER))
+                    .thenReturn(evts.event(TestDeserializationSchema.END_OF_STREAM, SERIALIZER))
+                    .thenReturn(evts.idle());
+
+            // run the source
+            testHarness.run();
+
+            // verify that the events are emitted in order
+            Queue<Object> actual = testHarness.getOutput();
+            Queue<Object> expected = new ConcurrentLinkedQueue<>();
+            expected.add(record(1));
+            expected.add(record(2));
+            expected.add(record(3));
+            expected.add(record(4));
+            TestHarnessUtil.assertOutputEquals("Unexpected output", expected, actual);
+
+            // verify that checkpoints were triggered
+            Queue<Long> actualChkpts = testHarness.getTriggeredCheckpoints();
+            Queue<Long> expectedChkpts = new ConcurrentLinkedQueue<>();
+            expectedChkpts.add(42L);
+            TestHarnessUtil.assertOutputEquals("Unexpected checkpoints", expectedChkpts, actualChkpts);
+        }
+    }
+
+    /**
+     * Tests that {@code run()} marks the subtask as idle when its reader owns no segment, and as active again on data.
+     */
+    @Test
+    public void testRunWithIdleness() throws Exception {
+        TestableFlinkPravegaReader<Integer> reader = createReaderWithIdleTimeout(Time.minutes(1));
+
+        try (StreamSourceOperatorTestHarness<Integer, TestableFlinkPravegaReader<Integer>> testHarness =
+                     createTestHarness(reader)) {
+            testHarness.open();
+
+            // all the segments are assigned to the readers of other subtasks
+            ReaderSegmentDistribution distribution = mock(ReaderSegmentDistribution.class);
+            when(distribution.getReaderSegmentDistribution()).thenReturn(Collections.emptyMap());
+            when(distribution.getUnassignedSegments()).thenReturn(0);
+            when(reader.readerGroup.getReaderSegmentDistribution()).thenReturn(distribution);
+
+            // prepare a sequence of events, recording whether the subtask was idle before the second event
+            TestEventGenerator<Integer> evts = new TestEventGenerator<>();
+            AtomicBoolean idleBeforeEvent = new AtomicBoolean();
+            when(reader.eventStreamReader.readNextEvent(anyLong()))
+                    .thenReturn(evts.event(1, SERIALIZER))
+                    .thenReturn(evts.idle())
+                    .thenAnswer(i -> {
+                        idleBeforeEvent.set(reader.idle);
+                        return evts.event(2, SERIALIZER);
+                    })
+                    .thenReturn(evts.event(TestDeserializationSchema.END_OF_STREAM, SERIALIZER));
+
+            // run the source
+            testHarness.run();
+
+            // verify that the subtask was idle until it read the second event
+            assertTrue(idleBeforeEvent.get());
+            assertFalse(reader.idle);
+
+            Queue<Object> actual = testHarness.getOutput().stream()
+                    .filter(e -> e instanceof StreamRecord)
+                    .collect(Collectors.toCollection(ConcurrentLinkedQueue::new));
+            Queue<Object> expected = new ConcurrentLinkedQueue<>();
+            expected.add(record(1));
+            expected.add(record(2));
+            TestHarnessUtil.assertOutputEquals("Unexpected output", expected, actual);
+        }
+    }
+
+    /**
+     * Tests that the idleness check fetches the segment distribution at most once per reader group refresh interval.
+     */
+    @Test
+    public void testIdlenessCheckIsThrottled() throws Exception {
+        TestableFlinkPravegaReader<Integer> reader = createReaderWithIdleTimeout(Time.minutes(1));
+
+        try (StreamSourceOperatorTestHarness<Integer, TestableFlinkPravegaReader<Integer>> testHarness =
+                     createTestHarness(reader)) {
+            testHarness.open();
+
+            // a segment is left to be acquired, so the subtask stays active on empty reads
+            ReaderSegmentDistribution distribution = mock(ReaderSegmentDistribution.class);
+            when(distribution.getReaderSegmentDistribution()).thenReturn(Collections.emptyMap());
+            when(distribution.getUnassignedSegments()).thenReturn(1);
+            when(reader.readerGroup.getReaderSegmentDistribution()).thenReturn(distribution);
+
+            TestEventGenerator<Integer> evts = new TestEventGenerator<>();
+            when(reader.eventStreamReader.readNextEvent(anyLong()))
+                    .thenReturn(evts.idle())
+                    .thenReturn(evts.idle())
+                    .thenReturn(evts.idle())
+                    .thenReturn(evts.event(TestDeserializationSchema.END_OF_STREAM, SERIALIZER));
+
+            // run the source
+            testHarness.run();
+
+            assertFalse(reader.idle);
+            verify(reader.readerGroup, times(1)).getReaderSegmentDistribution();
+        }
+    }
+
+    /**
+     * Tests that {@code run()} backs off the event read timeout on empty reads, and resets it on data.
+     */
+    @Test
+    public void testRunWithAdaptiveEventReadTimeout() throws Exception {
+        TestableFlinkPravegaReader<Integer> reader = createReaderWithMinEventReadTimeout(Time.milliseconds(300));
+
+        try (StreamSourceOperatorTestHarness<Integer, TestableFlinkPravegaReader<Integer>> testHarness =
+                     createTestHarness(reader)) {
+            testHarness.open();
+
+            // prepare a sequence of events
+            TestEventGenerator<Integer> evts = new TestEventGenerator<>();
+            when(reader.eventStreamReader.readNextEvent(anyLong()))
+                    .thenReturn(evts.idle())
+                    .thenReturn(evts.idle())
+                    .thenReturn(evts.idle())
+                    .thenReturn(evts.event(1, SERIALIZER))
+                    .thenReturn(evts.event(TestDeserializationSchema.END_OF_STREAM, SERIALIZER));
+
+            // run the source
+            testHarness.run();
+
+            // verify that the timeout was doubled up to the event read timeout, and reset by the event
+            InOrder inOrder = inOrder(reader.eventStreamReader);
+            inOrder.verify(reader.eventStreamReader).readNextEvent(300L);
+            inOrder.verify(reader.eventStreamReader).readNextEvent(600L);
+            inOrder.verify(reader.eventStreamReader).readNextEvent(READER_TIMEOUT.toMilliseconds());
+            inOrder.verify(reader.eventStreamReader).readNextEvent(READER_TIMEOUT.toMilliseconds());
+            inOrder.verify(reader.eventStreamReader).readNextEvent(300L);
+        }
+    }
+
     /**
      * Tests the behavior of {@code run()} with TruncatedDataException.
      */
@@ -342,6 +588,64 @@ public class FlinkPravegaReaderTest {
         verify(reader.readerGroup).close();
     }
 
+    /**
+     * Tests the behavior of {@code run()} with watermark when reading several streams.
+     */
+    @Test
+    public void testRunWithWatermarkOfMultipleStreams() throws Exception {
+        TestableFlinkPravegaReader<Integer> reader = createReaderWithWatermark(new LowerBoundAssigner<Integer>() {
+            @Override
+            public long extractTimestamp(Integer element, long previousElementTimestamp) {
+                return element;
+            }
+        }, ReaderGroupConfig.builder().stream(SAMPLE_STREAM).stream(SAMPLE_STREAM_2).build());
+
+        try (StreamSourceOperatorTestHarness<Integer, TestableFlinkPravegaReader<Integer>> testHarness =
+                     createTestHarness(reader)) {
+            // reset the auto watermark interval to 50 millisecond
+            testHarness.getExecutionConfig().setAutoWatermarkInterval(50);
+            testHarness.open();
+
+            // prepare a sequence of events with processing time progress
+            TestEventGenerator<Integer> evts = new TestEventGenerator<>();
+            when(reader.eventStreamReader.readNextEvent(anyLong()))
+                    .thenAnswer((Answer<EventRead<ByteBuffer>>) invocation -> {
+                        testHarness.setProcessingTime(1);
+                        return evts.event(1, SERIALIZER);
+                    })
+                    .thenAnswer((Answer<EventRead<ByteBuffer>>) invocation -> {
+                        testHarness.setProcessingTime(51);
+                        return evts.event(2, SERIALIZER);
+                    })
+                    .thenAnswer((Answer<EventRead<ByteBuffer>>) invocation -> {
+                        testHarness.setProcessingTime(101);
+                        return evts.event(TestDeserializationSchema.END_OF_STREAM, SERIALIZER);
+                    });
+            // the watermark is the minimum of the lower bounds of the streams
+            when(reader.eventStreamReader.getCurrentTimeWindow(eq(SAMPLE_STREAM)))
+                    .thenReturn(new TimeWindow(10L, 20L))
+                    .thenReturn(new TimeWindow(30L, 40L));
+            when(reader.eventStreamReader.getCurrentTimeWindow(eq(SAMPLE_STREAM_2)))
+                    .thenReturn(new TimeWindow(5L, 6L))
+                    .thenReturn(new TimeWindow(50L, 60L));
+
+            // run the source
+            testHarness.run();
+
+            verify(reader.eventStreamReader, times(2)).getCurrentTimeWindow(eq(SAMPLE_STREAM));
+            verify(reader.eventStreamReader, times(2)).getCurrentTimeWindow(eq(SAMPLE_STREAM_2));
+
+            Queue<Object> actual = testHarness.getOutput();
+            Queue<Object> expected = new ConcurrentLinkedQueue<>();
+            expected.add(record(1, 1));
+            expected.add(watermark(5));
+            expected.add(record(2, 2));
+            expected.add(watermark(30));
+
+            TestHarnessUtil.assertOutputEquals("Unexpected output", expected, actual);
+        }
+    }
+
     /**
      * Tests the schema registry deserialization support.
      */
@@ -417,12 +721,80 @@ public class FlinkPravegaReaderTest {
                 null, READER_TIMEOUT, CHKPT_TIMEOUT, enableMetrics);
     }
 
+    /**
+     * Creates a {@link TestableFlinkPravegaReader} which emits the available events in batches.
+     */
+    private static TestableFlinkPravegaReader<Integer> createReader(int maxEmitBatchSize) {
+        return createReader(maxEmitBatchSize, 0);
+    }
+
+    /**
+     * Creates a {@link TestableFlinkPravegaReader} which emits the available events in batches,
+     * and deserializes the events on the given number of worker threads.
+     */
+    private static TestableFlinkPravegaReader<Integer> createReader(int maxEmitBatchSize, int deserializationParallelism) {
+        ClientConfig clientConfig = ClientConfig.builder().build();
+        ReaderGroupConfig rgConfig = ReaderGroupConfig.builder().stream(SAMPLE_STREAM).build();
+        boolean enableMetrics = true;
+        return new TestableFlinkPravegaReader<>(
+                "hookUid", clientConfig, rgConfig, SAMPLE_SCOPE, GROUP_NAME, DESERIALIZATION_SCHEMA,
+                null, READER_TIMEOUT, CHKPT_TIMEOUT, enableMetrics, maxEmitBatchSize, Long.MAX_VALUE, 1,
+                deserializationParallelism, null, null, Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a {@link TestableFlinkPravegaReader} which emits the available events in batches,
+     * and which finishes once the given number of records is emitted.
+     */
+    private static TestableFlinkPravegaReader<Integer> createReaderWithLimit(int maxEmitBatchSize, long limit) {
+        ClientConfig clientConfig = ClientConfig.builder().build();
+        ReaderGroupConfig rgConfig = ReaderGroupConfig.builder().stream(SAMPLE_STREAM).build();
+        boolean enableMetrics = true;
+        return new TestableFlinkPravegaReader<>(
+                "hookUid", clientConfig, rgConfig, SAMPLE_SCOPE, GROUP_NAME, DESERIALIZATION_SCHEMA,
+                null, READER_TIMEOUT, CHKPT_TIMEOUT, enableMetrics, maxEmitBatchSize, Long.MAX_VALUE, 1, 0,
+                null, null, limit);
+    }
+
+    /**
+     * Creates a {@link TestableFlinkPravegaReader} with idleness detection.
+     */
+    private static TestableFlinkPravegaReader<Integer> createReaderWithIdleTimeout(Time idleTimeout) {
+        ClientConfig clientConfig = ClientConfig.builder().build();
+        ReaderGroupConfig rgConfig = ReaderGroupConfig.builder().stream(SAMPLE_STREAM).build();
+        boolean enableMetrics = true;
+        return new TestableFlinkPravegaReader<>(
+                "hookUid", clientConfig, rgConfig, SAMPLE_SCOPE, GROUP_NAME, DESERIALIZATION_SCHEMA,
+                null, READER_TIMEOUT, CHKPT_TIMEOUT, enableMetrics, 1, Long.MAX_VALUE, 1, 0, idleTimeout, null,
+                Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a {@link TestableFlinkPravegaReader} with the adaptive event read timeout.
+     */
+    private static TestableFlinkPravegaReader<Integer> createReaderWithMinEventReadTimeout(Time minEventReadTimeout) {
+        ClientConfig clientConfig = ClientConfig.builder().build();
+        ReaderGroupConfig rgConfig = ReaderGroupConfig.builder().stream(SAMPLE_STREAM).build();
+        boolean enableMetrics = true;
+        return new TestableFlinkPravegaReader<>(
+                "hookUid", clientConfig, rgConfig, SAMPLE_SCOPE, GROUP_NAME, DESERIALIZATION_SCHEMA,
+                null, READER_TIMEOUT, CHKPT_TIMEOUT, enableMetrics, 1, Long.MAX_VALUE, 1, 0, null, minEventReadTimeout,
+                Long.MAX_VALUE);
+    }
+
     /**
      * Creates a {@link TestableFlinkPravegaReader} with event time and watermarking.
      */
     private static TestableFlinkPravegaReader<Integer> createReaderWithWatermark(AssignerWithTimeWindows<Integer> assignerWithTimeWindows) {
+        return createReaderWithWatermark(assignerWithTimeWindows, ReaderGroupConfig.builder().stream(SAMPLE_STREAM).build());
+    }
+
+    /**
+     * Creates a {@link TestableFlinkPravegaReader} with event time and watermarking for the given reader group.
+     */
+    private static TestableFlinkPravegaReader<Integer> createReaderWithWatermark(AssignerWithTimeWindows<Integer> assignerWithTimeWindows,
+                                                                                 ReaderGroupConfig rgConfig) {
         ClientConfig clientConfig = ClientConfig.builder().build();
-        ReaderGroupConfig rgConfig = ReaderGroupConfig.builder().stream(SAMPLE_STREAM).build();
         boolean enableMetrics = true;
 
         try {
@@ -676,6 +1048,20 @@ public class FlinkPravegaReaderTest {
                     assignerWithTimeWindows, eventReadTimeout, checkpointInitiateTimeout, enableMetrics);
         }
 
+        protected TestableFlinkPravegaReader(String hookUid, ClientConfig clientConfig,
+                                             ReaderGroupConfig readerGroupConfig, String readerGroupScope,
+                                             String readerGroupName, DeserializationSchema<T> deserializationSchema,
+                                             SerializedValue<AssignerWithTimeWindows<T>> assignerWithTimeWindows,
+                                             Time eventReadTimeout, Time checkpointInitiateTimeout,
+                                             boolean enableMetrics, int maxEmitBatchSize, long maxEmitBatchBytes,
+                                             int readersPerSubtask, int deserializationParallelism,
+                                             Time idleTimeout, Time minEventReadTimeout, long limit) {
+            super(hookUid, clientConfig, readerGroupConfig, readerGroupScope, readerGroupName, deserializationSchema,
+                    assignerWithTimeWindows, eventReadTimeout, checkpointInitiateTimeout, enableMetrics,
+                    maxEmitBatchSize, maxEmitBatchBytes, readersPerSubtask, deserializationParallelism, idleTimeout,
+                    minEventReadTimeout, limit);
+        }
+
         @Override
         protected EventStreamClientFactory createEventStreamClientFactory() {
             if (eventStreamClientFactory != null) {
@@ -696,7 +1082,9 @@ public class FlinkPravegaReaderTest {
 
             readerGroupManager = mock(ReaderGroupManager.class);
             readerGroup.resetReaderGroup(readerGroupConfig);
-            doReturn(new HashSet<>(Arrays.asList(SAMPLE_COMPLETE_STREAM_NAME))).when(readerGroup).getStreamNames();
+            doReturn(readerGroupConfig.getStartingStreamCuts().keySet().stream()
+                    .map(Stream::getScopedName)
+                    .collect(Collectors.toSet())).when(readerGroup).getStreamNames();
             when(readerGroupManager.getReaderGroup(anyString()))
                     .thenThrow(new ReaderGroupNotFoundException("Reader group not found"))
                     .thenReturn(readerGroup);
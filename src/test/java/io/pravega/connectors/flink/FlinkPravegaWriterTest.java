@@ -26,7 +26,6 @@ import io.pravega.client.stream.TransactionalEventStreamWriter;
 import io.pravega.client.stream.TxnFailedException;
 import io.pravega.common.function.RunnableWithException;
 import io.pravega.connectors.flink.serialization.FlinkSerializer;
-import io.pravega.connectors.flink.utils.DirectExecutorService;
 import io.pravega.connectors.flink.utils.IntegerSerializationSchema;
 import io.pravega.connectors.flink.utils.StreamSinkOperatorTestHarness;
 import org.apache.flink.api.common.typeutils.base.IntSerializer;
@@ -43,7 +42,6 @@ import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
 
@@ -121,15 +119,12 @@ public class FlinkPravegaWriterTest {
     public void testOpenSerializationSchema() throws Exception {
         MockSerializationSchema<Integer> schema = new MockSerializationSchema<>();
 
-        ExecutorService executorService = spy(new DirectExecutorService());
-
         EventStreamWriter<Integer> pravegaWriter = mockEventStreamWriter();
         EventStreamClientFactory clientFactory = mockClientFactory(pravegaWriter);
         FlinkPravegaWriter<Integer> sinkFunction = spy(new FlinkPravegaWriter<>(
                 MOCK_CLIENT_CONFIG, Stream.of(MOCK_SCOPE_NAME, MOCK_STREAM_NAME), schema,
                 null, PravegaWriterMode.ATLEAST_ONCE, DEFAULT_TXN_LEASE_RENEWAL_PERIOD_MILLIS,
                 false, true));
-        Mockito.doReturn(executorService).when(sinkFunction).createExecutorService();
         Mockito.doReturn(clientFactory).when(sinkFunction).createClientFactory(MOCK_SCOPE_NAME, MOCK_CLIENT_CONFIG);
 
         StreamSinkOperatorTestHarness<Integer> testHarness = createTestHarness(sinkFunction);
@@ -191,22 +186,22 @@ public class FlinkPravegaWriterTest {
                 CompletableFuture<Void> e1Future = context.prepareWrite();
                 StreamRecord<Integer> e1 = new StreamRecord<>(1, 1L);
                 testHarness.processElement(e1);
-                Assert.assertEquals(1, context.sinkFunction.pendingWritesCount.get());
+                Assert.assertEquals(1, context.sinkFunction.pendingWrites.getPendingWrites());
 
                 CompletableFuture<Void> e2Future = context.prepareWrite();
                 StreamRecord<Integer> e2 = new StreamRecord<>(2, 2L);
                 testHarness.processElement(e2);
-                Assert.assertEquals(2, context.sinkFunction.pendingWritesCount.get());
+                Assert.assertEquals(2, context.sinkFunction.pendingWrites.getPendingWrites());
 
                 CompletableFuture<Void> e3Future = context.prepareWrite();
                 StreamRecord<Integer> e3 = new StreamRecord<>(3, 3L);
                 testHarness.processElement(e3);
-                Assert.assertEquals(3, context.sinkFunction.pendingWritesCount.get());
+                Assert.assertEquals(3, context.sinkFunction.pendingWrites.getPendingWrites());
 
                 e1Future.complete(null);
                 e2Future.completeExceptionally(new IntentionalRuntimeException());
                 e3Future.complete(null);
-                Assert.assertEquals(0, context.sinkFunction.pendingWritesCount.get());
+                Assert.assertEquals(0, context.sinkFunction.pendingWrites.getPendingWrites());
 
                 // clear the error for test simplicity
                 context.sinkFunction.writeError.set(null);
@@ -253,16 +248,13 @@ public class FlinkPravegaWriterTest {
                 testHarness.open();
 
                 // invoke a flush, expecting it to block on pending writes
-                context.sinkFunction.pendingWritesCount.incrementAndGet();
+                context.sinkFunction.pendingWrites.register(0);
                 Future<Void> flushFuture = runAsync(context.sinkFunction::flushAndVerify);
                 Thread.sleep(1000);
                 Assert.assertFalse(flushFuture.isDone());
 
                 // allow the flush to complete
-                synchronized (context.sinkFunction) {
-                    context.sinkFunction.pendingWritesCount.decrementAndGet();
-                    context.sinkFunction.notify();
-                }
+                context.sinkFunction.pendingWrites.complete(0);
                 flushFuture.get();
 
                 // invoke another flush following a write error, expecting failure
@@ -292,13 +284,11 @@ public class FlinkPravegaWriterTest {
                     // prepare a worst-case situation that exercises the exception handling aspect of close
                     context.sinkFunction.writeError.set(new IntentionalRuntimeException());
                     Mockito.doThrow(new IntentionalRuntimeException()).when(context.pravegaWriter).close();
-                    Mockito.doThrow(new IntentionalRuntimeException()).when(context.executorService).shutdown();
                 }
                 Assert.fail("expected an exception");
             } catch (IOException e) {
-                Assert.assertEquals(2, e.getSuppressed().length);
+                Assert.assertEquals(1, e.getSuppressed().length);
                 Assert.assertTrue(e.getSuppressed()[0] instanceof IntentionalRuntimeException);
-                Assert.assertTrue(e.getSuppressed()[1] instanceof IntentionalRuntimeException);
             }
         }
     }
@@ -410,6 +400,35 @@ public class FlinkPravegaWriterTest {
         }
     }
 
+    /**
+     * Tests that a transaction which received no event is reused instead of being committed.
+     */
+    @Test
+    public void testTransactionalWriterSkipsEmptyTransaction() throws Exception {
+        try (WriterTestContext context = new WriterTestContext(false)) {
+            Transaction<Integer> trans = context.prepareTransaction();
+            try (StreamSinkOperatorTestHarness<Integer> testHarness = createTestHarness(context.txnSinkFunction)) {
+                testHarness.open();
+                Mockito.when(trans.checkStatus()).thenReturn(Transaction.Status.OPEN);
+
+                // an empty checkpoint period neither flushes nor commits, and no transaction is begun
+                testHarness.snapshot(1L, 1L);
+                testHarness.notifyOfCompletedCheckpoint(1L);
+                verify(trans, never()).flush();
+                verify(trans, never()).commit();
+                verify(context.pravegaTxnWriter).beginTxn();
+
+                // the reused transaction is committed once it received an event
+                StreamRecord<Integer> e1 = new StreamRecord<>(1, 1L);
+                testHarness.processElement(e1);
+                testHarness.snapshot(2L, 2L);
+                verify(trans).flush();
+                testHarness.notifyOfCompletedCheckpoint(2L);
+                verify(trans).commit();
+            }
+        }
+    }
+
     /**
      * Tests the error handling with unknown transaction.
      */
@@ -509,13 +528,10 @@ public class FlinkPravegaWriterTest {
                                                         boolean enableWatermark,
                                                         PravegaWriterMode writerMode) {
 
-        final ExecutorService executorService = spy(new DirectExecutorService());
-
         FlinkPravegaWriter<Integer> sinkFunction = spy(new FlinkPravegaWriter<>(
                 MOCK_CLIENT_CONFIG, Stream.of(MOCK_SCOPE_NAME, MOCK_STREAM_NAME), new IntegerSerializationSchema(),
                 eventRouter, writerMode, DEFAULT_TXN_LEASE_RENEWAL_PERIOD_MILLIS, enableWatermark, true));
 
-        Mockito.doReturn(executorService).when(sinkFunction).createExecutorService();
         Mockito.doReturn(clientFactory).when(sinkFunction).createClientFactory(MOCK_SCOPE_NAME, MOCK_CLIENT_CONFIG);
 
         return sinkFunction;
@@ -528,7 +544,6 @@ public class FlinkPravegaWriterTest {
         final EventStreamWriter<Integer> pravegaWriter;
         final TransactionalEventStreamWriter<Integer> pravegaTxnWriter;
         final PravegaEventRouter<Integer> eventRouter;
-        final ExecutorService executorService;
         final FlinkPravegaWriter<Integer> sinkFunction;
         final FlinkPravegaWriter<Integer> txnSinkFunction;
 
@@ -539,11 +554,6 @@ public class FlinkPravegaWriterTest {
 
             sinkFunction = spySinkFunction(mockClientFactory(pravegaWriter), eventRouter, enableWatermark, PravegaWriterMode.ATLEAST_ONCE);
             txnSinkFunction = spySinkFunction(mockTxnClientFactory(pravegaTxnWriter), eventRouter, enableWatermark, PravegaWriterMode.EXACTLY_ONCE);
-
-            // inject an instrumented, direct executor
-            executorService = spy(new DirectExecutorService());
-            Mockito.doReturn(executorService).when(sinkFunction).createExecutorService();
-            Mockito.doReturn(executorService).when(txnSinkFunction).createExecutorService();
         }
 
         @Override
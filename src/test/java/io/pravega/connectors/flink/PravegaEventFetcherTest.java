@@ -0,0 +1,196 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink;
+
+import io.pravega.client.stream.EventPointer;
+import io.pravega.client.stream.EventRead;
+import io.pravega.client.stream.EventStreamReader;
+import io.pravega.client.stream.Position;
+import io.pravega.client.stream.impl.EventReadImpl;
+import io.pravega.connectors.flink.utils.IntegerSerializer;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static io.pravega.connectors.flink.util.FlinkPravegaUtils.createCheckpointName;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link PravegaEventFetcher}.
+ */
+public class PravegaEventFetcherTest {
+
+    private static final IntegerSerializer SERIALIZER = new IntegerSerializer();
+    private static final long READ_TIMEOUT_MILLIS = 10L;
+    private static final long TEST_TIMEOUT_MILLIS = 10000L;
+    private static final int HANDOVER_CAPACITY = 16;
+
+    /**
+     * Tests that a single reader is read on the calling thread.
+     */
+    @Test
+    public void testSingleReader() throws Exception {
+        EventStreamReader<ByteBuffer> reader = mockReader();
+        when(reader.readNextEvent(anyLong()))
+                .thenReturn(event(1))
+                .thenReturn(checkpoint(42L));
+
+        try (PravegaEventFetcher fetcher = new PravegaEventFetcher(Collections.singletonList(reader), "reader", READ_TIMEOUT_MILLIS, HANDOVER_CAPACITY)) {
+            fetcher.start();
+            assertEquals(1, SERIALIZER.deserialize(fetcher.readNextEvent(READ_TIMEOUT_MILLIS).getEvent()).intValue());
+            assertEquals(createCheckpointName(42L), fetcher.readNextEvent(READ_TIMEOUT_MILLIS).getCheckpointName());
+            verify(reader, times(2)).readNextEvent(READ_TIMEOUT_MILLIS);
+        }
+        verify(reader).close();
+    }
+
+    /**
+     * Tests that the checkpoint is handed over only after all the readers reached it, and that no event
+     * following the checkpoint is handed over before the checkpoint.
+     */
+    @Test(timeout = TEST_TIMEOUT_MILLIS)
+    public void testCheckpointAlignment() throws Exception {
+        EventStreamReader<ByteBuffer> reader1 = mockReader();
+        when(reader1.readNextEvent(anyLong()))
+                .thenReturn(event(1))
+                .thenReturn(checkpoint(42L))
+                .thenReturn(event(3))
+                .thenAnswer(i -> idleAfterTimeout());
+        EventStreamReader<ByteBuffer> reader2 = mockReader();
+        when(reader2.readNextEvent(anyLong()))
+                .thenReturn(idle())
+                .thenReturn(idle())
+                .thenReturn(event(2))
+                .thenReturn(checkpoint(42L))
+                .thenReturn(event(4))
+                .thenAnswer(i -> idleAfterTimeout());
+
+        try (PravegaEventFetcher fetcher = new PravegaEventFetcher(Arrays.asList(reader1, reader2), "reader", READ_TIMEOUT_MILLIS, HANDOVER_CAPACITY)) {
+            fetcher.start();
+
+            // read until the aligned checkpoint
+            List<Integer> beforeCheckpoint = new ArrayList<>();
+            EventRead<ByteBuffer> eventRead = fetcher.readNextEvent(READ_TIMEOUT_MILLIS);
+            while (!eventRead.isCheckpoint()) {
+                if (eventRead.getEvent() != null) {
+                    beforeCheckpoint.add(SERIALIZER.deserialize(eventRead.getEvent()));
+                }
+                eventRead = fetcher.readNextEvent(READ_TIMEOUT_MILLIS);
+            }
+            assertEquals(createCheckpointName(42L), eventRead.getCheckpointName());
+            assertEquals(new HashSet<>(Arrays.asList(1, 2)), new HashSet<>(beforeCheckpoint));
+
+            // the readers resume after the checkpoint
+            List<Integer> afterCheckpoint = new ArrayList<>();
+            while (afterCheckpoint.size() < 2) {
+                eventRead = fetcher.readNextEvent(READ_TIMEOUT_MILLIS);
+                assertFalse(eventRead.isCheckpoint());
+                if (eventRead.getEvent() != null) {
+                    afterCheckpoint.add(SERIALIZER.deserialize(eventRead.getEvent()));
+                }
+            }
+            assertEquals(new HashSet<>(Arrays.asList(3, 4)), new HashSet<>(afterCheckpoint));
+        }
+        verify(reader1).close();
+        verify(reader2).close();
+    }
+
+    /**
+     * Tests that a checkpoint reached by only some of the readers is not returned as an empty read, i.e. the
+     * caller keeps waiting for the remaining readers within the read timeout.
+     */
+    @Test(timeout = TEST_TIMEOUT_MILLIS)
+    public void testPartialCheckpointIsNotEmptyRead() throws Exception {
+        EventStreamReader<ByteBuffer> reader1 = mockReader();
+        when(reader1.readNextEvent(anyLong()))
+                .thenReturn(checkpoint(42L))
+                .thenAnswer(i -> idleAfterTimeout());
+        EventStreamReader<ByteBuffer> reader2 = mockReader();
+        when(reader2.readNextEvent(anyLong()))
+                .thenAnswer(i -> {
+                    Thread.sleep(READ_TIMEOUT_MILLIS * 10);
+                    return checkpoint(42L);
+                })
+                .thenAnswer(i -> idleAfterTimeout());
+
+        try (PravegaEventFetcher fetcher = new PravegaEventFetcher(Arrays.asList(reader1, reader2), "reader", READ_TIMEOUT_MILLIS, HANDOVER_CAPACITY)) {
+            fetcher.start();
+            EventRead<ByteBuffer> eventRead = fetcher.readNextEvent(TEST_TIMEOUT_MILLIS);
+            assertEquals(createCheckpointName(42L), eventRead.getCheckpointName());
+        }
+    }
+
+    /**
+     * Tests that a failure of a fetcher thread is surfaced to the calling thread.
+     */
+    @Test(timeout = TEST_TIMEOUT_MILLIS)
+    public void testFetchError() throws Exception {
+        EventStreamReader<ByteBuffer> reader1 = mockReader();
+        when(reader1.readNextEvent(anyLong())).thenAnswer(i -> idleAfterTimeout());
+        EventStreamReader<ByteBuffer> reader2 = mockReader();
+        when(reader2.readNextEvent(anyLong())).thenThrow(new IllegalStateException("intentional"));
+
+        try (PravegaEventFetcher fetcher = new PravegaEventFetcher(Arrays.asList(reader1, reader2), "reader", READ_TIMEOUT_MILLIS, HANDOVER_CAPACITY)) {
+            fetcher.start();
+            boolean failed = false;
+            while (!failed) {
+                try {
+                    fetcher.readNextEvent(READ_TIMEOUT_MILLIS);
+                } catch (IOException e) {
+                    assertTrue(e.getCause() instanceof IllegalStateException);
+                    failed = true;
+                }
+            }
+        }
+    }
+
+    // ------------------------------------------------------------------------
+
+    @SuppressWarnings("unchecked")
+    private static EventStreamReader<ByteBuffer> mockReader() {
+        return mock(EventStreamReader.class);
+    }
+
+    private static EventRead<ByteBuffer> event(int value) {
+        return new EventReadImpl<>(SERIALIZER.serialize(value), mock(Position.class), mock(EventPointer.class), null);
+    }
+
+    private static EventRead<ByteBuffer> idle() {
+        return new EventReadImpl<>(null, mock(Position.class), mock(EventPointer.class), null);
+    }
+
+    private static EventRead<ByteBuffer> idleAfterTimeout() throws InterruptedException {
+        Thread.sleep(READ_TIMEOUT_MILLIS);
+        return idle();
+    }
+
+    private static EventRead<ByteBuffer> checkpoint(long checkpointId) {
+        return new EventReadImpl<>(null, mock(Position.class), mock(EventPointer.class), createCheckpointName(checkpointId));
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink;
+
+import io.pravega.client.batch.SegmentRange;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+public class PravegaInputSplitAssignerTest {
+
+    @Test
+    public void testLargestSplitsFirst() {
+        PravegaInputSplit small = createSplit(0, 10);
+        PravegaInputSplit large = createSplit(1, 1000);
+        PravegaInputSplit medium = createSplit(2, 100);
+        PravegaInputSplit otherMedium = createSplit(3, 100);
+        PravegaInputSplitAssigner assigner = new PravegaInputSplitAssigner(
+                new PravegaInputSplit[] {small, otherMedium, large, medium});
+
+        assertSame(large, assigner.getNextInputSplit("host", 0));
+        assertSame(medium, assigner.getNextInputSplit("host", 1));
+
+        // a returned input split is assigned again in its order
+        assigner.returnInputSplit(Collections.singletonList(large), 0);
+        assertSame(large, assigner.getNextInputSplit("host", 0));
+
+        assertSame(otherMedium, assigner.getNextInputSplit("host", 0));
+        assertSame(small, assigner.getNextInputSplit("host", 1));
+        assertNull(assigner.getNextInputSplit("host", 0));
+    }
+
+    private static PravegaInputSplit createSplit(int splitId, long size) {
+        SegmentRange segmentRange = mock(SegmentRange.class);
+        doReturn(0L).when(segmentRange).getStartOffset();
+        doReturn(size).when(segmentRange).getEndOffset();
+        return new PravegaInputSplit(splitId, segmentRange);
+    }
+}
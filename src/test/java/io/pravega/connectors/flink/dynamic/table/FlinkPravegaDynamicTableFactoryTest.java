@@ -25,6 +25,7 @@ import io.pravega.connectors.flink.PravegaConfig;
 import io.pravega.connectors.flink.PravegaWriterMode;
 import io.pravega.connectors.flink.util.FlinkPravegaUtils;
 import io.pravega.connectors.flink.util.StreamWithBoundaries;
+import org.apache.flink.api.common.functions.util.ListCollector;
 import org.apache.flink.api.common.io.InputFormat;
 import org.apache.flink.api.common.serialization.DeserializationSchema;
 import org.apache.flink.api.common.serialization.SerializationSchema;
@@ -50,21 +51,28 @@ import org.apache.flink.table.connector.source.DynamicTableSource;
 import org.apache.flink.table.connector.source.InputFormatProvider;
 import org.apache.flink.table.connector.source.ScanTableSource;
 import org.apache.flink.table.connector.source.SourceFunctionProvider;
+import org.apache.flink.table.data.GenericRowData;
 import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.StringData;
 import org.apache.flink.table.expressions.utils.ResolvedExpressionMock;
 import org.apache.flink.table.factories.FactoryUtil;
 import org.apache.flink.table.factories.TestFormatFactory;
 import org.apache.flink.table.runtime.connector.sink.SinkRuntimeProviderContext;
 import org.apache.flink.table.runtime.connector.source.ScanRuntimeProviderContext;
 import org.apache.flink.table.types.DataType;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.table.types.utils.DataTypeUtils;
 import org.apache.flink.table.utils.TableSchemaUtils;
 import org.apache.flink.util.TestLogger;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.mockito.internal.util.reflection.Whitebox;
 
 import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -177,6 +185,7 @@ public class FlinkPravegaDynamicTableFactoryTest extends TestLogger {
                 3000L,
                 5000L,
                 TIMEOUT_MILLIS,
+                0L,
                 3,
                 null,
                 true,
@@ -216,6 +225,8 @@ public class FlinkPravegaDynamicTableFactoryTest extends TestLogger {
                 physicalDataType,
                 producedDataType,
                 Collections.singletonList(FlinkPravegaDynamicTableSource.ReadableMetadata.EVENT_POINTER.key),
+                null,
+                Collections.emptyList(),
                 decodingFormat,
                 null,
                 getTestPravegaConfig(),
@@ -223,15 +234,99 @@ public class FlinkPravegaDynamicTableFactoryTest extends TestLogger {
                 3000L,
                 5000L,
                 TIMEOUT_MILLIS,
+                0L,
                 3,
                 null,
                 true,
+                false,
+                false,
+                false,
+                Long.MAX_VALUE);
+
+        // expect the source to be constructed successfully
+        assertEquals(actualPravegaSource, expectedPravegaSource);
+    }
+
+    @Test
+    public void testStreamingTableSourceWithProjection() {
+        // prepare parameters for Pravega table source
+        final DataType physicalDataType = SOURCE_SCHEMA.toPhysicalRowDataType();
+        final DataType producedDataType = SOURCE_SCHEMA_WITH_METADATA.toPhysicalRowDataType();
+        final int[][] projectedFields = new int[][]{{2}, {0}};
+        DecodingFormat<DeserializationSchema<RowData>> decodingFormat =
+                new TestFormatFactory.DecodingFormatMock(",", true);
+
+        // Construct table source using options and table source factory
+        ObjectIdentifier objectIdentifier = ObjectIdentifier.of(
+                "default",
+                "default",
+                "scanTable");
+        CatalogTable catalogTable = createPravegaStreamingSourceCatalogTable();
+        ResolvedCatalogTable resolvedCatalogTable = new ResolvedCatalogTable(catalogTable, SOURCE_SCHEMA_WITH_METADATA);
+        final DynamicTableSource actualSource = FactoryUtil.createTableSource(null,
+                objectIdentifier,
+                resolvedCatalogTable,
+                new Configuration(),
+                Thread.currentThread().getContextClassLoader(),
                 false);
+        final FlinkPravegaDynamicTableSource actualPravegaSource = (FlinkPravegaDynamicTableSource) actualSource;
+        actualPravegaSource.applyReadableMetadata(Collections.singletonList("event_pointer"), producedDataType);
+        actualPravegaSource.applyProjection(projectedFields);
+
+        // the metadata column stays after the projected physical columns
+        assertEquals(Arrays.asList(TIME, NAME, METADATA),
+                ((RowType) actualPravegaSource.producedDataType.getLogicalType()).getFieldNames());
+
+        // Test scan source equals
+        final FlinkPravegaDynamicTableSource expectedPravegaSource = new FlinkPravegaDynamicTableSource(
+                physicalDataType,
+                DataTypeUtils.projectRow(producedDataType, new int[][]{{2}, {0}, {3}}),
+                Collections.singletonList(FlinkPravegaDynamicTableSource.ReadableMetadata.EVENT_POINTER.key),
+                projectedFields,
+                Collections.emptyList(),
+                decodingFormat,
+                null,
+                getTestPravegaConfig(),
+                getTestScanStreamList(),
+                3000L,
+                5000L,
+                TIMEOUT_MILLIS,
+                0L,
+                3,
+                null,
+                true,
+                false,
+                false,
+                false,
+                Long.MAX_VALUE);
 
         // expect the source to be constructed successfully
         assertEquals(actualPravegaSource, expectedPravegaSource);
     }
 
+    @Test
+    public void testProjectedDeserializationSchema() throws IOException {
+        final DeserializationSchema<RowData> nestedSchema = new DummyDeserializationSchema() {
+            @Override
+            public RowData deserialize(byte[] message) {
+                return GenericRowData.of(StringData.fromString("name"), 1L, 2L);
+            }
+        };
+
+        // the format decodes the full physical row which is projected to the time and name columns
+        final FlinkPravegaDynamicDeserializationSchema deserializationSchema =
+                new FlinkPravegaDynamicDeserializationSchema(
+                        null,
+                        2,
+                        Collections.emptyList(),
+                        new int[]{2, 0},
+                        nestedSchema);
+
+        final List<RowData> rows = new ArrayList<>();
+        deserializationSchema.deserialize(new byte[0], null, new ListCollector<>(rows));
+        assertEquals(Collections.singletonList(GenericRowData.of(2L, StringData.fromString("name"))), rows);
+    }
+
     @Test
     public void testStreamingTableSourceWithOptionalReaderGroupName() {
         // prepare parameters for Pravega table source
@@ -266,6 +361,7 @@ public class FlinkPravegaDynamicTableFactoryTest extends TestLogger {
                 3000L,
                 5000L,
                 TIMEOUT_MILLIS,
+                0L,
                 3,
                 null,
                 true,
@@ -290,6 +386,7 @@ public class FlinkPravegaDynamicTableFactoryTest extends TestLogger {
                 3000L,
                 5000L,
                 TIMEOUT_MILLIS,
+                0L,
                 3,
                 null,
                 true,
@@ -334,6 +431,7 @@ public class FlinkPravegaDynamicTableFactoryTest extends TestLogger {
                 3000L,
                 5000L,
                 TIMEOUT_MILLIS,
+                0L,
                 3,
                 null,
                 false,
@@ -359,6 +457,7 @@ public class FlinkPravegaDynamicTableFactoryTest extends TestLogger {
                 3000L,
                 5000L,
                 TIMEOUT_MILLIS,
+                0L,
                 3,
                 null,
                 false,
@@ -372,6 +471,47 @@ public class FlinkPravegaDynamicTableFactoryTest extends TestLogger {
         assertTrue(sourceFunction instanceof FlinkPravegaInputFormat);
     }
 
+    @Test
+    public void testBatchTableSourceProjection() throws IOException {
+        final DataType physicalDataType = SOURCE_SCHEMA.toPhysicalRowDataType();
+
+        // the positional format cannot decode the projected fields only, the full row is decoded and projected
+        DecodingFormat<DeserializationSchema<RowData>> decodingFormat =
+                new TestPositionalDecodingFormat(",", true);
+
+        final FlinkPravegaDynamicTableSource source = new FlinkPravegaDynamicTableSource(
+                physicalDataType,
+                decodingFormat,
+                READER_GROUP,
+                getTestPravegaConfig(),
+                getTestScanStreamList(),
+                3000L,
+                5000L,
+                TIMEOUT_MILLIS,
+                0L,
+                3,
+                null,
+                false,
+                false);
+        source.applyProjection(new int[][]{{2}, {0}});
+
+        ScanTableSource.ScanRuntimeProvider provider =
+                source.getScanRuntimeProvider(ScanRuntimeProviderContext.INSTANCE);
+        assertTrue(provider instanceof InputFormatProvider);
+        final InputFormat<RowData, ?> inputFormat = ((InputFormatProvider) provider).createInputFormat();
+        @SuppressWarnings("unchecked")
+        final DeserializationSchema<RowData> deserializationSchema =
+                (DeserializationSchema<RowData>) Whitebox.getInternalState(inputFormat, "deserializationSchema");
+
+        final byte[] message = "name,1,time".getBytes(StandardCharsets.UTF_8);
+        final RowData expected = GenericRowData.of(StringData.fromString("time"), StringData.fromString("name"));
+        assertEquals(expected, deserializationSchema.deserialize(message));
+
+        final List<RowData> rows = new ArrayList<>();
+        deserializationSchema.deserialize(message, new ListCollector<>(rows));
+        assertEquals(Collections.singletonList(expected), rows);
+    }
+
     @Test
     public void testTableSink() {
         final DataType consumedDataType = SINK_SCHEMA.toPhysicalRowDataType();
@@ -406,6 +546,47 @@ public class FlinkPravegaDynamicTableFactoryTest extends TestLogger {
         assertEquals(expectedSink, actualSink);
     }
 
+    @Test
+    public void testTableSinkWithInFlightLimits() {
+        EncodingFormat<SerializationSchema<RowData>> encodingFormat =
+                new TestFormatFactory.EncodingFormatMock(",");
+
+        // Construct table sink using options and table sink factory.
+        ObjectIdentifier objectIdentifier = ObjectIdentifier.of(
+                "default",
+                "default",
+                "sinkTable");
+        final Map<String, String> modifiedOptions = getModifiedOptions(
+                getFullSinkOptions(),
+                options -> {
+                    options.put("sink.max-in-flight.events", "1000");
+                    options.put("sink.max-in-flight.bytes", "64 mb");
+                });
+        final CatalogTable sinkTable = createPravegaSinkCatalogTable(modifiedOptions);
+        ResolvedCatalogTable resolvedCatalogTable = new ResolvedCatalogTable(sinkTable, SINK_SCHEMA);
+        final DynamicTableSink actualSink = FactoryUtil.createTableSink(
+                null,
+                objectIdentifier,
+                resolvedCatalogTable,
+                new Configuration(),
+                Thread.currentThread().getContextClassLoader(),
+                false);
+
+        final FlinkPravegaDynamicTableSink expectedSink = new FlinkPravegaDynamicTableSink(
+                TableSchemaUtils.getPhysicalSchema(TableSchema.fromResolvedSchema(SINK_SCHEMA)),
+                encodingFormat,
+                getTestPravegaConfig(),
+                Stream.of(SCOPE, STREAM3),
+                PravegaWriterMode.EXACTLY_ONCE,
+                LEASE_MILLIS,
+                false,
+                NAME,
+                1000,
+                64 * 1024 * 1024L
+        );
+        assertEquals(expectedSink, actualSink);
+    }
+
     @Test
     public void testTableSinkProvider() {
         final DataType consumedDataType = SINK_SCHEMA.toPhysicalRowDataType();
@@ -501,6 +682,74 @@ public class FlinkPravegaDynamicTableFactoryTest extends TestLogger {
                 false);
     }
 
+    @Test
+    public void testStreamingTableSourceWithMinEventReadTimeout() {
+        // prepare parameters for Pravega table source
+        final DataType physicalDataType = SOURCE_SCHEMA.toPhysicalRowDataType();
+        DecodingFormat<DeserializationSchema<RowData>> decodingFormat =
+                new TestFormatFactory.DecodingFormatMock(",", true);
+
+        // Construct table source using DDL and table source factory
+        ObjectIdentifier objectIdentifier = ObjectIdentifier.of(
+                "default",
+                "default",
+                "scanTable");
+        final Map<String, String> modifiedOptions = getModifiedOptions(
+                getFullStreamingSourceOptions(),
+                options -> options.put("scan.event-read.timeout.min-interval", "100 ms"));
+        CatalogTable catalogTable = createPravegaSourceCatalogTable(modifiedOptions);
+        ResolvedCatalogTable resolvedCatalogTable = new ResolvedCatalogTable(catalogTable, SOURCE_SCHEMA);
+        final DynamicTableSource actualSource = FactoryUtil.createTableSource(null,
+                objectIdentifier,
+                resolvedCatalogTable,
+                new Configuration(),
+                Thread.currentThread().getContextClassLoader(),
+                false);
+
+        // Test scan source equals
+        final FlinkPravegaDynamicTableSource expectedPravegaSource = new FlinkPravegaDynamicTableSource(
+                physicalDataType,
+                decodingFormat,
+                null,
+                getTestPravegaConfig(),
+                getTestScanStreamList(),
+                3000L,
+                5000L,
+                TIMEOUT_MILLIS,
+                100L,
+                3,
+                null,
+                true,
+                false);
+
+        final FlinkPravegaDynamicTableSource actualPravegaSource = (FlinkPravegaDynamicTableSource) actualSource;
+        assertEquals(actualPravegaSource, expectedPravegaSource);
+    }
+
+    @Test
+    public void testInvalidMinEventReadTimeout() {
+        // Construct table source using DDL and table source factory
+        ObjectIdentifier objectIdentifier = ObjectIdentifier.of(
+                "default",
+                "default",
+                "scanTable");
+        final Map<String, String> modifiedOptions = getModifiedOptions(
+                getFullStreamingSourceOptions(),
+                options -> options.put("scan.event-read.timeout.min-interval", "5 s"));
+        CatalogTable catalogTable = createPravegaSourceCatalogTable(modifiedOptions);
+        ResolvedCatalogTable resolvedCatalogTable = new ResolvedCatalogTable(catalogTable, SOURCE_SCHEMA);
+
+        thrown.expect(ValidationException.class);
+        thrown.expect(containsCause(new ValidationException("'scan.event-read.timeout.min-interval' requires a positive" +
+                " duration not greater than 'scan.event-read.timeout.interval', received PT5S")));
+        FactoryUtil.createTableSource(null,
+                objectIdentifier,
+                resolvedCatalogTable,
+                new Configuration(),
+                Thread.currentThread().getContextClassLoader(),
+                false);
+    }
+
     @Test
     public void testMissingSourceStream() {
         // Construct table source using DDL and table source factory
@@ -781,6 +1030,34 @@ public class FlinkPravegaDynamicTableFactoryTest extends TestLogger {
         }
     }
 
+    private static class TestPositionalDecodingFormat extends TestFormatFactory.DecodingFormatMock {
+
+        private final String delimiter;
+
+        private TestPositionalDecodingFormat(String delimiter, Boolean failOnMissing) {
+            super(delimiter, failOnMissing);
+            this.delimiter = delimiter;
+        }
+
+        @Override
+        public DeserializationSchema<RowData> createRuntimeDecoder(
+                DynamicTableSource.Context context,
+                DataType producedDataType) {
+            final int arity = producedDataType.getChildren().size();
+            return new DummyDeserializationSchema() {
+                @Override
+                public RowData deserialize(byte[] message) {
+                    final String[] fields = new String(message, StandardCharsets.UTF_8).split(delimiter);
+                    final GenericRowData row = new GenericRowData(arity);
+                    for (int i = 0; i < arity; i++) {
+                        row.setField(i, StringData.fromString(fields[i]));
+                    }
+                    return row;
+                }
+            };
+        }
+    }
+
     private static class TestPravegaDecodingFormat extends TestFormatFactory.DecodingFormatMock {
 
         private TestPravegaDecodingFormat(String delimiter, Boolean failOnMissing) {
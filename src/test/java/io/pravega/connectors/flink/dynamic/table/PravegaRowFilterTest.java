@@ -0,0 +1,196 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink.dynamic.table;
+
+import org.apache.flink.api.common.functions.util.ListCollector;
+import org.apache.flink.api.common.serialization.DeserializationSchema;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.table.api.DataTypes;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.expressions.CallExpression;
+import org.apache.flink.table.expressions.FieldReferenceExpression;
+import org.apache.flink.table.expressions.ResolvedExpression;
+import org.apache.flink.table.expressions.ValueLiteralExpression;
+import org.apache.flink.table.functions.BuiltInFunctionDefinitions;
+import org.apache.flink.table.functions.FunctionDefinition;
+import org.apache.flink.table.types.DataType;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PravegaRowFilterTest {
+
+    private static final FieldReferenceExpression NAME = new FieldReferenceExpression("name", DataTypes.STRING(), 0, 0);
+    private static final FieldReferenceExpression COUNT = new FieldReferenceExpression("count", DataTypes.BIGINT(), 0, 1);
+    private static final FieldReferenceExpression PRICE = new FieldReferenceExpression("price", DataTypes.DOUBLE(), 0, 2);
+    private static final FieldReferenceExpression EVENT_POINTER =
+            new FieldReferenceExpression("event_pointer", DataTypes.BYTES(), 0, 3);
+
+    private static final DataType PRODUCED_DATA_TYPE = DataTypes.ROW(
+            DataTypes.FIELD("name", DataTypes.STRING()),
+            DataTypes.FIELD("count", DataTypes.BIGINT()),
+            DataTypes.FIELD("price", DataTypes.DOUBLE()),
+            DataTypes.FIELD("event_pointer", DataTypes.BYTES()));
+
+    @Test
+    public void testToPredicate() {
+        assertTrue(PravegaRowFilter.toPredicate(
+                call(BuiltInFunctionDefinitions.EQUALS, NAME, literal("a"))).isPresent());
+        assertTrue(PravegaRowFilter.toPredicate(
+                call(BuiltInFunctionDefinitions.EQUALS, EVENT_POINTER, literal(new byte[]{1, 2}))).isPresent());
+        assertTrue(PravegaRowFilter.toPredicate(
+                call(BuiltInFunctionDefinitions.IS_NULL, PRICE)).isPresent());
+
+        // the literal on the left side flips the comparison
+        assertEquals(
+                PravegaRowFilter.toPredicate(call(BuiltInFunctionDefinitions.LESS_THAN, COUNT, literal(5))),
+                PravegaRowFilter.toPredicate(call(BuiltInFunctionDefinitions.GREATER_THAN, literal(5L), COUNT)));
+
+        // unsupported functions, operand types and orderings of bytes
+        assertFalse(PravegaRowFilter.toPredicate(
+                call(BuiltInFunctionDefinitions.LIKE, NAME, literal("a%"))).isPresent());
+        assertFalse(PravegaRowFilter.toPredicate(
+                call(BuiltInFunctionDefinitions.EQUALS, COUNT, literal("5"))).isPresent());
+        assertFalse(PravegaRowFilter.toPredicate(
+                call(BuiltInFunctionDefinitions.EQUALS, COUNT, NAME)).isPresent());
+        assertFalse(PravegaRowFilter.toPredicate(
+                call(BuiltInFunctionDefinitions.GREATER_THAN, EVENT_POINTER, literal(new byte[]{1, 2}))).isPresent());
+    }
+
+    @Test
+    public void testRowFilter() {
+        final PravegaRowFilter filter = PravegaRowFilter.create(Arrays.asList(
+                predicate(call(BuiltInFunctionDefinitions.GREATER_THAN, COUNT, literal(5))),
+                predicate(call(BuiltInFunctionDefinitions.EQUALS, NAME, literal("a"))),
+                predicate(call(BuiltInFunctionDefinitions.EQUALS, EVENT_POINTER, literal(new byte[]{1, 2}))),
+                predicate(call(BuiltInFunctionDefinitions.IS_NOT_NULL, PRICE)),
+                // not produced by the source and thus skipped
+                predicate(call(BuiltInFunctionDefinitions.EQUALS,
+                        new FieldReferenceExpression("other", DataTypes.BIGINT(), 0, 4), literal(1L)))),
+                PRODUCED_DATA_TYPE);
+
+        assertTrue(test(filter, GenericRowData.of(StringData.fromString("a"), 6L, 1.0, new byte[]{1, 2})));
+        assertFalse(test(filter, GenericRowData.of(StringData.fromString("a"), 5L, 1.0, new byte[]{1, 2})));
+        assertFalse(test(filter, GenericRowData.of(StringData.fromString("b"), 6L, 1.0, new byte[]{1, 2})));
+        assertFalse(test(filter, GenericRowData.of(StringData.fromString("a"), 6L, 1.0, new byte[]{1, 3})));
+        assertFalse(test(filter, GenericRowData.of(StringData.fromString("a"), 6L, null, new byte[]{1, 2})));
+
+        // a comparison with NULL never holds
+        assertFalse(test(filter, GenericRowData.of(StringData.fromString("a"), null, 1.0, new byte[]{1, 2})));
+    }
+
+    @Test
+    public void testFloatingPointComparison() {
+        final PravegaRowFilter notEquals = PravegaRowFilter.create(Collections.singletonList(
+                predicate(call(BuiltInFunctionDefinitions.NOT_EQUALS, PRICE, literal(1.0)))),
+                PRODUCED_DATA_TYPE);
+        final PravegaRowFilter atLeast = PravegaRowFilter.create(Collections.singletonList(
+                predicate(call(BuiltInFunctionDefinitions.GREATER_THAN_OR_EQUAL, PRICE, literal(0.0)))),
+                PRODUCED_DATA_TYPE);
+
+        assertTrue(test(notEquals, GenericRowData.of(null, null, Double.NaN, null)));
+        assertFalse(test(atLeast, GenericRowData.of(null, null, Double.NaN, null)));
+        assertTrue(test(atLeast, GenericRowData.of(null, null, -0.0, null)));
+    }
+
+    @Test
+    public void testCreateWithoutProducedFields() {
+        final FieldReferenceExpression other = new FieldReferenceExpression("other", DataTypes.BIGINT(), 0, 4);
+        final List<PravegaRowFilter.FieldPredicate> predicates = Collections.singletonList(
+                predicate(call(BuiltInFunctionDefinitions.EQUALS, other, literal(1L))));
+
+        assertNull(PravegaRowFilter.create(predicates, PRODUCED_DATA_TYPE));
+        assertNull(PravegaRowFilter.create(Collections.emptyList(), PRODUCED_DATA_TYPE));
+    }
+
+    @Test
+    public void testFilteredBatchDeserialization() throws IOException {
+        final PravegaRowFilter filter = PravegaRowFilter.create(Collections.singletonList(
+                predicate(call(BuiltInFunctionDefinitions.GREATER_THAN, COUNT, literal(5)))),
+                PRODUCED_DATA_TYPE);
+        final DeserializationSchema<RowData> nestedSchema = new CountDeserializationSchema();
+        final FlinkPravegaDynamicDeserializationSchema deserializationSchema =
+                new FlinkPravegaDynamicDeserializationSchema(
+                        null,
+                        3,
+                        Collections.singletonList("event_pointer"),
+                        null,
+                        filter,
+                        nestedSchema);
+
+        // the rows rejected by the filter are dropped on the paths used by the batch reads too
+        assertEquals(GenericRowData.of(StringData.fromString("a"), 6L, 1.0, null),
+                deserializationSchema.deserialize(bytes(6L)));
+        assertNull(deserializationSchema.deserialize(bytes(5L)));
+
+        final List<RowData> rows = new ArrayList<>();
+        deserializationSchema.deserialize(bytes(5L), new ListCollector<>(rows));
+        deserializationSchema.deserialize(bytes(7L), new ListCollector<>(rows));
+        assertEquals(Collections.singletonList(GenericRowData.of(StringData.fromString("a"), 7L, 1.0, null)), rows);
+    }
+
+    private static byte[] bytes(long count) {
+        return String.valueOf(count).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static boolean test(PravegaRowFilter filter, GenericRowData row) {
+        return filter.test(row::getField);
+    }
+
+    private static PravegaRowFilter.FieldPredicate predicate(ResolvedExpression expression) {
+        return PravegaRowFilter.toPredicate(expression).orElseThrow(IllegalArgumentException::new);
+    }
+
+    private static CallExpression call(FunctionDefinition definition, ResolvedExpression... args) {
+        return new CallExpression(definition, Arrays.asList(args), DataTypes.BOOLEAN());
+    }
+
+    private static ValueLiteralExpression literal(Object value) {
+        return new ValueLiteralExpression(value);
+    }
+
+    // decodes the count column of a row from its string representation
+    private static class CountDeserializationSchema implements DeserializationSchema<RowData> {
+
+        @Override
+        public RowData deserialize(byte[] message) {
+            final long count = Long.parseLong(new String(message, StandardCharsets.UTF_8));
+            return GenericRowData.of(StringData.fromString("a"), count, 1.0);
+        }
+
+        @Override
+        public boolean isEndOfStream(RowData nextElement) {
+            return false;
+        }
+
+        @Override
+        public TypeInformation<RowData> getProducedType() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink.serialization;
+
+import org.apache.flink.api.common.functions.util.ListCollector;
+import org.apache.flink.api.common.serialization.SimpleStringSchema;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EventBatchTest {
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        EventBatch batch = new EventBatch();
+        batch.add(bytes("a"));
+        batch.add(bytes(""));
+        batch.add(bytes("ccc"));
+        assertEquals(3, batch.getCount());
+        assertEquals(EventBatch.HEADER_SIZE + 3 * EventBatch.RECORD_HEADER_SIZE + 4, batch.getSizeInBytes());
+
+        ByteBuffer event = batch.toByteBuffer();
+        assertTrue(EventBatch.isEventBatch(event));
+        List<ByteBuffer> records = EventBatch.unpack(event);
+        assertEquals(Arrays.asList("a", "", "ccc"), strings(records));
+    }
+
+    @Test
+    public void testUnpackPlainEvent() throws IOException {
+        ByteBuffer event = ByteBuffer.wrap(bytes("plain event"));
+        assertFalse(EventBatch.isEventBatch(event));
+        assertEquals(Arrays.asList("plain event"), strings(EventBatch.unpack(event)));
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnpackTruncatedBatch() throws IOException {
+        EventBatch batch = new EventBatch();
+        batch.add(bytes("record"));
+        ByteBuffer event = batch.toByteBuffer();
+        event.limit(event.limit() - 1);
+        EventBatch.unpack(event);
+    }
+
+    @Test
+    public void testDeserializationSchema() throws IOException {
+        EventBatchDeserializationSchema<String> schema = new EventBatchDeserializationSchema<>(new SimpleStringSchema());
+
+        EventBatch batch = new EventBatch();
+        batch.add(bytes("a"));
+        batch.add(bytes("b"));
+        List<String> records = new ArrayList<>();
+        schema.deserialize(batch.toByteBuffer(), new ListCollector<>(records));
+        assertEquals(Arrays.asList("a", "b"), records);
+
+        // plain events are read as they are
+        assertEquals("plain event", schema.deserialize(bytes("plain event")));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> strings(List<ByteBuffer> records) {
+        List<String> values = new ArrayList<>();
+        for (ByteBuffer record : records) {
+            byte[] bytes = new byte[record.remaining()];
+            record.get(bytes);
+            values.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return values;
+    }
+}
@@ -58,6 +58,25 @@ public class PravegaSerializationTest {
         assertEquals(input, deserialized);
     }
 
+    @Test
+    public void testByteBufferDeserialization() throws IOException {
+        final FastSerializer pravegaSerializer = new FastSerializer();
+        final ByteBufferDeserializationSchema<Long> deserializer =
+                new PravegaDeserializationSchema<>(Long.class, pravegaSerializer);
+
+        // the event is a slice in the middle of a larger buffer, as handed out by the segment reader
+        final ByteBuffer buffer = ByteBuffer.allocate(24);
+        buffer.putLong(1L).putLong(42L).putLong(3L);
+        buffer.position(8);
+        buffer.limit(16);
+        final ByteBuffer slice = buffer.slice();
+
+        PravegaCollector<Long> pravegaCollector = new PravegaCollector<>(deserializer);
+        deserializer.deserialize(slice, pravegaCollector);
+        assertEquals(1, pravegaCollector.getRecords().size());
+        assertEquals(Long.valueOf(42L), pravegaCollector.getRecords().poll());
+    }
+
     @Test
     public void testNotFullyWrappingByteBuffer() throws IOException {
         for (boolean direct : new boolean[] { true, false} ) {
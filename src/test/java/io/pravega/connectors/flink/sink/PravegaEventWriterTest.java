@@ -22,12 +22,16 @@ import io.pravega.client.stream.Stream;
 import io.pravega.common.function.RunnableWithException;
 import io.pravega.connectors.flink.PravegaEventRouter;
 import io.pravega.connectors.flink.PravegaWriterMode;
-import io.pravega.connectors.flink.utils.DirectExecutorService;
+import io.pravega.connectors.flink.serialization.EventBatch;
+import io.pravega.connectors.flink.serialization.FlinkSerializer;
+import io.pravega.connectors.flink.serialization.SerializationBufferPool;
+import io.pravega.connectors.flink.utils.BufferReusingIntegerSerializationSchema;
 import io.pravega.connectors.flink.utils.IntegerSerializationSchema;
 import org.apache.flink.api.common.serialization.SerializationSchema;
 import org.apache.flink.api.common.typeutils.base.IntSerializer;
 import org.apache.flink.api.connector.sink.Sink;
 import org.apache.flink.api.connector.sink.SinkWriter;
+import org.apache.flink.core.memory.DataOutputSerializer;
 import org.apache.flink.streaming.runtime.operators.sink.SinkOperatorFactory;
 import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
 import org.apache.flink.streaming.util.OneInputStreamOperatorTestHarness;
@@ -38,6 +42,8 @@ import org.mockito.Mockito;
 import javax.annotation.Nullable;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
@@ -45,9 +51,11 @@ import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
 
 import static io.pravega.connectors.flink.sink.PravegaSinkBuilder.DEFAULT_TXN_LEASE_RENEWAL_PERIOD_MILLIS;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -72,7 +80,6 @@ public class PravegaEventWriterTest {
         Assert.assertEquals(FIXED_EVENT_ROUTER.getRoutingKey(1), writer.getEventRouter().getRoutingKey(1));
         Assert.assertEquals(PravegaWriterMode.ATLEAST_ONCE, writer.getWriterMode());
         Assert.assertNotNull(writer.getInternalWriter());
-        Assert.assertNotNull(writer.executorService);
         Assert.assertNotNull(writer.clientFactory);
     }
 
@@ -93,6 +100,39 @@ public class PravegaEventWriterTest {
         }
     }
 
+    /**
+     * Tests that the internal serializer serializes into the pooled buffers.
+     */
+    @Test
+    public void testFlinkSerializerWithBufferPool() {
+        BufferReusingIntegerSerializationSchema schema = new BufferReusingIntegerSerializationSchema();
+        SerializationBufferPool bufferPool = new SerializationBufferPool(1);
+        FlinkSerializer<Integer> serializer = new FlinkSerializer<>(schema, bufferPool);
+
+        Assert.assertEquals(ByteBuffer.wrap(schema.serialize(42)), serializer.serialize(42));
+        Assert.assertEquals(Integer.BYTES, serializer.getLastSerializedSize());
+        DataOutputSerializer first = serializer.takeLastBuffer();
+        Assert.assertNotNull(first);
+        Assert.assertNull(serializer.takeLastBuffer());
+
+        // the buffer backs the event until it is released
+        Assert.assertEquals(ByteBuffer.wrap(schema.serialize(43)), serializer.serialize(43));
+        DataOutputSerializer second = serializer.takeLastBuffer();
+        Assert.assertNotSame(first, second);
+
+        serializer.releaseBuffer(first);
+        serializer.releaseBuffer(second);
+        Assert.assertEquals(1, bufferPool.getPooledBuffers());
+        Assert.assertEquals(ByteBuffer.wrap(schema.serialize(44)), serializer.serialize(44));
+        Assert.assertSame(first, serializer.takeLastBuffer());
+        Assert.assertEquals(0, bufferPool.getPooledBuffers());
+
+        // the schemas which do not reuse buffers are serialized as usual
+        FlinkSerializer<Integer> plainSerializer = new FlinkSerializer<>(new IntegerSerializationSchema(), bufferPool);
+        Assert.assertEquals(ByteBuffer.wrap(schema.serialize(42)), plainSerializer.serialize(42));
+        Assert.assertNull(plainSerializer.takeLastBuffer());
+    }
+
     /**
      * Tests the {@code processElement} method.
      * See also: {@code testNonTransactionalWriterProcessElementAccounting}, {@code testNonTransactionalWriterProcessElementErrorHandling}
@@ -117,6 +157,34 @@ public class PravegaEventWriterTest {
         }
     }
 
+    /**
+     * Tests that the watermark is noted once it advances, not for every event.
+     */
+    @Test
+    public void testNonTransactionalWriterWatermark() throws Exception {
+        final TestablePravegaEventWriter<Integer> writer = new TestablePravegaEventWriter<>(
+                new IntegerSerializationSchema(), true);
+        final EventStreamWriter<Integer> eventStreamWriter = writer.getInternalWriter();
+        when(eventStreamWriter.writeEvent(anyString(), anyObject())).thenReturn(CompletableFuture.completedFuture(null));
+
+        try (OneInputStreamOperatorTestHarness<Integer, byte[]> testHarness =
+                     createTestHarness(writer)) {
+            testHarness.open();
+
+            testHarness.processElement(new StreamRecord<>(1, 1L));
+            verify(eventStreamWriter, never()).noteTime(anyLong());
+
+            testHarness.processWatermark(100L);
+            testHarness.processElement(new StreamRecord<>(2, 101L));
+            testHarness.processElement(new StreamRecord<>(3, 102L));
+            verify(eventStreamWriter, times(1)).noteTime(100L);
+
+            testHarness.processWatermark(200L);
+            testHarness.processElement(new StreamRecord<>(4, 201L));
+            verify(eventStreamWriter, times(1)).noteTime(200L);
+        }
+    }
+
     /**
      * Tests the accounting of pending writes.
      */
@@ -135,24 +203,24 @@ public class PravegaEventWriterTest {
             when(eventStreamWriter.writeEvent(anyString(), anyObject())).thenReturn(e1Future);
             StreamRecord<Integer> e1 = new StreamRecord<>(1, 1L);
             testHarness.processElement(e1);
-            Assert.assertEquals(1, writer.pendingWritesCount.get());
+            Assert.assertEquals(1, writer.pendingWrites.getPendingWrites());
 
             CompletableFuture<Void> e2Future = new CompletableFuture<>();
             when(eventStreamWriter.writeEvent(anyString(), anyObject())).thenReturn(e2Future);
             StreamRecord<Integer> e2 = new StreamRecord<>(2, 2L);
             testHarness.processElement(e2);
-            Assert.assertEquals(2, writer.pendingWritesCount.get());
+            Assert.assertEquals(2, writer.pendingWrites.getPendingWrites());
 
             CompletableFuture<Void> e3Future = new CompletableFuture<>();
             when(eventStreamWriter.writeEvent(anyString(), anyObject())).thenReturn(e3Future);
             StreamRecord<Integer> e3 = new StreamRecord<>(3, 3L);
             testHarness.processElement(e3);
-            Assert.assertEquals(3, writer.pendingWritesCount.get());
+            Assert.assertEquals(3, writer.pendingWrites.getPendingWrites());
 
             e1Future.complete(null);
             e2Future.completeExceptionally(new IntentionalRuntimeException());
             e3Future.complete(null);
-            Assert.assertEquals(0, writer.pendingWritesCount.get());
+            Assert.assertEquals(0, writer.pendingWrites.getPendingWrites());
 
             // clear the error for test simplicity
             writer.writeError.set(null);
@@ -193,6 +261,76 @@ public class PravegaEventWriterTest {
         }
     }
 
+    /**
+     * Tests that writes block while the maximum number of writes are in flight.
+     */
+    @Test
+    public void testNonTransactionalWriterInFlightLimit() throws Exception {
+        final TestablePravegaEventWriter<Integer> writer = new TestablePravegaEventWriter<>(
+                new IntegerSerializationSchema(), 1);
+        final EventStreamWriter<Integer> eventStreamWriter = writer.getInternalWriter();
+
+        CompletableFuture<Void> e1Future = new CompletableFuture<>();
+        when(eventStreamWriter.writeEvent(anyString(), anyObject())).thenReturn(e1Future);
+        writer.write(1, null);
+        Assert.assertEquals(1, writer.pendingWrites.getPendingWrites());
+
+        // invoke another write, expecting it to block until the first write is acknowledged
+        CompletableFuture<Void> e2Future = new CompletableFuture<>();
+        when(eventStreamWriter.writeEvent(anyString(), anyObject())).thenReturn(e2Future);
+        Future<Void> writeFuture = runAsync(() -> writer.write(2, null));
+        Thread.sleep(1000);
+        Assert.assertFalse(writeFuture.isDone());
+        Assert.assertEquals(1, writer.pendingWrites.getPendingWrites());
+
+        e1Future.complete(null);
+        writeFuture.get();
+        Assert.assertEquals(1, writer.pendingWrites.getPendingWrites());
+
+        e2Future.complete(null);
+        Assert.assertEquals(0, writer.pendingWrites.getPendingWrites());
+        writer.close();
+    }
+
+    /**
+     * Tests that the events are packed into event batches.
+     */
+    @Test
+    public void testNonTransactionalWriterEventBatching() throws Exception {
+        final Sink.ProcessingTimeService processingTimeService = mock(Sink.ProcessingTimeService.class);
+        when(processingTimeService.getCurrentProcessingTime()).thenReturn(0L);
+        // room for two integers in a batch
+        final TestablePravegaEventWriter<Integer> writer = new TestablePravegaEventWriter<>(
+                new IntegerSerializationSchema(), processingTimeService,
+                EventBatch.HEADER_SIZE + 2 * (EventBatch.RECORD_HEADER_SIZE + Integer.BYTES), 100);
+        final EventStreamWriter<ByteBuffer> batchWriter = writer.getBatchWriter();
+        Assert.assertNull(writer.getInternalWriter());
+
+        final List<ByteBuffer> written = new ArrayList<>();
+        when(batchWriter.writeEvent(anyString(), anyObject())).thenAnswer(i -> {
+            written.add(i.getArgumentAt(1, ByteBuffer.class));
+            return CompletableFuture.completedFuture(null);
+        });
+
+        writer.write(1, null);
+        writer.write(2, null);
+        Assert.assertEquals(1, written.size());
+        writer.write(3, null);
+        Assert.assertEquals(1, written.size());
+        verify(processingTimeService).registerProcessingTimer(Mockito.eq(100L), anyObject());
+
+        // a flush writes the open batch
+        writer.flushAndVerify();
+        Assert.assertEquals(2, written.size());
+        verify(batchWriter).flush();
+        verify(batchWriter, times(2)).writeEvent(Mockito.eq(ROUTING_KEY), anyObject());
+
+        Assert.assertEquals(2, EventBatch.unpack(written.get(0)).size());
+        Assert.assertEquals(1, EventBatch.unpack(written.get(1)).size());
+        Assert.assertEquals(0, writer.pendingWrites.getPendingWrites());
+        writer.close();
+    }
+
     /**
      * Tests the handling of flushes, which occur upon snapshot and close.
      */
@@ -208,16 +346,13 @@ public class PravegaEventWriterTest {
             assert eventStreamWriter != null;
 
             // invoke a flush, expecting it to block on pending writes
-            writer.pendingWritesCount.incrementAndGet();
+            writer.pendingWrites.register(0);
             Future<Void> flushFuture = runAsync(writer::flushAndVerify);
             Thread.sleep(1000);
             Assert.assertFalse(flushFuture.isDone());
 
             // allow the flush to complete
-            synchronized (writer) {
-                writer.pendingWritesCount.decrementAndGet();
-                writer.notify();
-            }
+            writer.pendingWrites.complete(0);
             flushFuture.get();
 
             // invoke another flush following a write error, expecting failure
@@ -252,8 +387,8 @@ public class PravegaEventWriterTest {
                 writer.writeError.set(new IntentionalRuntimeException());
                 Mockito.doThrow(new IntentionalRuntimeException()).when(eventStreamWriter).close();
                 Mockito.doThrow(new IntentionalRuntimeException())
-                        .when(writer.executorService)
-                        .shutdown();
+                        .when(writer.clientFactory)
+                        .close();
             }
         } catch (IOException e) {
             Assert.assertEquals(2, e.getSuppressed().length);
@@ -269,12 +404,43 @@ public class PravegaEventWriterTest {
                     PravegaWriterMode.ATLEAST_ONCE, serializationSchema, event -> ROUTING_KEY);
         }
 
+        public TestablePravegaEventWriter(SerializationSchema<T> serializationSchema, int maxInFlightEvents) {
+            super(mock(Sink.InitContext.class), MOCK_CLIENT_CONFIG, Stream.of(MOCK_SCOPE_NAME, MOCK_STREAM_NAME),
+                    PravegaWriterMode.ATLEAST_ONCE, serializationSchema, event -> ROUTING_KEY,
+                    maxInFlightEvents, Long.MAX_VALUE);
+        }
+
+        public TestablePravegaEventWriter(SerializationSchema<T> serializationSchema, boolean enableWatermark) {
+            super(mock(Sink.InitContext.class), MOCK_CLIENT_CONFIG, Stream.of(MOCK_SCOPE_NAME, MOCK_STREAM_NAME),
+                    PravegaWriterMode.ATLEAST_ONCE, serializationSchema, event -> ROUTING_KEY,
+                    Integer.MAX_VALUE, Long.MAX_VALUE, 0, 0, enableWatermark);
+        }
+
+        public TestablePravegaEventWriter(SerializationSchema<T> serializationSchema,
+                                          Sink.ProcessingTimeService processingTimeService,
+                                          long maxBatchBytes, long maxBatchDelayMillis) {
+            super(mockInitContext(processingTimeService), MOCK_CLIENT_CONFIG, Stream.of(MOCK_SCOPE_NAME, MOCK_STREAM_NAME),
+                    PravegaWriterMode.ATLEAST_ONCE, serializationSchema, event -> ROUTING_KEY,
+                    Integer.MAX_VALUE, Long.MAX_VALUE, maxBatchBytes, maxBatchDelayMillis);
+        }
+
         @Override
         protected EventStreamWriter<T> initializeInternalWriter() {
             clientFactory = mock(EventStreamClientFactory.class);
-            executorService = spy(new DirectExecutorService());
             return mockEventStreamWriter();
         }
+
+        @Override
+        protected EventStreamWriter<ByteBuffer> initializeBatchWriter() {
+            clientFactory = mock(EventStreamClientFactory.class);
+            return mockEventStreamWriter();
+        }
+
+        private static Sink.InitContext mockInitContext(Sink.ProcessingTimeService processingTimeService) {
+            Sink.InitContext context = mock(Sink.InitContext.class);
+            when(context.getProcessingTimeService()).thenReturn(processingTimeService);
+            return context;
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -283,7 +449,7 @@ public class PravegaEventWriterTest {
     }
 
     private PravegaSink<Integer> mockSink(PravegaWriterMode writerMode,
-                                          SinkWriter<Integer, PravegaTransactionState, Void> writer,
+                                          SinkWriter<Integer, PravegaTransactionState, PravegaTransactionState> writer,
                                           @Nullable PravegaCommitter<Integer> committer) throws IOException {
         final PravegaSink<Integer> sink = spy(new PravegaSink<>(false, MOCK_CLIENT_CONFIG,
                 Stream.of(MOCK_SCOPE_NAME, MOCK_STREAM_NAME), DEFAULT_TXN_LEASE_RENEWAL_PERIOD_MILLIS,
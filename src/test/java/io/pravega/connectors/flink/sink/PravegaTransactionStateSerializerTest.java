@@ -17,6 +17,8 @@ package io.pravega.connectors.flink.sink;
 
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 
 import static org.junit.Assert.assertEquals;
@@ -30,6 +32,24 @@ public class PravegaTransactionStateSerializerTest {
         final String transactionId = "00000000-0000-0000-0000-000000000001";
         final PravegaTransactionState transactionState = new PravegaTransactionState(transactionId);
         final byte[] serialized = SERIALIZER.serialize(transactionState);
-        assertEquals(transactionState, SERIALIZER.deserialize(1, serialized));
+        assertEquals(transactionState, SERIALIZER.deserialize(SERIALIZER.getVersion(), serialized));
+    }
+
+    @Test
+    public void testTransactionStateWithWatermarkSerDe() throws IOException {
+        final String transactionId = "00000000-0000-0000-0000-000000000001";
+        final PravegaTransactionState transactionState = new PravegaTransactionState(transactionId, 42L);
+        final byte[] serialized = SERIALIZER.serialize(transactionState);
+        assertEquals(transactionState, SERIALIZER.deserialize(SERIALIZER.getVersion(), serialized));
+    }
+
+    @Test
+    public void testTransactionStateVersion1() throws IOException {
+        final String transactionId = "00000000-0000-0000-0000-000000000001";
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(baos)) {
+            out.writeUTF(transactionId);
+        }
+        assertEquals(new PravegaTransactionState(transactionId), SERIALIZER.deserialize(1, baos.toByteArray()));
     }
 }
@@ -27,6 +27,7 @@ import io.pravega.client.stream.TxnFailedException;
 import io.pravega.connectors.flink.PravegaEventRouter;
 import io.pravega.connectors.flink.PravegaWriterMode;
 import io.pravega.connectors.flink.utils.IntegerSerializationSchema;
+import org.apache.flink.api.common.eventtime.Watermark;
 import org.apache.flink.api.common.serialization.SerializationSchema;
 import org.apache.flink.api.common.typeutils.base.IntSerializer;
 import org.apache.flink.api.connector.sink.Sink;
@@ -40,6 +41,9 @@ import org.mockito.Mockito;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -114,6 +118,77 @@ public class PravegaTransactionWriterTest {
         }
     }
 
+    /**
+     * Tests that a transaction which received no event is kept instead of being committed.
+     */
+    @Test
+    public void testTransactionalWriterSkipsEmptyTransaction() throws Exception {
+        final TestablePravegaTransactionWriter<Integer> writer = new TestablePravegaTransactionWriter<>(
+                new IntegerSerializationSchema());
+        final Transaction<Integer> trans = writer.trans;
+        final String transactionId = writer.getTransactionId();
+
+        Assert.assertTrue(writer.prepareCommit(false).isEmpty());
+        verify(trans, never()).flush();
+        verify(writer.getInternalWriter()).beginTxn();
+        Assert.assertEquals(transactionId, writer.getTransactionId());
+
+        writer.write(1, null);
+        Assert.assertEquals(1, writer.prepareCommit(false).size());
+        verify(trans).flush();
+        writer.close();
+    }
+
+    /**
+     * Tests that the open transaction is kept as the writer state and aborted on recovery.
+     */
+    @Test
+    public void testTransactionalWriterRecovery() throws Exception {
+        final TestablePravegaTransactionWriter<Integer> writer = new TestablePravegaTransactionWriter<>(
+                new IntegerSerializationSchema());
+        final List<PravegaTransactionState> states = writer.snapshotState();
+        Assert.assertEquals(Collections.singletonList(new PravegaTransactionState(writer.getTransactionId())), states);
+
+        final TestablePravegaTransactionWriter<Integer> restoredWriter = new TestablePravegaTransactionWriter<>(
+                new IntegerSerializationSchema(), states);
+        verify(restoredWriter.recoveredTrans).abort();
+        Assert.assertNotEquals(states.get(0).getTransactionId(), restoredWriter.getTransactionId());
+        restoredWriter.close();
+        writer.close();
+    }
+
+    /**
+     * Tests that the transaction is committed with the latest watermark it has seen.
+     */
+    @Test
+    public void testTransactionalWriterWatermark() throws Exception {
+        final TestablePravegaTransactionWriter<Integer> writer = new TestablePravegaTransactionWriter<>(
+                new IntegerSerializationSchema(), true);
+        final SinkWriter.Context context = mock(SinkWriter.Context.class);
+
+        Mockito.doReturn(Long.MIN_VALUE).when(context).currentWatermark();
+        writer.write(1, context);
+        Assert.assertNull(writer.getTransactionWatermark());
+
+        Mockito.doReturn(100L).doReturn(200L).when(context).currentWatermark();
+        writer.write(2, context);
+        writer.write(3, context);
+        final String transactionId = writer.getTransactionId();
+        Assert.assertEquals(Collections.singletonList(new PravegaTransactionState(transactionId, 200L)),
+                writer.prepareCommit(false));
+        Assert.assertEquals(Long.valueOf(200L), writer.getTransactionWatermark());
+
+        // an empty transaction is kept while the watermark has not advanced
+        Assert.assertEquals(Collections.emptyList(), writer.prepareCommit(false));
+
+        // and committed once it has advanced
+        writer.writeWatermark(new Watermark(300L));
+        final String emptyTransactionId = writer.getTransactionId();
+        Assert.assertEquals(Collections.singletonList(new PravegaTransactionState(emptyTransactionId, 300L)),
+                writer.prepareCommit(false));
+        writer.close();
+    }
+
     /**
      * Tests the error handling if it fails at {@code writeEvent}.
      */
@@ -270,6 +345,44 @@ public class PravegaTransactionWriterTest {
         }
     }
 
+    /**
+     * Tests that the transactions are committed concurrently and the transient failures are retried.
+     */
+    @Test
+    public void testCommitterConcurrentCommits() throws Exception {
+        final TestablePravegaCommitter<Integer> committer = new TestablePravegaCommitter<>(
+                new IntegerSerializationSchema());
+        final UUID committedId = UUID.randomUUID();
+        final UUID unavailableId = UUID.randomUUID();
+        final UUID notFoundId = UUID.randomUUID();
+        final Transaction<Integer> committed = mockTransaction();
+        final Transaction<Integer> unavailable = mockTransaction();
+        final Transaction<Integer> notFound = mockTransaction();
+        Mockito.when(committed.checkStatus()).thenReturn(Transaction.Status.OPEN);
+        Mockito.when(unavailable.checkStatus()).thenReturn(Transaction.Status.OPEN);
+        Mockito.doThrow(new StatusRuntimeException(Status.UNAVAILABLE)).when(unavailable).commit();
+        Mockito.when(notFound.checkStatus()).thenThrow(new StatusRuntimeException(Status.NOT_FOUND));
+        Mockito.doReturn(committed).when(committer.transactionalWriter).getTxn(committedId);
+        Mockito.doReturn(unavailable).when(committer.transactionalWriter).getTxn(unavailableId);
+        Mockito.doReturn(notFound).when(committer.transactionalWriter).getTxn(notFoundId);
+
+        final PravegaTransactionState toRetry = new PravegaTransactionState(unavailableId.toString());
+        final List<PravegaTransactionState> retried = committer.commit(Arrays.asList(
+                new PravegaTransactionState(committedId.toString()),
+                toRetry,
+                new PravegaTransactionState(notFoundId.toString())));
+
+        verify(committed).commit();
+        verify(notFound, never()).commit();
+        // only the transient failure is handed back for a retry
+        Assert.assertEquals(Collections.singletonList(toRetry), retried);
+
+        // the retry succeeds once the transaction is committed
+        Mockito.when(unavailable.checkStatus()).thenReturn(Transaction.Status.COMMITTED);
+        Assert.assertTrue(committer.commit(Collections.singletonList(toRetry)).isEmpty());
+        committer.close();
+    }
+
     /**
      * Tests the {@code close} method.
      */
@@ -301,6 +414,7 @@ public class PravegaTransactionWriterTest {
 
     public static class TestablePravegaTransactionWriter<T> extends PravegaTransactionWriter<T> {
         Transaction<T> trans;  // the mocked transaction that should replace the PravegaTransactionWriter#transaction
+        Transaction<T> recoveredTrans;  // the mocked transaction returned for the recovered transaction ids
         UUID txnId;
 
         public TestablePravegaTransactionWriter(SerializationSchema<T> serializationSchema) {
@@ -308,6 +422,19 @@ public class PravegaTransactionWriterTest {
                     DEFAULT_TXN_LEASE_RENEWAL_PERIOD_MILLIS, serializationSchema, event -> ROUTING_KEY);
         }
 
+        public TestablePravegaTransactionWriter(SerializationSchema<T> serializationSchema,
+                                                List<PravegaTransactionState> recoveredStates) {
+            super(mock(Sink.InitContext.class), MOCK_CLIENT_CONFIG, Stream.of(MOCK_SCOPE_NAME, MOCK_STREAM_NAME),
+                    DEFAULT_TXN_LEASE_RENEWAL_PERIOD_MILLIS, serializationSchema, event -> ROUTING_KEY,
+                    0, recoveredStates);
+        }
+
+        public TestablePravegaTransactionWriter(SerializationSchema<T> serializationSchema, boolean enableWatermark) {
+            super(mock(Sink.InitContext.class), MOCK_CLIENT_CONFIG, Stream.of(MOCK_SCOPE_NAME, MOCK_STREAM_NAME),
+                    DEFAULT_TXN_LEASE_RENEWAL_PERIOD_MILLIS, serializationSchema, event -> ROUTING_KEY,
+                    0, Collections.emptyList(), enableWatermark);
+        }
+
         @Override
         protected TransactionalEventStreamWriter<T> initializeInternalWriter() {
             trans = mockTransaction();
@@ -317,6 +444,9 @@ public class PravegaTransactionWriterTest {
             Mockito.doReturn(txnId).when(trans).getTxnId();
             Mockito.doReturn(trans).when(pravegaTxnWriter).beginTxn();
             Mockito.doReturn(Transaction.Status.OPEN).when(trans).checkStatus();
+            recoveredTrans = mockTransaction();
+            Mockito.doReturn(recoveredTrans).when(pravegaTxnWriter).getTxn(any(UUID.class));
+            Mockito.doReturn(Transaction.Status.OPEN).when(recoveredTrans).checkStatus();
 
             clientFactory = mock(EventStreamClientFactory.class);
 
@@ -347,7 +477,7 @@ public class PravegaTransactionWriterTest {
     }
 
     private PravegaSink<Integer> mockSink(PravegaWriterMode writerMode,
-                                          SinkWriter<Integer, PravegaTransactionState, Void> writer,
+                                          SinkWriter<Integer, PravegaTransactionState, PravegaTransactionState> writer,
                                           @Nullable PravegaCommitter<Integer> committer) throws IOException {
         final PravegaSink<Integer> sink = spy(new PravegaSink<>(false, MOCK_CLIENT_CONFIG,
                 Stream.of(MOCK_SCOPE_NAME, MOCK_STREAM_NAME), DEFAULT_TXN_LEASE_RENEWAL_PERIOD_MILLIS,
@@ -0,0 +1,153 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink.source;
+
+import io.pravega.client.ClientConfig;
+import io.pravega.client.stream.EventRead;
+import io.pravega.client.stream.EventStreamReader;
+import io.pravega.connectors.flink.source.reader.PravegaSourceReader;
+import io.pravega.connectors.flink.source.split.PravegaSplit;
+import io.pravega.connectors.flink.utils.IntegerDeserializationSchema;
+import org.apache.flink.api.common.time.Time;
+import org.apache.flink.api.connector.source.ReaderOutput;
+import org.apache.flink.core.io.InputStatus;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PravegaSourceReaderTest {
+
+    private static final ClientConfig MOCK_CLIENT_CONFIG = ClientConfig.builder().build();
+    private static final String SCOPE_NAME = "scope";
+    private static final String READER_GROUP_NAME = "flinkreadergroup";
+    private static final Time EVENT_READ_TIMEOUT = Time.milliseconds(10);
+
+    /**
+     * Tests that the checkpoint is triggered after the events preceding the Pravega checkpoint
+     * and before the events following it.
+     */
+    @Test
+    public void testCheckpointIsTriggeredInOrder() throws Exception {
+        final EventStreamReader<ByteBuffer> pravegaReader = mockEventStreamReader();
+        when(pravegaReader.readNextEvent(anyLong())).thenReturn(
+                eventRead(1), checkpointRead(7L), eventRead(2), emptyRead(false));
+
+        final TestablePravegaSourceReader reader = new TestablePravegaSourceReader(pravegaReader);
+        final ReaderOutput<Integer> output = mockReaderOutput();
+        reader.addSplits(Collections.singletonList(new PravegaSplit(READER_GROUP_NAME, 0)));
+
+        assertEquals(InputStatus.MORE_AVAILABLE, pollNextAvailable(reader, output));
+        verify(output).collect(1);
+        assertFalse(reader.shouldTriggerCheckpoint().isPresent());
+
+        assertEquals(InputStatus.NOTHING_AVAILABLE, pollNextAvailable(reader, output));
+        verify(output, never()).collect(2);
+        assertEquals(Optional.of(7L), reader.shouldTriggerCheckpoint());
+        assertFalse(reader.shouldTriggerCheckpoint().isPresent());
+
+        assertEquals(InputStatus.MORE_AVAILABLE, pollNextAvailable(reader, output));
+        verify(output).collect(2);
+
+        reader.close();
+        verify(pravegaReader).close();
+    }
+
+    /**
+     * Tests that a bounded reader ends once the reader group has read all the events.
+     */
+    @Test
+    public void testBoundedRead() throws Exception {
+        final EventStreamReader<ByteBuffer> pravegaReader = mockEventStreamReader();
+        when(pravegaReader.readNextEvent(anyLong())).thenReturn(eventRead(1), emptyRead(true));
+
+        final TestablePravegaSourceReader reader = new TestablePravegaSourceReader(pravegaReader);
+        final ReaderOutput<Integer> output = mockReaderOutput();
+        reader.addSplits(Collections.singletonList(new PravegaSplit(READER_GROUP_NAME, 0)));
+        reader.notifyNoMoreSplits();
+
+        assertEquals(InputStatus.MORE_AVAILABLE, pollNextAvailable(reader, output));
+        verify(output).collect(1);
+        assertEquals(InputStatus.END_OF_INPUT, pollNextAvailable(reader, output));
+        verify(pravegaReader, timeout(1000)).close();
+        reader.close();
+    }
+
+    private static InputStatus pollNextAvailable(PravegaSourceReader<Integer> reader, ReaderOutput<Integer> output) throws Exception {
+        reader.isAvailable().get(10, TimeUnit.SECONDS);
+        return reader.pollNext(output);
+    }
+
+    private static EventRead<ByteBuffer> eventRead(int value) {
+        EventRead<ByteBuffer> eventRead = mockEventRead();
+        when(eventRead.getEvent()).thenReturn(ByteBuffer.allocate(4).putInt(0, value));
+        return eventRead;
+    }
+
+    private static EventRead<ByteBuffer> checkpointRead(long checkpointId) {
+        EventRead<ByteBuffer> eventRead = mockEventRead();
+        when(eventRead.isCheckpoint()).thenReturn(true);
+        when(eventRead.getCheckpointName()).thenReturn("PVG-CHK-" + checkpointId);
+        return eventRead;
+    }
+
+    private static EventRead<ByteBuffer> emptyRead(boolean readCompleted) {
+        EventRead<ByteBuffer> eventRead = mockEventRead();
+        when(eventRead.isReadCompleted()).thenReturn(readCompleted);
+        return eventRead;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static EventRead<ByteBuffer> mockEventRead() {
+        return mock(EventRead.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static EventStreamReader<ByteBuffer> mockEventStreamReader() {
+        return mock(EventStreamReader.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ReaderOutput<Integer> mockReaderOutput() {
+        return mock(ReaderOutput.class);
+    }
+
+    private static class TestablePravegaSourceReader extends PravegaSourceReader<Integer> {
+
+        private final EventStreamReader<ByteBuffer> pravegaReader;
+
+        TestablePravegaSourceReader(EventStreamReader<ByteBuffer> pravegaReader) {
+            super(MOCK_CLIENT_CONFIG, SCOPE_NAME, new IntegerDeserializationSchema(), EVENT_READ_TIMEOUT);
+            this.pravegaReader = pravegaReader;
+        }
+
+        @Override
+        protected EventStreamReader<ByteBuffer> createEventStreamReader(String readerId) {
+            return pravegaReader;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink.source;
+
+import io.pravega.client.ClientConfig;
+import io.pravega.client.admin.ReaderGroupManager;
+import io.pravega.client.stream.Checkpoint;
+import io.pravega.client.stream.ReaderGroup;
+import io.pravega.client.stream.ReaderGroupConfig;
+import io.pravega.connectors.flink.source.enumerator.PravegaSplitEnumerator;
+import io.pravega.connectors.flink.source.split.PravegaSplit;
+import io.pravega.connectors.flink.util.FlinkPravegaUtils;
+import org.apache.flink.api.common.time.Time;
+import org.apache.flink.api.connector.source.SplitsAssignment;
+import org.apache.flink.api.connector.source.mocks.MockSplitEnumeratorContext;
+import org.apache.flink.util.FlinkException;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PravegaSplitEnumeratorTest {
+
+    private static final ClientConfig MOCK_CLIENT_CONFIG = ClientConfig.builder().build();
+    private static final String SCOPE_NAME = "scope";
+    private static final String READER_GROUP_NAME = "flinkreadergroup";
+    private static final ReaderGroupConfig READER_GROUP_CONFIG =
+            ReaderGroupConfig.builder().stream(SCOPE_NAME + "/stream").build();
+    private static final Time CHECKPOINT_INITIATE_TIMEOUT = Time.milliseconds(100);
+
+    /**
+     * Tests that each registered reader is assigned its own split once.
+     */
+    @Test
+    public void testAddReader() throws Exception {
+        final ReaderGroup readerGroup = mock(ReaderGroup.class);
+        try (MockSplitEnumeratorContext<PravegaSplit> context = new MockSplitEnumeratorContext<>(2);
+             PravegaSplitEnumerator enumerator = createEnumerator(context, readerGroup)) {
+            enumerator.start();
+            verify(readerGroup).resetReaderGroup(READER_GROUP_CONFIG);
+
+            enumerator.addReader(0);
+            enumerator.addReader(1);
+            enumerator.addReader(0);
+
+            final List<SplitsAssignment<PravegaSplit>> assignments = context.getSplitsAssignmentSequence();
+            assertEquals(2, assignments.size());
+            assertEquals(Collections.singletonList(new PravegaSplit(READER_GROUP_NAME, 0)),
+                    assignments.get(0).assignment().get(0));
+            assertEquals(Collections.singletonList(new PravegaSplit(READER_GROUP_NAME, 1)),
+                    assignments.get(1).assignment().get(1));
+        }
+        verify(readerGroup).close();
+    }
+
+    /**
+     * Tests that the reader of a failed subtask is taken offline and that its split is assigned again
+     * once the subtask registers its new reader.
+     */
+    @Test
+    public void testAddSplitsBack() throws Exception {
+        final ReaderGroup readerGroup = mock(ReaderGroup.class);
+        try (MockSplitEnumeratorContext<PravegaSplit> context = new MockSplitEnumeratorContext<>(1);
+             PravegaSplitEnumerator enumerator = createEnumerator(context, readerGroup)) {
+            enumerator.start();
+            enumerator.addReader(0);
+
+            final PravegaSplit split = new PravegaSplit(READER_GROUP_NAME, 0);
+            enumerator.addSplitsBack(Collections.singletonList(split), 0);
+            verify(readerGroup).readerOffline(split.splitId(), null);
+
+            enumerator.addReader(0);
+            final List<SplitsAssignment<PravegaSplit>> assignments = context.getSplitsAssignmentSequence();
+            assertEquals(2, assignments.size());
+            assertEquals(Collections.singletonList(split), assignments.get(1).assignment().get(0));
+        }
+    }
+
+    /**
+     * Tests that the state of the enumerator is the Pravega checkpoint initiated on the reader group.
+     */
+    @Test
+    public void testSnapshotState() throws Exception {
+        final ReaderGroup readerGroup = mock(ReaderGroup.class);
+        final Checkpoint checkpoint = mock(Checkpoint.class);
+        when(readerGroup.initiateCheckpoint(eq(FlinkPravegaUtils.createCheckpointName(1L)), any(ScheduledExecutorService.class)))
+                .thenReturn(CompletableFuture.completedFuture(checkpoint));
+
+        try (MockSplitEnumeratorContext<PravegaSplit> context = new MockSplitEnumeratorContext<>(1);
+             PravegaSplitEnumerator enumerator = createEnumerator(context, readerGroup)) {
+            enumerator.start();
+            assertSame(checkpoint, enumerator.snapshotState(1L));
+        }
+    }
+
+    /**
+     * Tests that a Pravega checkpoint which is not completed in time fails the snapshot and is cancelled.
+     */
+    @Test
+    public void testSnapshotStateTimeout() throws Exception {
+        final ReaderGroup readerGroup = mock(ReaderGroup.class);
+        final CompletableFuture<Checkpoint> checkpointResult = new CompletableFuture<>();
+        when(readerGroup.initiateCheckpoint(eq(FlinkPravegaUtils.createCheckpointName(1L)), any(ScheduledExecutorService.class)))
+                .thenReturn(checkpointResult);
+
+        try (MockSplitEnumeratorContext<PravegaSplit> context = new MockSplitEnumeratorContext<>(1);
+             PravegaSplitEnumerator enumerator = createEnumerator(context, readerGroup)) {
+            enumerator.start();
+            try {
+                enumerator.snapshotState(1L);
+                fail("expected a FlinkException");
+            } catch (FlinkException e) {
+                // expected
+            }
+            assertTrue(checkpointResult.isCancelled());
+        }
+    }
+
+    private static PravegaSplitEnumerator createEnumerator(MockSplitEnumeratorContext<PravegaSplit> context,
+                                                           ReaderGroup readerGroup) {
+        final ReaderGroupManager readerGroupManager = mock(ReaderGroupManager.class);
+        when(readerGroupManager.getReaderGroup(READER_GROUP_NAME)).thenReturn(readerGroup);
+        return new PravegaSplitEnumerator(context, SCOPE_NAME, READER_GROUP_NAME, MOCK_CLIENT_CONFIG,
+                READER_GROUP_CONFIG, CHECKPOINT_INITIATE_TIMEOUT, null, false) {
+            @Override
+            protected ReaderGroupManager createReaderGroupManager() {
+                return readerGroupManager;
+            }
+        };
+    }
+}
@@ -0,0 +1,44 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink.source;
+
+import io.pravega.connectors.flink.source.split.PravegaSplit;
+import io.pravega.connectors.flink.source.split.PravegaSplitSerializer;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+
+public class PravegaSplitSerializerTest {
+
+    private static final PravegaSplitSerializer SERIALIZER = new PravegaSplitSerializer();
+
+    @Test
+    public void testSplitSerDe() throws IOException {
+        final PravegaSplit split = new PravegaSplit("flinkreadergroup", 3);
+        final byte[] serialized = SERIALIZER.serialize(split);
+        final PravegaSplit deserialized = SERIALIZER.deserialize(SERIALIZER.getVersion(), serialized);
+        assertEquals(split, deserialized);
+        assertEquals("flinkreadergroup-3", deserialized.splitId());
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidVersion() throws IOException {
+        final byte[] serialized = SERIALIZER.serialize(new PravegaSplit("flinkreadergroup", 3));
+        SERIALIZER.deserialize(SERIALIZER.getVersion() + 1, serialized);
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink.util;
+
+import io.pravega.client.ClientConfig;
+import io.pravega.client.EventStreamClientFactory;
+import org.junit.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class ClientFactoryCacheTest {
+
+    @Test
+    public void testSharedClientFactory() {
+        ClientConfig clientConfig = ClientConfig.builder().controllerURI(URI.create("tcp://shared:9090")).build();
+        List<EventStreamClientFactory> created = new ArrayList<>();
+
+        EventStreamClientFactory first = getClientFactory("scope", clientConfig, created);
+        EventStreamClientFactory second = getClientFactory("scope", clientConfig, created);
+        assertEquals(1, created.size());
+        assertEquals(2, ClientFactoryCache.getReferenceCount("scope", clientConfig));
+
+        first.close();
+        // closing a handle twice releases its reference once
+        first.close();
+        verify(created.get(0), never()).close();
+        assertEquals(1, ClientFactoryCache.getReferenceCount("scope", clientConfig));
+
+        second.close();
+        verify(created.get(0), times(1)).close();
+        assertEquals(0, ClientFactoryCache.getReferenceCount("scope", clientConfig));
+
+        // a new client factory is created once the shared one is closed
+        getClientFactory("scope", clientConfig, created).close();
+        assertEquals(2, created.size());
+    }
+
+    @Test
+    public void testClientFactoryPerScopeAndConfig() {
+        ClientConfig clientConfig = ClientConfig.builder().controllerURI(URI.create("tcp://first:9090")).build();
+        ClientConfig otherConfig = ClientConfig.builder().controllerURI(URI.create("tcp://second:9090")).build();
+        List<EventStreamClientFactory> created = new ArrayList<>();
+
+        EventStreamClientFactory first = getClientFactory("scope", clientConfig, created);
+        EventStreamClientFactory otherScope = getClientFactory("otherScope", clientConfig, created);
+        EventStreamClientFactory otherController = getClientFactory("scope", otherConfig, created);
+        assertEquals(3, created.size());
+
+        first.close();
+        otherScope.close();
+        otherController.close();
+        for (EventStreamClientFactory clientFactory : created) {
+            verify(clientFactory).close();
+        }
+    }
+
+    private static EventStreamClientFactory getClientFactory(String scope, ClientConfig clientConfig,
+                                                             List<EventStreamClientFactory> created) {
+        return ClientFactoryCache.getEventStreamClientFactory(scope, clientConfig, (s, c) -> {
+            EventStreamClientFactory clientFactory = mock(EventStreamClientFactory.class);
+            created.add(clientFactory);
+            return clientFactory;
+        });
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink.util;
+
+import io.pravega.connectors.flink.serialization.EventBatch;
+import org.apache.flink.api.common.serialization.SimpleStringSchema;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EventBatcherTest {
+
+    private final List<String> routingKeys = new ArrayList<>();
+    private final List<List<String>> batches = new ArrayList<>();
+
+    @Test
+    public void testBatchPerRoutingKey() throws Exception {
+        EventBatcher<String> batcher = createBatcher(1024, 100);
+        batcher.add("a1", 0);
+        batcher.add("b1", 10);
+        batcher.add("a2", 20);
+        assertTrue(batches.isEmpty());
+        assertEquals(100, batcher.getNextFlushTime());
+
+        batcher.flush();
+        assertTrue(batcher.isEmpty());
+        assertEquals(Long.MAX_VALUE, batcher.getNextFlushTime());
+        assertEquals(Arrays.asList("a", "b"), routingKeys);
+        assertEquals(Arrays.asList(Arrays.asList("a1", "a2"), Arrays.asList("b1")), batches);
+    }
+
+    @Test
+    public void testFlushFullBatch() throws Exception {
+        // room for the header and two records of 2 bytes
+        EventBatcher<String> batcher = createBatcher(EventBatch.HEADER_SIZE + 2 * (EventBatch.RECORD_HEADER_SIZE + 2), 100);
+        batcher.add("a1", 0);
+        assertTrue(batches.isEmpty());
+        batcher.add("a2", 0);
+        assertEquals(Arrays.asList(Arrays.asList("a1", "a2")), batches);
+        assertTrue(batcher.isEmpty());
+
+        // a record which does not fit flushes the open batch first
+        batcher.add("a3", 0);
+        batcher.add("a44", 0);
+        assertEquals(Arrays.asList(Arrays.asList("a1", "a2"), Arrays.asList("a3")), batches);
+        assertFalse(batcher.isEmpty());
+    }
+
+    @Test
+    public void testFlushExpiredBatches() throws Exception {
+        EventBatcher<String> batcher = createBatcher(1024, 100);
+        batcher.add("a1", 0);
+        batcher.add("b1", 50);
+
+        batcher.flushExpired(99);
+        assertTrue(batches.isEmpty());
+
+        batcher.flushExpired(100);
+        assertEquals(Arrays.asList(Arrays.asList("a1")), batches);
+        assertEquals(150, batcher.getNextFlushTime());
+
+        // adding an event also writes the expired batches
+        batcher.add("a2", 160);
+        assertEquals(Arrays.asList(Arrays.asList("a1"), Arrays.asList("b1")), batches);
+        assertEquals(260, batcher.getNextFlushTime());
+    }
+
+    private EventBatcher<String> createBatcher(long maxBatchBytes, long maxBatchDelayMillis) {
+        return new EventBatcher<>(new SimpleStringSchema(), event -> event.substring(0, 1),
+                maxBatchBytes, maxBatchDelayMillis, this::write);
+    }
+
+    private void write(String routingKey, ByteBuffer batch) {
+        routingKeys.add(routingKey);
+        List<String> records = new ArrayList<>();
+        try {
+            for (ByteBuffer record : EventBatch.unpack(batch)) {
+                byte[] bytes = new byte[record.remaining()];
+                record.get(bytes);
+                records.add(new String(bytes, StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        batches.add(records);
+    }
+}
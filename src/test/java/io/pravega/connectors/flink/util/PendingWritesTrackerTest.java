@@ -0,0 +1,88 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink.util;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class PendingWritesTrackerTest {
+
+    @Test
+    public void testAccounting() {
+        PendingWritesTracker tracker = new PendingWritesTracker();
+        tracker.register(10);
+        tracker.register(20);
+        assertEquals(2, tracker.getPendingWrites());
+        assertEquals(30, tracker.getPendingBytes());
+
+        tracker.complete(10);
+        assertEquals(1, tracker.getPendingWrites());
+        assertEquals(20, tracker.getPendingBytes());
+    }
+
+    @Test
+    public void testAwaitBelow() throws Exception {
+        PendingWritesTracker tracker = new PendingWritesTracker();
+        tracker.register(10);
+        tracker.register(20);
+
+        // returns immediately while below the limits
+        tracker.awaitBelow(3, 31);
+
+        CompletableFuture<Void> waiting = CompletableFuture.runAsync(() -> {
+            try {
+                tracker.awaitBelow(2, 15);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        Thread.sleep(500);
+        assertFalse(waiting.isDone());
+
+        // the count is below its limit, but not the size yet
+        tracker.complete(10);
+        Thread.sleep(500);
+        assertFalse(waiting.isDone());
+
+        tracker.complete(20);
+        waiting.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testAwaitCompletion() throws Exception {
+        PendingWritesTracker tracker = new PendingWritesTracker();
+        tracker.register(0);
+
+        CompletableFuture<Void> waiting = CompletableFuture.runAsync(() -> {
+            try {
+                tracker.awaitCompletion();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        Thread.sleep(500);
+        assertFalse(waiting.isDone());
+
+        tracker.complete(0);
+        waiting.get(10, TimeUnit.SECONDS);
+        assertEquals(0, tracker.getPendingWrites());
+    }
+}
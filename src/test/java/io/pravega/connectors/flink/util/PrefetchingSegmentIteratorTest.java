@@ -0,0 +1,123 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink.util;
+
+import io.pravega.client.batch.SegmentIterator;
+import io.pravega.client.batch.SegmentRange;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PrefetchingSegmentIteratorTest {
+
+    @Test
+    public void testReadSegmentRanges() {
+        SegmentRange first = mock(SegmentRange.class);
+        SegmentRange second = mock(SegmentRange.class);
+        Map<SegmentRange, SegmentIterator<Integer>> iterators = new HashMap<>();
+        iterators.put(first, mockSegmentIterator(1, 2, 3));
+        iterators.put(second, mockSegmentIterator(4, 5));
+
+        // the buffer is smaller than the segment ranges, so the fetcher waits for the events to be taken
+        try (PrefetchingSegmentIterator<Integer> iterator =
+                     new PrefetchingSegmentIterator<>(Arrays.asList(first, second), iterators::get, 2)) {
+            List<Integer> events = new ArrayList<>();
+            while (iterator.hasNext()) {
+                int event = iterator.next();
+                events.add(event);
+                assertEquals(event * 10L, iterator.getOffset());
+            }
+            assertEquals(Arrays.asList(1, 2, 3, 4, 5), events);
+            assertFalse(iterator.hasNext());
+            try {
+                iterator.next();
+                fail();
+            } catch (NoSuchElementException e) {
+                // all the events were read
+            }
+        }
+        verify(iterators.get(first)).close();
+        verify(iterators.get(second)).close();
+    }
+
+    @Test
+    public void testReadFailure() {
+        SegmentRange range = mock(SegmentRange.class);
+        SegmentIterator<Integer> segmentIterator = mockSegmentIterator(1);
+        IllegalStateException failure = new IllegalStateException("intentional");
+        when(segmentIterator.hasNext()).thenReturn(true).thenThrow(failure);
+
+        try (PrefetchingSegmentIterator<Integer> iterator =
+                     new PrefetchingSegmentIterator<>(Arrays.asList(range), r -> segmentIterator, 10)) {
+            // the events read before the failure are returned first
+            assertTrue(iterator.hasNext());
+            assertEquals(Integer.valueOf(1), iterator.next());
+            try {
+                iterator.hasNext();
+                fail();
+            } catch (IllegalStateException e) {
+                assertSame(failure, e);
+            }
+        }
+        verify(segmentIterator).close();
+    }
+
+    @Test
+    public void testCloseWhileReadingAhead() {
+        SegmentRange range = mock(SegmentRange.class);
+        SegmentIterator<Integer> segmentIterator = mockSegmentIterator(1, 2, 3);
+
+        PrefetchingSegmentIterator<Integer> iterator =
+                new PrefetchingSegmentIterator<>(Arrays.asList(range), r -> segmentIterator, 1);
+        // the first event fills the buffer, and the fetcher waits to put the second one
+        verify(segmentIterator, timeout(10000).times(2)).next();
+        iterator.close();
+        verify(segmentIterator).close();
+        verify(segmentIterator, times(2)).next();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SegmentIterator<Integer> mockSegmentIterator(Integer first, Integer... others) {
+        SegmentIterator<Integer> iterator = mock(SegmentIterator.class);
+        Boolean[] hasNext = new Boolean[others.length + 1];
+        Long[] offsets = new Long[others.length];
+        for (int i = 0; i < others.length; i++) {
+            hasNext[i] = Boolean.TRUE;
+            offsets[i] = others[i] * 10L;
+        }
+        hasNext[others.length] = Boolean.FALSE;
+        when(iterator.hasNext()).thenReturn(true, hasNext);
+        when(iterator.next()).thenReturn(first, others);
+        when(iterator.getOffset()).thenReturn(first * 10L, offsets);
+        return iterator;
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink.util;
+
+import io.pravega.client.BatchClientFactory;
+import io.pravega.client.batch.SegmentIterator;
+import io.pravega.client.batch.SegmentRange;
+import io.pravega.client.batch.StreamSegmentsIterator;
+import io.pravega.client.stream.Stream;
+import io.pravega.client.stream.StreamCut;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StreamStatisticsTest {
+
+    private static final List<StreamWithBoundaries> STREAMS = Collections.singletonList(
+            StreamWithBoundaries.of(Stream.of("scope", "stream"), StreamCut.UNBOUNDED, StreamCut.UNBOUNDED));
+
+    @Test
+    public void testComputeStatistics() {
+        SegmentRange empty = mockSegmentRange(0, 0);
+        SegmentRange first = mockSegmentRange(100, 1100);
+        SegmentRange second = mockSegmentRange(0, 3000);
+        BatchClientFactory batchClientFactory = mockBatchClientFactory(empty, first, second);
+
+        // 4 events of 25 bytes on average
+        SegmentIterator<ByteBuffer> events = mockSegmentIterator(4, 200);
+        doReturn(events).when(batchClientFactory).readSegment(eq(first), any());
+
+        StreamStatistics statistics = StreamStatistics.compute(batchClientFactory, STREAMS, 10);
+        assertEquals(4000, statistics.getTotalSize());
+        assertEquals(3, statistics.getSegmentRangeCount());
+        assertEquals(25, statistics.getAverageEventSize());
+        assertEquals(160, statistics.getEstimatedEventCount());
+        verify(events).close();
+    }
+
+    @Test
+    public void testComputeStatisticsWithoutSampling() {
+        SegmentRange range = mockSegmentRange(0, 1000);
+        BatchClientFactory batchClientFactory = mockBatchClientFactory(range);
+
+        StreamStatistics statistics = StreamStatistics.compute(batchClientFactory, STREAMS, 0);
+        assertEquals(1000, statistics.getTotalSize());
+        assertEquals(StreamStatistics.UNKNOWN, statistics.getAverageEventSize());
+        assertEquals(StreamStatistics.UNKNOWN, statistics.getEstimatedEventCount());
+        verify(batchClientFactory, never()).readSegment(any(), any());
+    }
+
+    @Test
+    public void testComputeStatisticsOfEmptyStream() {
+        BatchClientFactory batchClientFactory = mockBatchClientFactory(mockSegmentRange(0, 0));
+
+        StreamStatistics statistics = StreamStatistics.compute(batchClientFactory, STREAMS, 10);
+        assertEquals(0, statistics.getTotalSize());
+        assertEquals(0, statistics.getEstimatedEventCount());
+        verify(batchClientFactory, never()).readSegment(any(), any());
+    }
+
+    private static BatchClientFactory mockBatchClientFactory(SegmentRange... segmentRanges) {
+        BatchClientFactory batchClientFactory = mock(BatchClientFactory.class);
+        StreamSegmentsIterator streamSegments = mock(StreamSegmentsIterator.class);
+        doReturn(Arrays.asList(segmentRanges).iterator()).when(streamSegments).getIterator();
+        doReturn(streamSegments).when(batchClientFactory).getSegments(any(), any(), any());
+        return batchClientFactory;
+    }
+
+    private static SegmentRange mockSegmentRange(long startOffset, long endOffset) {
+        SegmentRange segmentRange = mock(SegmentRange.class);
+        doReturn(startOffset).when(segmentRange).getStartOffset();
+        doReturn(endOffset).when(segmentRange).getEndOffset();
+        return segmentRange;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SegmentIterator<ByteBuffer> mockSegmentIterator(int eventCount, long endOffset) {
+        SegmentIterator<ByteBuffer> iterator = mock(SegmentIterator.class);
+        // true for each event, then false
+        Boolean[] hasNext = new Boolean[eventCount];
+        for (int i = 0; i < eventCount; i++) {
+            hasNext[i] = i < eventCount - 1;
+        }
+        when(iterator.hasNext()).thenReturn(true, hasNext);
+        doReturn(endOffset).when(iterator).getOffset();
+        return iterator;
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink.util;
+
+import io.pravega.client.stream.Transaction;
+import io.pravega.client.stream.TransactionalEventStreamWriter;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TransactionPoolTest {
+
+    @Test
+    public void testTakePooledTransactions() throws Exception {
+        TransactionalEventStreamWriter<Integer> writer = mockWriter();
+        try (TransactionPool<Integer> pool = new TransactionPool<>(writer, 2, 60000, "writer")) {
+            awaitPooled(pool, 2);
+            verify(writer, times(2)).beginTxn();
+
+            Transaction<Integer> first = pool.take();
+            Transaction<Integer> second = pool.take();
+            assertNotSame(first, second);
+
+            // the pool is refilled in the background
+            awaitPooled(pool, 2);
+            verify(writer, times(4)).beginTxn();
+        }
+    }
+
+    @Test
+    public void testAbortIdleTransactions() throws Exception {
+        TransactionalEventStreamWriter<Integer> writer = mockWriter();
+        Transaction<Integer> expired = mockTransaction();
+        Transaction<Integer> fresh = mockTransaction();
+        doReturn(expired).doReturn(fresh).when(writer).beginTxn();
+        try (TransactionPool<Integer> pool = new TransactionPool<>(writer, 1, 1, "writer")) {
+            awaitPooled(pool, 1);
+            Thread.sleep(10);
+
+            // the idle transaction is aborted and the transaction is opened on demand
+            assertSame(fresh, pool.take());
+            verify(expired, timeout(10000)).abort();
+        }
+    }
+
+    @Test
+    public void testCloseAbortsPooledTransactions() throws Exception {
+        TransactionalEventStreamWriter<Integer> writer = mockWriter();
+        Transaction<Integer> pooled = mockTransaction();
+        doReturn(pooled).when(writer).beginTxn();
+        TransactionPool<Integer> pool = new TransactionPool<>(writer, 1, 60000, "writer");
+        awaitPooled(pool, 1);
+
+        pool.close();
+        verify(pooled).abort();
+        assertEquals(0, pool.getPooledTransactions());
+    }
+
+    private static void awaitPooled(TransactionPool<Integer> pool, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (pool.getPooledTransactions() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, pool.getPooledTransactions());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TransactionalEventStreamWriter<Integer> mockWriter() {
+        TransactionalEventStreamWriter<Integer> writer = mock(TransactionalEventStreamWriter.class);
+        when(writer.beginTxn()).thenAnswer(invocation -> mockTransaction());
+        return writer;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Transaction<Integer> mockTransaction() {
+        return mock(Transaction.class);
+    }
+}
@@ -0,0 +1,30 @@
+/**
+ * Copyright Pravega Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.pravega.connectors.flink.utils;
+
+import io.pravega.connectors.flink.serialization.BufferReusingSerializationSchema;
+import org.apache.flink.core.memory.DataOutputView;
+
+import java.io.IOException;
+
+public class BufferReusingIntegerSerializationSchema extends IntegerSerializationSchema
+        implements BufferReusingSerializationSchema<Integer> {
+
+    @Override
+    public void serialize(Integer integer, DataOutputView target) throws IOException {
+        target.writeInt(integer);
+    }
+}